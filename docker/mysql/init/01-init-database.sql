@@ -84,11 +84,13 @@ CREATE TABLE IF NOT EXISTS `candidates` (
     `parsed_at` DATETIME COMMENT 'AI解析时间（对应 Candidate.parsedAt）',
     `vector_id` VARCHAR(100) COMMENT '向量数据库ID',
     `ai_summary` TEXT COMMENT 'AI生成的候选人摘要',
+    `embedding_hash` CHAR(64) COMMENT '嵌入文本指纹（SHA-256），未变化时跳过重新嵌入',
     `created_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
     `updated_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
     INDEX `idx_resume` (`resume_id`),
     INDEX `idx_name` (`name`),
-    INDEX `idx_experience` (`experience_years`)
+    INDEX `idx_experience` (`experience_years`),
+    FULLTEXT INDEX `ft_ai_summary` (`ai_summary`) WITH PARSER ngram
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='候选人表';
 
 -- 5. 职位申请表
@@ -166,6 +166,19 @@ public class RedisKeyConstants {
      */
     public static final String COUNTER_JOB_VIEW_PREFIX = "counter:job:view:";
 
+    /**
+     * 职位推荐候选人物化列表 Key 前缀
+     * <p>
+     * 完整格式：recommend:job:top:{jobId}
+     * <p>
+     * Type：ZSet（有序集合），Member：候选人 ID
+     * <p>
+     * Score：综合匹配分（0-100，语义相似度 + 技能/经验/学历）
+     * <p>
+     * TTL：24小时（到期后下次读取时重建）；只维护已发布职位
+     */
+    public static final String RECOMMEND_JOB_TOP_CANDIDATES_KEY_PREFIX = "recommend:job:top:";
+
     // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
     // 候选人缓存相关
     // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
@@ -220,6 +233,117 @@ public class RedisKeyConstants {
      */
     public static final String CACHE_ANALYTICS_KEY_PREFIX = "cache:analytics:overview:";
 
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+    // 向量检索相关
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+
+    /**
+     * 查询向量缓存 Key 前缀
+     * <p>
+     * 完整格式：cache:embedding:query:{model}:{dimension}:{sha256(归一化查询文本)}
+     * <p>
+     * Value：Base64 编码的 float32 向量（little-endian）
+     * <p>
+     * TTL：24小时
+     */
+    public static final String CACHE_QUERY_EMBEDDING_KEY_PREFIX = "cache:embedding:query:";
+
+    /**
+     * 职位向量缓存 Key 前缀
+     * <p>
+     * 完整格式：cache:embedding:job:{jobId}
+     * <p>
+     * Value：{sha256(模型 + 维度 + 职位文本)}:{Base64 编码的 float32 向量}，职位内容变化后指纹不一致即视为失效
+     * <p>
+     * TTL：7天
+     */
+    public static final String CACHE_JOB_EMBEDDING_KEY_PREFIX = "cache:embedding:job:";
+
+    /**
+     * 候选人向量批量重建检查点 Key
+     * <p>
+     * 类型：Hash（state、lastId、processed、failed、total、startedAt 等）
+     * <p>
+     * 按 candidates.id 游标记录进度，实例重启后从 lastId 之后继续
+     * <p>
+     * TTL：无（任务结束后保留最终状态，下次全量重建时覆盖）
+     */
+    public static final String TASK_VECTOR_REINDEX_KEY = "task:vector:reindex:candidate";
+
+    /**
+     * 候选人向量批量重建失败 ID 集合 Key
+     * <p>
+     * 类型：Set（候选人 ID）。批次重试耗尽的候选人记入此集合，主流程结束后重试一轮，成功的移除
+     * <p>
+     * TTL：无（下次全量重建开始时清空）
+     */
+    public static final String TASK_VECTOR_REINDEX_FAILED_KEY = "task:vector:reindex:candidate:failed";
+
+    /**
+     * 候选人向量批量重建分布式锁 Key（保证全集群同一时刻只有一个重建任务）
+     */
+    public static final String LOCK_VECTOR_REINDEX_KEY = "lock:vector:reindex:candidate";
+
+    /**
+     * 候选人向量批量重建限流器 Key（Redisson RRateLimiter，单位：条文本 / 秒）
+     */
+    public static final String RATE_VECTOR_REINDEX_KEY = "rate:vector:reindex:candidate";
+
+    /**
+     * 候选人向量对账报告 Key 前缀
+     * <p>
+     * 完整格式：task:vector:reconcile:candidate:{incremental|full}
+     * <p>
+     * 类型：Hash（state、scanned、missing、orphaned、stale、repaired、failed、startedAt 等；
+     * 增量对账另存 updated_at 水位线 watermarkTime / watermarkId）
+     * <p>
+     * TTL：无（每次对账覆盖）
+     */
+    public static final String TASK_VECTOR_RECONCILE_KEY_PREFIX = "task:vector:reconcile:candidate:";
+
+    /**
+     * 候选人向量对账分布式锁 Key（保证全集群同一时刻只有一个对账任务）
+     */
+    public static final String LOCK_VECTOR_RECONCILE_KEY = "lock:vector:reconcile:candidate";
+
+    /**
+     * 向量索引维护分布式锁 Key（compaction / 按数据量重建索引，全集群同一时刻只有一个实例执行）
+     */
+    public static final String LOCK_VECTOR_INDEX_MAINTENANCE_KEY = "lock:vector:index:maintenance";
+
+    /**
+     * 候选人向量代数计数器 Key
+     * <p>
+     * Value：单调递增的整数，候选人向量每次写入或删除后递增
+     * <p>
+     * 搜索会话记录创建时的代数，代数变化即视为失效
+     * <p>
+     * TTL：永不过期
+     */
+    public static final String COUNTER_VECTOR_GENERATION_KEY = "counter:vector:generation";
+
+    /**
+     * 语义搜索会话 Key 前缀
+     * <p>
+     * 完整格式：cache:search:session:{searchId}
+     * <p>
+     * Value：JSON 格式的搜索会话（查询、代数、排好序的候选人 ID 与分数）
+     * <p>
+     * TTL：10分钟
+     */
+    public static final String CACHE_SEARCH_SESSION_KEY_PREFIX = "cache:search:session:";
+
+    /**
+     * 相似候选人缓存 Key 前缀
+     * <p>
+     * 完整格式：cache:search:similar:{candidateId}
+     * <p>
+     * Value：JSON 格式（种子的 embedding_hash + 按相似度排序的候选人 ID 与分数），指纹不一致即失效
+     * <p>
+     * TTL：30分钟
+     */
+    public static final String CACHE_SIMILAR_CANDIDATES_KEY_PREFIX = "cache:search:similar:";
+
     // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
     // 角色前缀
     // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
@@ -48,7 +48,16 @@ public enum ResultCode {
     INTERVIEW_NOT_FOUND(43001, "面试记录不存在"),
     INTERVIEW_ALREADY_COMPLETED(43002, "面试已完成，无法修改"),
     INTERVIEW_ALREADY_CANCELLED(43003, "面试已取消"),
-    INTERVIEW_TIME_CONFLICT(43004, "面试时间冲突");
+    INTERVIEW_TIME_CONFLICT(43004, "面试时间冲突"),
+
+    // ========== 向量检索模块错误 44xxx ==========
+    VECTOR_INDEX_REBUILDING(44001, "向量索引正在重建，请稍后再试"),
+    VECTOR_NOT_READY(44002, "向量尚未生成，请稍后再试"),
+    VECTOR_REINDEX_RUNNING(44003, "向量批量重建任务正在执行"),
+    SEARCH_SESSION_EXPIRED(44004, "搜索会话已过期，请重新搜索"),
+    VECTOR_SNAPSHOT_RUNNING(44005, "向量快照导出 / 导入任务正在执行"),
+    VECTOR_SNAPSHOT_NOT_FOUND(44006, "向量快照不存在"),
+    VECTOR_RECONCILE_RUNNING(44007, "向量对账任务正在执行");
     /**
      * 错误码
      */
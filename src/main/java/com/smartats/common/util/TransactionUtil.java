@@ -0,0 +1,32 @@
+package com.smartats.common.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 事务工具类
+ */
+public class TransactionUtil {
+
+    private TransactionUtil() {}
+
+    /**
+     * 事务提交后执行（无事务时立即执行）
+     * <p>
+     * 用于内存索引更新、异步任务派发等副作用：避免其先于数据库可见、读到未提交的数据，或在回滚后仍然生效。
+     *
+     * @param action 提交后执行的动作
+     */
+    public static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.smartats.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
@@ -66,4 +67,47 @@ public class AsyncConfig {
         executor.initialize();
         return executor;
     }
+
+    /**
+     * 检索执行器
+     * 仅用于混合检索的关键词一路等请求路径上的短任务，与 asyncExecutor 上的长任务（快照导入导出、
+     * 索引重建、批量重打分等）隔离，避免检索排在这些任务之后。
+     * 线程数固定、队列很小；队列满时直接拒绝，由调用方降级（不在调用者线程执行）。
+     */
+    @Bean("searchExecutor")
+    public Executor searchExecutor(@Value("${smartats.search.executor.pool-size:16}") int poolSize,
+                                   @Value("${smartats.search.executor.queue-capacity:32}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("search-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * 查询向量执行器
+     * 仅用于 EmbeddingRequestCoalescer 发出的批量 embedding HTTP 请求（含对冲副本）。
+     * 队列满时直接拒绝，由合并器让整批请求失败；不能用 CallerRunsPolicy，
+     * 否则阻塞的 HTTP 调用会落到合并器唯一的定时线程上，卡住后续所有批次的发出。
+     */
+    @Bean("embeddingExecutor")
+    public Executor embeddingExecutor(@Value("${smartats.vector.query-coalescing.executor.pool-size:8}") int poolSize,
+                                      @Value("${smartats.vector.query-coalescing.executor.queue-capacity:64}")
+                                      int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("embedding-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+
+        executor.initialize();
+        return executor;
+    }
 }
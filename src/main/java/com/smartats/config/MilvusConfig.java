@@ -4,6 +4,7 @@ import io.milvus.v2.client.ConnectConfig;
 import io.milvus.v2.client.MilvusClientV2;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -12,9 +13,12 @@ import org.springframework.context.annotation.Configuration;
  * <p>
  * Milvus Standalone 通过 gRPC 连接，默认端口 19530。
  * 使用 MilvusClientV2（SDK v2 API），对应 Milvus Server 2.4.x。
+ * <p>
+ * 仅在 smartats.vector.store=milvus（默认）时生效；嵌入式向量存储不需要 Milvus。
  */
 @Slf4j
 @Configuration
+@ConditionalOnProperty(name = "smartats.vector.store", havingValue = "milvus", matchIfMissing = true)
 public class MilvusConfig {
 
     @Value("${milvus.host:localhost}")
@@ -0,0 +1,38 @@
+package com.smartats.config;
+
+import com.smartats.infrastructure.vector.CircuitBreaker;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 语义搜索依赖熔断配置
+ * <p>
+ * embedding API 与向量存储各用一个熔断器：连续失败后在 open-duration-ms 内直接拒绝调用，
+ * 搜索立即降级为关键词检索，而不是每个请求都等到超时。
+ */
+@Configuration
+public class SearchResilienceConfig {
+
+    /**
+     * embedding API 熔断器（只保护查询向量缓存未命中时的 API 调用，缓存命中不受影响）
+     */
+    @Bean("embeddingCircuitBreaker")
+    public CircuitBreaker embeddingCircuitBreaker(
+            @Value("${smartats.search.circuit-breaker.enabled:true}") boolean enabled,
+            @Value("${smartats.search.circuit-breaker.failure-threshold:5}") int failureThreshold,
+            @Value("${smartats.search.circuit-breaker.open-duration-ms:30000}") long openDurationMs) {
+        return new CircuitBreaker("embedding", enabled, failureThreshold, openDurationMs);
+    }
+
+    /**
+     * 向量存储检索熔断器
+     */
+    @Bean("vectorSearchCircuitBreaker")
+    public CircuitBreaker vectorSearchCircuitBreaker(
+            @Value("${smartats.search.circuit-breaker.enabled:true}") boolean enabled,
+            @Value("${smartats.search.circuit-breaker.failure-threshold:5}") int failureThreshold,
+            @Value("${smartats.search.circuit-breaker.open-duration-ms:30000}") long openDurationMs) {
+        return new CircuitBreaker("vector-search", enabled, failureThreshold, openDurationMs);
+    }
+}
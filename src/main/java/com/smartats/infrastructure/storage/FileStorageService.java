@@ -30,6 +30,14 @@ public interface FileStorageService {
      */
     String uploadFile(InputStream inputStream, String objectName, long size, String contentType);
 
+    /**
+     * 下载文件（调用方负责关闭返回的流）
+     *
+     * @param objectName 对象名
+     * @return 文件流
+     */
+    InputStream downloadFile(String objectName);
+
     /**
      * 删除文件
      *
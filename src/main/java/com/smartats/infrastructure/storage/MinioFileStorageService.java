@@ -67,6 +67,19 @@ public class MinioFileStorageService implements FileStorageService {
         }
     }
 
+    @Override
+    public InputStream downloadFile(String objectName) {
+        try {
+            return minioClient.getObject(GetObjectArgs.builder()
+                    .bucket(bucketName)
+                    .object(objectName)
+                    .build());
+        } catch (Exception e) {
+            log.error("下载文件失败: objectName={}", objectName, e);
+            throw new BusinessException(ResultCode.INTERNAL_ERROR, "文件下载失败");
+        }
+    }
+
     @Override
     public void deleteFile(String objectName) {
         try {
@@ -0,0 +1,192 @@
+package com.smartats.infrastructure.vector;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 候选人向量搜索的标量过滤条件
+ * <p>
+ * 转换为 Milvus 布尔表达式，在 ANN 检索内部执行（pre-filter），
+ * 保证过滤后仍能返回完整的 topK 结果，无需扩大 topK 再在应用层过滤。
+ * <p>
+ * 各条件之间为 AND 关系，未设置的条件不参与过滤。
+ */
+@Data
+public class CandidateVectorFilter {
+
+    /** 学历（命中其一即可），如 ["本科", "硕士"] */
+    private List<String> educations;
+
+    /** 最低工作年限（含） */
+    private Integer minWorkYears;
+
+    /** 最高工作年限（含） */
+    private Integer maxWorkYears;
+
+    /** 当前职位关键字（模糊匹配） */
+    private String currentPosition;
+
+    /** 必须同时具备的技能（大小写不敏感） */
+    private List<String> skills;
+
+    /**
+     * 技能的等价写法（键为 {@link #skills} 中的原始写法），如 "K8s" → ["kubernetes", "k8s"]
+     * <p>
+     * 由调用方按技能词典展开，命中任一写法即视为具备该技能；未展开的技能只按自身匹配。
+     */
+    private Map<String, Set<String>> skillVariants;
+
+    /**
+     * 是否没有任何过滤条件
+     */
+    public boolean isEmpty() {
+        return (educations == null || educations.isEmpty())
+                && minWorkYears == null
+                && maxWorkYears == null
+                && (currentPosition == null || currentPosition.isBlank())
+                && (skills == null || skills.isEmpty());
+    }
+
+    /**
+     * 转换为 Milvus 过滤表达式
+     * <p>
+     * 工作年限未知的候选人在 Milvus 中存储为 -1，设置了年限条件时会被排除
+     * （与 MySQL 中 NULL 不满足范围条件的语义一致）。
+     *
+     * @return 表达式字符串；无过滤条件时返回空字符串
+     */
+    public String toExpression() {
+        List<String> clauses = new ArrayList<>();
+
+        if (educations != null && !educations.isEmpty()) {
+            clauses.add("education in " + toStringArray(educations, false));
+        }
+        if (minWorkYears != null) {
+            clauses.add("work_years >= " + minWorkYears);
+        }
+        if (maxWorkYears != null) {
+            clauses.add("work_years >= 0 and work_years <= " + maxWorkYears);
+        }
+        if (currentPosition != null && !currentPosition.isBlank()) {
+            String keyword = currentPosition.trim().replace("%", "");
+            clauses.add("current_position like \"%" + escape(keyword) + "%\"");
+        }
+        List<String> exact = new ArrayList<>();
+        List<String> anyOf = new ArrayList<>();
+        for (Set<String> group : skillGroups()) {
+            if (group.size() == 1) {
+                exact.addAll(group);
+            } else {
+                anyOf.add("array_contains_any(skills, " + toStringArray(List.copyOf(group), true) + ")");
+            }
+        }
+        if (!exact.isEmpty()) {
+            clauses.add("array_contains_all(skills, " + toStringArray(exact, true) + ")");
+        }
+        clauses.addAll(anyOf);
+
+        return clauses.stream()
+                .map(c -> "(" + c + ")")
+                .collect(Collectors.joining(" and "));
+    }
+
+    /**
+     * 在应用内判断候选人是否满足过滤条件（嵌入式向量存储使用）
+     * <p>
+     * 语义与 {@link #toExpression()} 保持一致：职位关键字区分大小写，工作年限未知（-1）时不满足年限条件，
+     * 每个技能命中其任一等价写法即可。
+     *
+     * @param education       学历
+     * @param workYears       工作年限（未知为 -1）
+     * @param currentPosition 当前职位
+     * @param skills          已标准化的技能集合
+     */
+    public boolean matches(String education, int workYears, String currentPosition, Collection<String> skills) {
+        if (educations != null && !educations.isEmpty()) {
+            boolean hit = education != null && educations.stream()
+                    .anyMatch(e -> e != null && !e.isBlank() && e.trim().equals(education));
+            if (!hit) {
+                return false;
+            }
+        }
+        if (minWorkYears != null && workYears < minWorkYears) {
+            return false;
+        }
+        if (maxWorkYears != null && (workYears < 0 || workYears > maxWorkYears)) {
+            return false;
+        }
+        if (this.currentPosition != null && !this.currentPosition.isBlank()) {
+            String keyword = this.currentPosition.trim().replace("%", "");
+            if (currentPosition == null || !currentPosition.contains(keyword)) {
+                return false;
+            }
+        }
+        for (Set<String> group : skillGroups()) {
+            if (skills == null || group.stream().noneMatch(skills::contains)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 技能条件分组：组间为 AND，组内为该技能的等价写法（已标准化），命中其一即可
+     * <p>
+     * 向量检索、嵌入式存储与关键词检索共用此分组，保证三路技能语义一致。
+     */
+    public List<Set<String>> skillGroups() {
+        if (skills == null || skills.isEmpty()) {
+            return List.of();
+        }
+        List<Set<String>> groups = new ArrayList<>();
+        for (String skill : skills) {
+            if (skill == null || skill.isBlank()) {
+                continue;
+            }
+            Set<String> group = new LinkedHashSet<>();
+            group.add(normalizeSkill(skill));
+            Set<String> variants = skillVariants == null ? null : skillVariants.get(skill);
+            if (variants != null) {
+                variants.stream()
+                        .filter(v -> v != null && !v.isBlank())
+                        .map(CandidateVectorFilter::normalizeSkill)
+                        .forEach(group::add);
+            }
+            if (!groups.contains(group)) {
+                groups.add(group);
+            }
+        }
+        return groups;
+    }
+
+    /**
+     * 技能标准化：去首尾空白、转小写（写入与查询使用同一规则）
+     */
+    public static String normalizeSkill(String skill) {
+        return skill.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String toStringArray(List<String> values, boolean skill) {
+        return values.stream()
+                .filter(v -> v != null && !v.isBlank())
+                .map(v -> skill ? normalizeSkill(v) : v.trim())
+                .map(v -> "\"" + escape(v) + "\"")
+                .distinct()
+                .collect(Collectors.joining(", ", "[", "]"));
+    }
+
+    /**
+     * 转义字符串字面量，防止表达式注入
+     */
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+}
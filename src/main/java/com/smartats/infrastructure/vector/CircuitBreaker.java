@@ -0,0 +1,155 @@
+package com.smartats.infrastructure.vector;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * 轻量熔断器（保护 embedding API、向量存储等外部依赖）
+ * <p>
+ * 状态机：
+ * <ul>
+ *   <li>CLOSED：正常放行，连续失败达到 failureThreshold 次后进入 OPEN</li>
+ *   <li>OPEN：直接拒绝（调用方立即走降级路径，不再排队等待超时），openDurationMs 后进入 HALF_OPEN</li>
+ *   <li>HALF_OPEN：只放行一个探测请求，成功则 CLOSED，失败则重新 OPEN</li>
+ * </ul>
+ * 用法：{@link #call(Supplier)}，或 {@link #tryAcquire()} 返回 true 后执行调用，
+ * 并以 {@link #onSuccess()} / {@link #onFailure()} 上报结果。
+ */
+@Slf4j
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String name;
+    private final boolean enabled;
+    private final int failureThreshold;
+    private final long openDurationMs;
+    private final LongSupplier clock;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean probeInFlight;
+    private long rejected;
+
+    public CircuitBreaker(String name, boolean enabled, int failureThreshold, long openDurationMs) {
+        this(name, enabled, failureThreshold, openDurationMs, System::currentTimeMillis);
+    }
+
+    CircuitBreaker(String name, boolean enabled, int failureThreshold, long openDurationMs, LongSupplier clock) {
+        if (failureThreshold < 1 || openDurationMs < 1) {
+            throw new IllegalArgumentException("熔断参数非法: failureThreshold=" + failureThreshold
+                    + ", openDurationMs=" + openDurationMs);
+        }
+        this.name = name;
+        this.enabled = enabled;
+        this.failureThreshold = failureThreshold;
+        this.openDurationMs = openDurationMs;
+        this.clock = clock;
+    }
+
+    /**
+     * 在熔断保护下执行调用
+     *
+     * @throws OpenException 熔断中（未发起调用）
+     */
+    public <T> T call(Supplier<T> supplier) {
+        if (!tryAcquire()) {
+            throw new OpenException(name);
+        }
+        try {
+            T result = supplier.get();
+            onSuccess();
+            return result;
+        } catch (RuntimeException e) {
+            onFailure();
+            throw e;
+        }
+    }
+
+    /**
+     * 申请调用许可
+     *
+     * @return false 表示熔断中，调用方应立即降级
+     */
+    public synchronized boolean tryAcquire() {
+        if (!enabled) {
+            return true;
+        }
+        if (state == State.OPEN && clock.getAsLong() - openedAt >= openDurationMs) {
+            state = State.HALF_OPEN;
+            probeInFlight = false;
+        }
+        if (state == State.CLOSED) {
+            return true;
+        }
+        if (state == State.HALF_OPEN && !probeInFlight) {
+            probeInFlight = true;
+            log.info("熔断器 [{}] 半开，放行探测请求", name);
+            return true;
+        }
+        rejected++;
+        return false;
+    }
+
+    /**
+     * 上报调用成功
+     */
+    public synchronized void onSuccess() {
+        if (state != State.CLOSED) {
+            log.info("熔断器 [{}] 探测成功，恢复放行", name);
+        }
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        probeInFlight = false;
+    }
+
+    /**
+     * 上报调用失败
+     */
+    public synchronized void onFailure() {
+        if (!enabled) {
+            return;
+        }
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            if (state != State.OPEN) {
+                log.warn("熔断器 [{}] 打开: consecutiveFailures={}, openDurationMs={}",
+                        name, consecutiveFailures, openDurationMs);
+            }
+            state = State.OPEN;
+            openedAt = clock.getAsLong();
+            probeInFlight = false;
+        }
+    }
+
+    /**
+     * 当前状态与统计
+     */
+    public synchronized BreakerStats getStats() {
+        return new BreakerStats(name, state.name(), consecutiveFailures, rejected);
+    }
+
+    /**
+     * 熔断中拒绝调用时抛出
+     */
+    public static class OpenException extends RuntimeException {
+
+        public OpenException(String name) {
+            super("熔断器 [" + name + "] 已打开，暂停调用");
+        }
+    }
+
+    /**
+     * 熔断器统计
+     *
+     * @param name                熔断器名称
+     * @param state               CLOSED / OPEN / HALF_OPEN
+     * @param consecutiveFailures 连续失败次数
+     * @param rejected            熔断期间被拒绝的调用数
+     */
+    public record BreakerStats(String name, String state, int consecutiveFailures, long rejected) {
+    }
+}
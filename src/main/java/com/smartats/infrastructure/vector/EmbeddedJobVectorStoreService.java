@@ -0,0 +1,77 @@
+package com.smartats.infrastructure.vector;
+
+import com.smartats.module.job.entity.Job;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 进程内职位向量存储（smartats.vector.store=embedded）
+ * <p>
+ * 职位规模小（千级），直接对归一化向量做精确点积扫描。
+ * 数据只保存在内存中，重启后由 JobVectorService 的启动回填恢复
+ * （职位向量在 Redis 中有缓存，回填基本不会调用 embedding API）。
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "smartats.vector.store", havingValue = "embedded")
+public class EmbeddedJobVectorStoreService implements JobVectorStoreService {
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    @Override
+    public void upsertVector(Job job, List<Float> embedding) {
+        float[] vector = VectorMath.normalize(VectorMath.toArray(embedding));
+        entries.put(job.getId(), new Entry(job.getId(), job.getTitle(), job.getStatus(), vector));
+        log.debug("嵌入式职位向量 Upsert 成功: jobId={}", job.getId());
+    }
+
+    @Override
+    public Map<Long, List<Float>> getVectors(Collection<Long> jobIds) {
+        Map<Long, List<Float>> vectors = new HashMap<>();
+        for (Long jobId : jobIds) {
+            Entry entry = entries.get(jobId);
+            if (entry != null) {
+                List<Float> vector = new ArrayList<>(entry.vector.length);
+                for (float value : entry.vector) {
+                    vector.add(value);
+                }
+                vectors.put(jobId, vector);
+            }
+        }
+        return vectors;
+    }
+
+    @Override
+    public List<JobSearchResult> search(List<Float> queryEmbedding, int topK, String status) {
+        float[] query = VectorMath.normalize(VectorMath.toArray(queryEmbedding));
+        return entries.values().stream()
+                .filter(entry -> status.equals(entry.status))
+                .map(entry -> {
+                    JobSearchResult result = new JobSearchResult();
+                    result.setJobId(entry.jobId);
+                    result.setTitle(entry.title);
+                    result.setScore(VectorMath.dot(query, entry.vector));
+                    return result;
+                })
+                .sorted(Comparator.comparingDouble(JobSearchResult::getScore).reversed())
+                .limit(topK)
+                .toList();
+    }
+
+    @Override
+    public void deleteVector(Long jobId) {
+        entries.remove(jobId);
+    }
+
+    private record Entry(Long jobId, String title, String status, float[] vector) {
+    }
+}
@@ -0,0 +1,831 @@
+package com.smartats.infrastructure.vector;
+
+import com.smartats.module.candidate.entity.Candidate;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * 进程内向量存储（smartats.vector.store=embedded）
+ * <p>
+ * 面向无 Milvus 的单机部署、本地开发与测试：
+ * <ul>
+ *   <li>向量 L2 归一化后存放在堆外（{@link OffHeapVectorStorage}），余弦相似度退化为点积，走 SIMD 计算</li>
+ *   <li>索引类型 HNSW（默认）或 FLAT（并行精确检索）</li>
+ *   <li>标量过滤在应用内执行；过滤条件选择性高（命中少）时直接对命中集合做精确检索</li>
+ *   <li>删除 / 更新采用墓碑标记，墓碑比例超过阈值时在快照前压缩重建</li>
+ *   <li>定时 + 关闭时写快照（临时文件 + 原子替换，CRC32 校验），启动时加载</li>
+ * </ul>
+ * 读写并发：搜索持有读锁并发执行，写入持有写锁串行执行。槽位只追加、不原地修改，
+ * 压缩与写快照只在读锁下短暂取一份视图，重建图 / 写盘期间不持锁（见 {@link #compactIfNeeded()}）。
+ * 规模参考：100 万条 1024 维向量约占 4GB 堆外内存，需相应调大 -XX:MaxDirectMemorySize。
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "smartats.vector.store", havingValue = "embedded")
+public class EmbeddedVectorStoreService implements VectorStoreService {
+
+    /** 快照文件魔数 "SAVS" */
+    private static final int SNAPSHOT_MAGIC = 0x53415653;
+    private static final int SNAPSHOT_VERSION = 1;
+
+    private static final int UNKNOWN_WORK_YEARS = -1;
+
+    /** 过滤命中比例低于该值时，直接对命中集合精确检索 */
+    private static final double EXACT_SEARCH_SELECTIVITY = 0.05;
+
+    /** 带过滤的 HNSW 搜索 ef 上限 */
+    private static final int MAX_FILTERED_EF = 4096;
+
+    /** 并行精确检索时每个分片的最少向量数 */
+    private static final int EXACT_PARTITION_MIN_SIZE = 8192;
+
+    /** HNSW 随机层级种子（固定以便复现） */
+    private static final long HNSW_SEED = 42L;
+
+    /** 压缩时追赶重建期间新增槽位的最多轮数 */
+    private static final int COMPACT_CATCH_UP_ROUNDS = 3;
+
+    /** 新增槽位不超过该数量时停止追赶，直接在写锁下补齐 */
+    private static final int COMPACT_FINAL_REPLAY_SLOTS = 1024;
+
+    private final int dimension;
+    private final Path snapshotPath;
+    private final String indexType;
+    private final int hnswM;
+    private final int hnswEfConstruction;
+    private final int hnswEf;
+    private final double compactThreshold;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private OffHeapVectorStorage storage;
+    /** FLAT 模式下为 null */
+    private HnswIndex index;
+    private List<SlotMeta> slots = new ArrayList<>();
+    private Map<Long, Integer> slotByCandidate = new HashMap<>();
+    private BitSet tombstones = new BitSet();
+
+    /** 写入计数，用于判断快照是否需要刷新 */
+    private long modCount;
+    private long savedModCount;
+
+    public EmbeddedVectorStoreService(
+            @Value("${smartats.vector.embedded.snapshot-path:./data/vector/candidates.snapshot}") String snapshotPath,
+            @Value("${smartats.vector.embedded.index-type:HNSW}") String indexType,
+            @Value("${smartats.vector.embedded.hnsw-m:16}") int hnswM,
+            @Value("${smartats.vector.embedded.hnsw-ef-construction:200}") int hnswEfConstruction,
+            @Value("${smartats.vector.embedded.hnsw-ef:64}") int hnswEf,
+            @Value("${smartats.vector.embedded.compact-threshold:0.2}") double compactThreshold) {
+        this(EmbeddingService.EMBEDDING_DIMENSION, snapshotPath, indexType,
+                hnswM, hnswEfConstruction, hnswEf, compactThreshold);
+    }
+
+    EmbeddedVectorStoreService(int dimension, String snapshotPath, String indexType,
+                               int hnswM, int hnswEfConstruction, int hnswEf, double compactThreshold) {
+        String type = indexType == null ? "" : indexType.trim().toUpperCase(Locale.ROOT);
+        if (!"HNSW".equals(type) && !"FLAT".equals(type)) {
+            throw new IllegalArgumentException("嵌入式向量存储仅支持 HNSW / FLAT 索引: " + indexType);
+        }
+        this.dimension = dimension;
+        this.snapshotPath = snapshotPath == null || snapshotPath.isBlank() ? null : Paths.get(snapshotPath);
+        this.indexType = type;
+        this.hnswM = hnswM;
+        this.hnswEfConstruction = hnswEfConstruction;
+        this.hnswEf = hnswEf;
+        this.compactThreshold = compactThreshold;
+        this.storage = new OffHeapVectorStorage(dimension);
+        this.index = newIndex(storage);
+    }
+
+    /**
+     * 启动时加载快照；快照损坏时改名保留并以空索引启动（可通过重新向量化恢复）
+     */
+    @PostConstruct
+    public void init() {
+        log.info("嵌入式向量存储启动: indexType={}, M={}, efConstruction={}, ef={}, SIMD={}",
+                indexType, hnswM, hnswEfConstruction, hnswEf, VectorMath.isSimdEnabled());
+        if (snapshotPath == null || !Files.exists(snapshotPath)) {
+            return;
+        }
+        try {
+            loadSnapshot();
+        } catch (IOException | RuntimeException e) {
+            Path corrupt = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".corrupt");
+            log.error("向量快照加载失败，以空索引启动，原文件已移至 {}", corrupt, e);
+            try {
+                Files.move(snapshotPath, corrupt, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException moveError) {
+                log.warn("移动损坏的向量快照失败", moveError);
+            }
+            reset();
+        }
+    }
+
+    /**
+     * 关闭时写快照
+     */
+    @PreDestroy
+    public void shutdown() {
+        saveSnapshotIfDirty();
+    }
+
+    /**
+     * 定时写快照（有变更时才写）
+     */
+    @Scheduled(fixedDelayString = "${smartats.vector.embedded.snapshot-interval-ms:300000}",
+            initialDelayString = "${smartats.vector.embedded.snapshot-interval-ms:300000}")
+    public void scheduledSnapshot() {
+        try {
+            saveSnapshotIfDirty();
+        } catch (Exception e) {
+            log.error("定时写向量快照失败", e);
+        }
+    }
+
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+    // VectorStoreService
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+
+    @Override
+    public String upsertVector(Candidate candidate, List<Float> embedding) {
+        float[] vector = toNormalizedArray(embedding);
+        SlotMeta meta = SlotMeta.of(candidate);
+
+        lock.writeLock().lock();
+        try {
+            Integer previous = slotByCandidate.get(meta.candidateId());
+            if (previous != null) {
+                tombstones.set(previous);
+            }
+            int slot = slots.size();
+            storage.set(slot, vector);
+            slots.add(meta);
+            slotByCandidate.put(meta.candidateId(), slot);
+            if (index != null) {
+                index.insert(slot);
+            }
+            modCount++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        log.debug("嵌入式向量 Upsert 成功: candidateId={}", meta.candidateId());
+        return String.valueOf(meta.candidateId());
+    }
+
+    @Override
+    public List<SearchResult> search(List<Float> queryEmbedding, int topK, CandidateVectorFilter filter) {
+        float[] query = toNormalizedArray(queryEmbedding);
+        boolean filtered = filter != null && !filter.isEmpty();
+
+        lock.readLock().lock();
+        try {
+            IntPredicate live = slot -> !tombstones.get(slot);
+            IntPredicate accept = filtered ? live.and(slot -> slots.get(slot).matches(filter)) : live;
+
+            List<HnswIndex.Candidate> hits;
+            if (index == null) {
+                hits = exactSearch(query, topK, accept);
+            } else if (!filtered) {
+                int liveCount = slots.size() - tombstones.cardinality();
+                int ef = Math.max(hnswEf, topK);
+                if (liveCount < slots.size()) {
+                    ef = Math.min(MAX_FILTERED_EF, (int) Math.ceil(ef * (double) slots.size() / Math.max(liveCount, 1)));
+                }
+                hits = index.search(query, topK, ef, accept);
+            } else {
+                hits = filteredSearch(query, topK, accept);
+            }
+
+            List<SearchResult> results = new ArrayList<>(hits.size());
+            for (HnswIndex.Candidate hit : hits) {
+                SlotMeta meta = slots.get(hit.node());
+                SearchResult result = new SearchResult();
+                result.setCandidateId(meta.candidateId());
+                result.setCandidateName(meta.name());
+                result.setScore(hit.similarity());
+                results.add(result);
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 按候选人 ID 获取向量（返回的是归一化后的向量，余弦相似度不受影响）
+     */
+    @Override
+    public Map<Long, List<Float>> getVectors(Collection<Long> candidateIds) {
+        Map<Long, List<Float>> vectors = new HashMap<>();
+        float[] buffer = new float[dimension];
+        lock.readLock().lock();
+        try {
+            for (Long candidateId : candidateIds) {
+                Integer slot = slotByCandidate.get(candidateId);
+                if (slot == null) {
+                    continue;
+                }
+                storage.get(slot, buffer);
+                List<Float> vector = new ArrayList<>(dimension);
+                for (float value : buffer) {
+                    vector.add(value);
+                }
+                vectors.put(candidateId, vector);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return vectors;
+    }
+
+    @Override
+    public Set<Long> existingIds(Collection<Long> candidateIds) {
+        Set<Long> existing = new HashSet<>();
+        lock.readLock().lock();
+        try {
+            for (Long candidateId : candidateIds) {
+                if (slotByCandidate.containsKey(candidateId)) {
+                    existing.add(candidateId);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return existing;
+    }
+
+    @Override
+    public List<Long> listIds(long fromExclusive, long toInclusive, int limit) {
+        lock.readLock().lock();
+        try {
+            return slotByCandidate.keySet().stream()
+                    .filter(id -> id > fromExclusive && id <= toInclusive)
+                    .sorted()
+                    .limit(limit)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void deleteVector(Long candidateId) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotByCandidate.remove(candidateId);
+            if (slot != null) {
+                tombstones.set(slot);
+                modCount++;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.debug("嵌入式向量删除: candidateId={}", candidateId);
+    }
+
+    @Override
+    public boolean isScalarFilterSupported() {
+        return true;
+    }
+
+    /**
+     * 有效（未删除）向量数
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotByCandidate.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 墓碑数
+     */
+    int tombstoneCount() {
+        lock.readLock().lock();
+        try {
+            return tombstones.cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+    // 检索
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+
+    /**
+     * 带过滤的 HNSW 检索：命中比例低时直接精确检索；否则按命中比例放大 ef，
+     * 结果不足 topK 时回退精确检索，保证与 Milvus pre-filter 一致返回完整结果
+     */
+    private List<HnswIndex.Candidate> filteredSearch(float[] query, int topK, IntPredicate accept) {
+        int total = slots.size();
+        int matched = 0;
+        for (int slot = 0; slot < total; slot++) {
+            if (accept.test(slot)) {
+                matched++;
+            }
+        }
+        if (matched == 0) {
+            return List.of();
+        }
+        double selectivity = (double) matched / total;
+        if (selectivity < EXACT_SEARCH_SELECTIVITY) {
+            return exactSearch(query, topK, accept);
+        }
+        int ef = Math.min(MAX_FILTERED_EF, (int) Math.ceil(Math.max(hnswEf, topK) / selectivity));
+        List<HnswIndex.Candidate> hits = index.search(query, topK, ef, accept);
+        if (hits.size() < Math.min(topK, matched)) {
+            return exactSearch(query, topK, accept);
+        }
+        return hits;
+    }
+
+    /**
+     * 并行精确检索：按槽位分片，各分片维护 topK 小顶堆后合并
+     */
+    private List<HnswIndex.Candidate> exactSearch(float[] query, int topK, IntPredicate accept) {
+        int total = slots.size();
+        if (total == 0 || topK <= 0) {
+            return List.of();
+        }
+        int partitions = Math.max(1, Math.min(ForkJoinPool.getCommonPoolParallelism(), total / EXACT_PARTITION_MIN_SIZE));
+        int partitionSize = (total + partitions - 1) / partitions;
+
+        IntStream partitionStream = IntStream.range(0, partitions);
+        if (partitions > 1) {
+            partitionStream = partitionStream.parallel();
+        }
+        return partitionStream
+                .mapToObj(p -> {
+                    int from = p * partitionSize;
+                    int to = Math.min(total, from + partitionSize);
+                    float[] buffer = new float[dimension];
+                    PriorityQueue<HnswIndex.Candidate> heap =
+                            new PriorityQueue<>(HnswIndex.Candidate.BY_SIMILARITY_DESC.reversed());
+                    for (int slot = from; slot < to; slot++) {
+                        if (!accept.test(slot)) {
+                            continue;
+                        }
+                        storage.get(slot, buffer);
+                        float sim = VectorMath.dot(query, buffer);
+                        if (heap.size() < topK) {
+                            heap.add(new HnswIndex.Candidate(slot, sim));
+                        } else if (sim > heap.peek().similarity()) {
+                            heap.poll();
+                            heap.add(new HnswIndex.Candidate(slot, sim));
+                        }
+                    }
+                    return heap;
+                })
+                .flatMap(PriorityQueue::stream)
+                .sorted(HnswIndex.Candidate.BY_SIMILARITY_DESC)
+                .limit(topK)
+                .toList();
+    }
+
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+    // 压缩与快照
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+
+    /**
+     * 有变更时写快照，墓碑比例超过阈值时先压缩
+     */
+    public synchronized void saveSnapshotIfDirty() {
+        if (snapshotPath == null) {
+            return;
+        }
+        long current;
+        lock.readLock().lock();
+        try {
+            current = modCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (current == savedModCount) {
+            return;
+        }
+        compactIfNeeded();
+        try {
+            saveSnapshot();
+        } catch (IOException e) {
+            log.error("写向量快照失败: path={}", snapshotPath, e);
+        }
+    }
+
+    /**
+     * 墓碑比例超过阈值时重建存储与索引
+     * <p>
+     * 重建不持锁：先在读锁下取视图（已写入的槽位不会再变），释放锁后把视图中的有效槽位写入新存储并建图；
+     * 重建期间新增的槽位分轮追赶，剩余不多时在写锁下补齐尾部、同步期间新增的墓碑并替换。
+     * 搜索与写入只在取视图和最终替换时短暂等待。
+     */
+    void compactIfNeeded() {
+        View view;
+        lock.readLock().lock();
+        try {
+            int total = slots.size();
+            int dead = tombstones.cardinality();
+            if (total == 0 || (double) dead / total <= compactThreshold) {
+                return;
+            }
+            view = takeView(0, false);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        long start = System.currentTimeMillis();
+        Compaction compaction = new Compaction(view.size() - view.tombstones().cardinality());
+        compaction.copy(view.vectors(), view.slots(), view.tombstones(), 0);
+        int copiedTo = view.size();
+        for (int round = 0; round < COMPACT_CATCH_UP_ROUNDS; round++) {
+            lock.readLock().lock();
+            try {
+                if (storage != view.source() || slots.size() - copiedTo <= COMPACT_FINAL_REPLAY_SLOTS) {
+                    break;
+                }
+                view = takeView(copiedTo, false);
+            } finally {
+                lock.readLock().unlock();
+            }
+            compaction.copy(view.vectors(), view.slots(), view.tombstones(), copiedTo);
+            copiedTo = view.size();
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (storage != view.source()) {
+                log.info("压缩期间向量存储已被重新加载，放弃本次压缩");
+                return;
+            }
+            int before = slots.size();
+            int dead = tombstones.cardinality();
+            compaction.copy(storage, slots.subList(copiedTo, before), tombstones, copiedTo);
+            apply(compaction.finish(tombstones, slotByCandidate));
+            modCount++;
+            log.info("向量存储压缩完成: before={}, after={}, tombstones={}, replayed={}, costMs={}",
+                    before, slots.size(), dead, before - copiedTo, System.currentTimeMillis() - start);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 取当前状态的只读视图（调用方需持有读锁或写锁）
+     *
+     * @param from      视图中元数据的起始槽位（之前的槽位调用方已处理）
+     * @param withGraph 是否复制 HNSW 图（写快照用）
+     */
+    private View takeView(int from, boolean withGraph) {
+        return new View(storage, storage.view(), List.copyOf(slots.subList(from, slots.size())),
+                (BitSet) tombstones.clone(), slots.size(), modCount,
+                withGraph && index != null ? index.copy() : null);
+    }
+
+    private void apply(Compacted compacted) {
+        this.storage = compacted.storage;
+        this.index = compacted.index;
+        this.slots = compacted.slots;
+        this.slotByCandidate = compacted.slotByCandidate;
+        this.tombstones = compacted.tombstones;
+    }
+
+    private void reset() {
+        lock.writeLock().lock();
+        try {
+            OffHeapVectorStorage empty = new OffHeapVectorStorage(dimension);
+            apply(new Compacted(empty, newIndex(empty), new ArrayList<>(), new HashMap<>(), new BitSet()));
+            modCount = 0;
+            savedModCount = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 写快照：先写临时文件再原子替换，避免进程中断留下半个文件
+     * <p>
+     * 格式：header(magic, version, dimension, indexType, M, efConstruction, slotCount)
+     * + slots(candidateId, deleted, 标量字段, vector) + [HNSW 图] + CRC32
+     */
+    void saveSnapshot() throws IOException {
+        Path parent = snapshotPath.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+
+        View view;
+        lock.readLock().lock();
+        try {
+            view = takeView(0, true);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        // 写盘不持锁：视图内的槽位、墓碑副本与图副本不受之后的写入影响
+        int slotCount = view.size();
+        try (OutputStream file = new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16)) {
+            CRC32 crc = new CRC32();
+            DataOutputStream out = new DataOutputStream(new CheckedOutputStream(file, crc));
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(SNAPSHOT_VERSION);
+            out.writeInt(dimension);
+            out.writeBoolean(view.graph() != null);
+            out.writeInt(hnswM);
+            out.writeInt(hnswEfConstruction);
+            out.writeInt(slotCount);
+
+            float[] vector = new float[dimension];
+            ByteBuffer bytes = ByteBuffer.allocate(dimension * Float.BYTES);
+            for (int slot = 0; slot < slotCount; slot++) {
+                SlotMeta meta = view.slots().get(slot);
+                out.writeLong(meta.candidateId());
+                out.writeBoolean(view.tombstones().get(slot));
+                writeNullable(out, meta.name());
+                writeNullable(out, meta.education());
+                out.writeInt(meta.workYears());
+                writeNullable(out, meta.currentPosition());
+                out.writeShort(meta.skills().size());
+                for (String skill : meta.skills()) {
+                    out.writeUTF(skill);
+                }
+                view.vectors().get(slot, vector);
+                bytes.clear();
+                bytes.asFloatBuffer().put(vector);
+                out.write(bytes.array());
+            }
+            if (view.graph() != null) {
+                view.graph().writeTo(out);
+            }
+            out.flush();
+            new DataOutputStream(file).writeLong(crc.getValue());
+        }
+
+        Files.move(temp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        savedModCount = view.modCount();
+        log.info("向量快照已写入: path={}, slots={}", snapshotPath, slotCount);
+    }
+
+    /**
+     * 加载快照；快照中的索引参数与当前配置不一致时，按当前配置重建图
+     *
+     * @throws IOException 文件损坏或与当前维度不匹配
+     */
+    void loadSnapshot() throws IOException {
+        long start = System.currentTimeMillis();
+        OffHeapVectorStorage newStorage = new OffHeapVectorStorage(dimension);
+        List<SlotMeta> newSlots = new ArrayList<>();
+        Map<Long, Integer> newSlotByCandidate = new HashMap<>();
+        BitSet newTombstones = new BitSet();
+        HnswIndex newIndex;
+
+        try (InputStream file = new BufferedInputStream(Files.newInputStream(snapshotPath), 1 << 16)) {
+            CRC32 crc = new CRC32();
+            DataInputStream in = new DataInputStream(new CheckedInputStream(file, crc));
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                throw new IOException("不是向量快照文件");
+            }
+            int version = in.readInt();
+            if (version != SNAPSHOT_VERSION) {
+                throw new IOException("不支持的快照版本: " + version);
+            }
+            int snapshotDimension = in.readInt();
+            if (snapshotDimension != dimension) {
+                throw new IOException("快照维度不一致: " + snapshotDimension + " vs " + dimension);
+            }
+            boolean hasGraph = in.readBoolean();
+            int snapshotM = in.readInt();
+            int snapshotEfConstruction = in.readInt();
+            int slotCount = in.readInt();
+
+            float[] vector = new float[dimension];
+            byte[] bytes = new byte[dimension * Float.BYTES];
+            for (int slot = 0; slot < slotCount; slot++) {
+                long candidateId = in.readLong();
+                boolean deleted = in.readBoolean();
+                String name = readNullable(in);
+                String education = readNullable(in);
+                int workYears = in.readInt();
+                String position = readNullable(in);
+                int skillCount = in.readUnsignedShort();
+                List<String> skills = new ArrayList<>(skillCount);
+                for (int i = 0; i < skillCount; i++) {
+                    skills.add(in.readUTF());
+                }
+                in.readFully(bytes);
+                ByteBuffer.wrap(bytes).asFloatBuffer().get(vector);
+                newStorage.set(slot, vector);
+                newSlots.add(new SlotMeta(candidateId, name, education, workYears, position, List.copyOf(skills)));
+                if (deleted) {
+                    newTombstones.set(slot);
+                } else {
+                    newSlotByCandidate.put(candidateId, slot);
+                }
+            }
+
+            HnswIndex savedIndex = null;
+            if (hasGraph) {
+                savedIndex = new HnswIndex(newStorage, snapshotM, snapshotEfConstruction, HNSW_SEED);
+                savedIndex.readFrom(in);
+                if (savedIndex.size() != slotCount) {
+                    throw new IOException("HNSW 节点数与向量数不一致");
+                }
+            }
+
+            long expected = crc.getValue();
+            long actual = new DataInputStream(file).readLong();
+            if (expected != actual) {
+                throw new IOException("快照 CRC 校验失败");
+            }
+
+            boolean reuseGraph = savedIndex != null && "HNSW".equals(indexType)
+                    && snapshotM == hnswM && snapshotEfConstruction == hnswEfConstruction;
+            if (reuseGraph) {
+                newIndex = savedIndex;
+            } else {
+                newIndex = newIndex(newStorage);
+                if (newIndex != null) {
+                    log.info("快照索引参数与配置不一致，按当前配置重建 HNSW 图: slots={}", slotCount);
+                    for (int slot = 0; slot < slotCount; slot++) {
+                        newIndex.insert(slot);
+                    }
+                }
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            apply(new Compacted(newStorage, newIndex, newSlots, newSlotByCandidate, newTombstones));
+            modCount = 0;
+            savedModCount = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("向量快照加载完成: path={}, vectors={}, tombstones={}, costMs={}",
+                snapshotPath, newSlotByCandidate.size(), newTombstones.cardinality(),
+                System.currentTimeMillis() - start);
+    }
+
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+    // 工具方法
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+
+    private HnswIndex newIndex(OffHeapVectorStorage target) {
+        return "HNSW".equals(indexType) ? new HnswIndex(target, hnswM, hnswEfConstruction, HNSW_SEED) : null;
+    }
+
+    private float[] toNormalizedArray(List<Float> embedding) {
+        if (embedding == null || embedding.size() != dimension) {
+            throw new IllegalArgumentException("向量维度不一致: " + (embedding == null ? 0 : embedding.size())
+                    + " vs " + dimension);
+        }
+        return VectorMath.normalize(VectorMath.toArray(embedding));
+    }
+
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    /**
+     * 槽位元数据（标量过滤字段）
+     */
+    private record SlotMeta(long candidateId, String name, String education, int workYears,
+                            String currentPosition, List<String> skills) {
+
+        static SlotMeta of(Candidate candidate) {
+            List<String> skills = candidate.getSkills() == null ? List.of() : candidate.getSkills().stream()
+                    .filter(skill -> skill != null && !skill.isBlank())
+                    .map(CandidateVectorFilter::normalizeSkill)
+                    .distinct()
+                    .toList();
+            return new SlotMeta(candidate.getId(), candidate.getName(), candidate.getEducation(),
+                    candidate.getWorkYears() != null ? candidate.getWorkYears() : UNKNOWN_WORK_YEARS,
+                    candidate.getCurrentPosition(), skills);
+        }
+
+        boolean matches(CandidateVectorFilter filter) {
+            return filter.matches(education, workYears, currentPosition, skills);
+        }
+    }
+
+    private record Compacted(OffHeapVectorStorage storage, HnswIndex index, List<SlotMeta> slots,
+                             Map<Long, Integer> slotByCandidate, BitSet tombstones) {
+    }
+
+    /**
+     * 某一时刻的只读视图
+     *
+     * @param source     取视图时的存储（用于判断期间是否被重新加载）
+     * @param vectors    共享堆外块的只读存储视图
+     * @param slots      槽位 [from, size) 的元数据副本
+     * @param tombstones 墓碑副本
+     * @param size       取视图时的槽位数
+     * @param modCount   取视图时的写入计数
+     * @param graph      HNSW 图副本（未请求或 FLAT 模式下为 null）
+     */
+    private record View(OffHeapVectorStorage source, OffHeapVectorStorage vectors, List<SlotMeta> slots,
+                        BitSet tombstones, int size, long modCount, HnswIndex graph) {
+    }
+
+    /**
+     * 压缩中的新存储与索引，记录旧槽位到新槽位的映射（-1 表示已丢弃）
+     */
+    private final class Compaction {
+
+        private final OffHeapVectorStorage target = new OffHeapVectorStorage(dimension);
+        private final HnswIndex targetIndex = newIndex(target);
+        private final List<SlotMeta> targetSlots;
+        private final float[] buffer = new float[dimension];
+        private int[] remap = new int[0];
+
+        Compaction(int expectedSize) {
+            this.targetSlots = new ArrayList<>(expectedSize);
+        }
+
+        /**
+         * 复制槽位 [from, from + metas.size()) 中未删除的向量并插入新图
+         */
+        void copy(OffHeapVectorStorage source, List<SlotMeta> metas, BitSet dead, int from) {
+            int to = from + metas.size();
+            if (remap.length < to) {
+                remap = Arrays.copyOf(remap, Math.max(to, remap.length * 2));
+            }
+            for (int slot = from; slot < to; slot++) {
+                if (dead.get(slot)) {
+                    remap[slot] = -1;
+                    continue;
+                }
+                int newSlot = targetSlots.size();
+                source.get(slot, buffer);
+                target.set(newSlot, buffer);
+                targetSlots.add(metas.get(slot - from));
+                if (targetIndex != null) {
+                    targetIndex.insert(newSlot);
+                }
+                remap[slot] = newSlot;
+            }
+        }
+
+        /**
+         * 按当前墓碑与 ID 映射生成替换结果（需在写锁下调用，且所有槽位已复制）
+         */
+        Compacted finish(BitSet currentTombstones, Map<Long, Integer> currentSlotByCandidate) {
+            BitSet newTombstones = new BitSet();
+            for (int slot = currentTombstones.nextSetBit(0); slot >= 0; slot = currentTombstones.nextSetBit(slot + 1)) {
+                if (remap[slot] >= 0) {
+                    newTombstones.set(remap[slot]);
+                }
+            }
+            Map<Long, Integer> newSlotByCandidate = new HashMap<>(currentSlotByCandidate.size() * 4 / 3 + 1);
+            currentSlotByCandidate.forEach((candidateId, slot) -> newSlotByCandidate.put(candidateId, remap[slot]));
+            return new Compacted(target, targetIndex, targetSlots, newSlotByCandidate, newTombstones);
+        }
+    }
+}
@@ -0,0 +1,302 @@
+package com.smartats.infrastructure.vector;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 查询向量请求合并器（位于 {@link QueryEmbeddingCache} 与 embedding API 之间）
+ * <p>
+ * 早高峰多名招聘人员同时搜索时，每次缓存未命中都单独发起一次 embedding HTTP 请求，
+ * 搜索 p99 主要由偶发的慢请求决定。本组件做三件事：
+ * <ul>
+ *   <li>单飞（single-flight）：相同缓存 Key 的并发请求共享同一个在途请求</li>
+ *   <li>微批：窗口期（默认 3ms）内到达的不同查询合并为一次批量请求，满 maxBatch 立即发出</li>
+ *   <li>对冲（可选）：请求超过近期延迟 p95 仍未返回时再发一次相同请求，先返回者生效</li>
+ * </ul>
+ * 对冲会增加约 5% 的 embedding 调用量，默认关闭。
+ * <p>
+ * HTTP 请求在专用的 embeddingExecutor 上执行；执行器拒绝时整批请求直接失败，
+ * 绝不在定时线程（或入队的调用方线程）上同步执行。
+ */
+@Slf4j
+@Component
+public class EmbeddingRequestCoalescer {
+
+    /** 延迟采样窗口大小 */
+    static final int LATENCY_WINDOW = 256;
+    /** 采样数不足时不按 p95 对冲，使用最大延迟 */
+    static final int MIN_LATENCY_SAMPLES = 20;
+
+    private final EmbeddingService embeddingService;
+    private final Executor executor;
+    private final boolean enabled;
+    private final long batchWindowMs;
+    private final int maxBatch;
+    private final boolean hedgeEnabled;
+    private final long hedgeMinDelayMs;
+    private final long hedgeMaxDelayMs;
+
+    private final ConcurrentHashMap<String, CompletableFuture<List<Float>>> inFlight = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService timer;
+
+    private final Object pendingLock = new Object();
+    private List<PendingRequest> pending = new ArrayList<>();
+    private boolean flushScheduled;
+
+    private final long[] latencies = new long[LATENCY_WINDOW];
+    private int latencyCount;
+    private int latencyCursor;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+
+    public EmbeddingRequestCoalescer(EmbeddingService embeddingService,
+                                     @Qualifier("embeddingExecutor") Executor executor,
+                                     @Value("${smartats.vector.query-coalescing.enabled:true}") boolean enabled,
+                                     @Value("${smartats.vector.query-coalescing.batch-window-ms:3}") long batchWindowMs,
+                                     @Value("${smartats.vector.query-coalescing.max-batch:64}") int maxBatch,
+                                     @Value("${smartats.vector.query-coalescing.hedge.enabled:false}")
+                                     boolean hedgeEnabled,
+                                     @Value("${smartats.vector.query-coalescing.hedge.min-delay-ms:50}")
+                                     long hedgeMinDelayMs,
+                                     @Value("${smartats.vector.query-coalescing.hedge.max-delay-ms:1000}")
+                                     long hedgeMaxDelayMs) {
+        if (batchWindowMs < 0 || maxBatch <= 0 || maxBatch > QueryEmbeddingCache.MAX_EMBED_BATCH) {
+            throw new IllegalArgumentException("batchWindowMs 不能为负，maxBatch 需在 1~"
+                    + QueryEmbeddingCache.MAX_EMBED_BATCH + " 之间");
+        }
+        if (hedgeMinDelayMs <= 0 || hedgeMaxDelayMs < hedgeMinDelayMs) {
+            throw new IllegalArgumentException("对冲延迟需满足 0 < minDelay <= maxDelay");
+        }
+        this.embeddingService = embeddingService;
+        this.executor = executor;
+        this.enabled = enabled;
+        this.batchWindowMs = batchWindowMs;
+        this.maxBatch = maxBatch;
+        this.hedgeEnabled = hedgeEnabled;
+        this.hedgeMinDelayMs = hedgeMinDelayMs;
+        this.hedgeMaxDelayMs = hedgeMaxDelayMs;
+        this.timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "embedding-coalescer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdownNow();
+    }
+
+    /**
+     * 生成查询向量（阻塞直到合并后的请求返回）
+     *
+     * @param key   单飞 Key（调用方的缓存 Key，等价查询共享同一个在途请求）
+     * @param query 原始查询文本
+     * @return 1024 维向量（不可变）
+     */
+    public List<Float> embed(String key, String query) {
+        if (!enabled) {
+            return List.copyOf(embeddingService.generateQueryEmbedding(query));
+        }
+        requests.increment();
+
+        CompletableFuture<List<Float>> created = new CompletableFuture<>();
+        CompletableFuture<List<Float>> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            coalesced.increment();
+            return await(existing);
+        }
+        enqueue(new PendingRequest(key, query, created));
+        return await(created);
+    }
+
+    /**
+     * 当前对冲延迟：近期成功请求延迟的 p95，限制在 [minDelay, maxDelay]；采样不足时取 maxDelay
+     */
+    long hedgeDelayMs() {
+        long[] samples;
+        synchronized (latencies) {
+            if (latencyCount < MIN_LATENCY_SAMPLES) {
+                return hedgeMaxDelayMs;
+            }
+            samples = Arrays.copyOf(latencies, latencyCount);
+        }
+        Arrays.sort(samples);
+        long p95 = samples[(int) Math.ceil(samples.length * 0.95) - 1];
+        return Math.max(hedgeMinDelayMs, Math.min(hedgeMaxDelayMs, p95));
+    }
+
+    /**
+     * 合并统计
+     */
+    public CoalescerStats getStats() {
+        return new CoalescerStats(requests.sum(), coalesced.sum(), batches.sum(), hedges.sum(), hedgeWins.sum(),
+                hedgeEnabled ? hedgeDelayMs() : 0L);
+    }
+
+    private void enqueue(PendingRequest request) {
+        List<PendingRequest> ready = null;
+        synchronized (pendingLock) {
+            pending.add(request);
+            if (pending.size() >= maxBatch) {
+                ready = pending;
+                pending = new ArrayList<>();
+            } else if (!flushScheduled) {
+                flushScheduled = true;
+                timer.schedule(this::flushPending, batchWindowMs, TimeUnit.MILLISECONDS);
+            }
+        }
+        if (ready != null) {
+            dispatch(ready);
+        }
+    }
+
+    private void flushPending() {
+        List<PendingRequest> ready;
+        synchronized (pendingLock) {
+            flushScheduled = false;
+            ready = pending;
+            pending = new ArrayList<>();
+        }
+        if (!ready.isEmpty()) {
+            dispatch(ready);
+        }
+    }
+
+    private void dispatch(List<PendingRequest> batch) {
+        batches.increment();
+        BatchCall call = new BatchCall(batch);
+        attempt(call, false);
+        if (hedgeEnabled) {
+            timer.schedule(() -> {
+                if (!call.done.get()) {
+                    hedges.increment();
+                    attempt(call, true);
+                }
+            }, hedgeDelayMs(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void attempt(BatchCall call, boolean hedge) {
+        call.outstanding.incrementAndGet();
+        try {
+            executor.execute(() -> {
+                long start = System.nanoTime();
+                try {
+                    List<List<Float>> embeddings = embeddingService.embedBatch(call.texts());
+                    recordLatency(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                    call.succeed(embeddings, hedge);
+                } catch (Exception e) {
+                    call.fail(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // 执行器已满：本次尝试直接失败（对冲副本被拒绝时原请求仍在途，不影响结果）
+            call.fail(new IllegalStateException("查询向量执行器繁忙，请稍后重试", e));
+        }
+    }
+
+    void recordLatency(long millis) {
+        synchronized (latencies) {
+            latencies[latencyCursor] = millis;
+            latencyCursor = (latencyCursor + 1) % LATENCY_WINDOW;
+            latencyCount = Math.min(latencyCount + 1, LATENCY_WINDOW);
+        }
+    }
+
+    private static List<Float> await(CompletableFuture<List<Float>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("生成查询向量失败", e.getCause());
+        }
+    }
+
+    private record PendingRequest(String key, String query, CompletableFuture<List<Float>> future) {
+    }
+
+    /**
+     * 一次批量请求（含对冲副本）：任一副本成功即完成，全部副本失败才失败；
+     * 完成前先移出在途表，之后到达的相同查询会重新发起请求
+     */
+    private final class BatchCall {
+
+        private final List<PendingRequest> requests;
+        private final AtomicBoolean done = new AtomicBoolean();
+        private final AtomicInteger outstanding = new AtomicInteger();
+
+        BatchCall(List<PendingRequest> requests) {
+            this.requests = requests;
+        }
+
+        List<String> texts() {
+            return requests.stream().map(PendingRequest::query).toList();
+        }
+
+        void succeed(List<List<Float>> embeddings, boolean hedge) {
+            if (embeddings.size() != requests.size()) {
+                fail(new IllegalStateException(
+                        "embedding 返回数量不一致: " + embeddings.size() + " vs " + requests.size()));
+                return;
+            }
+            if (!done.compareAndSet(false, true)) {
+                return;
+            }
+            if (hedge) {
+                hedgeWins.increment();
+            }
+            requests.forEach(request -> inFlight.remove(request.key(), request.future()));
+            for (int i = 0; i < requests.size(); i++) {
+                requests.get(i).future().complete(List.copyOf(embeddings.get(i)));
+            }
+        }
+
+        void fail(Exception e) {
+            if (outstanding.decrementAndGet() > 0 || !done.compareAndSet(false, true)) {
+                return;
+            }
+            log.warn("合并后的 embedding 请求失败: size={}, error={}", requests.size(), e.getMessage());
+            requests.forEach(request -> inFlight.remove(request.key(), request.future()));
+            requests.forEach(request -> request.future().completeExceptionally(e));
+        }
+    }
+
+    /**
+     * 合并统计
+     *
+     * @param requests       进入合并器的请求数
+     * @param coalesced      复用在途请求（单飞命中）的请求数
+     * @param batches        实际发出的批量请求数（不含对冲副本）
+     * @param hedges         发出的对冲副本数
+     * @param hedgeWins      对冲副本先于原请求返回的次数
+     * @param hedgeDelayMs   当前对冲延迟（未开启对冲时为 0）
+     */
+    public record CoalescerStats(long requests, long coalesced, long batches, long hedges, long hedgeWins,
+                                 long hedgeDelayMs) {
+    }
+}
@@ -56,6 +56,41 @@ public class EmbeddingService {
         return embed(query);
     }
 
+    /**
+     * 批量生成嵌入向量（一次 API 调用，用于批量重建等离线场景）
+     * <p>
+     * 调用方负责控制单批数量不超过模型的单次输入上限（embedding-3 为 64 条）。
+     *
+     * @param texts 文本列表
+     * @return 与输入顺序一致的向量列表
+     * @throws IllegalStateException 返回的向量数量与输入不一致
+     */
+    public List<List<Float>> embedBatch(List<String> texts) {
+        if (texts.isEmpty()) {
+            return List.of();
+        }
+        log.debug("批量生成嵌入向量: size={}", texts.size());
+
+        EmbeddingResponse response = embeddingModel.call(
+                new org.springframework.ai.embedding.EmbeddingRequest(
+                        texts,
+                        org.springframework.ai.openai.OpenAiEmbeddingOptions.builder()
+                                .build()
+                )
+        );
+
+        List<org.springframework.ai.embedding.Embedding> results = response.getResults();
+        if (results == null || results.size() != texts.size()) {
+            throw new IllegalStateException("批量嵌入返回数量不一致: expected=" + texts.size()
+                    + ", actual=" + (results == null ? 0 : results.size()));
+        }
+        List<List<Float>> embeddings = new java.util.ArrayList<>(results.size());
+        for (var result : results) {
+            embeddings.add(toList(result.getOutput()));
+        }
+        return embeddings;
+    }
+
     /**
      * 为候选人构建 AI 摘要文本（用于存储到 candidates.ai_summary）
      *
@@ -145,13 +180,17 @@ public class EmbeddingService {
                 )
         );
 
-        float[] embedding = response.getResult().getOutput();
+        List<Float> result = toList(response.getResult().getOutput());
+
+        log.debug("嵌入向量生成完成: dimension={}", result.size());
+        return result;
+    }
+
+    private static List<Float> toList(float[] embedding) {
         List<Float> result = new java.util.ArrayList<>(embedding.length);
         for (float v : embedding) {
             result.add(v);
         }
-
-        log.debug("嵌入向量生成完成: dimension={}", result.size());
         return result;
     }
 
@@ -0,0 +1,63 @@
+package com.smartats.infrastructure.vector;
+
+import com.smartats.module.job.entity.Job;
+import lombok.Data;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 职位向量存储服务接口
+ * <p>
+ * 与 {@link VectorStoreService} 一样按 smartats.vector.store 切换实现：
+ * <ul>
+ *   <li>milvus（默认）：{@link MilvusJobVectorStoreService}，job_vectors Collection</li>
+ *   <li>embedded：{@link EmbeddedJobVectorStoreService}，进程内精确检索（职位规模小，无需 ANN）</li>
+ * </ul>
+ * 所有状态的职位都会存储向量（草稿职位也可以为其推荐候选人），按状态过滤只在职位检索时进行。
+ */
+public interface JobVectorStoreService {
+
+    /**
+     * 插入或更新职位向量（Upsert 语义，同时更新职位状态）
+     *
+     * @param job       职位实体（需包含 ID）
+     * @param embedding 1024 维嵌入向量
+     */
+    void upsertVector(Job job, List<Float> embedding);
+
+    /**
+     * 按职位 ID 批量获取向量
+     *
+     * @return jobId -> 向量；未向量化的职位不在结果中
+     */
+    Map<Long, List<Float>> getVectors(Collection<Long> jobIds);
+
+    /**
+     * 在指定状态的职位中搜索最相似的 topK 个
+     *
+     * @param queryEmbedding 查询向量（通常为候选人向量）
+     * @param topK           返回数量
+     * @param status         职位状态（如 PUBLISHED）
+     */
+    List<JobSearchResult> search(List<Float> queryEmbedding, int topK, String status);
+
+    /**
+     * 删除职位向量
+     */
+    void deleteVector(Long jobId);
+
+    /**
+     * 职位向量搜索结果
+     */
+    @Data
+    class JobSearchResult {
+        /** 职位 ID */
+        private Long jobId;
+        /** 职位名称（冗余字段） */
+        private String title;
+        /** 相似度分数（COSINE） */
+        private float score;
+    }
+}
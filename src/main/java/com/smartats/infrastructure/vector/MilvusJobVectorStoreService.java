@@ -0,0 +1,208 @@
+package com.smartats.infrastructure.vector;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.smartats.module.job.entity.Job;
+import io.milvus.v2.client.MilvusClientV2;
+import io.milvus.v2.common.DataType;
+import io.milvus.v2.common.IndexParam;
+import io.milvus.v2.service.collection.request.AddFieldReq;
+import io.milvus.v2.service.collection.request.CreateCollectionReq;
+import io.milvus.v2.service.collection.request.HasCollectionReq;
+import io.milvus.v2.service.collection.request.LoadCollectionReq;
+import io.milvus.v2.service.vector.request.DeleteReq;
+import io.milvus.v2.service.vector.request.GetReq;
+import io.milvus.v2.service.vector.request.SearchReq;
+import io.milvus.v2.service.vector.request.UpsertReq;
+import io.milvus.v2.service.vector.request.data.FloatVec;
+import io.milvus.v2.service.vector.response.GetResp;
+import io.milvus.v2.service.vector.response.SearchResp;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Milvus 职位向量存储（smartats.vector.store=milvus，默认）
+ * <p>
+ * Collection Schema: job_vectors
+ * - job_id (INT64, PK) — 职位 ID
+ * - embedding (FLOAT_VECTOR, dim=1024) — 职位嵌入向量
+ * - title (VARCHAR, max=200) — 冗余职位名称（用于结果展示）
+ * - status (VARCHAR, max=20) — 职位状态（标量过滤）
+ * <p>
+ * 职位数量通常在千级以内，使用 FLAT（精确检索）索引，无需调参。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "smartats.vector.store", havingValue = "milvus", matchIfMissing = true)
+public class MilvusJobVectorStoreService implements JobVectorStoreService {
+
+    public static final String COLLECTION_NAME = "job_vectors";
+
+    private static final int VECTOR_DIMENSION = EmbeddingService.EMBEDDING_DIMENSION;
+    private static final int TITLE_MAX_LENGTH = 200;
+    private static final int STATUS_MAX_LENGTH = 20;
+
+    private final MilvusClientV2 milvusClient;
+    private final Gson gson = new Gson();
+
+    /**
+     * 初始化 Collection（不存在则创建）并加载到内存
+     */
+    @PostConstruct
+    public void initCollection() {
+        try {
+            boolean exists = milvusClient.hasCollection(HasCollectionReq.builder()
+                    .collectionName(COLLECTION_NAME)
+                    .build());
+            if (!exists) {
+                createCollection();
+                log.info("Milvus Collection 创建成功: {}", COLLECTION_NAME);
+            }
+            milvusClient.loadCollection(LoadCollectionReq.builder()
+                    .collectionName(COLLECTION_NAME)
+                    .build());
+            log.info("Milvus Collection 已加载到内存: {}", COLLECTION_NAME);
+        } catch (Exception e) {
+            log.error("Milvus Collection 初始化失败: {}", COLLECTION_NAME, e);
+            throw new IllegalStateException("Milvus Collection 初始化失败", e);
+        }
+    }
+
+    @Override
+    public void upsertVector(Job job, List<Float> embedding) {
+        JsonObject row = new JsonObject();
+        row.addProperty("job_id", job.getId());
+        row.add("embedding", gson.toJsonTree(embedding));
+        row.addProperty("title", truncate(job.getTitle(), TITLE_MAX_LENGTH));
+        row.addProperty("status", truncate(job.getStatus(), STATUS_MAX_LENGTH));
+
+        milvusClient.upsert(UpsertReq.builder()
+                .collectionName(COLLECTION_NAME)
+                .data(List.of(row))
+                .build());
+        log.info("职位向量 Upsert 成功: jobId={}, status={}", job.getId(), job.getStatus());
+    }
+
+    @Override
+    public Map<Long, List<Float>> getVectors(Collection<Long> jobIds) {
+        if (jobIds == null || jobIds.isEmpty()) {
+            return Map.of();
+        }
+        GetResp resp = milvusClient.get(GetReq.builder()
+                .collectionName(COLLECTION_NAME)
+                .ids(new ArrayList<>(jobIds))
+                .outputFields(List.of("job_id", "embedding"))
+                .build());
+
+        Map<Long, List<Float>> vectors = new HashMap<>();
+        if (resp.getGetResults() != null) {
+            for (var result : resp.getGetResults()) {
+                Map<String, Object> entity = result.getEntity();
+                @SuppressWarnings("unchecked")
+                List<Float> embedding = (List<Float>) entity.get("embedding");
+                vectors.put(((Number) entity.get("job_id")).longValue(), embedding);
+            }
+        }
+        return vectors;
+    }
+
+    @Override
+    public List<JobSearchResult> search(List<Float> queryEmbedding, int topK, String status) {
+        SearchReq request = SearchReq.builder()
+                .collectionName(COLLECTION_NAME)
+                .data(Collections.singletonList(new FloatVec(queryEmbedding)))
+                .topK(topK)
+                .annsField("embedding")
+                .filter("status == \"" + status.replace("\\", "\\\\").replace("\"", "\\\"") + "\"")
+                .outputFields(List.of("job_id", "title"))
+                .build();
+
+        SearchResp searchResp = milvusClient.search(request);
+
+        List<JobSearchResult> results = new ArrayList<>();
+        List<List<SearchResp.SearchResult>> searchResults = searchResp.getSearchResults();
+        if (searchResults != null && !searchResults.isEmpty()) {
+            for (SearchResp.SearchResult hit : searchResults.get(0)) {
+                JobSearchResult result = new JobSearchResult();
+                result.setJobId(((Number) hit.getEntity().get("job_id")).longValue());
+                result.setTitle((String) hit.getEntity().get("title"));
+                result.setScore(hit.getScore());
+                results.add(result);
+            }
+        }
+        log.info("职位向量搜索完成: status={}, resultCount={}", status, results.size());
+        return results;
+    }
+
+    @Override
+    public void deleteVector(Long jobId) {
+        milvusClient.delete(DeleteReq.builder()
+                .collectionName(COLLECTION_NAME)
+                .ids(List.of(jobId))
+                .build());
+        log.info("职位向量删除成功: jobId={}", jobId);
+    }
+
+    private void createCollection() {
+        CreateCollectionReq.CollectionSchema schema = CreateCollectionReq.CollectionSchema.builder()
+                .build();
+
+        schema.addField(AddFieldReq.builder()
+                .fieldName("job_id")
+                .dataType(DataType.Int64)
+                .isPrimaryKey(true)
+                .autoID(false)
+                .build());
+
+        schema.addField(AddFieldReq.builder()
+                .fieldName("embedding")
+                .dataType(DataType.FloatVector)
+                .dimension(VECTOR_DIMENSION)
+                .build());
+
+        schema.addField(AddFieldReq.builder()
+                .fieldName("title")
+                .dataType(DataType.VarChar)
+                .maxLength(TITLE_MAX_LENGTH)
+                .build());
+
+        schema.addField(AddFieldReq.builder()
+                .fieldName("status")
+                .dataType(DataType.VarChar)
+                .maxLength(STATUS_MAX_LENGTH)
+                .build());
+
+        List<IndexParam> indexParams = List.of(
+                IndexParam.builder()
+                        .fieldName("embedding")
+                        .indexType(IndexParam.IndexType.FLAT)
+                        .metricType(IndexParam.MetricType.COSINE)
+                        .build(),
+                IndexParam.builder().fieldName("status").indexType(IndexParam.IndexType.INVERTED).build()
+        );
+
+        milvusClient.createCollection(CreateCollectionReq.builder()
+                .collectionName(COLLECTION_NAME)
+                .collectionSchema(schema)
+                .indexParams(indexParams)
+                .build());
+    }
+
+    private static String truncate(String value, int maxLength) {
+        if (value == null) {
+            return "";
+        }
+        return value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+}
@@ -0,0 +1,1315 @@
+package com.smartats.infrastructure.vector;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.smartats.module.candidate.entity.Candidate;
+import io.milvus.orm.iterator.QueryIterator;
+import io.milvus.response.QueryResultsWrapper;
+import io.milvus.v2.client.MilvusClientV2;
+import io.milvus.v2.common.DataType;
+import io.milvus.v2.common.IndexBuildState;
+import io.milvus.v2.common.IndexParam;
+import io.milvus.v2.service.collection.request.AddFieldReq;
+import io.milvus.v2.service.collection.request.CreateCollectionReq;
+import io.milvus.v2.service.collection.request.DescribeCollectionReq;
+import io.milvus.v2.service.collection.request.DropCollectionReq;
+import io.milvus.v2.service.collection.request.GetCollectionStatsReq;
+import io.milvus.v2.service.collection.request.HasCollectionReq;
+import io.milvus.v2.service.collection.request.LoadCollectionReq;
+import io.milvus.v2.service.collection.request.ReleaseCollectionReq;
+import io.milvus.v2.service.collection.response.DescribeCollectionResp;
+import io.milvus.v2.service.collection.response.GetCollectionStatsResp;
+import io.milvus.v2.service.index.request.DescribeIndexReq;
+import io.milvus.v2.service.index.response.DescribeIndexResp;
+import io.milvus.v2.service.utility.request.AlterAliasReq;
+import io.milvus.v2.service.utility.request.CompactReq;
+import io.milvus.v2.service.utility.request.CreateAliasReq;
+import io.milvus.v2.service.utility.request.DescribeAliasReq;
+import io.milvus.v2.service.utility.request.FlushReq;
+import io.milvus.v2.service.utility.response.CompactResp;
+import io.milvus.v2.service.utility.response.DescribeAliasResp;
+import io.milvus.v2.service.vector.request.DeleteReq;
+import io.milvus.v2.service.vector.request.GetReq;
+import io.milvus.v2.service.vector.request.InsertReq;
+import io.milvus.v2.service.vector.request.QueryIteratorReq;
+import io.milvus.v2.service.vector.request.QueryReq;
+import io.milvus.v2.service.vector.request.SearchReq;
+import io.milvus.v2.service.vector.request.UpsertReq;
+import io.milvus.v2.service.vector.request.data.BaseVector;
+import io.milvus.v2.service.vector.request.data.FloatVec;
+import io.milvus.v2.service.vector.response.GetResp;
+import io.milvus.v2.service.vector.response.InsertResp;
+import io.milvus.v2.service.vector.response.QueryResp;
+import io.milvus.v2.service.vector.response.SearchResp;
+import io.milvus.v2.service.vector.response.UpsertResp;
+import jakarta.annotation.PostConstruct;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * Milvus 向量存储实现（默认，smartats.vector.store=milvus）
+ * <p>
+ * 管理 Milvus Collection 的创建、向量插入、相似度搜索、删除，以及 ANN 索引的在线重建。
+ * <p>
+ * Collection Schema: candidate_vectors
+ * - candidate_id (INT64, PK) — 候选人 ID
+ * - embedding (FLOAT_VECTOR, dim=1024) — 候选人嵌入向量
+ * - candidate_name (VARCHAR, max=200) — 冗余姓名字段（用于结果展示）
+ * - education (VARCHAR, max=20) — 最高学历（标量过滤）
+ * - work_years (INT32) — 工作年限，未知为 -1（标量过滤）
+ * - current_position (VARCHAR, max=200) — 当前职位（标量过滤）
+ * - skills (ARRAY&lt;VARCHAR&gt;, 小写) — 技能标签（标量过滤）
+ * - embedding_coarse (FLOAT_VECTOR, 可选) — Matryoshka 截断后的低维向量（两阶段检索的粗排字段）
+ * <p>
+ * Index: 由 milvus.index.* 配置（IVF_FLAT / IVF_SQ8 / HNSW）；
+ * 标量字段使用 INVERTED / STL_SORT 索引，过滤表达式在 ANN 检索内部执行
+ * Metric: COSINE（余弦相似度，适合文本语义匹配）
+ * <p>
+ * 所有读写都通过别名 {@link #COLLECTION_ALIAS} 访问。重建索引时新建影子 Collection，
+ * 复制数据并双写，索引构建完成后原子切换别名，搜索不中断。
+ * <p>
+ * 两阶段检索（smartats.vector.coarse.enabled=true）：写入时额外保存前 N 维截断并重新归一化的向量，
+ * 搜索先在低维字段上做 ANN 召回 candidates 个，再按主键取回完整 1024 维向量精确计算余弦并截取 topK。
+ * 此时 ANN 索引只建在粗排字段上，完整向量建 FLAT 索引并开启 mmap（见 {@link #vectorIndexParams}），
+ * 常驻内存约为 coarseDim / 1024；代价是重排取回的向量可能需要从磁盘换入。
+ * 已有 Collection 缺少粗排字段时仍走单阶段检索，调用索引重建接口即可迁移。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "smartats.vector.store", havingValue = "milvus", matchIfMissing = true)
+public class MilvusVectorStoreService implements VectorStoreService {
+
+    private final MilvusClientV2 milvusClient;
+    private final Gson gson = new Gson();
+
+    /** 初始 Collection 名称 */
+    public static final String COLLECTION_NAME = "candidate_vectors";
+
+    /** Collection 别名（始终指向当前生效的 Collection） */
+    public static final String COLLECTION_ALIAS = "candidate_vectors_active";
+
+    /** 向量维度（与 embedding-3 输出一致） */
+    private static final int VECTOR_DIMENSION = EmbeddingService.EMBEDDING_DIMENSION;
+
+    /** 标量字段长度限制 */
+    private static final int EDUCATION_MAX_LENGTH = 20;
+    private static final int POSITION_MAX_LENGTH = 200;
+    private static final int SKILL_MAX_LENGTH = 100;
+    private static final int SKILLS_MAX_CAPACITY = 64;
+
+    /** 工作年限未知时的占位值 */
+    private static final int UNKNOWN_WORK_YEARS = -1;
+
+    /** 重建时每批复制的行数 */
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    /** 等待索引构建完成的最长时间 */
+    private static final long INDEX_BUILD_TIMEOUT_MS = 30 * 60 * 1000L;
+
+    /** 粗排向量字段 */
+    private static final String COARSE_FIELD = "embedding_coarse";
+
+    /** 索引参数：开启 mmap，索引数据放在磁盘上由页缓存按需加载（Milvus 2.4+） */
+    private static final String MMAP_ENABLED_KEY = "mmap.enabled";
+
+    /** 两阶段检索时单次按主键取回完整向量的最大 ID 数 */
+    private static final int RESCORE_FETCH_BATCH_SIZE = 1000;
+
+    private static final List<String> ALL_FIELDS = List.of(
+            "candidate_id", "embedding", "candidate_name", "education", "work_years", "current_position", "skills");
+
+    private static final DateTimeFormatter COLLECTION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+
+    @Value("${milvus.index.type:IVF_FLAT}")
+    private String indexType;
+
+    /** IVF 聚类数（推荐 4 * sqrt(N)，默认以 10000 条为基准） */
+    @Value("${milvus.index.nlist:128}")
+    private int nlist;
+
+    @Value("${milvus.index.nprobe:16}")
+    private int nprobe;
+
+    @Value("${milvus.index.hnsw-m:16}")
+    private int hnswM;
+
+    @Value("${milvus.index.hnsw-ef-construction:200}")
+    private int hnswEfConstruction;
+
+    @Value("${milvus.index.hnsw-ef:64}")
+    private int hnswEf;
+
+    /** 是否启用两阶段检索（低维粗排 + 完整向量精排） */
+    @Value("${smartats.vector.coarse.enabled:false}")
+    private boolean coarseEnabled;
+
+    /** 粗排向量维度（Matryoshka 截断） */
+    @Value("${smartats.vector.coarse.dimension:256}")
+    private int coarseDimension;
+
+    /** 粗排召回数（实际取 max(candidates, topK)） */
+    @Value("${smartats.vector.coarse.candidates:300}")
+    private int coarseCandidates;
+
+    /**
+     * 当前 Collection 是否包含标量过滤字段
+     * <p>
+     * 旧版本创建的 Collection 只有 candidate_id / embedding / candidate_name，
+     * 此时仅写入这三个字段，且不支持带过滤条件的搜索（重建索引时会迁移到新 Schema）。
+     */
+    private volatile boolean scalarFieldsEnabled = true;
+
+    /** 当前生效的索引参数（决定搜索参数） */
+    private volatile VectorIndexSettings activeSettings;
+
+    /** 别名当前指向的 Collection */
+    private volatile String activeCollection;
+
+    /** 当前 Collection 粗排字段的维度（0 表示没有粗排字段） */
+    private volatile int activeCoarseDimension;
+
+    /** 重建中的影子 Collection（非 null 时写操作双写） */
+    private volatile String shadowCollection;
+
+    /** 影子 Collection 粗排字段的维度（0 表示没有粗排字段） */
+    private volatile int shadowCoarseDimension;
+
+    /** 重建期间已双写（或删除）的 ID，复制时跳过以免旧数据覆盖新数据 */
+    private final Set<Long> dualWrittenIds = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 重建锁：普通写操作持有读锁（可并发），开启双写、复制批次、切换别名持有写锁，
+     * 保证同一 ID 的写入顺序，且切换前后的写入不会只落到旧 Collection
+     */
+    private final ReentrantReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean(false);
+
+    private volatile RebuildStatus rebuildStatus = RebuildStatus.idle();
+
+    /**
+     * 应用启动时初始化 Collection 和别名（幂等操作）
+     */
+    @PostConstruct
+    public void initCollection() {
+        try {
+            activeSettings = configuredSettings();
+            activeSettings.validate();
+            if (coarseEnabled && (coarseDimension <= 0 || coarseDimension >= VECTOR_DIMENSION || coarseCandidates <= 0)) {
+                throw new IllegalArgumentException("粗排参数非法: dimension=" + coarseDimension
+                        + ", candidates=" + coarseCandidates);
+            }
+
+            String aliased = resolveAlias();
+            if (aliased != null) {
+                activeCollection = aliased;
+                log.info("Milvus 别名已存在: {} -> {}", COLLECTION_ALIAS, aliased);
+            } else {
+                boolean exists = milvusClient.hasCollection(
+                        HasCollectionReq.builder()
+                                .collectionName(COLLECTION_NAME)
+                                .build()
+                );
+                if (exists) {
+                    log.info("Milvus Collection 已存在: {}", COLLECTION_NAME);
+                } else {
+                    createCollection(COLLECTION_NAME, activeSettings, configuredCoarseDimension());
+                    log.info("Milvus Collection 创建成功: {}", COLLECTION_NAME);
+                }
+                milvusClient.createAlias(CreateAliasReq.builder()
+                        .alias(COLLECTION_ALIAS)
+                        .collectionName(COLLECTION_NAME)
+                        .build());
+                activeCollection = COLLECTION_NAME;
+                log.info("Milvus 别名创建成功: {} -> {}", COLLECTION_ALIAS, COLLECTION_NAME);
+            }
+
+            detectSchema(activeCollection);
+            detectIndex(activeCollection);
+            loadCollection(activeCollection);
+
+        } catch (Exception e) {
+            log.error("Milvus Collection 初始化失败: {}", COLLECTION_NAME, e);
+            throw new IllegalStateException("Milvus Collection 初始化失败", e);
+        }
+    }
+
+    /**
+     * 插入或更新候选人向量（Upsert 语义）
+     * <p>
+     * 同时写入学历、工作年限、当前职位、技能等标量字段，供过滤搜索使用。
+     *
+     * @param candidate 候选人实体（需包含 ID）
+     * @param embedding 1024 维嵌入向量
+     * @return Milvus 内部 ID 字符串
+     */
+    @Override
+    public String upsertVector(Candidate candidate, List<Float> embedding) {
+        Long candidateId = candidate.getId();
+        log.info("Upsert 候选人向量: candidateId={}", candidateId);
+
+        UpsertResp resp;
+        rebuildLock.readLock().lock();
+        try {
+            resp = milvusClient.upsert(UpsertReq.builder()
+                    .collectionName(COLLECTION_ALIAS)
+                    .data(List.of(buildRow(candidate, embedding)))
+                    .build());
+
+            String shadow = shadowCollection;
+            if (shadow != null) {
+                dualWrittenIds.add(candidateId);
+                milvusClient.upsert(UpsertReq.builder()
+                        .collectionName(shadow)
+                        .data(List.of(buildRow(candidate, embedding, true, shadowCoarseDimension)))
+                        .build());
+            }
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+
+        log.info("候选人向量 Upsert 成功: candidateId={}, upsertCount={}",
+                candidateId, resp.getUpsertCnt());
+        return String.valueOf(candidateId);
+    }
+
+    /**
+     * 批量 Upsert 候选人向量（单次请求，重建期间同样双写影子 Collection）
+     */
+    @Override
+    public int upsertVectors(List<Candidate> candidates, List<List<Float>> embeddings) {
+        if (candidates.size() != embeddings.size()) {
+            throw new IllegalArgumentException("候选人与向量数量不一致");
+        }
+        if (candidates.isEmpty()) {
+            return 0;
+        }
+
+        List<JsonObject> rows = new ArrayList<>(candidates.size());
+        for (int i = 0; i < candidates.size(); i++) {
+            rows.add(buildRow(candidates.get(i), embeddings.get(i)));
+        }
+
+        UpsertResp resp;
+        rebuildLock.readLock().lock();
+        try {
+            resp = milvusClient.upsert(UpsertReq.builder()
+                    .collectionName(COLLECTION_ALIAS)
+                    .data(rows)
+                    .build());
+
+            String shadow = shadowCollection;
+            if (shadow != null) {
+                List<JsonObject> shadowRows = new ArrayList<>(candidates.size());
+                for (int i = 0; i < candidates.size(); i++) {
+                    dualWrittenIds.add(candidates.get(i).getId());
+                    shadowRows.add(buildRow(candidates.get(i), embeddings.get(i), true, shadowCoarseDimension));
+                }
+                milvusClient.upsert(UpsertReq.builder()
+                        .collectionName(shadow)
+                        .data(shadowRows)
+                        .build());
+            }
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+
+        log.debug("批量 Upsert 候选人向量完成: count={}", resp.getUpsertCnt());
+        return (int) resp.getUpsertCnt();
+    }
+
+    /**
+     * 构建 Milvus 数据行
+     *
+     * @param candidate 候选人实体
+     * @param embedding 嵌入向量
+     * @return 数据行（旧版 Schema 下只包含 candidate_id / embedding / candidate_name）
+     */
+    public JsonObject buildRow(Candidate candidate, List<Float> embedding) {
+        return buildRow(candidate, embedding, scalarFieldsEnabled, activeCoarseDimension);
+    }
+
+    private JsonObject buildRow(Candidate candidate, List<Float> embedding, boolean withScalarFields,
+                                int coarseDim) {
+        JsonObject row = new JsonObject();
+        row.addProperty("candidate_id", candidate.getId());
+        row.add("embedding", gson.toJsonTree(embedding));
+        row.addProperty("candidate_name", truncate(candidate.getName(), 200));
+
+        if (withScalarFields) {
+            row.addProperty("education", truncate(candidate.getEducation(), EDUCATION_MAX_LENGTH));
+            row.addProperty("work_years",
+                    candidate.getWorkYears() != null ? candidate.getWorkYears() : UNKNOWN_WORK_YEARS);
+            row.addProperty("current_position", truncate(candidate.getCurrentPosition(), POSITION_MAX_LENGTH));
+            List<String> skills = candidate.getSkills() == null ? List.of() : candidate.getSkills().stream()
+                    .filter(skill -> skill != null && !skill.isBlank())
+                    .map(skill -> truncate(CandidateVectorFilter.normalizeSkill(skill), SKILL_MAX_LENGTH))
+                    .distinct()
+                    .limit(SKILLS_MAX_CAPACITY)
+                    .toList();
+            row.add("skills", gson.toJsonTree(skills));
+        }
+        return withCoarse(row, coarseDim);
+    }
+
+    /**
+     * 按目标 Collection 的粗排字段维度补齐（或移除）数据行中的粗排向量
+     *
+     * @param row       数据行（需包含 embedding）
+     * @param coarseDim 粗排字段维度，0 表示目标 Collection 没有粗排字段
+     * @return 传入的数据行本身
+     */
+    private JsonObject withCoarse(JsonObject row, int coarseDim) {
+        if (coarseDim <= 0) {
+            row.remove(COARSE_FIELD);
+            return row;
+        }
+        float[] embedding = gson.fromJson(row.get("embedding"), float[].class);
+        row.add(COARSE_FIELD, gson.toJsonTree(VectorMath.truncate(embedding, coarseDim)));
+        return row;
+    }
+
+    /**
+     * 批量插入候选人向量
+     *
+     * @param dataRows 数据行列表（JsonObject），由 {@link #buildRow(Candidate, List)} 构建
+     * @return 插入数量
+     */
+    public int batchInsert(List<JsonObject> dataRows) {
+        if (dataRows == null || dataRows.isEmpty()) {
+            return 0;
+        }
+
+        InsertResp resp;
+        rebuildLock.readLock().lock();
+        try {
+            resp = milvusClient.insert(InsertReq.builder()
+                    .collectionName(COLLECTION_ALIAS)
+                    .data(dataRows)
+                    .build());
+
+            // 旧版 Schema 的数据行缺少标量字段，无法写入影子 Collection，由复制阶段迁移
+            String shadow = shadowCollection;
+            if (shadow != null && scalarFieldsEnabled) {
+                List<JsonObject> shadowRows = new ArrayList<>(dataRows.size());
+                for (JsonObject row : dataRows) {
+                    dualWrittenIds.add(row.get("candidate_id").getAsLong());
+                    shadowRows.add(withCoarse(row.deepCopy(), shadowCoarseDimension));
+                }
+                milvusClient.upsert(UpsertReq.builder()
+                        .collectionName(shadow)
+                        .data(shadowRows)
+                        .build());
+            }
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+
+        log.info("批量插入向量完成: count={}", resp.getInsertCnt());
+        return (int) resp.getInsertCnt();
+    }
+
+    /**
+     * 带标量过滤的相似度搜索
+     * <p>
+     * 过滤表达式在 Milvus 检索内部执行，返回的是满足条件的候选人中最相似的 topK 个。
+     *
+     * @param queryEmbedding 查询向量（1024 维）
+     * @param topK           返回最相似的 K 个结果
+     * @param filter         过滤条件（null 或空表示不过滤）
+     * @return 搜索结果列表（包含 candidateId 和相似度分数）
+     * @throws IllegalStateException 旧版 Collection 不包含标量字段时使用过滤条件
+     */
+    @Override
+    public List<SearchResult> search(List<Float> queryEmbedding, int topK, CandidateVectorFilter filter) {
+        return searchBatch(List.of(queryEmbedding), topK, filter).get(0);
+    }
+
+    /**
+     * 批量相似度搜索：多个查询向量放入同一个 SearchReq 的 data 列表，一次网络往返
+     * <p>
+     * 启用两阶段检索且当前 Collection 有粗排字段时，先在粗排字段上召回 max(candidates, topK) 个，
+     * 再取回完整向量精确重算余弦相似度（分数口径与单阶段一致）。
+     *
+     * @param queryEmbeddings 查询向量列表
+     * @param topK            每个查询返回的结果数
+     * @param filter          过滤条件（null 或空表示不过滤）
+     * @return 与查询向量顺序一致的结果列表
+     */
+    @Override
+    public List<List<SearchResult>> searchBatch(List<List<Float>> queryEmbeddings, int topK,
+                                                CandidateVectorFilter filter) {
+        String expr = filter == null ? "" : filter.toExpression();
+        if (!expr.isEmpty() && !scalarFieldsEnabled) {
+            throw new IllegalStateException("Milvus Collection 缺少标量过滤字段，无法执行过滤搜索");
+        }
+        int coarseDim = coarseEnabled ? activeCoarseDimension : 0;
+        int fetchK = coarseDim > 0 ? Math.max(topK, coarseCandidates) : topK;
+        log.info("执行向量搜索: queries={}, topK={}, coarseDim={}, filter='{}'",
+                queryEmbeddings.size(), topK, coarseDim, expr);
+
+        List<BaseVector> queryVectors = new ArrayList<>(queryEmbeddings.size());
+        for (List<Float> embedding : queryEmbeddings) {
+            queryVectors.add(coarseDim > 0
+                    ? new FloatVec(VectorMath.truncate(VectorMath.toArray(embedding), coarseDim))
+                    : new FloatVec(embedding));
+        }
+
+        SearchReq.SearchReqBuilder<?, ?> builder = SearchReq.builder()
+                .collectionName(COLLECTION_ALIAS)
+                .data(queryVectors)
+                .topK(fetchK)
+                .annsField(coarseDim > 0 ? COARSE_FIELD : "embedding")
+                .searchParams(activeSettings.searchParams(fetchK))
+                .outputFields(List.of("candidate_id", "candidate_name"));
+        if (!expr.isEmpty()) {
+            builder.filter(expr);
+        }
+
+        SearchResp searchResp = milvusClient.search(builder.build());
+        List<List<SearchResp.SearchResult>> searchResults = searchResp.getSearchResults();
+
+        List<List<SearchResult>> batchResults = new ArrayList<>(queryEmbeddings.size());
+        for (int q = 0; q < queryEmbeddings.size(); q++) {
+            List<SearchResult> results = new ArrayList<>();
+            if (searchResults != null && q < searchResults.size()) {
+                for (SearchResp.SearchResult hit : searchResults.get(q)) {
+                    SearchResult result = new SearchResult();
+                    result.setCandidateId(((Number) hit.getEntity().get("candidate_id")).longValue());
+                    result.setCandidateName((String) hit.getEntity().get("candidate_name"));
+                    result.setScore(hit.getScore());
+                    results.add(result);
+                }
+            }
+            batchResults.add(results);
+        }
+        if (coarseDim > 0) {
+            batchResults = rescore(queryEmbeddings, batchResults, topK);
+        }
+
+        log.info("向量搜索完成: queries={}, resultCount={}", queryEmbeddings.size(),
+                batchResults.stream().mapToInt(List::size).sum());
+        return batchResults;
+    }
+
+    /**
+     * 两阶段检索的精排：取回粗排命中的完整向量，按完整向量的余弦相似度重排并截取 topK
+     */
+    private List<List<SearchResult>> rescore(List<List<Float>> queryEmbeddings, List<List<SearchResult>> coarseResults,
+                                             int topK) {
+        List<Long> ids = coarseResults.stream()
+                .flatMap(List::stream)
+                .map(SearchResult::getCandidateId)
+                .distinct()
+                .toList();
+        Map<Long, List<Float>> fullVectors = new HashMap<>();
+        for (int offset = 0; offset < ids.size(); offset += RESCORE_FETCH_BATCH_SIZE) {
+            fullVectors.putAll(getVectors(ids.subList(offset, Math.min(offset + RESCORE_FETCH_BATCH_SIZE, ids.size()))));
+        }
+
+        List<List<SearchResult>> rescored = new ArrayList<>(coarseResults.size());
+        for (int q = 0; q < coarseResults.size(); q++) {
+            rescored.add(rescore(coarseResults.get(q), VectorMath.toArray(queryEmbeddings.get(q)), fullVectors, topK));
+        }
+        return rescored;
+    }
+
+    /**
+     * 以完整向量的余弦相似度重排粗排结果
+     *
+     * @param coarseHits  粗排结果
+     * @param query       完整查询向量
+     * @param fullVectors candidateId -> 完整向量（缺失的视为粗排后已删除，丢弃）
+     * @param topK        返回数量
+     * @return 按精确分数倒序的前 topK 个（分数写回 SearchResult）
+     */
+    static List<SearchResult> rescore(List<SearchResult> coarseHits, float[] query,
+                                      Map<Long, List<Float>> fullVectors, int topK) {
+        List<SearchResult> rescored = new ArrayList<>(coarseHits.size());
+        for (SearchResult hit : coarseHits) {
+            List<Float> full = fullVectors.get(hit.getCandidateId());
+            if (full == null) {
+                continue;
+            }
+            hit.setScore(VectorMath.cosine(query, VectorMath.toArray(full)));
+            rescored.add(hit);
+        }
+        rescored.sort((a, b) -> Float.compare(b.getScore(), a.getScore()));
+        return rescored.size() > topK ? new ArrayList<>(rescored.subList(0, topK)) : rescored;
+    }
+
+    /**
+     * 按主键批量获取候选人向量
+     *
+     * @param candidateIds 候选人 ID 列表
+     * @return candidateId -> 向量；未向量化的候选人不在结果中
+     */
+    @Override
+    public Map<Long, List<Float>> getVectors(Collection<Long> candidateIds) {
+        if (candidateIds == null || candidateIds.isEmpty()) {
+            return Map.of();
+        }
+        GetResp resp = milvusClient.get(GetReq.builder()
+                .collectionName(COLLECTION_ALIAS)
+                .ids(new ArrayList<>(candidateIds))
+                .outputFields(List.of("candidate_id", "embedding"))
+                .build());
+
+        Map<Long, List<Float>> vectors = new HashMap<>();
+        if (resp.getGetResults() != null) {
+            for (var result : resp.getGetResults()) {
+                Map<String, Object> entity = result.getEntity();
+                @SuppressWarnings("unchecked")
+                List<Float> embedding = (List<Float>) entity.get("embedding");
+                vectors.put(((Number) entity.get("candidate_id")).longValue(), embedding);
+            }
+        }
+        log.debug("按主键获取向量: requested={}, found={}", candidateIds.size(), vectors.size());
+        return vectors;
+    }
+
+    /**
+     * 批量判断向量是否存在（只取主键，不传输向量）
+     */
+    @Override
+    public Set<Long> existingIds(Collection<Long> candidateIds) {
+        if (candidateIds == null || candidateIds.isEmpty()) {
+            return Set.of();
+        }
+        GetResp resp = milvusClient.get(GetReq.builder()
+                .collectionName(COLLECTION_ALIAS)
+                .ids(new ArrayList<>(candidateIds))
+                .outputFields(List.of("candidate_id"))
+                .build());
+
+        Set<Long> existing = new HashSet<>();
+        if (resp.getGetResults() != null) {
+            for (var result : resp.getGetResults()) {
+                existing.add(((Number) result.getEntity().get("candidate_id")).longValue());
+            }
+        }
+        return existing;
+    }
+
+    /**
+     * 按主键范围列出候选人 ID（标量过滤查询，只取主键）
+     */
+    @Override
+    public List<Long> listIds(long fromExclusive, long toInclusive, int limit) {
+        QueryResp resp = milvusClient.query(QueryReq.builder()
+                .collectionName(COLLECTION_ALIAS)
+                .filter("candidate_id > " + fromExclusive + " && candidate_id <= " + toInclusive)
+                .outputFields(List.of("candidate_id"))
+                .limit(limit)
+                .build());
+
+        List<Long> ids = new ArrayList<>();
+        if (resp.getQueryResults() != null) {
+            for (QueryResp.QueryResult result : resp.getQueryResults()) {
+                ids.add(((Number) result.getEntity().get("candidate_id")).longValue());
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * 删除候选人向量
+     *
+     * @param candidateId 候选人 ID
+     */
+    @Override
+    public void deleteVector(Long candidateId) {
+        log.info("删除候选人向量: candidateId={}", candidateId);
+
+        rebuildLock.readLock().lock();
+        try {
+            milvusClient.delete(DeleteReq.builder()
+                    .collectionName(COLLECTION_ALIAS)
+                    .ids(List.of(candidateId))
+                    .build());
+
+            String shadow = shadowCollection;
+            if (shadow != null) {
+                dualWrittenIds.add(candidateId);
+                milvusClient.delete(DeleteReq.builder()
+                        .collectionName(shadow)
+                        .ids(List.of(candidateId))
+                        .build());
+            }
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+
+        log.info("候选人向量删除成功: candidateId={}", candidateId);
+    }
+
+    /**
+     * 批量删除候选人向量（单次请求，重建期间同样删除影子 Collection 中的数据）
+     */
+    @Override
+    public void deleteVectors(Collection<Long> candidateIds) {
+        if (candidateIds.isEmpty()) {
+            return;
+        }
+        List<Object> ids = new ArrayList<>(candidateIds);
+
+        rebuildLock.readLock().lock();
+        try {
+            milvusClient.delete(DeleteReq.builder()
+                    .collectionName(COLLECTION_ALIAS)
+                    .ids(ids)
+                    .build());
+
+            String shadow = shadowCollection;
+            if (shadow != null) {
+                dualWrittenIds.addAll(candidateIds);
+                milvusClient.delete(DeleteReq.builder()
+                        .collectionName(shadow)
+                        .ids(ids)
+                        .build());
+            }
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+
+        log.debug("批量删除候选人向量完成: count={}", candidateIds.size());
+    }
+
+    /**
+     * 当前 Collection 是否支持标量过滤
+     */
+    @Override
+    public boolean isScalarFilterSupported() {
+        return scalarFieldsEnabled;
+    }
+
+    /**
+     * 当前生效的索引参数
+     */
+    public VectorIndexSettings getActiveSettings() {
+        return activeSettings.copy();
+    }
+
+    /**
+     * 当前 Collection 粗排字段的维度（0 表示没有粗排字段）
+     */
+    public int getActiveCoarseDimension() {
+        return activeCoarseDimension;
+    }
+
+    /**
+     * 当前是否走两阶段检索（已启用且 Collection 有粗排字段）
+     */
+    public boolean isTwoStageSearchEnabled() {
+        return coarseEnabled && activeCoarseDimension > 0;
+    }
+
+    /**
+     * 最近一次索引重建的状态
+     */
+    public RebuildStatus getRebuildStatus() {
+        return rebuildStatus;
+    }
+
+    /**
+     * Collection 行数统计
+     * <p>
+     * totalRows 来自 Collection 统计信息，包含已删除但尚未 compaction 的行；
+     * liveRows 为 count(*) 查询结果（不含已删除行）。两者之差近似为待回收的删除行数。
+     */
+    public CollectionStats getCollectionStats() {
+        GetCollectionStatsResp stats = milvusClient.getCollectionStats(GetCollectionStatsReq.builder()
+                .collectionName(COLLECTION_ALIAS)
+                .build());
+        QueryResp count = milvusClient.query(QueryReq.builder()
+                .collectionName(COLLECTION_ALIAS)
+                .filter("")
+                .outputFields(List.of("count(*)"))
+                .build());
+
+        long totalRows = stats.getNumOfEntities() != null ? stats.getNumOfEntities() : 0L;
+        long liveRows = count.getQueryResults() == null || count.getQueryResults().isEmpty() ? 0L
+                : ((Number) count.getQueryResults().get(0).getEntity().get("count(*)")).longValue();
+        return new CollectionStats(totalRows, liveRows);
+    }
+
+    /**
+     * 触发当前 Collection 的 compaction（Milvus 后台合并小段并物理清除已删除行）
+     *
+     * @return compaction ID
+     */
+    public long compact() {
+        CompactResp resp = milvusClient.compact(CompactReq.builder()
+                .collectionName(activeCollection)
+                .build());
+        log.info("已触发 Milvus compaction: collection={}, compactionId={}", activeCollection, resp.getCompactionID());
+        return resp.getCompactionID() != null ? resp.getCompactionID() : 0L;
+    }
+
+    /**
+     * 重新读取别名指向的 Collection 及其实际索引参数
+     * <p>
+     * 其他实例完成重建并切换别名后，本实例据此更新 Schema 信息与搜索参数（如新的 nlist）。
+     */
+    public void refreshIndexSettings() {
+        if (rebuilding.get()) {
+            return;
+        }
+        String aliased = resolveAlias();
+        if (aliased != null && !aliased.equals(activeCollection)) {
+            log.info("别名已被切换: {} -> {}", COLLECTION_ALIAS, aliased);
+            activeCollection = aliased;
+            detectSchema(aliased);
+        }
+        detectIndex(activeCollection);
+    }
+
+    /**
+     * 在线重建 ANN 索引（同步执行，耗时与数据量成正比，调用方应放到后台线程）
+     * <p>
+     * 流程：
+     * 1. 按新参数创建影子 Collection（始终使用最新 Schema，可顺带迁移旧版 Schema、增删粗排字段）
+     * 2. 开启双写：此后的 upsert / delete 同时写入影子 Collection
+     * 3. 通过 QueryIterator 分批复制旧 Collection 数据（跳过已双写的 ID）
+     * 4. flush 并等待索引构建完成，加载影子 Collection
+     * 5. 原子切换别名，删除旧 Collection
+     * <p>
+     * 注意：双写只在发起重建的实例内生效，多实例部署时建议在写入低峰期执行。
+     *
+     * @param settings 新的索引参数
+     * @throws IllegalStateException    已有重建任务在执行
+     * @throws IllegalArgumentException 索引参数非法
+     */
+    public void rebuildIndex(VectorIndexSettings settings) {
+        settings.validate();
+        if (!rebuilding.compareAndSet(false, true)) {
+            throw new IllegalStateException("已有索引重建任务正在执行");
+        }
+
+        String source = activeCollection;
+        String target = COLLECTION_NAME + "_" + LocalDateTime.now().format(COLLECTION_SUFFIX);
+        RebuildStatus status = RebuildStatus.running(source, target, settings);
+        rebuildStatus = status;
+        log.info("开始重建向量索引: {} -> {}, settings={}", source, target, settings);
+
+        try {
+            int targetCoarseDim = configuredCoarseDimension();
+            createCollection(target, settings, targetCoarseDim);
+            withWriteLock(() -> {
+                dualWrittenIds.clear();
+                shadowCoarseDimension = targetCoarseDim;
+                shadowCollection = target;
+            });
+
+            copyRows(source, target, targetCoarseDim, status);
+
+            milvusClient.flush(FlushReq.builder().collectionNames(List.of(target)).build());
+            waitForIndex(target, vectorFields(targetCoarseDim));
+            loadCollection(target);
+
+            withWriteLock(() -> {
+                milvusClient.alterAlias(AlterAliasReq.builder()
+                        .alias(COLLECTION_ALIAS)
+                        .collectionName(target)
+                        .build());
+                activeCollection = target;
+                activeSettings = settings.copy();
+                scalarFieldsEnabled = true;
+                activeCoarseDimension = targetCoarseDim;
+                shadowCollection = null;
+                dualWrittenIds.clear();
+            });
+            log.info("向量索引重建完成，别名已切换: {} -> {}, copied={}", COLLECTION_ALIAS, target, status.getCopiedRows());
+
+            dropQuietly(source);
+            status.finish(null);
+
+        } catch (Exception e) {
+            log.error("向量索引重建失败: target={}", target, e);
+            withWriteLock(() -> {
+                shadowCollection = null;
+                dualWrittenIds.clear();
+            });
+            if (!target.equals(activeCollection)) {
+                dropQuietly(target);
+            }
+            status.finish(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+            throw new IllegalStateException("向量索引重建失败: " + e.getMessage(), e);
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    /**
+     * 异步在线重建 ANN 索引（失败原因记录在 {@link #getRebuildStatus()} 中）
+     * <p>
+     * ⚠ 注意：@Async 方法必须在不同 Bean 中调用才能生效（Spring AOP 代理机制）。
+     *
+     * @param settings 新的索引参数
+     */
+    @Async("asyncExecutor")
+    public void rebuildIndexAsync(VectorIndexSettings settings) {
+        try {
+            rebuildIndex(settings);
+        } catch (Exception e) {
+            log.error("异步索引重建失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 是否有索引重建任务正在执行
+     */
+    public boolean isRebuilding() {
+        return rebuilding.get();
+    }
+
+    /**
+     * 遍历 Collection 中的全部向量（用于重建、基准测试等离线场景）
+     *
+     * @param collectionName Collection 或别名
+     * @param outputFields   输出字段
+     * @param batchSize      每批行数
+     * @param consumer       批处理回调（返回 false 时提前结束）
+     */
+    public void scan(String collectionName, List<String> outputFields, int batchSize,
+                     Predicate<List<Map<String, Object>>> consumer) {
+        QueryIterator iterator = milvusClient.queryIterator(QueryIteratorReq.builder()
+                .collectionName(collectionName)
+                .outputFields(outputFields)
+                .expr("candidate_id >= 0")
+                .batchSize(batchSize)
+                .build());
+        try {
+            while (true) {
+                List<QueryResultsWrapper.RowRecord> batch = iterator.next();
+                if (batch == null || batch.isEmpty()) {
+                    return;
+                }
+                List<Map<String, Object>> rows = batch.stream()
+                        .map(QueryResultsWrapper.RowRecord::getFieldValues)
+                        .toList();
+                if (!consumer.test(rows)) {
+                    return;
+                }
+            }
+        } finally {
+            iterator.close();
+        }
+    }
+
+    /**
+     * 按索引参数创建候选人向量 Collection（完整 Schema）
+     *
+     * @param coarseDim 粗排字段维度，0 表示不创建粗排字段
+     */
+    private void createCollection(String collectionName, VectorIndexSettings settings, int coarseDim) {
+        // 定义 Schema（使用 AddFieldReq）
+        CreateCollectionReq.CollectionSchema schema = CreateCollectionReq.CollectionSchema.builder()
+                .build();
+
+        schema.addField(AddFieldReq.builder()
+                .fieldName("candidate_id")
+                .dataType(DataType.Int64)
+                .isPrimaryKey(true)
+                .autoID(false)
+                .build());
+
+        schema.addField(AddFieldReq.builder()
+                .fieldName("embedding")
+                .dataType(DataType.FloatVector)
+                .dimension(VECTOR_DIMENSION)
+                .build());
+
+        schema.addField(AddFieldReq.builder()
+                .fieldName("candidate_name")
+                .dataType(DataType.VarChar)
+                .maxLength(200)
+                .build());
+
+        schema.addField(AddFieldReq.builder()
+                .fieldName("education")
+                .dataType(DataType.VarChar)
+                .maxLength(EDUCATION_MAX_LENGTH)
+                .build());
+
+        schema.addField(AddFieldReq.builder()
+                .fieldName("work_years")
+                .dataType(DataType.Int32)
+                .build());
+
+        schema.addField(AddFieldReq.builder()
+                .fieldName("current_position")
+                .dataType(DataType.VarChar)
+                .maxLength(POSITION_MAX_LENGTH)
+                .build());
+
+        schema.addField(AddFieldReq.builder()
+                .fieldName("skills")
+                .dataType(DataType.Array)
+                .elementType(DataType.VarChar)
+                .maxCapacity(SKILLS_MAX_CAPACITY)
+                .maxLength(SKILL_MAX_LENGTH)
+                .build());
+
+        if (coarseDim > 0) {
+            schema.addField(AddFieldReq.builder()
+                    .fieldName(COARSE_FIELD)
+                    .dataType(DataType.FloatVector)
+                    .dimension(coarseDim)
+                    .build());
+        }
+
+        // 定义索引
+        List<IndexParam> indexParams = new ArrayList<>(vectorIndexParams(settings, coarseDim));
+        indexParams.add(IndexParam.builder().fieldName("education").indexType(IndexParam.IndexType.INVERTED).build());
+        indexParams.add(IndexParam.builder().fieldName("work_years").indexType(IndexParam.IndexType.STL_SORT).build());
+        indexParams.add(IndexParam.builder().fieldName("skills").indexType(IndexParam.IndexType.INVERTED).build());
+
+        // 创建 Collection
+        milvusClient.createCollection(CreateCollectionReq.builder()
+                .collectionName(collectionName)
+                .collectionSchema(schema)
+                .indexParams(indexParams)
+                .build());
+    }
+
+    /**
+     * 向量字段的索引参数
+     * <p>
+     * 单阶段检索时 ANN 索引建在完整向量上。两阶段检索时 ANN 索引只建在粗排字段上，
+     * 完整向量只用于按主键取回重排，建 FLAT 索引（无额外结构）并开启 mmap，
+     * 由操作系统页缓存按需换入，常驻内存从 1024 维降到粗排维度。
+     *
+     * @param coarseDim 粗排字段维度，0 表示没有粗排字段
+     */
+    static List<IndexParam> vectorIndexParams(VectorIndexSettings settings, int coarseDim) {
+        IndexParam annIndex = IndexParam.builder()
+                .fieldName(coarseDim > 0 ? COARSE_FIELD : "embedding")
+                .indexType(settings.resolveIndexType())
+                .metricType(IndexParam.MetricType.COSINE)
+                .extraParams(settings.buildParams())
+                .build();
+        if (coarseDim <= 0) {
+            return List.of(annIndex);
+        }
+        IndexParam fullIndex = IndexParam.builder()
+                .fieldName("embedding")
+                .indexType(IndexParam.IndexType.FLAT)
+                .metricType(IndexParam.MetricType.COSINE)
+                .extraParams(Map.of(MMAP_ENABLED_KEY, "true"))
+                .build();
+        return List.of(fullIndex, annIndex);
+    }
+
+    /**
+     * 需要等待索引构建完成的向量字段
+     */
+    static List<String> vectorFields(int coarseDim) {
+        return coarseDim > 0 ? List.of("embedding", COARSE_FIELD) : List.of("embedding");
+    }
+
+    /**
+     * 分批复制数据到影子 Collection
+     */
+    private void copyRows(String source, String target, int targetCoarseDim, RebuildStatus status) {
+        boolean sourceHasScalars = scalarFieldsEnabled;
+        List<String> fields = sourceHasScalars ? ALL_FIELDS : ALL_FIELDS.subList(0, 3);
+        if (!sourceHasScalars) {
+            log.warn("源 Collection 为旧版 Schema，标量字段将以默认值写入，需重新向量化后才能准确过滤: {}", source);
+        }
+
+        scan(source, fields, REBUILD_BATCH_SIZE, rows -> {
+            List<JsonObject> batch = new ArrayList<>(rows.size());
+            for (Map<String, Object> fieldValues : rows) {
+                JsonObject row = new JsonObject();
+                row.addProperty("candidate_id", ((Number) fieldValues.get("candidate_id")).longValue());
+                row.add("embedding", gson.toJsonTree(fieldValues.get("embedding")));
+                row.addProperty("candidate_name", Objects.toString(fieldValues.get("candidate_name"), ""));
+                row.addProperty("education", Objects.toString(fieldValues.getOrDefault("education", ""), ""));
+                Object workYears = fieldValues.get("work_years");
+                row.addProperty("work_years", workYears != null ? ((Number) workYears).intValue() : UNKNOWN_WORK_YEARS);
+                row.addProperty("current_position", Objects.toString(fieldValues.getOrDefault("current_position", ""), ""));
+                row.add("skills", gson.toJsonTree(fieldValues.getOrDefault("skills", List.of())));
+                batch.add(withCoarse(row, targetCoarseDim));
+            }
+
+            withWriteLock(() -> {
+                List<JsonObject> pending = batch.stream()
+                        .filter(row -> !dualWrittenIds.contains(row.get("candidate_id").getAsLong()))
+                        .toList();
+                if (!pending.isEmpty()) {
+                    milvusClient.upsert(UpsertReq.builder()
+                            .collectionName(target)
+                            .data(pending)
+                            .build());
+                }
+                status.addCopiedRows(pending.size());
+            });
+            return true;
+        });
+    }
+
+    /**
+     * 等待向量索引构建完成
+     *
+     * @param fieldNames 需要等待的向量字段（全部完成才返回）
+     */
+    void waitForIndex(String collectionName, List<String> fieldNames) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + INDEX_BUILD_TIMEOUT_MS;
+        List<String> pending = new ArrayList<>(fieldNames);
+        while (System.currentTimeMillis() < deadline) {
+            Iterator<String> it = pending.iterator();
+            while (it.hasNext()) {
+                String fieldName = it.next();
+                DescribeIndexResp.IndexDesc desc = describeIndex(collectionName, fieldName);
+                if (desc == null) {
+                    throw new IllegalStateException("未找到向量索引: " + collectionName + "." + fieldName);
+                }
+                if (desc.getIndexState() == IndexBuildState.Failed) {
+                    throw new IllegalStateException("索引构建失败: " + fieldName + ", " + desc.getIndexFailedReason());
+                }
+                if (desc.getIndexState() == IndexBuildState.Finished && desc.getPendingIndexRows() == 0) {
+                    it.remove();
+                }
+            }
+            if (pending.isEmpty()) {
+                return;
+            }
+            Thread.sleep(1000);
+        }
+        throw new IllegalStateException("等待索引构建超时: " + collectionName + ", fields=" + pending);
+    }
+
+    private DescribeIndexResp.IndexDesc describeIndex(String collectionName, String fieldName) {
+        DescribeIndexResp resp = milvusClient.describeIndex(DescribeIndexReq.builder()
+                .collectionName(collectionName)
+                .fieldName(fieldName)
+                .build());
+        return resp.getIndexDescByFieldName(fieldName);
+    }
+
+    /**
+     * 查询别名当前指向的 Collection
+     *
+     * @return Collection 名称；别名不存在时返回 null
+     */
+    private String resolveAlias() {
+        try {
+            DescribeAliasResp resp = milvusClient.describeAlias(DescribeAliasReq.builder()
+                    .alias(COLLECTION_ALIAS)
+                    .build());
+            return resp.getCollectionName();
+        } catch (Exception e) {
+            // Milvus 对不存在的别名直接抛异常，视为未创建
+            return null;
+        }
+    }
+
+    /**
+     * 检测 Collection 是否包含标量过滤字段
+     */
+    private void detectSchema(String collectionName) {
+        DescribeCollectionResp desc = milvusClient.describeCollection(
+                DescribeCollectionReq.builder()
+                        .collectionName(collectionName)
+                        .build()
+        );
+        scalarFieldsEnabled = desc.getFieldNames() != null && desc.getFieldNames().contains("work_years");
+        if (!scalarFieldsEnabled) {
+            log.warn("Milvus Collection 缺少标量过滤字段（旧版 Schema），过滤搜索不可用，"
+                    + "请调用索引重建接口迁移: {}", collectionName);
+        }
+
+        CreateCollectionReq.FieldSchema coarseField = desc.getCollectionSchema() == null
+                ? null : desc.getCollectionSchema().getField(COARSE_FIELD);
+        activeCoarseDimension = coarseField != null && coarseField.getDimension() != null
+                ? coarseField.getDimension() : 0;
+        if (coarseEnabled && activeCoarseDimension != coarseDimension) {
+            log.warn("Milvus Collection 粗排字段维度与配置不一致（actual={}, configured={}），"
+                    + "请调用索引重建接口迁移: {}", activeCoarseDimension, coarseDimension, collectionName);
+        }
+    }
+
+    /**
+     * 以 Collection 实际的索引类型为准确定搜索参数；与配置不一致时提示重建
+     * <p>
+     * 读取的是实际执行 ANN 检索的字段：两阶段检索时为粗排字段，否则为完整向量。
+     */
+    private void detectIndex(String collectionName) {
+        String annField = isTwoStageSearchEnabled() ? COARSE_FIELD : "embedding";
+        DescribeIndexResp.IndexDesc desc = describeIndex(collectionName, annField);
+        if (desc == null || desc.getIndexType() == null) {
+            return;
+        }
+        String actualType = desc.getIndexType().name();
+        if (!actualType.equalsIgnoreCase(activeSettings.getIndexType())) {
+            log.warn("Collection 实际索引类型与配置不一致: actual={}, configured={}，可调用索引重建接口切换",
+                    actualType, activeSettings.getIndexType());
+            VectorIndexSettings actual = activeSettings.copy();
+            actual.setIndexType(actualType);
+            try {
+                actual.validate();
+                activeSettings = actual;
+            } catch (IllegalArgumentException e) {
+                log.warn("无法识别现有索引类型，按配置参数搜索: {}", actualType);
+            }
+        }
+
+        // 索引维护任务可能已按数据量调整过 nlist：以实际值为准，nprobe 保持不变（见 VectorIndexSettings#withNlist）
+        Integer actualNlist = parseNlist(desc.getExtraParams());
+        VectorIndexSettings current = activeSettings;
+        if (!current.isGraphIndex() && actualNlist != null && !actualNlist.equals(current.getNlist())) {
+            activeSettings = current.withNlist(actualNlist);
+            log.info("Collection 实际 nlist 与当前参数不一致，已按实际值调整: nlist={}, nprobe={}",
+                    actualNlist, activeSettings.getNprobe());
+        }
+    }
+
+    /**
+     * 从索引描述中解析 nlist（可能直接作为参数，也可能在 params JSON 中）
+     */
+    static Integer parseNlist(Map<String, String> extraParams) {
+        if (extraParams == null) {
+            return null;
+        }
+        try {
+            String value = extraParams.get("nlist");
+            if (value == null && extraParams.get("params") != null) {
+                JsonObject params = JsonParser.parseString(extraParams.get("params")).getAsJsonObject();
+                value = params.has("nlist") ? params.get("nlist").getAsString() : null;
+            }
+            return value == null ? null : Integer.valueOf(value.trim());
+        } catch (RuntimeException e) {
+            log.warn("无法解析索引参数 nlist: {}", extraParams);
+            return null;
+        }
+    }
+
+    private int configuredCoarseDimension() {
+        return coarseEnabled ? coarseDimension : 0;
+    }
+
+    private VectorIndexSettings configuredSettings() {
+        return VectorIndexSettings.builder()
+                .indexType(indexType)
+                .nlist(nlist)
+                .nprobe(nprobe)
+                .m(hnswM)
+                .efConstruction(hnswEfConstruction)
+                .ef(hnswEf)
+                .build();
+    }
+
+    private void withWriteLock(Runnable action) {
+        rebuildLock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+    }
+
+    private void dropQuietly(String collectionName) {
+        try {
+            milvusClient.releaseCollection(ReleaseCollectionReq.builder()
+                    .collectionName(collectionName)
+                    .build());
+            milvusClient.dropCollection(DropCollectionReq.builder()
+                    .collectionName(collectionName)
+                    .build());
+            log.info("已删除 Milvus Collection: {}", collectionName);
+        } catch (Exception e) {
+            log.warn("删除 Milvus Collection 失败，请手动清理: {}", collectionName, e);
+        }
+    }
+
+    private static String truncate(String value, int maxLength) {
+        if (value == null) {
+            return "";
+        }
+        return value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+
+    /**
+     * 加载 Collection 到内存（搜索前必须加载）
+     */
+    private void loadCollection(String collectionName) {
+        milvusClient.loadCollection(LoadCollectionReq.builder()
+                .collectionName(collectionName)
+                .build());
+        log.info("Milvus Collection 已加载到内存: {}", collectionName);
+    }
+
+    /**
+     * Collection 行数统计
+     *
+     * @param totalRows 统计信息中的行数（含已删除未回收的行）
+     * @param liveRows  有效行数
+     */
+    public record CollectionStats(long totalRows, long liveRows) {
+
+        /**
+         * 已删除未回收的行占比（统计信息有延迟，结果为估算值）
+         */
+        public double deletedRatio() {
+            return totalRows <= 0 ? 0.0 : Math.max(0L, totalRows - liveRows) / (double) totalRows;
+        }
+    }
+
+    /**
+     * 索引重建状态
+     */
+    @Data
+    public static class RebuildStatus {
+        /** IDLE / RUNNING / SUCCEEDED / FAILED */
+        private String state;
+        private String sourceCollection;
+        private String targetCollection;
+        private VectorIndexSettings settings;
+        private volatile long copiedRows;
+        private LocalDateTime startedAt;
+        private LocalDateTime finishedAt;
+        private String errorMessage;
+
+        static RebuildStatus idle() {
+            RebuildStatus status = new RebuildStatus();
+            status.setState("IDLE");
+            return status;
+        }
+
+        static RebuildStatus running(String source, String target, VectorIndexSettings settings) {
+            RebuildStatus status = new RebuildStatus();
+            status.setState("RUNNING");
+            status.setSourceCollection(source);
+            status.setTargetCollection(target);
+            status.setSettings(settings.copy());
+            status.setStartedAt(LocalDateTime.now());
+            return status;
+        }
+
+        synchronized void addCopiedRows(long rows) {
+            copiedRows += rows;
+        }
+
+        void finish(String error) {
+            setFinishedAt(LocalDateTime.now());
+            setErrorMessage(error);
+            setState(error == null ? "SUCCEEDED" : "FAILED");
+        }
+    }
+}
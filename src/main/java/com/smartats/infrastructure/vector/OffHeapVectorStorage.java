@@ -0,0 +1,105 @@
+package com.smartats.infrastructure.vector;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 堆外向量存储
+ * <p>
+ * 按槽位（slot）顺序存放定长 float 向量，底层为分块分配的 DirectByteBuffer：
+ * <ul>
+ *   <li>向量数据不占用 Java 堆，百万级 1024 维向量（约 4GB）不会放大 GC 停顿</li>
+ *   <li>按块扩容，避免单个 Buffer 超过 2GB 上限，也避免扩容时整体复制</li>
+ * </ul>
+ * 非线程安全，由调用方加锁。堆外内存上限受 -XX:MaxDirectMemorySize 约束。
+ */
+final class OffHeapVectorStorage {
+
+    /** 每块存放的向量数 */
+    static final int DEFAULT_CHUNK_VECTORS = 4096;
+
+    private final int dimension;
+    private final int chunkVectors;
+    private final List<FloatBuffer> chunks;
+
+    OffHeapVectorStorage(int dimension) {
+        this(dimension, DEFAULT_CHUNK_VECTORS);
+    }
+
+    OffHeapVectorStorage(int dimension, int chunkVectors) {
+        if (dimension <= 0 || chunkVectors <= 0) {
+            throw new IllegalArgumentException("dimension 与 chunkVectors 必须为正数");
+        }
+        this.dimension = dimension;
+        this.chunkVectors = chunkVectors;
+        this.chunks = new ArrayList<>();
+    }
+
+    private OffHeapVectorStorage(OffHeapVectorStorage source) {
+        this.dimension = source.dimension;
+        this.chunkVectors = source.chunkVectors;
+        this.chunks = new ArrayList<>(source.chunks);
+    }
+
+    int dimension() {
+        return dimension;
+    }
+
+    /**
+     * 当前已分配的槽位容量
+     */
+    int capacity() {
+        return chunks.size() * chunkVectors;
+    }
+
+    /**
+     * 已分配的堆外内存字节数
+     */
+    long allocatedBytes() {
+        return (long) capacity() * dimension * Float.BYTES;
+    }
+
+    /**
+     * 只读视图：与本存储共享已分配的堆外块，创建后可在不持锁的情况下读取创建时已写入的槽位
+     * <p>
+     * 要求调用方只追加、不原地改写已有槽位；读写都按绝对位置访问，视图读取与之后落在新槽位上的写入互不干扰。
+     * 视图不可写入。
+     */
+    OffHeapVectorStorage view() {
+        return new OffHeapVectorStorage(this);
+    }
+
+    /**
+     * 写入向量（槽位超出容量时自动扩容）
+     */
+    void set(int slot, float[] vector) {
+        if (vector.length != dimension) {
+            throw new IllegalArgumentException("向量维度不一致: " + vector.length + " vs " + dimension);
+        }
+        while (slot >= capacity()) {
+            chunks.add(ByteBuffer.allocateDirect(chunkVectors * dimension * Float.BYTES)
+                    .order(ByteOrder.nativeOrder())
+                    .asFloatBuffer());
+        }
+        chunks.get(slot / chunkVectors).put((slot % chunkVectors) * dimension, vector);
+    }
+
+    /**
+     * 读取向量到调用方提供的数组（复用数组，避免每次比较都分配）
+     */
+    void get(int slot, float[] target) {
+        chunks.get(slot / chunkVectors).get((slot % chunkVectors) * dimension, target, 0, dimension);
+    }
+
+    /**
+     * 读取向量到新数组
+     */
+    float[] get(int slot) {
+        float[] vector = new float[dimension];
+        get(slot, vector);
+        return vector;
+    }
+}
@@ -0,0 +1,287 @@
+package com.smartats.infrastructure.vector;
+
+import com.smartats.common.constants.RedisKeyConstants;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 查询向量两级缓存
+ * <p>
+ * 招聘人员会反复搜索相同的描述（如 "Java 后端 5年"），每次都调用 embedding API 需要 100~300ms。
+ * 本缓存按「模型 + 维度 + 归一化查询文本」缓存查询向量：
+ * <ul>
+ *   <li>L1：进程内 LRU（访问顺序 LinkedHashMap），命中耗时微秒级</li>
+ *   <li>L2：Redis，多实例共享，TTL 默认 24 小时</li>
+ * </ul>
+ * Redis 不可用时自动降级为只走 L1 + embedding API，不影响搜索可用性。
+ * 单条查询未命中时经 {@link EmbeddingRequestCoalescer} 合并请求。
+ * <p>
+ * 未命中时的 API 调用受熔断器保护：embedding 服务连续失败（含限流）后直接抛出 {@link CircuitBreaker.OpenException}，
+ * 调用方立即降级；已缓存的查询不受影响。
+ */
+@Slf4j
+@Component
+public class QueryEmbeddingCache {
+
+    private final EmbeddingService embeddingService;
+    private final EmbeddingRequestCoalescer coalescer;
+    private final CircuitBreaker circuitBreaker;
+    private final StringRedisTemplate redisTemplate;
+    private final String model;
+    private final int localMaxSize;
+    private final long ttlHours;
+
+    /** L1 以 float[] 保存（1024 维约 4KB/条），返回时包装为只读 List 视图 */
+    private final Map<String, float[]> localCache;
+
+    /** 单次 embedding 请求最多包含的文本数（embedding-3 单次输入上限） */
+    static final int MAX_EMBED_BATCH = 64;
+
+    private final LongAdder localHits = new LongAdder();
+    private final LongAdder redisHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public QueryEmbeddingCache(EmbeddingService embeddingService,
+                               EmbeddingRequestCoalescer coalescer,
+                               @Qualifier("embeddingCircuitBreaker") CircuitBreaker circuitBreaker,
+                               StringRedisTemplate redisTemplate,
+                               @Value("${smartats.ai.embedding.model:embedding-3}") String model,
+                               @Value("${smartats.vector.query-cache.local-size:1000}") int localMaxSize,
+                               @Value("${smartats.vector.query-cache.ttl-hours:24}") long ttlHours) {
+        this.embeddingService = embeddingService;
+        this.coalescer = coalescer;
+        this.circuitBreaker = circuitBreaker;
+        this.redisTemplate = redisTemplate;
+        this.model = model;
+        this.localMaxSize = localMaxSize;
+        this.ttlHours = ttlHours;
+        this.localCache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, float[]> eldest) {
+                return size() > QueryEmbeddingCache.this.localMaxSize;
+            }
+        };
+    }
+
+    /**
+     * 获取查询文本的向量（L1 → L2 → embedding API）
+     *
+     * @param query 原始查询文本
+     * @return 1024 维向量
+     */
+    public List<Float> getQueryEmbedding(String query) {
+        String key = buildKey(query);
+
+        // 1. L1 进程内缓存
+        float[] local;
+        synchronized (localCache) {
+            local = localCache.get(key);
+        }
+        if (local != null) {
+            localHits.increment();
+            return VectorMath.asList(local);
+        }
+
+        // 2. L2 Redis 缓存
+        List<Float> cached = readRedis(key);
+        if (cached != null) {
+            redisHits.increment();
+            return putLocal(key, cached);
+        }
+
+        // 3. 调用 embedding API（并发的相同 / 不同查询经合并器单飞、微批）
+        misses.increment();
+        List<Float> embedding = circuitBreaker.call(() -> coalescer.embed(key, query));
+        writeRedis(key, embedding);
+        return putLocal(key, embedding);
+    }
+
+    /**
+     * 批量获取查询向量
+     * <p>
+     * 先查 L1，L1 未命中的一次 MGET 查 L2，仍未命中的（按归一化文本去重后）合并为尽量少的
+     * embedding 批量请求（每批最多 {@value #MAX_EMBED_BATCH} 条），而不是每条查询各调用一次 API。
+     *
+     * @param queries 原始查询文本列表
+     * @return 与输入顺序一致的向量列表
+     */
+    public List<List<Float>> getQueryEmbeddings(List<String> queries) {
+        List<String> keys = queries.stream().map(this::buildKey).toList();
+        Map<String, List<Float>> resolved = new HashMap<>();
+
+        // 1. L1 进程内缓存
+        synchronized (localCache) {
+            for (String key : keys) {
+                float[] cached = localCache.get(key);
+                if (cached != null) {
+                    resolved.put(key, VectorMath.asList(cached));
+                }
+            }
+        }
+        localHits.add(resolved.size());
+
+        // 2. L2 Redis 缓存（一次 MGET）
+        List<String> redisKeys = keys.stream().distinct().filter(k -> !resolved.containsKey(k)).toList();
+        Map<String, List<Float>> fromRedis = readRedis(redisKeys);
+        fromRedis.forEach((key, embedding) -> resolved.put(key, putLocal(key, embedding)));
+        redisHits.add(fromRedis.size());
+
+        // 3. 剩余未命中的查询批量调用 embedding API（相同查询只嵌入一次）
+        Map<String, String> missing = new LinkedHashMap<>();
+        for (int i = 0; i < keys.size(); i++) {
+            if (!resolved.containsKey(keys.get(i))) {
+                missing.putIfAbsent(keys.get(i), queries.get(i));
+            }
+        }
+        List<String> missingKeys = new ArrayList<>(missing.keySet());
+        List<String> missingTexts = new ArrayList<>(missing.values());
+        for (int from = 0; from < missingKeys.size(); from += MAX_EMBED_BATCH) {
+            int to = Math.min(from + MAX_EMBED_BATCH, missingKeys.size());
+            List<String> batch = missingTexts.subList(from, to);
+            List<List<Float>> embeddings = circuitBreaker.call(() -> embeddingService.embedBatch(batch));
+            for (int i = from; i < to; i++) {
+                List<Float> embedding = embeddings.get(i - from);
+                writeRedis(missingKeys.get(i), embedding);
+                resolved.put(missingKeys.get(i), putLocal(missingKeys.get(i), embedding));
+            }
+        }
+        misses.add(missingKeys.size());
+
+        return keys.stream().map(resolved::get).toList();
+    }
+
+    /**
+     * 获取缓存命中统计
+     */
+    public CacheStats getStats() {
+        int localSize;
+        synchronized (localCache) {
+            localSize = localCache.size();
+        }
+        return new CacheStats(localHits.sum(), redisHits.sum(), misses.sum(), localSize);
+    }
+
+    /**
+     * 归一化查询文本：NFKC（全角转半角）、去首尾空白、合并连续空白、转小写
+     */
+    static String normalize(String query) {
+        if (query == null) {
+            return "";
+        }
+        String normalized = Normalizer.normalize(query, Normalizer.Form.NFKC);
+        return normalized.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    String buildKey(String query) {
+        return RedisKeyConstants.CACHE_QUERY_EMBEDDING_KEY_PREFIX
+                + model + ":" + EmbeddingService.EMBEDDING_DIMENSION + ":" + sha256(normalize(query));
+    }
+
+    /**
+     * 写入 L1，返回基于缓存数组的只读视图
+     */
+    private List<Float> putLocal(String key, List<Float> embedding) {
+        float[] array = VectorMath.toArray(embedding);
+        synchronized (localCache) {
+            localCache.put(key, array);
+        }
+        return VectorMath.asList(array);
+    }
+
+    private List<Float> readRedis(String key) {
+        try {
+            String value = redisTemplate.opsForValue().get(key);
+            if (value == null) {
+                return null;
+            }
+            List<Float> embedding = VectorCodec.decode(value);
+            if (embedding.size() != EmbeddingService.EMBEDDING_DIMENSION) {
+                log.warn("Redis 中的查询向量维度不匹配，忽略: key={}, dim={}", key, embedding.size());
+                return null;
+            }
+            return embedding;
+        } catch (Exception e) {
+            log.warn("读取查询向量缓存失败，降级为直接调用 embedding API: key={}", key, e);
+            return null;
+        }
+    }
+
+    /**
+     * 批量读取 L2（失败时降级为全部未命中）
+     */
+    private Map<String, List<Float>> readRedis(List<String> keys) {
+        if (keys.isEmpty()) {
+            return Map.of();
+        }
+        try {
+            List<String> values = redisTemplate.opsForValue().multiGet(keys);
+            Map<String, List<Float>> result = new HashMap<>();
+            for (int i = 0; values != null && i < keys.size(); i++) {
+                if (values.get(i) == null) {
+                    continue;
+                }
+                List<Float> embedding = VectorCodec.decode(values.get(i));
+                if (embedding.size() == EmbeddingService.EMBEDDING_DIMENSION) {
+                    result.put(keys.get(i), embedding);
+                }
+            }
+            return result;
+        } catch (Exception e) {
+            log.warn("批量读取查询向量缓存失败，降级为直接调用 embedding API: size={}", keys.size(), e);
+            return Map.of();
+        }
+    }
+
+    private void writeRedis(String key, List<Float> embedding) {
+        try {
+            redisTemplate.opsForValue().set(key, VectorCodec.encode(embedding), ttlHours, TimeUnit.HOURS);
+        } catch (Exception e) {
+            log.warn("写入查询向量缓存失败: key={}", key, e);
+        }
+    }
+
+    private static String sha256(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 算法不可用", e);
+        }
+    }
+
+    /**
+     * 缓存统计
+     *
+     * @param localHits 进程内缓存命中次数
+     * @param redisHits Redis 缓存命中次数
+     * @param misses    未命中（调用 embedding API）次数
+     * @param localSize 进程内缓存当前条目数
+     */
+    public record CacheStats(long localHits, long redisHits, long misses, int localSize) {
+
+        /**
+         * 总体命中率（L1 + L2）
+         */
+        public double hitRate() {
+            long total = localHits + redisHits + misses;
+            return total == 0 ? 0.0 : (double) (localHits + redisHits) / total;
+        }
+    }
+}
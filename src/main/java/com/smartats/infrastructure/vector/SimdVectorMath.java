@@ -0,0 +1,44 @@
+package com.smartats.infrastructure.vector;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * 基于 Java Vector API（jdk.incubator.vector）的 SIMD 向量运算
+ * <p>
+ * 单独成类，仅在运行时加载了 jdk.incubator.vector 模块时才会被 {@link VectorMath} 引用，
+ * 未加 --add-modules 启动参数时不会触发类加载失败。
+ */
+final class SimdVectorMath {
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+    private SimdVectorMath() {}
+
+    /**
+     * SIMD 点积：按平台首选宽度（AVX2 为 8 路、AVX-512 为 16 路）做 FMA 累加，尾部标量补齐
+     */
+    static float dot(float[] a, float[] b) {
+        int i = 0;
+        int bound = SPECIES.loopBound(a.length);
+        FloatVector acc = FloatVector.zero(SPECIES);
+        for (; i < bound; i += SPECIES.length()) {
+            FloatVector va = FloatVector.fromArray(SPECIES, a, i);
+            FloatVector vb = FloatVector.fromArray(SPECIES, b, i);
+            acc = va.fma(vb, acc);
+        }
+        float sum = acc.reduceLanes(VectorOperators.ADD);
+        for (; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+
+    /**
+     * SIMD 宽度（float 通道数）
+     */
+    static int laneCount() {
+        return SPECIES.length();
+    }
+}
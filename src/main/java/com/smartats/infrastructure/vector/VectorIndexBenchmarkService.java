@@ -0,0 +1,515 @@
+package com.smartats.infrastructure.vector;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import io.milvus.v2.client.MilvusClientV2;
+import io.milvus.v2.common.DataType;
+import io.milvus.v2.common.IndexParam;
+import io.milvus.v2.service.collection.request.AddFieldReq;
+import io.milvus.v2.service.collection.request.CreateCollectionReq;
+import io.milvus.v2.service.collection.request.DropCollectionReq;
+import io.milvus.v2.service.collection.request.LoadCollectionReq;
+import io.milvus.v2.service.index.request.CreateIndexReq;
+import io.milvus.v2.service.utility.request.FlushReq;
+import io.milvus.v2.service.vector.request.InsertReq;
+import io.milvus.v2.service.vector.request.SearchReq;
+import io.milvus.v2.service.vector.request.data.BaseVector;
+import io.milvus.v2.service.vector.request.data.FloatVec;
+import io.milvus.v2.service.vector.response.SearchResp;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * ANN 索引基准测试
+ * <p>
+ * 在临时 Collection 中按给定索引参数构建索引，用本地暴力搜索的结果作为真值，
+ * 测量 recall@K 与单查询延迟（p50 / p99），用于根据数据选择索引类型和参数。
+ * <p>
+ * 数据集来源：
+ * <ul>
+ *   <li>合成数据：高斯聚类分布的归一化向量（模拟文本嵌入的簇状结构），可复现（固定种子）</li>
+ *   <li>导出数据：从当前生效的候选人 Collection 中导出向量，查询向量为样本加噪声</li>
+ * </ul>
+ * 每组参数测试结束后删除临时 Collection，不影响线上数据。仅 Milvus 存储后端可用。
+ * <p>
+ * 另提供两阶段检索的召回对比（{@link #compareCoarse}）：在内存中精确计算，
+ * 只衡量 Matryoshka 截断本身带来的召回损失，与 ANN 索引参数无关；
+ * 同时给出每条向量的常驻内存、每次查询重排取回的数据量与本地计算耗时，用于权衡内存与延迟。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "smartats.vector.store", havingValue = "milvus", matchIfMissing = true)
+public class VectorIndexBenchmarkService {
+
+    private final MilvusClientV2 milvusClient;
+    private final MilvusVectorStoreService vectorStoreService;
+    private final Gson gson = new Gson();
+
+    private static final String BENCH_COLLECTION_PREFIX = "candidate_vectors_bench_";
+
+    private static final int INSERT_BATCH_SIZE = 500;
+
+    /** 正式计时前的预热查询数 */
+    private static final int WARMUP_QUERIES = 10;
+
+    /**
+     * 生成合成数据集
+     *
+     * @param size       向量数量
+     * @param queryCount 查询数量
+     * @param seed       随机种子
+     */
+    public BenchmarkDataset syntheticDataset(int size, int queryCount, long seed) {
+        int dim = EmbeddingService.EMBEDDING_DIMENSION;
+        Random random = new Random(seed);
+        int clusterCount = Math.max(16, size / 500);
+
+        float[][] centers = new float[clusterCount][];
+        for (int i = 0; i < clusterCount; i++) {
+            centers[i] = gaussian(random, dim, 1.0);
+            VectorMath.normalize(centers[i]);
+        }
+
+        float[][] vectors = new float[size][];
+        for (int i = 0; i < size; i++) {
+            vectors[i] = perturb(centers[random.nextInt(clusterCount)], random, 0.6);
+        }
+        float[][] queries = new float[queryCount][];
+        for (int i = 0; i < queryCount; i++) {
+            queries[i] = perturb(centers[random.nextInt(clusterCount)], random, 0.6);
+        }
+        return new BenchmarkDataset("SYNTHETIC", vectors, queries);
+    }
+
+    /**
+     * 从当前生效的候选人 Collection 导出数据集
+     *
+     * @param maxSize    最多导出的向量数量
+     * @param queryCount 查询数量（随机抽样后加噪声）
+     * @param seed       随机种子
+     * @throws IllegalStateException Collection 中没有数据
+     */
+    public BenchmarkDataset exportedDataset(int maxSize, int queryCount, long seed) {
+        List<float[]> exported = new ArrayList<>();
+        vectorStoreService.scan(MilvusVectorStoreService.COLLECTION_ALIAS, List.of("candidate_id", "embedding"), 1000, rows -> {
+            for (var row : rows) {
+                if (exported.size() >= maxSize) {
+                    return false;
+                }
+                @SuppressWarnings("unchecked")
+                List<Float> embedding = (List<Float>) row.get("embedding");
+                exported.add(VectorMath.normalize(VectorMath.toArray(embedding)));
+            }
+            return exported.size() < maxSize;
+        });
+        if (exported.isEmpty()) {
+            throw new IllegalStateException("候选人 Collection 中没有向量数据");
+        }
+
+        Random random = new Random(seed);
+        float[][] vectors = exported.toArray(new float[0][]);
+        float[][] queries = new float[queryCount][];
+        for (int i = 0; i < queryCount; i++) {
+            queries[i] = perturb(vectors[random.nextInt(vectors.length)], random, 0.3);
+        }
+        return new BenchmarkDataset("EXPORTED", vectors, queries);
+    }
+
+    /**
+     * 对多组索引参数依次执行基准测试
+     *
+     * @param dataset      数据集
+     * @param settingsList 待比较的索引参数
+     * @param topK         recall@K 的 K
+     * @return 每组参数的测试结果（顺序与入参一致）
+     */
+    public List<BenchmarkResult> run(BenchmarkDataset dataset, List<VectorIndexSettings> settingsList, int topK) {
+        long start = System.currentTimeMillis();
+        List<Set<Long>> groundTruth = new ArrayList<>(dataset.queries().length);
+        for (float[] query : dataset.queries()) {
+            groundTruth.add(exactTopK(dataset.vectors(), query, topK));
+        }
+        log.info("基准测试真值计算完成: source={}, size={}, queries={}, cost={}ms",
+                dataset.source(), dataset.vectors().length, dataset.queries().length,
+                System.currentTimeMillis() - start);
+
+        List<BenchmarkResult> results = new ArrayList<>();
+        for (int i = 0; i < settingsList.size(); i++) {
+            VectorIndexSettings settings = settingsList.get(i);
+            settings.validate();
+            String collectionName = BENCH_COLLECTION_PREFIX + System.currentTimeMillis() + "_" + i;
+            try {
+                results.add(runSingle(collectionName, dataset, groundTruth, settings, topK));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("基准测试被中断", e);
+            } finally {
+                dropQuietly(collectionName);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * 两阶段检索召回对比：低维截断向量精确召回 candidates 个，再用完整向量重排取 topK，
+     * 与完整向量精确检索的 topK 比较
+     *
+     * @param dataset         数据集
+     * @param coarseDimension 粗排维度
+     * @param candidateCounts 待比较的粗排召回数
+     * @param topK            recall@K 的 K
+     * @return 每个召回数的对比结果（顺序与入参一致）
+     * @throws IllegalArgumentException 粗排维度非法
+     */
+    public List<CoarseRecallResult> compareCoarse(BenchmarkDataset dataset, int coarseDimension,
+                                                  List<Integer> candidateCounts, int topK) {
+        long start = System.currentTimeMillis();
+        float[][] vectors = dataset.vectors();
+        float[][] coarseVectors = new float[vectors.length][];
+        for (int i = 0; i < vectors.length; i++) {
+            coarseVectors[i] = VectorMath.truncate(vectors[i], coarseDimension);
+        }
+        int maxCandidates = candidateCounts.stream().mapToInt(Integer::intValue).max().orElse(topK);
+
+        double coarseOnlySum = 0;
+        double[] recallSums = new double[candidateCounts.size()];
+        long fullScanNanos = 0;
+        long coarseScanNanos = 0;
+        long[] rescoreNanos = new long[candidateCounts.size()];
+        for (float[] query : dataset.queries()) {
+            long t0 = System.nanoTime();
+            Set<Long> truth = exactTopK(vectors, query, topK);
+            long t1 = System.nanoTime();
+            int[] coarseRanking = rankTopK(coarseVectors, VectorMath.truncate(query, coarseDimension),
+                    Math.max(maxCandidates, topK));
+            fullScanNanos += t1 - t0;
+            coarseScanNanos += System.nanoTime() - t1;
+
+            coarseOnlySum += recall(toIds(coarseRanking, topK), truth, topK);
+            for (int c = 0; c < candidateCounts.size(); c++) {
+                long rescoreStart = System.nanoTime();
+                int candidates = Math.min(candidateCounts.get(c), coarseRanking.length);
+                float[][] pool = new float[candidates][];
+                for (int i = 0; i < candidates; i++) {
+                    pool[i] = vectors[coarseRanking[i]];
+                }
+                List<Long> reranked = new ArrayList<>(topK);
+                for (int local : rankTopK(pool, query, topK)) {
+                    reranked.add((long) coarseRanking[local]);
+                }
+                rescoreNanos[c] += System.nanoTime() - rescoreStart;
+                recallSums[c] += recall(reranked, truth, topK);
+            }
+        }
+
+        int queryCount = dataset.queries().length;
+        double coarseOnlyRecall = round(coarseOnlySum / queryCount);
+        int fullDimension = vectors.length > 0 ? vectors[0].length : 0;
+        List<CoarseRecallResult> results = new ArrayList<>(candidateCounts.size());
+        for (int c = 0; c < candidateCounts.size(); c++) {
+            CoarseRecallResult result = new CoarseRecallResult();
+            result.setDatasetSource(dataset.source());
+            result.setDatasetSize(vectors.length);
+            result.setQueryCount(queryCount);
+            result.setTopK(topK);
+            result.setFullDimension(fullDimension);
+            result.setCoarseDimension(coarseDimension);
+            result.setCandidates(candidateCounts.get(c));
+            result.setCoarseOnlyRecallAtK(coarseOnlyRecall);
+            result.setRecallAtK(round(recallSums[c] / queryCount));
+            result.setFullBytesPerVector((long) fullDimension * Float.BYTES);
+            result.setResidentBytesPerVector((long) coarseDimension * Float.BYTES);
+            result.setRescoreFetchBytesPerQuery((long) candidateCounts.get(c) * fullDimension * Float.BYTES);
+            result.setFullScanMeanMs(round(fullScanNanos / 1_000_000.0 / queryCount));
+            result.setCoarseScanMeanMs(round(coarseScanNanos / 1_000_000.0 / queryCount));
+            result.setRescoreMeanMs(round(rescoreNanos[c] / 1_000_000.0 / queryCount));
+            results.add(result);
+        }
+        log.info("两阶段检索召回对比完成: source={}, size={}, coarseDim={}, coarseOnlyRecall@{}={}, "
+                        + "fullScan={}ms, coarseScan={}ms, cost={}ms",
+                dataset.source(), vectors.length, coarseDimension, topK, coarseOnlyRecall,
+                round(fullScanNanos / 1_000_000.0 / queryCount), round(coarseScanNanos / 1_000_000.0 / queryCount),
+                System.currentTimeMillis() - start);
+        return results;
+    }
+
+    private BenchmarkResult runSingle(String collectionName, BenchmarkDataset dataset, List<Set<Long>> groundTruth,
+                                      VectorIndexSettings settings, int topK) throws InterruptedException {
+        log.info("基准测试开始: collection={}, settings={}", collectionName, settings);
+
+        // 1. 建表并写入（先写入再建索引，保证所有数据都走索引而不是 growing segment 暴力搜索）
+        long buildStart = System.currentTimeMillis();
+        createBenchCollection(collectionName);
+        float[][] vectors = dataset.vectors();
+        for (int offset = 0; offset < vectors.length; offset += INSERT_BATCH_SIZE) {
+            List<JsonObject> rows = new ArrayList<>(INSERT_BATCH_SIZE);
+            for (int j = offset; j < Math.min(offset + INSERT_BATCH_SIZE, vectors.length); j++) {
+                JsonObject row = new JsonObject();
+                row.addProperty("id", (long) j);
+                row.add("embedding", gson.toJsonTree(vectors[j]));
+                rows.add(row);
+            }
+            milvusClient.insert(InsertReq.builder().collectionName(collectionName).data(rows).build());
+        }
+        milvusClient.flush(FlushReq.builder().collectionNames(List.of(collectionName)).build());
+
+        // 2. 构建索引并加载
+        milvusClient.createIndex(CreateIndexReq.builder()
+                .collectionName(collectionName)
+                .indexParams(List.of(IndexParam.builder()
+                        .fieldName("embedding")
+                        .indexType(settings.resolveIndexType())
+                        .metricType(IndexParam.MetricType.COSINE)
+                        .extraParams(settings.buildParams())
+                        .build()))
+                .build());
+        vectorStoreService.waitForIndex(collectionName, List.of("embedding"));
+        milvusClient.loadCollection(LoadCollectionReq.builder().collectionName(collectionName).build());
+        long buildMillis = System.currentTimeMillis() - buildStart;
+
+        // 3. 预热
+        float[][] queries = dataset.queries();
+        for (int i = 0; i < Math.min(WARMUP_QUERIES, queries.length); i++) {
+            searchIds(collectionName, queries[i], settings, topK);
+        }
+
+        // 4. 逐条查询计时
+        long[] latencies = new long[queries.length];
+        double recallSum = 0;
+        for (int i = 0; i < queries.length; i++) {
+            long t0 = System.nanoTime();
+            List<Long> ids = searchIds(collectionName, queries[i], settings, topK);
+            latencies[i] = System.nanoTime() - t0;
+            recallSum += recall(ids, groundTruth.get(i), topK);
+        }
+        Arrays.sort(latencies);
+
+        BenchmarkResult result = new BenchmarkResult();
+        result.setSettings(settings.copy());
+        result.setDatasetSource(dataset.source());
+        result.setDatasetSize(vectors.length);
+        result.setQueryCount(queries.length);
+        result.setTopK(topK);
+        result.setBuildMillis(buildMillis);
+        result.setRecallAtK(round(recallSum / queries.length));
+        result.setLatencyP50Ms(round(percentile(latencies, 0.50) / 1_000_000.0));
+        result.setLatencyP99Ms(round(percentile(latencies, 0.99) / 1_000_000.0));
+        result.setMeanLatencyMs(round(Arrays.stream(latencies).average().orElse(0) / 1_000_000.0));
+
+        log.info("基准测试完成: settings={}, recall@{}={}, p50={}ms, p99={}ms",
+                settings, topK, result.getRecallAtK(), result.getLatencyP50Ms(), result.getLatencyP99Ms());
+        return result;
+    }
+
+    private List<Long> searchIds(String collectionName, float[] query, VectorIndexSettings settings, int topK) {
+        List<BaseVector> data = List.of(new FloatVec(query));
+        SearchResp resp = milvusClient.search(SearchReq.builder()
+                .collectionName(collectionName)
+                .data(data)
+                .topK(topK)
+                .annsField("embedding")
+                .searchParams(settings.searchParams(topK))
+                .build());
+        List<Long> ids = new ArrayList<>(topK);
+        if (resp.getSearchResults() != null && !resp.getSearchResults().isEmpty()) {
+            for (SearchResp.SearchResult hit : resp.getSearchResults().get(0)) {
+                ids.add(((Number) hit.getId()).longValue());
+            }
+        }
+        return ids;
+    }
+
+    private void createBenchCollection(String collectionName) {
+        CreateCollectionReq.CollectionSchema schema = CreateCollectionReq.CollectionSchema.builder().build();
+        schema.addField(AddFieldReq.builder()
+                .fieldName("id")
+                .dataType(DataType.Int64)
+                .isPrimaryKey(true)
+                .autoID(false)
+                .build());
+        schema.addField(AddFieldReq.builder()
+                .fieldName("embedding")
+                .dataType(DataType.FloatVector)
+                .dimension(EmbeddingService.EMBEDDING_DIMENSION)
+                .build());
+        milvusClient.createCollection(CreateCollectionReq.builder()
+                .collectionName(collectionName)
+                .collectionSchema(schema)
+                .build());
+    }
+
+    private void dropQuietly(String collectionName) {
+        try {
+            milvusClient.dropCollection(DropCollectionReq.builder().collectionName(collectionName).build());
+        } catch (Exception e) {
+            log.warn("删除基准测试 Collection 失败，请手动清理: {}", collectionName, e);
+        }
+    }
+
+    /**
+     * 暴力搜索 topK（输入向量需已归一化，点积即余弦相似度）
+     *
+     * @return topK 个最相似向量的下标
+     */
+    static Set<Long> exactTopK(float[][] vectors, float[] query, int topK) {
+        // 小顶堆保存当前最相似的 K 个：[score, index]
+        PriorityQueue<float[]> heap = new PriorityQueue<>((a, b) -> Float.compare(a[0], b[0]));
+        for (int i = 0; i < vectors.length; i++) {
+            float score = VectorMath.dot(vectors[i], query);
+            if (heap.size() < topK) {
+                heap.add(new float[]{score, i});
+            } else if (score > heap.peek()[0]) {
+                heap.poll();
+                heap.add(new float[]{score, i});
+            }
+        }
+        Set<Long> ids = new HashSet<>();
+        for (float[] entry : heap) {
+            ids.add((long) entry[1]);
+        }
+        return ids;
+    }
+
+    /**
+     * 暴力搜索 topK，按相似度倒序返回下标（输入向量需已归一化）
+     */
+    static int[] rankTopK(float[][] vectors, float[] query, int topK) {
+        PriorityQueue<float[]> heap = new PriorityQueue<>((a, b) -> Float.compare(a[0], b[0]));
+        for (int i = 0; i < vectors.length; i++) {
+            float score = VectorMath.dot(vectors[i], query);
+            if (heap.size() < topK) {
+                heap.add(new float[]{score, i});
+            } else if (score > heap.peek()[0]) {
+                heap.poll();
+                heap.add(new float[]{score, i});
+            }
+        }
+        int[] ranking = new int[heap.size()];
+        for (int i = ranking.length - 1; i >= 0; i--) {
+            ranking[i] = (int) heap.poll()[1];
+        }
+        return ranking;
+    }
+
+    private static List<Long> toIds(int[] ranking, int limit) {
+        List<Long> ids = new ArrayList<>(Math.min(limit, ranking.length));
+        for (int i = 0; i < Math.min(limit, ranking.length); i++) {
+            ids.add((long) ranking[i]);
+        }
+        return ids;
+    }
+
+    /**
+     * recall@K = |ANN 结果 ∩ 真值| / K
+     */
+    static double recall(List<Long> annIds, Set<Long> truth, int topK) {
+        if (topK <= 0) {
+            return 0;
+        }
+        long hits = annIds.stream().limit(topK).filter(truth::contains).count();
+        return (double) hits / Math.min(topK, Math.max(truth.size(), 1));
+    }
+
+    /**
+     * 最近秩法百分位
+     *
+     * @param sorted 升序数组
+     * @param p      百分位（0~1）
+     */
+    static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(p * sorted.length);
+        return sorted[Math.min(Math.max(rank - 1, 0), sorted.length - 1)];
+    }
+
+    private static float[] gaussian(Random random, int dim, double sigma) {
+        float[] v = new float[dim];
+        for (int i = 0; i < dim; i++) {
+            v[i] = (float) (random.nextGaussian() * sigma);
+        }
+        return v;
+    }
+
+    /**
+     * 在单位向量上叠加范数约为 noise 的高斯噪声后归一化
+     */
+    private static float[] perturb(float[] base, Random random, double noise) {
+        float[] v = gaussian(random, base.length, noise / Math.sqrt(base.length));
+        for (int i = 0; i < v.length; i++) {
+            v[i] += base[i];
+        }
+        return VectorMath.normalize(v);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10000.0) / 10000.0;
+    }
+
+    /**
+     * 基准测试数据集（向量均已归一化，向量下标即 ID）
+     */
+    public record BenchmarkDataset(String source, float[][] vectors, float[][] queries) {}
+
+    /**
+     * 单组索引参数的测试结果
+     */
+    @Data
+    public static class BenchmarkResult {
+        private VectorIndexSettings settings;
+        private String datasetSource;
+        private int datasetSize;
+        private int queryCount;
+        private int topK;
+        /** 写入 + 构建索引耗时 */
+        private long buildMillis;
+        private double recallAtK;
+        private double latencyP50Ms;
+        private double latencyP99Ms;
+        private double meanLatencyMs;
+    }
+
+    /**
+     * 两阶段检索召回对比结果
+     */
+    @Data
+    public static class CoarseRecallResult {
+        private String datasetSource;
+        private int datasetSize;
+        private int queryCount;
+        private int topK;
+        private int fullDimension;
+        private int coarseDimension;
+        /** 粗排召回数 */
+        private int candidates;
+        /** 只用低维向量检索的 recall@K */
+        private double coarseOnlyRecallAtK;
+        /** 低维召回 + 完整向量重排的 recall@K */
+        private double recallAtK;
+        /** 单阶段检索每条向量常驻内存的原始数据量（完整向量） */
+        private long fullBytesPerVector;
+        /** 两阶段检索每条向量常驻内存的原始数据量（粗排向量；完整向量 mmap 到磁盘） */
+        private long residentBytesPerVector;
+        /** 重排时每次查询按主键取回的完整向量数据量 */
+        private long rescoreFetchBytesPerQuery;
+        /** 完整向量暴力检索的平均耗时（本地计算，作为单阶段检索的计算量参照） */
+        private double fullScanMeanMs;
+        /** 粗排向量暴力检索的平均耗时 */
+        private double coarseScanMeanMs;
+        /** 完整向量重排的平均耗时（不含取回向量的 IO） */
+        private double rescoreMeanMs;
+    }
+}
@@ -0,0 +1,152 @@
+package com.smartats.infrastructure.vector;
+
+import io.milvus.v2.common.IndexParam;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * ANN 索引参数
+ * <p>
+ * 支持的索引类型及参数：
+ * <ul>
+ *   <li>IVF_FLAT：构建参数 nlist，搜索参数 nprobe。原始向量存储，召回率高，内存 = 原始大小</li>
+ *   <li>IVF_SQ8：构建参数 nlist，搜索参数 nprobe。8bit 标量量化，内存约为 IVF_FLAT 的 1/4，召回略降</li>
+ *   <li>HNSW：构建参数 M / efConstruction，搜索参数 ef。图索引，延迟最低，内存开销最大</li>
+ * </ul>
+ * 经验值：nlist ≈ 4 * sqrt(N)，nprobe 按召回目标取绝对值（不随 nlist 缩放，见 {@link #withNlist}）；
+ * HNSW 的 ef 需 ≥ topK。
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class VectorIndexSettings {
+
+    /** 自动调参时 nlist 的下限（数据量很小时聚类过少反而退化为暴力搜索） */
+    public static final int MIN_NLIST = 16;
+
+    /** Milvus 允许的 nlist 上限 */
+    public static final int MAX_NLIST = 65536;
+
+    /** 索引类型：IVF_FLAT / IVF_SQ8 / HNSW */
+    private String indexType;
+
+    /** IVF 聚类数 */
+    private Integer nlist;
+
+    /** IVF 搜索时探测的聚类数 */
+    private Integer nprobe;
+
+    /** HNSW 每个节点的最大出边数 */
+    private Integer m;
+
+    /** HNSW 构建时的候选队列长度 */
+    private Integer efConstruction;
+
+    /** HNSW 搜索时的候选队列长度 */
+    private Integer ef;
+
+    /**
+     * 解析索引类型
+     *
+     * @throws IllegalArgumentException 不支持的索引类型
+     */
+    public IndexParam.IndexType resolveIndexType() {
+        String type = indexType == null ? "" : indexType.trim().toUpperCase(Locale.ROOT);
+        return switch (type) {
+            case "IVF_FLAT" -> IndexParam.IndexType.IVF_FLAT;
+            case "IVF_SQ8" -> IndexParam.IndexType.IVF_SQ8;
+            case "HNSW" -> IndexParam.IndexType.HNSW;
+            default -> throw new IllegalArgumentException("不支持的索引类型: " + indexType);
+        };
+    }
+
+    /**
+     * 是否为图索引（HNSW）
+     */
+    public boolean isGraphIndex() {
+        return resolveIndexType() == IndexParam.IndexType.HNSW;
+    }
+
+    /**
+     * 校验参数取值范围（Milvus 限制）
+     *
+     * @throws IllegalArgumentException 参数非法
+     */
+    public void validate() {
+        if (isGraphIndex()) {
+            requireRange("M", m, 2, 2048);
+            requireRange("efConstruction", efConstruction, 1, 65536);
+            requireRange("ef", ef, 1, 32768);
+        } else {
+            requireRange("nlist", nlist, 1, MAX_NLIST);
+            requireRange("nprobe", nprobe, 1, nlist);
+        }
+    }
+
+    /**
+     * 索引构建参数（IndexParam.extraParams）
+     */
+    public Map<String, Object> buildParams() {
+        return isGraphIndex()
+                ? Map.of("M", m, "efConstruction", efConstruction)
+                : Map.of("nlist", nlist);
+    }
+
+    /**
+     * 搜索参数（SearchReq.searchParams）
+     *
+     * @param topK 本次搜索的 topK（HNSW 的 ef 不能小于 topK）
+     */
+    public Map<String, Object> searchParams(int topK) {
+        return isGraphIndex()
+                ? Map.of("ef", Math.max(ef, topK))
+                : Map.of("nprobe", nprobe);
+    }
+
+    /**
+     * 按数据量推荐的 IVF 聚类数：4 * sqrt(N)，限制在 [{@value #MIN_NLIST}, {@value #MAX_NLIST}]
+     *
+     * @param rows 向量条数
+     */
+    public static int recommendedNlist(long rows) {
+        long nlist = Math.round(4 * Math.sqrt(Math.max(0, rows)));
+        return (int) Math.max(MIN_NLIST, Math.min(MAX_NLIST, nlist));
+    }
+
+    /**
+     * 以新的 nlist 复制一份 IVF 参数，nprobe 保持绝对值不变（仅限制不超过 newNlist）
+     * <p>
+     * 单次查询扫描的向量数 ≈ nprobe * N / nlist。nlist 按 4 * sqrt(N) 增长时，nprobe 固定则扫描量约为
+     * nprobe * sqrt(N) / 4，随数据量次线性增长；若按比例放大 nprobe，探测占比不变，扫描量随 N 线性增长，
+     * 正是重建要避免的。聚类更细后固定 nprobe 的召回会略降，需要时用基准测试接口按召回目标重新调 nprobe。
+     *
+     * @param newNlist 新的聚类数
+     */
+    public VectorIndexSettings withNlist(int newNlist) {
+        VectorIndexSettings copy = copy();
+        copy.setNlist(newNlist);
+        if (nprobe != null) {
+            copy.setNprobe(Math.max(1, Math.min(newNlist, nprobe)));
+        }
+        return copy;
+    }
+
+    /**
+     * 复制一份参数，用于在不影响原对象的情况下调整
+     */
+    public VectorIndexSettings copy() {
+        return new VectorIndexSettings(indexType, nlist, nprobe, m, efConstruction, ef);
+    }
+
+    private static void requireRange(String name, Integer value, int min, int max) {
+        if (value == null || value < min || value > max) {
+            throw new IllegalArgumentException(name + " 取值范围为 [" + min + ", " + max + "]，当前: " + value);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.smartats.infrastructure.vector;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * 向量计算工具类
+ * <p>
+ * 提供余弦相似度、归一化等基础运算，用于本地精确计算（基准测试真值、精确打分、嵌入式索引等）。
+ * <p>
+ * 点积在 JVM 以 --add-modules jdk.incubator.vector 启动时使用 SIMD 实现（{@link SimdVectorMath}），
+ * 否则回退为 4 路展开的标量实现。
+ */
+@Slf4j
+public final class VectorMath {
+
+    /** 是否启用 SIMD */
+    private static final boolean SIMD_ENABLED = detectSimd();
+
+    private VectorMath() {}
+
+    /**
+     * 当前是否使用 SIMD 实现
+     */
+    public static boolean isSimdEnabled() {
+        return SIMD_ENABLED;
+    }
+
+    /**
+     * List 转 float 数组
+     */
+    public static float[] toArray(List<Float> vector) {
+        float[] array = new float[vector.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = vector.get(i);
+        }
+        return array;
+    }
+
+    /**
+     * float 数组的只读 List 视图（不复制、不预先装箱，按下标读取时才装箱）
+     * <p>
+     * 用于长期持有的向量：数组本身约 4 字节/维，而 {@code List<Float>} 每维还需一个 Float 对象和一个引用。
+     */
+    public static List<Float> asList(float[] vector) {
+        return new FloatArrayView(vector);
+    }
+
+    /**
+     * 点积
+     *
+     * @throws IllegalArgumentException 维度不一致
+     */
+    public static float dot(float[] a, float[] b) {
+        if (a.length != b.length) {
+            throw new IllegalArgumentException("向量维度不一致: " + a.length + " vs " + b.length);
+        }
+        return SIMD_ENABLED ? SimdVectorMath.dot(a, b) : scalarDot(a, b);
+    }
+
+    /**
+     * 标量点积（4 路展开，减少循环依赖链）
+     */
+    static float scalarDot(float[] a, float[] b) {
+        float s0 = 0f, s1 = 0f, s2 = 0f, s3 = 0f;
+        int i = 0;
+        int bound = a.length - (a.length % 4);
+        for (; i < bound; i += 4) {
+            s0 += a[i] * b[i];
+            s1 += a[i + 1] * b[i + 1];
+            s2 += a[i + 2] * b[i + 2];
+            s3 += a[i + 3] * b[i + 3];
+        }
+        for (; i < a.length; i++) {
+            s0 += a[i] * b[i];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    /**
+     * L2 范数
+     */
+    public static float norm(float[] a) {
+        return (float) Math.sqrt(dot(a, a));
+    }
+
+    /**
+     * 余弦相似度（任一向量为零向量时返回 0）
+     */
+    public static float cosine(float[] a, float[] b) {
+        float denominator = norm(a) * norm(b);
+        return denominator == 0f ? 0f : dot(a, b) / denominator;
+    }
+
+    /**
+     * 原地 L2 归一化（零向量保持不变）
+     *
+     * @return 传入的数组本身
+     */
+    public static float[] normalize(float[] a) {
+        float n = norm(a);
+        if (n > 0f) {
+            for (int i = 0; i < a.length; i++) {
+                a[i] /= n;
+            }
+        }
+        return a;
+    }
+
+    /**
+     * Matryoshka 截断：取前 dimension 维并重新归一化，得到用于粗排的低维向量
+     * <p>
+     * 只对按 Matryoshka 方式训练的嵌入模型（前缀维度即可独立表达语义）有意义，
+     * 截断后的召回质量可用 {@link VectorIndexBenchmarkService#compareCoarse} 评估。
+     *
+     * @param vector    原始向量（不修改）
+     * @param dimension 目标维度
+     * @return 新的归一化向量
+     * @throws IllegalArgumentException 目标维度不在 (0, vector.length] 内
+     */
+    public static float[] truncate(float[] vector, int dimension) {
+        if (dimension <= 0 || dimension > vector.length) {
+            throw new IllegalArgumentException("截断维度非法: " + dimension + "（原始维度 " + vector.length + "）");
+        }
+        return normalize(Arrays.copyOf(vector, dimension));
+    }
+
+    private static boolean detectSimd() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            log.info("未加载 jdk.incubator.vector 模块，向量运算使用标量实现");
+            return false;
+        }
+        try {
+            SimdVectorMath.dot(new float[]{1f}, new float[]{1f});
+            log.info("向量运算启用 SIMD: lanes={}", SimdVectorMath.laneCount());
+            return true;
+        } catch (Throwable e) {
+            log.warn("SIMD 初始化失败，向量运算使用标量实现", e);
+            return false;
+        }
+    }
+
+    private static final class FloatArrayView extends AbstractList<Float> implements RandomAccess {
+
+        private final float[] array;
+
+        FloatArrayView(float[] array) {
+            this.array = array;
+        }
+
+        @Override
+        public Float get(int index) {
+            return array[index];
+        }
+
+        @Override
+        public int size() {
+            return array.length;
+        }
+    }
+}
@@ -0,0 +1,354 @@
+package com.smartats.infrastructure.vector;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * 候选人向量快照的二进制编解码（导出 / 导入，避免 Collection 丢失后重新调用付费 embedding 接口）
+ * <p>
+ * 文件格式（全部 little-endian）：
+ * <pre>
+ *   header : magic(int) version(int) dimension(int) encoding(byte) crc32(long, 覆盖前 13 字节)
+ *   block* : rowCount(int &gt; 0) payloadBytes(int) payload crc32(long, 覆盖 payload)
+ *   trailer: 0(int) totalRows(long)
+ *   row    : candidateId(long) nameBytes(short) name(UTF-8) vector
+ * </pre>
+ * 向量编码：
+ * <ul>
+ *   <li>FLOAT32：原始 float32，无损，1024 维 4KB / 条</li>
+ *   <li>FLOAT16：半精度，2KB / 条，余弦相似度误差约 1e-4</li>
+ *   <li>INT8：按向量最大绝对值对称量化（scale(float) + int8 × dim），约 1KB / 条，余弦误差约 1e-3</li>
+ * </ul>
+ * 按块写入与校验，导入时可逐块流式处理，内存占用与文件大小无关。
+ */
+public final class VectorSnapshotCodec {
+
+    /** 文件魔数 "SAVX" */
+    static final int MAGIC = 0x53415658;
+    static final int VERSION = 1;
+
+    /** 姓名最大字符数（与 Milvus candidate_name 字段一致） */
+    private static final int NAME_MAX_LENGTH = 200;
+
+    private VectorSnapshotCodec() {}
+
+    /**
+     * 向量编码方式
+     */
+    public enum Encoding {
+        FLOAT32,
+        FLOAT16,
+        INT8;
+
+        int vectorBytes(int dimension) {
+            return switch (this) {
+                case FLOAT32 -> dimension * Float.BYTES;
+                case FLOAT16 -> dimension * Short.BYTES;
+                case INT8 -> Float.BYTES + dimension;
+            };
+        }
+    }
+
+    /**
+     * 快照中的一行
+     */
+    public record Entry(long candidateId, String name, float[] vector) {
+    }
+
+    /**
+     * 快照写入器：按 blockRows 行一块缓冲、写出并计算校验和，close 时写入结尾标记
+     */
+    public static final class Writer implements Closeable {
+
+        private final OutputStream out;
+        private final int dimension;
+        private final Encoding encoding;
+        private final int blockRows;
+        private final ByteArrayOutputStream block = new ByteArrayOutputStream();
+        private int pendingRows;
+        private long totalRows;
+        private long bytesWritten;
+        private boolean closed;
+
+        public Writer(OutputStream out, int dimension, Encoding encoding, int blockRows) throws IOException {
+            if (dimension <= 0 || blockRows <= 0) {
+                throw new IllegalArgumentException("dimension 与 blockRows 必须为正数");
+            }
+            this.out = out;
+            this.dimension = dimension;
+            this.encoding = encoding;
+            this.blockRows = blockRows;
+
+            ByteBuffer header = le(Integer.BYTES * 3 + 1)
+                    .putInt(MAGIC)
+                    .putInt(VERSION)
+                    .putInt(dimension)
+                    .put((byte) encoding.ordinal());
+            writeRaw(header.array());
+            writeRaw(le(Long.BYTES).putLong(crc(header.array(), header.capacity())).array());
+        }
+
+        /**
+         * 写入一行
+         *
+         * @throws IllegalArgumentException 向量维度不一致
+         */
+        public void write(long candidateId, String name, float[] vector) throws IOException {
+            if (vector.length != dimension) {
+                throw new IllegalArgumentException("向量维度不一致: " + vector.length + " vs " + dimension);
+            }
+            String safeName = name == null ? "" : name;
+            if (safeName.length() > NAME_MAX_LENGTH) {
+                safeName = safeName.substring(0, NAME_MAX_LENGTH);
+            }
+            byte[] nameBytes = safeName.getBytes(StandardCharsets.UTF_8);
+
+            ByteBuffer row = le(Long.BYTES + Short.BYTES + nameBytes.length + encoding.vectorBytes(dimension));
+            row.putLong(candidateId);
+            row.putShort((short) nameBytes.length);
+            row.put(nameBytes);
+            encodeVector(row, vector, encoding);
+            block.write(row.array());
+
+            if (++pendingRows >= blockRows) {
+                flushBlock();
+            }
+        }
+
+        /**
+         * 已写入行数
+         */
+        public long rows() {
+            return totalRows + pendingRows;
+        }
+
+        /**
+         * 已写出的字节数（不含缓冲中的块）
+         */
+        public long bytesWritten() {
+            return bytesWritten;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                flushBlock();
+                writeRaw(le(Integer.BYTES + Long.BYTES).putInt(0).putLong(totalRows).array());
+                out.flush();
+            } finally {
+                out.close();
+            }
+        }
+
+        private void flushBlock() throws IOException {
+            if (pendingRows == 0) {
+                return;
+            }
+            byte[] payload = block.toByteArray();
+            writeRaw(le(Integer.BYTES * 2).putInt(pendingRows).putInt(payload.length).array());
+            writeRaw(payload);
+            writeRaw(le(Long.BYTES).putLong(crc(payload, payload.length)).array());
+            totalRows += pendingRows;
+            pendingRows = 0;
+            block.reset();
+        }
+
+        private void writeRaw(byte[] bytes) throws IOException {
+            out.write(bytes);
+            bytesWritten += bytes.length;
+        }
+    }
+
+    /**
+     * 快照读取器：逐块读取并校验
+     */
+    public static final class Reader implements Closeable {
+
+        private final InputStream in;
+        private final DataInputStream data;
+        private final int dimension;
+        private final Encoding encoding;
+        private long rowsRead;
+        private boolean finished;
+
+        /**
+         * @throws IOException 不是快照文件、版本不支持或文件头校验失败
+         */
+        public Reader(InputStream in) throws IOException {
+            this.in = in;
+            this.data = new DataInputStream(in);
+
+            byte[] header = readFully(Integer.BYTES * 3 + 1);
+            ByteBuffer buffer = ByteBuffer.wrap(header).order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("不是向量快照文件");
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("不支持的快照版本: " + version);
+            }
+            this.dimension = buffer.getInt();
+            int encodingOrdinal = buffer.get();
+            if (dimension <= 0 || encodingOrdinal < 0 || encodingOrdinal >= Encoding.values().length) {
+                throw new IOException("快照文件头非法");
+            }
+            this.encoding = Encoding.values()[encodingOrdinal];
+            if (readLong() != crc(header, header.length)) {
+                throw new IOException("快照文件头 CRC 校验失败");
+            }
+        }
+
+        public int dimension() {
+            return dimension;
+        }
+
+        public Encoding encoding() {
+            return encoding;
+        }
+
+        /**
+         * 已读取的行数
+         */
+        public long rowsRead() {
+            return rowsRead;
+        }
+
+        /**
+         * 读取下一块
+         *
+         * @return 块内各行；读到结尾标记时返回 null
+         * @throws IOException 文件截断、块校验失败或总行数与结尾标记不一致
+         */
+        public List<Entry> nextBlock() throws IOException {
+            if (finished) {
+                return null;
+            }
+            int rowCount = readInt();
+            if (rowCount == 0) {
+                long totalRows = readLong();
+                if (totalRows != rowsRead) {
+                    throw new IOException("快照行数不一致: trailer=" + totalRows + ", read=" + rowsRead);
+                }
+                finished = true;
+                return null;
+            }
+            int payloadBytes = readInt();
+            if (rowCount < 0 || payloadBytes <= 0) {
+                throw new IOException("快照块头非法: rows=" + rowCount + ", bytes=" + payloadBytes);
+            }
+            byte[] payload = readFully(payloadBytes);
+            if (readLong() != crc(payload, payload.length)) {
+                throw new IOException("快照块 CRC 校验失败: offsetRows=" + rowsRead);
+            }
+
+            ByteBuffer buffer = ByteBuffer.wrap(payload).order(ByteOrder.LITTLE_ENDIAN);
+            List<Entry> entries = new ArrayList<>(rowCount);
+            for (int i = 0; i < rowCount; i++) {
+                long candidateId = buffer.getLong();
+                byte[] nameBytes = new byte[Short.toUnsignedInt(buffer.getShort())];
+                buffer.get(nameBytes);
+                float[] vector = decodeVector(buffer, dimension, encoding);
+                entries.add(new Entry(candidateId, new String(nameBytes, StandardCharsets.UTF_8), vector));
+            }
+            rowsRead += rowCount;
+            return entries;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+
+        private int readInt() throws IOException {
+            return ByteBuffer.wrap(readFully(Integer.BYTES)).order(ByteOrder.LITTLE_ENDIAN).getInt();
+        }
+
+        private long readLong() throws IOException {
+            return ByteBuffer.wrap(readFully(Long.BYTES)).order(ByteOrder.LITTLE_ENDIAN).getLong();
+        }
+
+        private byte[] readFully(int length) throws IOException {
+            byte[] bytes = new byte[length];
+            try {
+                data.readFully(bytes);
+            } catch (EOFException e) {
+                throw new IOException("快照文件被截断", e);
+            }
+            return bytes;
+        }
+    }
+
+    static void encodeVector(ByteBuffer buffer, float[] vector, Encoding encoding) {
+        switch (encoding) {
+            case FLOAT32 -> {
+                for (float v : vector) {
+                    buffer.putFloat(v);
+                }
+            }
+            case FLOAT16 -> {
+                for (float v : vector) {
+                    buffer.putShort(Float.floatToFloat16(v));
+                }
+            }
+            case INT8 -> {
+                float maxAbs = 0f;
+                for (float v : vector) {
+                    maxAbs = Math.max(maxAbs, Math.abs(v));
+                }
+                float scale = maxAbs / 127f;
+                buffer.putFloat(scale);
+                for (float v : vector) {
+                    buffer.put(scale == 0f ? 0 : (byte) Math.round(v / scale));
+                }
+            }
+        }
+    }
+
+    static float[] decodeVector(ByteBuffer buffer, int dimension, Encoding encoding) {
+        float[] vector = new float[dimension];
+        switch (encoding) {
+            case FLOAT32 -> {
+                for (int i = 0; i < dimension; i++) {
+                    vector[i] = buffer.getFloat();
+                }
+            }
+            case FLOAT16 -> {
+                for (int i = 0; i < dimension; i++) {
+                    vector[i] = Float.float16ToFloat(buffer.getShort());
+                }
+            }
+            case INT8 -> {
+                float scale = buffer.getFloat();
+                for (int i = 0; i < dimension; i++) {
+                    vector[i] = buffer.get() * scale;
+                }
+            }
+        }
+        return vector;
+    }
+
+    private static ByteBuffer le(int capacity) {
+        return ByteBuffer.allocate(capacity).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static long crc(byte[] bytes, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, length);
+        return crc.getValue();
+    }
+}
@@ -1,170 +1,51 @@
 package com.smartats.infrastructure.vector;
 
-import com.google.gson.Gson;
-import com.google.gson.JsonObject;
-import io.milvus.v2.client.MilvusClientV2;
-import io.milvus.v2.common.DataType;
-import io.milvus.v2.common.IndexParam;
-import io.milvus.v2.service.collection.request.AddFieldReq;
-import io.milvus.v2.service.collection.request.CreateCollectionReq;
-import io.milvus.v2.service.collection.request.HasCollectionReq;
-import io.milvus.v2.service.collection.request.LoadCollectionReq;
-import io.milvus.v2.service.vector.request.DeleteReq;
-import io.milvus.v2.service.vector.request.InsertReq;
-import io.milvus.v2.service.vector.request.SearchReq;
-import io.milvus.v2.service.vector.request.UpsertReq;
-import io.milvus.v2.service.vector.request.data.FloatVec;
-import io.milvus.v2.service.vector.response.InsertResp;
-import io.milvus.v2.service.vector.response.SearchResp;
-import io.milvus.v2.service.vector.response.UpsertResp;
-import jakarta.annotation.PostConstruct;
-import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
-import org.springframework.stereotype.Service;
+import com.smartats.module.candidate.entity.Candidate;
+import lombok.Data;
 
-import java.util.*;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
- * Milvus 向量存储服务
+ * 候选人向量存储服务接口
  * <p>
- * 管理 Milvus Collection 的创建、向量插入、相似度搜索、删除。
- * <p>
- * Collection Schema: candidate_vectors
- * - candidate_id (INT64, PK) — 候选人 ID
- * - embedding (FLOAT_VECTOR, dim=1024) — 候选人嵌入向量
- * - candidate_name (VARCHAR, max=200) — 冗余姓名字段（用于结果展示）
- * <p>
- * Index: IVF_FLAT（适合中小规模数据集 < 100万，召回率高）
- * Metric: COSINE（余弦相似度，适合文本语义匹配）
+ * 设计原则：面向接口编程，按部署规模切换实现（smartats.vector.store）：
+ * <ul>
+ *   <li>milvus（默认）：{@link MilvusVectorStoreService}，独立 Milvus 集群，适合大规模与多实例部署</li>
+ *   <li>embedded：{@link EmbeddedVectorStoreService}，进程内 HNSW 索引 + 本地快照，适合单机、本地开发与测试</li>
+ * </ul>
  */
-@Slf4j
-@Service
-@RequiredArgsConstructor
-public class VectorStoreService {
-
-    private final MilvusClientV2 milvusClient;
-    private final Gson gson = new Gson();
-
-    /** Collection 名称 */
-    public static final String COLLECTION_NAME = "candidate_vectors";
-
-    /** 向量维度（与 embedding-3 输出一致） */
-    private static final int VECTOR_DIMENSION = EmbeddingService.EMBEDDING_DIMENSION;
-
-    /** IVF_FLAT 聚类数（推荐 4 * sqrt(N)，以 10000 条为基准） */
-    private static final int NLIST = 128;
-
-    /**
-     * 应用启动时初始化 Collection（幂等操作）
-     */
-    @PostConstruct
-    public void initCollection() {
-        try {
-            boolean exists = milvusClient.hasCollection(
-                    HasCollectionReq.builder()
-                            .collectionName(COLLECTION_NAME)
-                            .build()
-            );
-
-            if (exists) {
-                log.info("Milvus Collection 已存在: {}", COLLECTION_NAME);
-                loadCollection();
-                return;
-            }
-
-            // 定义 Schema（使用 AddFieldReq）
-            CreateCollectionReq.CollectionSchema schema = CreateCollectionReq.CollectionSchema.builder()
-                    .build();
-
-            schema.addField(AddFieldReq.builder()
-                    .fieldName("candidate_id")
-                    .dataType(DataType.Int64)
-                    .isPrimaryKey(true)
-                    .autoID(false)
-                    .build());
-
-            schema.addField(AddFieldReq.builder()
-                    .fieldName("embedding")
-                    .dataType(DataType.FloatVector)
-                    .dimension(VECTOR_DIMENSION)
-                    .build());
-
-            schema.addField(AddFieldReq.builder()
-                    .fieldName("candidate_name")
-                    .dataType(DataType.VarChar)
-                    .maxLength(200)
-                    .build());
-
-            // 定义索引
-            IndexParam indexParam = IndexParam.builder()
-                    .fieldName("embedding")
-                    .indexType(IndexParam.IndexType.IVF_FLAT)
-                    .metricType(IndexParam.MetricType.COSINE)
-                    .extraParams(Map.of("nlist", NLIST))
-                    .build();
-
-            // 创建 Collection
-            CreateCollectionReq createReq = CreateCollectionReq.builder()
-                    .collectionName(COLLECTION_NAME)
-                    .collectionSchema(schema)
-                    .indexParams(List.of(indexParam))
-                    .build();
-
-            milvusClient.createCollection(createReq);
-            log.info("Milvus Collection 创建成功: {}", COLLECTION_NAME);
-
-            loadCollection();
-
-        } catch (Exception e) {
-            log.error("Milvus Collection 初始化失败: {}", COLLECTION_NAME, e);
-            throw new IllegalStateException("Milvus Collection 初始化失败", e);
-        }
-    }
+public interface VectorStoreService {
 
     /**
      * 插入或更新候选人向量（Upsert 语义）
      *
-     * @param candidateId   候选人 ID
-     * @param candidateName 候选人姓名
-     * @param embedding     1024 维嵌入向量
-     * @return Milvus 内部 ID 字符串
+     * @param candidate 候选人实体（需包含 ID）
+     * @param embedding 1024 维嵌入向量
+     * @return 向量 ID 字符串
      */
-    public String upsertVector(Long candidateId, String candidateName, List<Float> embedding) {
-        log.info("Upsert 候选人向量: candidateId={}", candidateId);
-
-        JsonObject row = new JsonObject();
-        row.addProperty("candidate_id", candidateId);
-        row.add("embedding", gson.toJsonTree(embedding));
-        row.addProperty("candidate_name", candidateName != null ? candidateName : "");
-
-        UpsertResp resp = milvusClient.upsert(UpsertReq.builder()
-                .collectionName(COLLECTION_NAME)
-                .data(List.of(row))
-                .build());
-
-        log.info("候选人向量 Upsert 成功: candidateId={}, upsertCount={}",
-                candidateId, resp.getUpsertCnt());
-        return String.valueOf(candidateId);
-    }
+    String upsertVector(Candidate candidate, List<Float> embedding);
 
     /**
-     * 批量插入候选人向量
+     * 批量插入或更新候选人向量（Upsert 语义）
+     * <p>
+     * 默认逐条写入；远程实现应覆盖为单次批量请求以减少网络往返。
      *
-     * @param dataRows 数据行列表（JsonObject），每行包含 candidate_id、embedding、candidate_name
-     * @return 插入数量
+     * @param candidates 候选人实体列表（需包含 ID）
+     * @param embeddings 与候选人一一对应的嵌入向量
+     * @return 写入数量
      */
-    public int batchInsert(List<JsonObject> dataRows) {
-        if (dataRows == null || dataRows.isEmpty()) {
-            return 0;
+    default int upsertVectors(List<Candidate> candidates, List<List<Float>> embeddings) {
+        if (candidates.size() != embeddings.size()) {
+            throw new IllegalArgumentException("候选人与向量数量不一致");
         }
-
-        InsertResp resp = milvusClient.insert(InsertReq.builder()
-                .collectionName(COLLECTION_NAME)
-                .data(dataRows)
-                .build());
-
-        log.info("批量插入向量完成: count={}", resp.getInsertCnt());
-        return (int) resp.getInsertCnt();
+        for (int i = 0; i < candidates.size(); i++) {
+            upsertVector(candidates.get(i), embeddings.get(i));
+        }
+        return candidates.size();
     }
 
     /**
@@ -174,67 +55,95 @@ public class VectorStoreService {
      * @param topK           返回最相似的 K 个结果
      * @return 搜索结果列表（包含 candidateId 和相似度分数）
      */
-    public List<SearchResult> search(List<Float> queryEmbedding, int topK) {
-        log.info("执行向量搜索: topK={}", topK);
-
-        FloatVec queryVector = new FloatVec(queryEmbedding);
+    default List<SearchResult> search(List<Float> queryEmbedding, int topK) {
+        return search(queryEmbedding, topK, null);
+    }
 
-        SearchResp searchResp = milvusClient.search(SearchReq.builder()
-                .collectionName(COLLECTION_NAME)
-                .data(Collections.singletonList(queryVector))
-                .topK(topK)
-                .annsField("embedding")
-                .outputFields(List.of("candidate_id", "candidate_name"))
-                .build());
+    /**
+     * 带标量过滤的相似度搜索
+     *
+     * @param queryEmbedding 查询向量（1024 维）
+     * @param topK           返回最相似的 K 个结果
+     * @param filter         过滤条件（null 或空表示不过滤）
+     * @return 满足条件的候选人中最相似的 topK 个
+     */
+    List<SearchResult> search(List<Float> queryEmbedding, int topK, CandidateVectorFilter filter);
 
-        List<SearchResult> results = new ArrayList<>();
-        List<List<SearchResp.SearchResult>> searchResults = searchResp.getSearchResults();
+    /**
+     * 多个查询向量的批量相似度搜索（共用同一 topK 与过滤条件）
+     * <p>
+     * 默认逐个搜索；远程实现应覆盖为单次多向量请求以减少网络往返。
+     *
+     * @param queryEmbeddings 查询向量列表（1024 维）
+     * @param topK            每个查询返回最相似的 K 个结果
+     * @param filter          过滤条件（null 或空表示不过滤）
+     * @return 与查询向量顺序一致的结果列表
+     */
+    default List<List<SearchResult>> searchBatch(List<List<Float>> queryEmbeddings, int topK,
+                                                 CandidateVectorFilter filter) {
+        return queryEmbeddings.stream().map(embedding -> search(embedding, topK, filter)).toList();
+    }
 
-        if (searchResults != null && !searchResults.isEmpty()) {
-            for (SearchResp.SearchResult hit : searchResults.get(0)) {
-                SearchResult result = new SearchResult();
-                result.setCandidateId(((Number) hit.getEntity().get("candidate_id")).longValue());
-                result.setCandidateName((String) hit.getEntity().get("candidate_name"));
-                result.setScore(hit.getScore());
-                results.add(result);
-            }
-        }
+    /**
+     * 按候选人 ID（主键）批量获取已存储的向量
+     * <p>
+     * 用于已知候选人时的精确打分，避免为查找单个候选人做全库 ANN 搜索。
+     *
+     * @param candidateIds 候选人 ID 列表
+     * @return candidateId -> 向量；未向量化的候选人不在结果中
+     */
+    Map<Long, List<Float>> getVectors(Collection<Long> candidateIds);
 
-        log.info("向量搜索完成: resultCount={}", results.size());
-        return results;
+    /**
+     * 批量判断候选人向量是否存在
+     * <p>
+     * 默认读取完整向量后取 Key；远程实现应覆盖为只返回主键的查询。
+     *
+     * @param candidateIds 候选人 ID 列表
+     * @return 已存在向量的候选人 ID
+     */
+    default Set<Long> existingIds(Collection<Long> candidateIds) {
+        return new HashSet<>(getVectors(candidateIds).keySet());
     }
 
+    /**
+     * 列出主键在 (fromExclusive, toInclusive] 范围内的候选人 ID（用于与 MySQL 对账）
+     *
+     * @param fromExclusive 范围下界（不含）
+     * @param toInclusive   范围上界（含）
+     * @param limit         最多返回数量
+     * @return 范围内的候选人 ID（不保证顺序；数量等于 limit 时范围内可能还有更多）
+     */
+    List<Long> listIds(long fromExclusive, long toInclusive, int limit);
+
     /**
      * 删除候选人向量
      *
      * @param candidateId 候选人 ID
      */
-    public void deleteVector(Long candidateId) {
-        log.info("删除候选人向量: candidateId={}", candidateId);
-
-        milvusClient.delete(DeleteReq.builder()
-                .collectionName(COLLECTION_NAME)
-                .ids(List.of(candidateId))
-                .build());
+    void deleteVector(Long candidateId);
 
-        log.info("候选人向量删除成功: candidateId={}", candidateId);
+    /**
+     * 批量删除候选人向量
+     * <p>
+     * 默认逐条删除；远程实现应覆盖为单次批量请求。
+     *
+     * @param candidateIds 候选人 ID 集合
+     */
+    default void deleteVectors(Collection<Long> candidateIds) {
+        candidateIds.forEach(this::deleteVector);
     }
 
     /**
-     * 加载 Collection 到内存（搜索前必须加载）
+     * 是否支持标量过滤
      */
-    private void loadCollection() {
-        milvusClient.loadCollection(LoadCollectionReq.builder()
-                .collectionName(COLLECTION_NAME)
-                .build());
-        log.info("Milvus Collection 已加载到内存: {}", COLLECTION_NAME);
-    }
+    boolean isScalarFilterSupported();
 
     /**
      * 向量搜索结果
      */
-    @lombok.Data
-    public static class SearchResult {
+    @Data
+    class SearchResult {
         /** 候选人 ID */
         private Long candidateId;
         /** 候选人姓名（冗余字段） */
@@ -127,4 +127,21 @@ public class JobApplicationController {
         MatchScoreResponse response = matchScoreService.calculateAndSave(id);
         return Result.success(response);
     }
+
+    /**
+     * 批量重算职位下全部申请的 AI 匹配分数
+     * POST /api/v1/applications/job/{jobId}/match-score
+     */
+    @Operation(summary = "批量重算职位匹配分数", description = "职位向量只生成一次，批量取回候选人向量后并行打分并批量写回")
+    @AuditLog(module = "职位申请", operation = "MATCH_RESCORE", description = "批量重算职位匹配分数")
+    @PostMapping("/job/{jobId}/match-score")
+    public Result<MatchRescoreResponse> rescoreJob(
+            @PathVariable Long jobId,
+            Authentication authentication) {
+        Long userId = (Long) authentication.getPrincipal();
+        log.info("批量重算匹配分数：userId={}, jobId={}", userId, jobId);
+
+        MatchRescoreResponse response = matchScoreService.rescoreJob(jobId);
+        return Result.success(response);
+    }
 }
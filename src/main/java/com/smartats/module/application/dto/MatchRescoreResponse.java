@@ -0,0 +1,25 @@
+package com.smartats.module.application.dto;
+
+import lombok.Data;
+
+/**
+ * 职位匹配分数批量重算结果 DTO
+ */
+@Data
+public class MatchRescoreResponse {
+
+    /** 职位 ID */
+    private Long jobId;
+
+    /** 职位下的申请数 */
+    private int totalApplications;
+
+    /** 成功重算的申请数 */
+    private int scored;
+
+    /** 候选人已删除而跳过的申请数 */
+    private int skipped;
+
+    /** 耗时（毫秒） */
+    private long elapsedMs;
+}
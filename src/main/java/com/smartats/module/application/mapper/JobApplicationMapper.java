@@ -3,10 +3,36 @@ package com.smartats.module.application.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.smartats.module.application.entity.JobApplication;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Update;
+
+import java.util.List;
 
 /**
  * 职位申请 Mapper
  */
 @Mapper
 public interface JobApplicationMapper extends BaseMapper<JobApplication> {
+
+    /**
+     * 批量写回匹配分数（单条 UPDATE ... CASE id，替代逐条 updateById）
+     *
+     * @param applications 需包含 id、matchScore、matchReasons、matchCalculatedAt
+     * @return 影响行数
+     */
+    @Update({"<script>",
+            "UPDATE job_applications SET",
+            "  match_score = CASE id",
+            "    <foreach item='a' collection='applications'>WHEN #{a.id} THEN #{a.matchScore} </foreach>",
+            "  END,",
+            "  match_reasons = CASE id",
+            "    <foreach item='a' collection='applications'>WHEN #{a.id} THEN #{a.matchReasons} </foreach>",
+            "  END,",
+            "  match_calculated_at = CASE id",
+            "    <foreach item='a' collection='applications'>WHEN #{a.id} THEN #{a.matchCalculatedAt} </foreach>",
+            "  END",
+            "WHERE id IN",
+            "  <foreach item='a' collection='applications' open='(' separator=',' close=')'>#{a.id}</foreach>",
+            "</script>"})
+    int batchUpdateMatchScores(@Param("applications") List<JobApplication> applications);
 }
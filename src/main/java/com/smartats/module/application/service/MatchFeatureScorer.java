@@ -0,0 +1,116 @@
+package com.smartats.module.application.service;
+
+import org.springframework.util.StringUtils;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 结构化匹配特征打分（技能 / 经验 / 学历，均为 0-100 分）
+ * <p>
+ * 纯函数、无状态，供单个申请的匹配打分（{@link MatchScoreService}）与
+ * 语义搜索结果重排（SearchReranker）共用，保证两处口径一致。
+ */
+public final class MatchFeatureScorer {
+
+    /** 信息缺失时的中间分 */
+    public static final double UNKNOWN_SCORE = 50.0;
+
+    /** 学历等级映射（用于比较） */
+    private static final Map<String, Integer> EDUCATION_LEVEL = Map.of(
+            "不限", 0,
+            "大专", 1,
+            "本科", 2,
+            "硕士", 3,
+            "博士", 4
+    );
+
+    private MatchFeatureScorer() {
+    }
+
+    /**
+     * 技能匹配度：要求技能中被候选人覆盖的比例
+     *
+     * @param required 规范化后的要求技能（见 {@link SkillNormalizer}）
+     * @param owned    规范化后的候选人技能
+     */
+    public static double skillScore(Set<String> required, Set<String> owned) {
+        if (required == null || required.isEmpty()) {
+            return 100.0;
+        }
+        if (owned == null || owned.isEmpty()) {
+            return 0.0;
+        }
+        int matched = 0;
+        for (String skill : required) {
+            if (owned.contains(skill)) {
+                matched++;
+            }
+        }
+        return (double) matched / required.size() * 100;
+    }
+
+    /**
+     * 经验匹配度：在区间内满分，超出区间每差 1 年扣 15 分，最低 10 分
+     */
+    public static double experienceScore(Integer candidateYears, Integer minYears, Integer maxYears) {
+        if (minYears == null && maxYears == null) {
+            return 100.0;
+        }
+        if (candidateYears == null) {
+            return UNKNOWN_SCORE;
+        }
+        int min = minYears != null ? minYears : 0;
+        int max = maxYears != null ? maxYears : Integer.MAX_VALUE;
+        if (candidateYears >= min && candidateYears <= max) {
+            return 100.0;
+        }
+        int gap = candidateYears < min ? min - candidateYears : candidateYears - max;
+        return Math.max(10.0, 100.0 - gap * 15.0);
+    }
+
+    /**
+     * 学历匹配度：达到要求满分，每差一个等级扣 25 分
+     */
+    public static double educationScore(String requiredEdu, String candidateEdu) {
+        return educationScore(requiresEducation(requiredEdu), educationRank(requiredEdu), candidateEdu);
+    }
+
+    /**
+     * 学历匹配度（要求等级已预先计算，见 JobProfile）
+     *
+     * @param required     职位是否有学历要求（见 {@link #requiresEducation}）
+     * @param requiredRank 要求学历等级（见 {@link #educationRank}）
+     */
+    public static double educationScore(boolean required, int requiredRank, String candidateEdu) {
+        if (!required) {
+            return 100.0;
+        }
+        if (!StringUtils.hasText(candidateEdu)) {
+            return UNKNOWN_SCORE;
+        }
+        int gap = requiredRank - educationRank(candidateEdu);
+        return gap <= 0 ? 100.0 : Math.max(0, 100.0 - gap * 25.0);
+    }
+
+    /**
+     * 学历等级差（要求等级 - 候选人等级，未知学历按「不限」计）
+     */
+    public static int educationGap(String requiredEdu, String candidateEdu) {
+        return educationRank(requiredEdu) - educationRank(candidateEdu);
+    }
+
+    /**
+     * 学历等级（不限 0 ~ 博士 4，未知学历按「不限」计）
+     */
+    public static int educationRank(String education) {
+        return education == null ? 0 : EDUCATION_LEVEL.getOrDefault(education, 0);
+    }
+
+    /**
+     * 职位是否有学历要求（为空或「不限」时没有）
+     */
+    public static boolean requiresEducation(String requiredEdu) {
+        return requiredEdu != null && !"不限".equals(requiredEdu);
+    }
+}
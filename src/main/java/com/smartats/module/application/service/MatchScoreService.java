@@ -1,11 +1,13 @@
 package com.smartats.module.application.service;
 
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.smartats.common.exception.BusinessException;
 import com.smartats.common.result.ResultCode;
-import com.smartats.infrastructure.vector.EmbeddingService;
+import com.smartats.infrastructure.vector.VectorMath;
 import com.smartats.infrastructure.vector.VectorStoreService;
+import com.smartats.module.application.dto.MatchRescoreResponse;
 import com.smartats.module.application.dto.MatchScoreResponse;
 import com.smartats.module.application.entity.JobApplication;
 import com.smartats.module.application.mapper.JobApplicationMapper;
@@ -13,6 +15,9 @@ import com.smartats.module.candidate.entity.Candidate;
 import com.smartats.module.candidate.mapper.CandidateMapper;
 import com.smartats.module.job.entity.Job;
 import com.smartats.module.job.mapper.JobMapper;
+import com.smartats.module.job.service.JobEmbeddingService;
+import com.smartats.module.job.service.JobProfile;
+import com.smartats.module.job.service.JobProfileCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Async;
@@ -31,7 +36,7 @@ import java.util.stream.Collectors;
  * <p>
  * 综合多维度计算候选人与职位的匹配度：
  * <ul>
- *   <li><b>向量语义相似度（30%）</b>：基于 Milvus 余弦相似度，衡量整体画像匹配</li>
+ *   <li><b>向量语义相似度（30%）</b>：职位向量与候选人向量的余弦相似度，衡量整体画像匹配</li>
  *   <li><b>技能匹配度（35%）</b>：JD 要求技能 vs 候选人技能标签的重合率</li>
  *   <li><b>经验匹配度（20%）</b>：工作年限与职位要求区间的匹配程度</li>
  *   <li><b>学历匹配度（15%）</b>：候选人学历与职位学历要求的匹配</li>
@@ -42,12 +47,14 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class MatchScoreService {
 
-    private final EmbeddingService embeddingService;
+    private final JobEmbeddingService jobEmbeddingService;
     private final VectorStoreService vectorStoreService;
     private final JobMapper jobMapper;
     private final CandidateMapper candidateMapper;
     private final JobApplicationMapper jobApplicationMapper;
     private final ObjectMapper objectMapper;
+    private final JobProfileCache jobProfileCache;
+    private final SkillNormalizer skillNormalizer;
 
     // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
     // 权重配置
@@ -62,14 +69,8 @@ public class MatchScoreService {
     /** 学历匹配权重 */
     private static final double WEIGHT_EDUCATION = 0.15;
 
-    /** 学历等级映射（用于比较） */
-    private static final Map<String, Integer> EDUCATION_LEVEL = Map.of(
-            "不限", 0,
-            "大专", 1,
-            "本科", 2,
-            "硕士", 3,
-            "博士", 4
-    );
+    /** 批量重算时每页处理的申请数 */
+    static final int RESCORE_PAGE_SIZE = 500;
 
     // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
     // 公开方法
@@ -102,27 +103,76 @@ public class MatchScoreService {
             throw new BusinessException(ResultCode.NOT_FOUND, "候选人不存在");
         }
 
-        // ③ 多维度打分
-        MatchScoreResponse response = calculateScore(job, candidate);
+        // ③ 多维度打分（候选人未向量化时不生成职位向量）
+        List<Float> candidateVector = fetchCandidateVectors(List.of(candidate.getId())).get(candidate.getId());
+        float[] jobVector = candidateVector != null ? resolveJobVector(job) : null;
+        JobScoringContext context = new JobScoringContext(jobProfileCache.get(job), jobVector);
+
+        MatchScoreResponse response = calculateScore(context, candidate, candidateVector);
         response.setApplicationId(applicationId);
         response.setJobId(job.getId());
         response.setCandidateId(candidate.getId());
         response.setCalculatedAt(LocalDateTime.now());
 
         // ④ 持久化到 job_applications 表
-        application.setMatchScore(response.getTotalScore());
-        application.setMatchCalculatedAt(response.getCalculatedAt());
-        try {
-            application.setMatchReasons(objectMapper.writeValueAsString(response.getMatchReasons()));
-        } catch (JsonProcessingException e) {
-            log.warn("序列化匹配原因失败: {}", e.getMessage());
-        }
+        applyResult(application, response);
         jobApplicationMapper.updateById(application);
 
         log.info("匹配分数计算完成: applicationId={}, score={}", applicationId, response.getTotalScore());
         return response;
     }
 
+    /**
+     * 批量重算职位下全部申请的匹配分数
+     * <p>
+     * 职位只加载、解析技能、生成向量一次；申请按主键键集分页，每页批量取回候选人与候选人向量，
+     * 在内存中并行打分后以一条 UPDATE 写回，不再逐条申请重复查询职位和调用 embedding 服务
+     *
+     * @param jobId 职位 ID
+     * @return 重算结果
+     */
+    public MatchRescoreResponse rescoreJob(Long jobId) {
+        Job job = jobMapper.selectById(jobId);
+        if (job == null) {
+            throw new BusinessException(ResultCode.NOT_FOUND, "职位不存在");
+        }
+        return rescore(job);
+    }
+
+    /**
+     * 异步批量重算（职位要求变更后触发）
+     * <p>
+     * 直接使用调用方已更新的职位对象，避免在更新事务提交前读到旧数据
+     */
+    @Async("asyncExecutor")
+    public void rescoreJobAsync(Job job) {
+        try {
+            rescore(job);
+        } catch (Exception e) {
+            log.error("异步批量重算匹配分数失败: jobId={}, error={}", job.getId(), e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 在内存中计算一批候选人与同一职位的综合匹配分（不读写申请记录，供推荐列表等场景复用）
+     *
+     * @param job              职位
+     * @param jobVector        职位向量，为 null 时语义分按默认值计
+     * @param candidates       候选人
+     * @param candidateVectors 候选人向量（candidateId → 向量），缺失的按未向量化处理
+     * @return candidateId → 综合匹配分（0-100）
+     */
+    public Map<Long, BigDecimal> scoreCandidates(Job job, List<Float> jobVector, List<Candidate> candidates,
+                                                 Map<Long, List<Float>> candidateVectors) {
+        JobScoringContext context = new JobScoringContext(jobProfileCache.get(job),
+                jobVector != null ? VectorMath.toArray(jobVector) : null);
+        return candidates.parallelStream()
+                .collect(Collectors.toMap(Candidate::getId,
+                        candidate -> calculateScore(context, candidate, candidateVectors.get(candidate.getId()))
+                                .getTotalScore(),
+                        (a, b) -> a));
+    }
+
     /**
      * 异步计算匹配分数（用于创建申请时自动触发）
      */
@@ -135,28 +185,103 @@ public class MatchScoreService {
         }
     }
 
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+    // 批量重算
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+
+    private MatchRescoreResponse rescore(Job job) {
+        long start = System.currentTimeMillis();
+        log.info("开始批量重算匹配分数: jobId={}", job.getId());
+
+        MatchRescoreResponse result = new MatchRescoreResponse();
+        result.setJobId(job.getId());
+        JobProfile profile = jobProfileCache.get(job);
+        float[] jobVector = null;
+        boolean jobVectorResolved = false;
+
+        long lastId = 0L;
+        while (true) {
+            List<JobApplication> page = jobApplicationMapper.selectList(new LambdaQueryWrapper<JobApplication>()
+                    .eq(JobApplication::getJobId, job.getId())
+                    .gt(JobApplication::getId, lastId)
+                    .orderByAsc(JobApplication::getId)
+                    .last("LIMIT " + RESCORE_PAGE_SIZE));
+            if (page.isEmpty()) {
+                break;
+            }
+            lastId = page.get(page.size() - 1).getId();
+
+            List<Long> candidateIds = page.stream().map(JobApplication::getCandidateId).distinct().toList();
+            Map<Long, Candidate> candidates = candidateMapper.selectBatchIds(candidateIds).stream()
+                    .collect(Collectors.toMap(Candidate::getId, c -> c, (a, b) -> a));
+            Map<Long, List<Float>> vectors = fetchCandidateVectors(candidateIds);
+
+            // 职位向量只在首次出现已向量化的候选人时生成一次
+            if (!jobVectorResolved && !vectors.isEmpty()) {
+                jobVector = resolveJobVector(job);
+                jobVectorResolved = true;
+            }
+            JobScoringContext context = new JobScoringContext(profile, jobVector);
+
+            LocalDateTime now = LocalDateTime.now();
+            List<JobApplication> updates = page.parallelStream()
+                    .filter(application -> candidates.containsKey(application.getCandidateId()))
+                    .map(application -> {
+                        Candidate candidate = candidates.get(application.getCandidateId());
+                        MatchScoreResponse response = calculateScore(context, candidate,
+                                vectors.get(candidate.getId()));
+                        response.setCalculatedAt(now);
+                        JobApplication update = new JobApplication();
+                        update.setId(application.getId());
+                        applyResult(update, response);
+                        return update;
+                    })
+                    .toList();
+            if (!updates.isEmpty()) {
+                jobApplicationMapper.batchUpdateMatchScores(updates);
+            }
+
+            result.setTotalApplications(result.getTotalApplications() + page.size());
+            result.setScored(result.getScored() + updates.size());
+            result.setSkipped(result.getSkipped() + page.size() - updates.size());
+            if (page.size() < RESCORE_PAGE_SIZE) {
+                break;
+            }
+        }
+
+        result.setElapsedMs(System.currentTimeMillis() - start);
+        log.info("批量重算匹配分数完成: jobId={}, total={}, scored={}, skipped={}, elapsedMs={}",
+                job.getId(), result.getTotalApplications(), result.getScored(), result.getSkipped(),
+                result.getElapsedMs());
+        return result;
+    }
+
     // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
     // 核心打分逻辑
     // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
 
     /**
-     * 计算候选人与职位的综合匹配分数
+     * 计算候选人与职位的综合匹配分数（纯内存计算，可并行调用）
+     *
+     * @param candidateVector 候选人向量，未向量化时为 null
      */
-    private MatchScoreResponse calculateScore(Job job, Candidate candidate) {
+    private MatchScoreResponse calculateScore(JobScoringContext context, Candidate candidate,
+                                              List<Float> candidateVector) {
+        JobProfile profile = context.profile();
         List<String> reasons = new ArrayList<>();
 
         // 1. 向量语义相似度（0-100）
-        double semanticScore = calculateSemanticScore(job, candidate);
+        double semanticScore = calculateSemanticScore(context.jobVector(), candidate, candidateVector);
         reasons.add(formatSemanticReason(semanticScore));
 
         // 2. 技能匹配度（0-100）
-        double skillScore = calculateSkillScore(job, candidate, reasons);
+        double skillScore = calculateSkillScore(profile, candidate, reasons);
 
         // 3. 经验匹配度（0-100）
-        double experienceScore = calculateExperienceScore(job, candidate, reasons);
+        double experienceScore = calculateExperienceScore(profile, candidate, reasons);
 
         // 4. 学历匹配度（0-100）
-        double educationScore = calculateEducationScore(job, candidate, reasons);
+        double educationScore = calculateEducationScore(profile, candidate, reasons);
 
         // 5. 加权综合分
         double totalScore = semanticScore * WEIGHT_SEMANTIC
@@ -182,47 +307,37 @@ public class MatchScoreService {
     /**
      * 向量语义相似度计算
      * <p>
-     * 将职位 JD 构建为查询文本 → Embedding → Milvus 搜索该候选人 → 返回余弦相似度
+     * 职位向量（按内容指纹缓存）与按主键取回的候选人向量在本地精确计算余弦相似度，
+     * 不再为定位单个候选人做全库 ANN 搜索
      */
-    private double calculateSemanticScore(Job job, Candidate candidate) {
+    private double calculateSemanticScore(float[] jobVector, Candidate candidate, List<Float> candidateVector) {
+        if (candidateVector == null) {
+            log.debug("候选人尚未向量化，语义分使用默认值: candidateId={}", candidate.getId());
+            return 50.0;
+        }
+        if (jobVector == null) {
+            return 50.0; // 职位向量生成失败时给中间分，不影响其他维度
+        }
         try {
-            // 构建职位文本用于 Embedding
-            String jobText = buildJobText(job);
-
-            // 生成查询向量
-            List<Float> queryEmbedding = embeddingService.generateQueryEmbedding(jobText);
-
-            // 在 Milvus 中搜索（topK=50），寻找目标候选人
-            List<VectorStoreService.SearchResult> results = vectorStoreService.search(queryEmbedding, 50);
-
-            // 从搜索结果中找到目标候选人的分数
-            for (VectorStoreService.SearchResult result : results) {
-                if (result.getCandidateId().equals(candidate.getId())) {
-                    // COSINE 相似度 0~1，转换为 0~100 分
-                    return result.getScore() * 100;
-                }
-            }
-
-            // 候选人不在 top-50，给一个基础分
-            log.debug("候选人未在向量搜索 top-50 中: candidateId={}", candidate.getId());
-            return 20.0;
-
+            // COSINE 相似度 -1~1，负值按 0 计，转换为 0~100 分
+            float cosine = VectorMath.cosine(jobVector, VectorMath.toArray(candidateVector));
+            return Math.max(0.0, cosine) * 100;
         } catch (Exception e) {
             log.warn("语义相似度计算失败，使用默认分数: {}", e.getMessage());
-            return 50.0; // 计算失败时给中间分，不影响其他维度
+            return 50.0;
         }
     }
 
     /**
      * 技能匹配度计算
      * <p>
-     * 对比职位 requiredSkills 和候选人 skills 的 Jaccard 相似系数
+     * 职位 requiredSkills 中被候选人 skills 覆盖的比例
      */
-    private double calculateSkillScore(Job job, Candidate candidate, List<String> reasons) {
-        List<String> requiredSkills = parseJsonArray(job.getRequiredSkills());
+    private double calculateSkillScore(JobProfile profile, Candidate candidate, List<String> reasons) {
+        Set<String> required = profile.normalizedSkills();
         List<String> candidateSkills = candidate.getSkills();
 
-        if (requiredSkills == null || requiredSkills.isEmpty()) {
+        if (required.isEmpty()) {
             reasons.add("职位未设置技能要求，技能匹配默认满分");
             return 100.0;
         }
@@ -232,16 +347,8 @@ public class MatchScoreService {
             return 0.0;
         }
 
-        // 归一化（转小写）后比较
-        Set<String> required = requiredSkills.stream()
-                .map(String::toLowerCase)
-                .map(String::trim)
-                .collect(Collectors.toSet());
-
-        Set<String> owned = candidateSkills.stream()
-                .map(String::toLowerCase)
-                .map(String::trim)
-                .collect(Collectors.toSet());
+        // 规范化为规范 ID 后求交，职位技能已在画像中规范化
+        Set<String> owned = skillNormalizer.normalize(candidateSkills);
 
         // 计算匹配的技能
         Set<String> matched = new HashSet<>(required);
@@ -251,8 +358,6 @@ public class MatchScoreService {
         Set<String> missing = new HashSet<>(required);
         missing.removeAll(owned);
 
-        double score = (double) matched.size() / required.size() * 100;
-
         if (!matched.isEmpty()) {
             reasons.add(String.format("匹配技能 %d/%d: %s", matched.size(), required.size(),
                     String.join(", ", matched)));
@@ -261,7 +366,7 @@ public class MatchScoreService {
             reasons.add(String.format("缺少技能: %s", String.join(", ", missing)));
         }
 
-        return score;
+        return MatchFeatureScorer.skillScore(required, owned);
     }
 
     /**
@@ -269,75 +374,53 @@ public class MatchScoreService {
      * <p>
      * 判断候选人工作年限是否在职位要求区间内
      */
-    private double calculateExperienceScore(Job job, Candidate candidate, List<String> reasons) {
+    private double calculateExperienceScore(JobProfile profile, Candidate candidate, List<String> reasons) {
         Integer candidateYears = candidate.getWorkYears();
-        Integer minYears = job.getExperienceMin();
-        Integer maxYears = job.getExperienceMax();
+        Integer minYears = profile.experienceMin();
+        Integer maxYears = profile.experienceMax();
+        double score = MatchFeatureScorer.experienceScore(candidateYears, minYears, maxYears);
 
         if (minYears == null && maxYears == null) {
             reasons.add("职位未设置经验要求，经验匹配默认满分");
-            return 100.0;
-        }
-
-        if (candidateYears == null) {
+        } else if (candidateYears == null) {
             reasons.add("候选人工作年限未知");
-            return 50.0; // 未知时给中间分
-        }
-
-        int min = minYears != null ? minYears : 0;
-        int max = maxYears != null ? maxYears : Integer.MAX_VALUE;
-
-        if (candidateYears >= min && candidateYears <= max) {
-            reasons.add(String.format("工作年限 %d 年，匹配要求 %d-%s 年",
-                    candidateYears, min, maxYears != null ? String.valueOf(maxYears) : "不限"));
-            return 100.0;
-        }
-
-        // 超出范围，按差距递减
-        int gap;
-        if (candidateYears < min) {
-            gap = min - candidateYears;
-            reasons.add(String.format("工作年限 %d 年，低于要求最低 %d 年（差 %d 年）",
-                    candidateYears, min, gap));
         } else {
-            gap = candidateYears - max;
-            reasons.add(String.format("工作年限 %d 年，超出要求最高 %d 年（超 %d 年）",
-                    candidateYears, max, gap));
+            int min = minYears != null ? minYears : 0;
+            if (candidateYears < min) {
+                reasons.add(String.format("工作年限 %d 年，低于要求最低 %d 年（差 %d 年）",
+                        candidateYears, min, min - candidateYears));
+            } else if (maxYears != null && candidateYears > maxYears) {
+                reasons.add(String.format("工作年限 %d 年，超出要求最高 %d 年（超 %d 年）",
+                        candidateYears, maxYears, candidateYears - maxYears));
+            } else {
+                reasons.add(String.format("工作年限 %d 年，匹配要求 %d-%s 年",
+                        candidateYears, min, maxYears != null ? String.valueOf(maxYears) : "不限"));
+            }
         }
-
-        // 每差 1 年扣 15 分，最低 10 分
-        return Math.max(10.0, 100.0 - gap * 15.0);
+        return score;
     }
 
     /**
      * 学历匹配度计算
      */
-    private double calculateEducationScore(Job job, Candidate candidate, List<String> reasons) {
-        String requiredEdu = job.getEducation();
+    private double calculateEducationScore(JobProfile profile, Candidate candidate, List<String> reasons) {
+        String requiredEdu = profile.education();
         String candidateEdu = candidate.getEducation();
+        double score = MatchFeatureScorer.educationScore(profile.educationRequired(), profile.educationRank(),
+                candidateEdu);
 
-        if (requiredEdu == null || "不限".equals(requiredEdu)) {
+        if (!profile.educationRequired()) {
             reasons.add("职位学历不限，学历匹配满分");
-            return 100.0;
-        }
-
-        if (!StringUtils.hasText(candidateEdu)) {
+        } else if (!StringUtils.hasText(candidateEdu)) {
             reasons.add("候选人学历未知");
-            return 50.0;
-        }
-
-        int required = EDUCATION_LEVEL.getOrDefault(requiredEdu, 0);
-        int actual = EDUCATION_LEVEL.getOrDefault(candidateEdu, 0);
-
-        if (actual >= required) {
-            reasons.add(String.format("学历 [%s] 满足要求 [%s]", candidateEdu, requiredEdu));
-            return 100.0;
+        } else {
+            int gap = profile.educationRank() - MatchFeatureScorer.educationRank(candidateEdu);
+            if (gap <= 0) {
+                reasons.add(String.format("学历 [%s] 满足要求 [%s]", candidateEdu, requiredEdu));
+            } else {
+                reasons.add(String.format("学历 [%s] 低于要求 [%s]（差 %d 个等级）", candidateEdu, requiredEdu, gap));
+            }
         }
-
-        // 每差一个等级扣 25 分
-        int gap = required - actual;
-        double score = Math.max(0, 100.0 - gap * 25.0);
-        reasons.add(String.format("学历 [%s] 低于要求 [%s]（差 %d 个等级）", candidateEdu, requiredEdu, gap));
         return score;
     }
 
@@ -346,50 +429,39 @@ public class MatchScoreService {
     // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
 
     /**
-     * 构建职位描述文本（用于生成 Embedding）
+     * 按主键批量取回候选人向量（向量存储不可用时视为全部未向量化）
      */
-    private String buildJobText(Job job) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("职位: ").append(job.getTitle()).append("\n");
-        if (StringUtils.hasText(job.getDepartment())) {
-            sb.append("部门: ").append(job.getDepartment()).append("\n");
-        }
-        if (StringUtils.hasText(job.getDescription())) {
-            sb.append("描述: ").append(job.getDescription()).append("\n");
-        }
-        if (StringUtils.hasText(job.getRequirements())) {
-            sb.append("要求: ").append(job.getRequirements()).append("\n");
-        }
-        List<String> skills = parseJsonArray(job.getRequiredSkills());
-        if (skills != null && !skills.isEmpty()) {
-            sb.append("技能: ").append(String.join(", ", skills)).append("\n");
-        }
-        if (job.getEducation() != null) {
-            sb.append("学历: ").append(job.getEducation()).append("\n");
+    private Map<Long, List<Float>> fetchCandidateVectors(List<Long> candidateIds) {
+        try {
+            return vectorStoreService.getVectors(candidateIds);
+        } catch (Exception e) {
+            log.warn("获取候选人向量失败，语义分使用默认值: {}", e.getMessage());
+            return Map.of();
         }
-        if (job.getExperienceMin() != null) {
-            sb.append("经验: ").append(job.getExperienceMin());
-            if (job.getExperienceMax() != null) {
-                sb.append("-").append(job.getExperienceMax());
-            } else {
-                sb.append("+");
-            }
-            sb.append("年\n");
+    }
+
+    /**
+     * 获取职位向量（按内容指纹缓存），失败返回 null
+     */
+    private float[] resolveJobVector(Job job) {
+        try {
+            return VectorMath.toArray(jobEmbeddingService.getJobEmbedding(job));
+        } catch (Exception e) {
+            log.warn("职位向量生成失败，语义分使用默认值: jobId={}, error={}", job.getId(), e.getMessage());
+            return null;
         }
-        return sb.toString();
     }
 
     /**
-     * 解析 JSON 数组字符串为 List<String>
+     * 将打分结果写入申请记录
      */
-    private List<String> parseJsonArray(String json) {
-        if (!StringUtils.hasText(json)) return null;
+    private void applyResult(JobApplication application, MatchScoreResponse response) {
+        application.setMatchScore(response.getTotalScore());
+        application.setMatchCalculatedAt(response.getCalculatedAt());
         try {
-            return objectMapper.readValue(json, objectMapper.getTypeFactory()
-                    .constructCollectionType(List.class, String.class));
+            application.setMatchReasons(objectMapper.writeValueAsString(response.getMatchReasons()));
         } catch (JsonProcessingException e) {
-            log.warn("解析 JSON 数组失败: {}", e.getMessage());
-            return null;
+            log.warn("序列化匹配原因失败: {}", e.getMessage());
         }
     }
 
@@ -402,4 +474,13 @@ public class MatchScoreService {
         if (score >= 40) return String.format("语义匹配度 %.0f%%（一般匹配）", score);
         return String.format("语义匹配度 %.0f%%（匹配度较低）", score);
     }
+
+    /**
+     * 单个职位的打分上下文（批量重算时所有申请共享）
+     *
+     * @param profile   编译后的职位画像
+     * @param jobVector 职位向量，无需或无法生成时为 null
+     */
+    private record JobScoringContext(JobProfile profile, float[] jobVector) {
+    }
 }
@@ -7,11 +7,13 @@ import com.smartats.common.exception.BusinessException;
 import com.smartats.common.result.Result;
 import com.smartats.common.result.ResultCode;
 import com.smartats.common.util.DataMaskUtil;
+import com.smartats.module.candidate.dto.CandidateFacetResponse;
 import com.smartats.module.candidate.dto.CandidateQueryRequest;
 import com.smartats.module.candidate.dto.CandidateResponse;
 import com.smartats.module.candidate.dto.CandidateUpdateRequest;
 import com.smartats.module.candidate.entity.Candidate;
 import com.smartats.module.candidate.service.CandidateService;
+import com.smartats.module.candidate.service.CandidateVectorService.VectorizeStats;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -20,6 +22,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.BeanUtils;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 /**
  * 候选人管理接口
  */
@@ -49,6 +53,17 @@ public class CandidateController {
         return Result.success(response);
     }
 
+    /**
+     * 查询候选人向量化统计
+     * <p>
+     * 返回实际嵌入次数、因嵌入文本未变化而跳过的次数和失败次数，用于评估重复嵌入的节省效果。
+     */
+    @Operation(summary = "候选人向量化统计", description = "嵌入执行 / 跳过 / 失败次数")
+    @GetMapping("/vectorize-stats")
+    public Result<VectorizeStats> vectorizeStats() {
+        return Result.success(candidateService.getVectorizeStats());
+    }
+
     /**
      * 根据 ID 查询候选人详情
      */
@@ -103,7 +118,7 @@ public class CandidateController {
     /**
      * 分页查询候选人列表，支持多维度筛选
      */
-    @Operation(summary = "候选人列表", description = "支持关键词、学历、技能、工作年限等多维度筛选")
+    @Operation(summary = "候选人列表", description = "支持关键词、学历、技能（多技能 ALL / ANY）、工作年限等多维度筛选")
     @GetMapping
     public Result<IPage<CandidateResponse>> listCandidates(
             @RequestParam(defaultValue = "1") Integer page,
@@ -111,11 +126,13 @@ public class CandidateController {
             @RequestParam(required = false) String keyword,
             @RequestParam(required = false) String education,
             @RequestParam(required = false) String skill,
+            @RequestParam(required = false) List<String> skills,
+            @RequestParam(required = false) String skillMatch,
             @RequestParam(required = false) Integer minWorkYears,
             @RequestParam(required = false) Integer maxWorkYears,
             @RequestParam(required = false) String currentPosition) {
-        log.info("查询候选人列表: page={}, pageSize={}, keyword={}, education={}, skill={}",
-                page, pageSize, keyword, education, skill);
+        log.info("查询候选人列表: page={}, pageSize={}, keyword={}, education={}, skill={}, skills={}",
+                page, pageSize, keyword, education, skill, skills);
 
         CandidateQueryRequest request = new CandidateQueryRequest();
         request.setPage(page);
@@ -123,6 +140,8 @@ public class CandidateController {
         request.setKeyword(keyword);
         request.setEducation(education);
         request.setSkill(skill);
+        request.setSkills(skills);
+        request.setSkillMatch(skillMatch);
         request.setMinWorkYears(minWorkYears);
         request.setMaxWorkYears(maxWorkYears);
         request.setCurrentPosition(currentPosition);
@@ -135,6 +154,29 @@ public class CandidateController {
         return Result.success(responsePage);
     }
 
+    /**
+     * 候选人筛选分面统计
+     */
+    @Operation(summary = "候选人筛选分面统计", description = "按学历、技能、工作年限筛选后统计各分面命中数（内存索引，不支持关键字条件）")
+    @GetMapping("/facets")
+    public Result<CandidateFacetResponse> facets(
+            @RequestParam(required = false) String education,
+            @RequestParam(required = false) String skill,
+            @RequestParam(required = false) List<String> skills,
+            @RequestParam(required = false) String skillMatch,
+            @RequestParam(required = false) Integer minWorkYears,
+            @RequestParam(required = false) Integer maxWorkYears,
+            @RequestParam(defaultValue = "20") Integer facetSize) {
+        CandidateQueryRequest request = new CandidateQueryRequest();
+        request.setEducation(education);
+        request.setSkill(skill);
+        request.setSkills(skills);
+        request.setSkillMatch(skillMatch);
+        request.setMinWorkYears(minWorkYears);
+        request.setMaxWorkYears(maxWorkYears);
+        return Result.success(candidateService.facetCandidates(request, facetSize));
+    }
+
     /**
      * 将 Candidate 实体转换为 API 响应，并对敏感字段脱敏
      */
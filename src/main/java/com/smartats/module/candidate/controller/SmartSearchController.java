@@ -1,6 +1,9 @@
 package com.smartats.module.candidate.controller;
 
 import com.smartats.common.result.Result;
+import com.smartats.infrastructure.vector.QueryEmbeddingCache.CacheStats;
+import com.smartats.module.candidate.dto.BatchSmartSearchRequest;
+import com.smartats.module.candidate.dto.BatchSmartSearchResponse;
 import com.smartats.module.candidate.dto.SmartSearchRequest;
 import com.smartats.module.candidate.dto.SmartSearchResponse;
 import com.smartats.module.candidate.service.SmartSearchService;
@@ -9,9 +12,12 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 /**
@@ -49,4 +55,56 @@ public class SmartSearchController {
         SmartSearchResponse response = smartSearchService.search(request);
         return Result.success(response);
     }
+
+    /**
+     * 批量语义搜索候选人
+     * <p>
+     * 一次提交多条查询（如每天早上为全部在招职位执行的搜索），合并为一次 embedding 请求、
+     * 一次多向量检索与一次候选人回表，替代逐条调用 /smart-search。
+     */
+    @PostMapping("/smart-search/batch")
+    @Operation(summary = "批量语义搜索候选人", description = "多条查询合并检索，按查询顺序返回结果")
+    public Result<BatchSmartSearchResponse> batchSmartSearch(@Valid @RequestBody BatchSmartSearchRequest request) {
+        log.info("收到批量语义搜索请求: queries={}, topK={}", request.getQueries().size(), request.getTopK());
+        return Result.success(smartSearchService.batchSearch(request));
+    }
+
+    /**
+     * 获取分页搜索的下一页
+     * <p>
+     * 首次搜索请求携带 pageSize 时返回 searchId 与 nextCursor，后续页从缓存的排序结果中截取，
+     * 只查询当页候选人详情。候选人向量更新或会话超时后返回「搜索会话已过期」，需重新搜索。
+     */
+    @GetMapping("/smart-search/{searchId}")
+    @Operation(summary = "语义搜索翻页", description = "按游标获取搜索会话的下一页结果")
+    public Result<SmartSearchResponse> nextPage(@PathVariable String searchId,
+                                                @RequestParam String cursor,
+                                                @RequestParam(required = false) Integer size) {
+        return Result.success(smartSearchService.nextPage(searchId, cursor, size));
+    }
+
+    /**
+     * 查找相似候选人
+     * <p>
+     * 以该候选人已存储的简历向量作为查询向量检索（不调用 AI 服务），结果不含候选人本身。
+     * 结果按候选人缓存，其简历重新向量化后失效。
+     */
+    @GetMapping("/{id}/similar")
+    @Operation(summary = "查找相似候选人", description = "以候选人的简历向量检索相似候选人，无需输入查询")
+    public Result<SmartSearchResponse> similar(@PathVariable Long id,
+                                               @RequestParam(required = false) Integer topK,
+                                               @RequestParam(required = false) Double minScore) {
+        return Result.success(smartSearchService.similar(id, topK, minScore));
+    }
+
+    /**
+     * 查询向量缓存统计
+     * <p>
+     * 返回 L1（进程内）/ L2（Redis）命中次数与未命中次数，用于评估缓存效果。
+     */
+    @GetMapping("/smart-search/cache-stats")
+    @Operation(summary = "查询向量缓存统计", description = "返回语义搜索查询向量缓存的命中统计")
+    public Result<CacheStats> cacheStats() {
+        return Result.success(smartSearchService.getEmbeddingCacheStats());
+    }
 }
@@ -0,0 +1,101 @@
+package com.smartats.module.candidate.controller;
+
+import com.smartats.common.result.Result;
+import com.smartats.infrastructure.vector.VectorIndexBenchmarkService.BenchmarkResult;
+import com.smartats.infrastructure.vector.VectorIndexBenchmarkService.CoarseRecallResult;
+import com.smartats.infrastructure.vector.VectorIndexSettings;
+import com.smartats.module.candidate.dto.CoarseRecallBenchmarkRequest;
+import com.smartats.module.candidate.dto.VectorIndexBenchmarkRequest;
+import com.smartats.module.candidate.dto.VectorIndexStatusResponse;
+import com.smartats.module.candidate.service.VectorIndexService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * 候选人向量索引管理接口
+ * <p>
+ * 查看 / 在线重建 Milvus ANN 索引，基于 recall@K 与延迟的索引参数基准测试，以及两阶段检索的召回对比。
+ */
+@Slf4j
+@RestController
+@RequestMapping("/candidates/vector-index")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "smartats.vector.store", havingValue = "milvus", matchIfMissing = true)
+@Tag(name = "候选人向量索引", description = "ANN 索引参数管理与基准测试")
+public class VectorIndexController {
+
+    private final VectorIndexService vectorIndexService;
+
+    /**
+     * 查询当前索引参数与最近一次重建状态
+     */
+    @GetMapping
+    @Operation(summary = "查询向量索引状态")
+    public Result<VectorIndexStatusResponse> status() {
+        return Result.success(vectorIndexService.getStatus());
+    }
+
+    /**
+     * 在线重建索引
+     * <p>
+     * 后台创建新 Collection 并复制数据，索引构建完成后切换别名，期间搜索与写入不受影响。
+     */
+    @PostMapping("/rebuild")
+    @Operation(summary = "在线重建向量索引", description = "按新的索引类型与参数后台重建，完成后原子切换")
+    public Result<Void> rebuild(@RequestBody VectorIndexSettings settings) {
+        log.info("收到向量索引重建请求: settings={}", settings);
+        vectorIndexService.startRebuild(settings);
+        return Result.success();
+    }
+
+    /**
+     * 立即执行一次索引维护检查
+     * <p>
+     * 数据量偏离当前 nlist 过多时按推荐值重建，已删除行占比过高时触发 compaction；
+     * 结果见状态接口的 lastMaintenance。
+     */
+    @PostMapping("/maintenance")
+    @Operation(summary = "向量索引维护检查", description = "按数据量调整 nlist 重建索引，或回收已删除向量")
+    public Result<Void> maintenance() {
+        vectorIndexService.startMaintenance();
+        return Result.success();
+    }
+
+    /**
+     * 索引参数基准测试
+     * <p>
+     * 在临时 Collection 中测量每组参数的 recall@K（以暴力搜索为真值）与 p50 / p99 延迟。
+     */
+    @PostMapping("/benchmark")
+    @Operation(summary = "向量索引基准测试", description = "比较多组索引参数的召回率与延迟")
+    public Result<List<BenchmarkResult>> benchmark(@Valid @RequestBody VectorIndexBenchmarkRequest request) {
+        log.info("收到向量索引基准测试请求: source={}, size={}, settings={}",
+                request.getSource(), request.getDatasetSize(), request.getSettings().size());
+        return Result.success(vectorIndexService.benchmark(request));
+    }
+
+    /**
+     * 两阶段检索召回对比
+     * <p>
+     * 在内存中比较「低维截断向量召回 N 个 + 完整向量重排」与完整向量精确检索的 recall@K，
+     * 用于决定 smartats.vector.coarse.dimension / candidates。
+     */
+    @PostMapping("/coarse-benchmark")
+    @Operation(summary = "两阶段检索召回对比", description = "比较不同粗排召回数下 Matryoshka 截断检索的召回率")
+    public Result<List<CoarseRecallResult>> coarseBenchmark(@Valid @RequestBody CoarseRecallBenchmarkRequest request) {
+        log.info("收到两阶段检索召回对比请求: source={}, size={}, coarseDim={}, candidates={}",
+                request.getSource(), request.getDatasetSize(), request.getCoarseDimension(), request.getCandidates());
+        return Result.success(vectorIndexService.compareCoarse(request));
+    }
+}
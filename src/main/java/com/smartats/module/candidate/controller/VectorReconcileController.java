@@ -0,0 +1,53 @@
+package com.smartats.module.candidate.controller;
+
+import com.smartats.common.result.Result;
+import com.smartats.module.candidate.dto.VectorReconcileReportResponse;
+import com.smartats.module.candidate.service.CandidateReconcileService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 候选人向量对账接口
+ * <p>
+ * 检测并修复 MySQL 与向量存储之间的偏差（缺失、过期、孤儿向量），查询最近一次对账的偏差统计。
+ */
+@Slf4j
+@RestController
+@RequestMapping("/candidates/vector-reconcile")
+@RequiredArgsConstructor
+@Tag(name = "候选人向量对账", description = "MySQL 与向量存储一致性对账")
+public class VectorReconcileController {
+
+    private final CandidateReconcileService candidateReconcileService;
+
+    /**
+     * 查询最近一次对账报告
+     *
+     * @param full true 全量对账报告；false 增量对账报告（默认）
+     */
+    @GetMapping
+    @Operation(summary = "查询向量对账报告")
+    public Result<VectorReconcileReportResponse> report(@RequestParam(defaultValue = "false") boolean full) {
+        return Result.success(candidateReconcileService.getReport(full));
+    }
+
+    /**
+     * 发起对账
+     *
+     * @param full true 全量对账（含孤儿向量检测）；false 按 updated_at 水位线增量对账（默认）
+     */
+    @PostMapping
+    @Operation(summary = "发起向量对账", description = "后台执行，分批重新嵌入缺失 / 过期向量并删除孤儿向量")
+    public Result<Void> start(@RequestParam(defaultValue = "false") boolean full) {
+        log.info("收到向量对账请求: full={}", full);
+        candidateReconcileService.start(full);
+        return Result.success();
+    }
+}
@@ -0,0 +1,61 @@
+package com.smartats.module.candidate.controller;
+
+import com.smartats.common.result.Result;
+import com.smartats.module.candidate.dto.VectorReindexStatusResponse;
+import com.smartats.module.candidate.service.CandidateReindexService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 候选人向量批量重建接口
+ * <p>
+ * 更换 embedding 模型 / 维度或向量库数据丢失后，后台全量重新生成候选人向量，支持断点续跑。
+ */
+@Slf4j
+@RestController
+@RequestMapping("/candidates/vector-reindex")
+@RequiredArgsConstructor
+@Tag(name = "候选人向量重建", description = "全量重新生成候选人向量")
+public class VectorReindexController {
+
+    private final CandidateReindexService candidateReindexService;
+
+    /**
+     * 查询重建进度（已处理数、失败数、吞吐、预计剩余时间）
+     */
+    @GetMapping
+    @Operation(summary = "查询向量批量重建进度")
+    public Result<VectorReindexStatusResponse> status() {
+        return Result.success(candidateReindexService.getStatus());
+    }
+
+    /**
+     * 发起批量重建
+     *
+     * @param resume true 从上次检查点继续（默认）；false 从头开始
+     */
+    @PostMapping
+    @Operation(summary = "发起向量批量重建", description = "后台执行，按检查点断点续跑并限制 embedding 调用速率")
+    public Result<Void> start(@RequestParam(defaultValue = "true") boolean resume) {
+        log.info("收到向量批量重建请求: resume={}", resume);
+        candidateReindexService.start(resume);
+        return Result.success();
+    }
+
+    /**
+     * 停止批量重建（当前页处理完后停止，可再次以 resume=true 继续）
+     */
+    @PostMapping("/stop")
+    @Operation(summary = "停止向量批量重建")
+    public Result<Void> stop() {
+        candidateReindexService.stop();
+        return Result.success();
+    }
+}
@@ -0,0 +1,69 @@
+package com.smartats.module.candidate.controller;
+
+import com.smartats.common.result.Result;
+import com.smartats.module.candidate.dto.VectorSnapshotStatusResponse;
+import com.smartats.module.candidate.service.VectorSnapshotService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 候选人向量快照接口
+ * <p>
+ * 把全部候选人向量导出为紧凑的二进制快照（本地磁盘或 MinIO），Collection 丢失或迁移后从快照恢复，
+ * 无需重新调用 embedding 接口。
+ */
+@Slf4j
+@RestController
+@RequestMapping("/candidates/vector-snapshot")
+@RequiredArgsConstructor
+@Tag(name = "候选人向量快照", description = "向量导出与恢复")
+public class VectorSnapshotController {
+
+    private final VectorSnapshotService vectorSnapshotService;
+
+    /**
+     * 查询最近一次导出 / 导入的状态
+     */
+    @GetMapping
+    @Operation(summary = "查询向量快照任务状态")
+    public Result<VectorSnapshotStatusResponse> status() {
+        return Result.success(vectorSnapshotService.getStatus());
+    }
+
+    /**
+     * 发起导出
+     *
+     * @param storage  LOCAL（默认）/ MINIO
+     * @param encoding FLOAT32（默认，无损）/ FLOAT16 / INT8
+     * @return 快照名称
+     */
+    @PostMapping("/export")
+    @Operation(summary = "导出候选人向量快照", description = "后台执行，可选 float16 / int8 量化")
+    public Result<String> export(@RequestParam(defaultValue = "LOCAL") String storage,
+                                 @RequestParam(defaultValue = "FLOAT32") String encoding) {
+        log.info("收到向量快照导出请求: storage={}, encoding={}", storage, encoding);
+        return Result.success(vectorSnapshotService.startExport(storage, encoding));
+    }
+
+    /**
+     * 从快照恢复向量
+     *
+     * @param storage LOCAL（默认）/ MINIO
+     * @param name    导出时返回的快照名称
+     */
+    @PostMapping("/import")
+    @Operation(summary = "从快照恢复候选人向量", description = "后台执行，批量写入向量存储，不调用 embedding 接口")
+    public Result<Void> importSnapshot(@RequestParam(defaultValue = "LOCAL") String storage,
+                                       @RequestParam String name) {
+        log.info("收到向量快照导入请求: storage={}, name={}", storage, name);
+        vectorSnapshotService.startImport(storage, name);
+        return Result.success();
+    }
+}
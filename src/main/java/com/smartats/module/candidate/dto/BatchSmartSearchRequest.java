@@ -0,0 +1,73 @@
+package com.smartats.module.candidate.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 批量语义搜索请求 DTO
+ * <p>
+ * 用于 POST /candidates/smart-search/batch 接口：一次提交多条查询（如多个职位描述），
+ * 所有查询合并为一次 embedding 请求与一次多向量检索，共用 topK、阈值与结构化过滤条件。
+ * 仅支持 VECTOR 模式。
+ */
+@Data
+public class BatchSmartSearchRequest {
+
+    /**
+     * 查询文本列表（最多 50 条）
+     */
+    @NotEmpty(message = "查询列表不能为空")
+    @Size(max = 50, message = "单次最多 50 条查询")
+    private List<@NotBlank(message = "搜索查询不能为空")
+                 @Size(max = 1000, message = "搜索查询文本最长 1000 字符") String> queries;
+
+    /**
+     * 每条查询返回的候选人数量（默认 10，最大 50）
+     */
+    @Min(value = 1, message = "topK 最小为 1")
+    @Max(value = 50, message = "topK 最大为 50")
+    private Integer topK = 10;
+
+    /**
+     * 最低相似度阈值（0~1）
+     */
+    @Min(value = 0, message = "最低分数不能小于 0")
+    @Max(value = 1, message = "最低分数不能大于 1")
+    private Double minScore = 0.3;
+
+    /**
+     * 学历过滤（命中其一即可）
+     */
+    @Size(max = 10, message = "学历过滤条件最多 10 个")
+    private List<String> educations;
+
+    /**
+     * 最低工作年限（含）
+     */
+    @Min(value = 0, message = "最低工作年限不能小于 0")
+    private Integer minWorkYears;
+
+    /**
+     * 最高工作年限（含）
+     */
+    @Min(value = 0, message = "最高工作年限不能小于 0")
+    private Integer maxWorkYears;
+
+    /**
+     * 当前职位关键字（模糊匹配）
+     */
+    @Size(max = 100, message = "职位关键字最长 100 字符")
+    private String currentPosition;
+
+    /**
+     * 必须同时具备的技能（大小写不敏感）
+     */
+    @Size(max = 20, message = "技能过滤条件最多 20 个")
+    private List<String> skills;
+}
@@ -0,0 +1,21 @@
+package com.smartats.module.candidate.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 批量语义搜索响应 DTO
+ */
+@Data
+public class BatchSmartSearchResponse {
+
+    /** 查询条数 */
+    private int totalQueries;
+
+    /** 所有查询结果中去重后的候选人数（即回表查询的候选人数） */
+    private int uniqueCandidates;
+
+    /** 与请求中查询顺序一致的搜索结果 */
+    private List<SmartSearchResponse> results;
+}
@@ -0,0 +1,43 @@
+package com.smartats.module.candidate.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 候选人筛选分面统计响应 DTO
+ * <p>
+ * 各分面按命中数倒序；技能为规范化后的技能 ID（见 SkillNormalizer）。
+ */
+@Data
+public class CandidateFacetResponse {
+
+    /** 满足筛选条件的候选人总数 */
+    private long total;
+
+    /** 技能分面（取前 facetSize 个） */
+    private List<FacetCount> skills;
+
+    /** 学历分面（未填写学历的候选人不计入） */
+    private List<FacetCount> educations;
+
+    /** 工作年限分面：1年以下 / 1-3年 / 3-5年 / 5-10年 / 10年以上 / 未知 */
+    private List<FacetCount> workYears;
+
+    /** 统计耗时（毫秒） */
+    private long elapsedMs;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FacetCount {
+
+        /** 分面取值 */
+        private String value;
+
+        /** 命中数 */
+        private long count;
+    }
+}
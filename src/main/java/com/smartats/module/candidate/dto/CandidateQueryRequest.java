@@ -2,10 +2,13 @@ package com.smartats.module.candidate.dto;
 
 import lombok.Data;
 
+import java.util.List;
+
 /**
  * 候选人分页查询请求 DTO
  * <p>
  * 支持关键字搜索 + 多维度高级筛选。
+ * 不含关键字 / 当前职位模糊条件时由内存索引（CandidateFacetIndex）筛选，MySQL 仅按 id 回表。
  */
 @Data
 public class CandidateQueryRequest {
@@ -31,11 +34,23 @@ public class CandidateQueryRequest {
     private String education;
 
     /**
-     * 技能筛选（精确匹配 JSON 数组中的一个技能，如：Java、Python）
-     * 底层使用 JSON_CONTAINS；传空则不过滤
+     * 技能筛选（单个技能，如：Java、Python），与 skills 合并；传空则不过滤
      */
     private String skill;
 
+    /**
+     * 多技能筛选，组合方式见 skillMatch；传空则不过滤
+     * <p>
+     * 按别名词典忽略大小写匹配（K8s 与 Kubernetes 视为同一技能）。走内存索引时按规范 ID 匹配；
+     * 带关键字条件走 MySQL 时展开为词典中的全部写法，词典未列出的分隔符变体（如 spring-boot）匹配不到
+     */
+    private List<String> skills;
+
+    /**
+     * 多技能组合方式：ALL（默认，需全部具备）/ ANY（具备其一即可）
+     */
+    private String skillMatch;
+
     /**
      * 工作年限下限（含），传 null 则不限制
      */
@@ -0,0 +1,71 @@
+package com.smartats.module.candidate.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 两阶段检索召回对比请求 DTO
+ * <p>
+ * 用于 POST /candidates/vector-index/coarse-benchmark 接口，比较低维粗排 + 完整向量重排
+ * 在不同粗排召回数下相对完整向量精确检索的 recall@K。
+ */
+@Data
+public class CoarseRecallBenchmarkRequest {
+
+    /**
+     * 数据集来源：SYNTHETIC（合成数据）/ EXPORTED（导出当前候选人向量）
+     * <p>
+     * 合成数据的各维度同分布，不具备 Matryoshka 前缀特性，结果偏悲观；评估真实模型请使用 EXPORTED。
+     */
+    @Pattern(regexp = "SYNTHETIC|EXPORTED", message = "数据集来源只能是 SYNTHETIC 或 EXPORTED")
+    private String source = "EXPORTED";
+
+    /**
+     * 数据集向量数量（导出模式下为上限）
+     */
+    @Min(value = 100, message = "数据集最少 100 条")
+    @Max(value = 100000, message = "数据集最多 100000 条")
+    private Integer datasetSize = 10000;
+
+    /**
+     * 查询数量
+     */
+    @Min(value = 10, message = "查询数量最少 10 条")
+    @Max(value = 1000, message = "查询数量最多 1000 条")
+    private Integer queryCount = 100;
+
+    /**
+     * recall@K 的 K
+     */
+    @Min(value = 1, message = "topK 最小为 1")
+    @Max(value = 100, message = "topK 最大为 100")
+    private Integer topK = 10;
+
+    /**
+     * 随机种子（相同种子生成相同的数据集和查询）
+     */
+    private Long seed = 42L;
+
+    /**
+     * 粗排维度（Matryoshka 截断）
+     */
+    @NotNull(message = "粗排维度不能为空")
+    @Min(value = 16, message = "粗排维度最小为 16")
+    @Max(value = 1023, message = "粗排维度必须小于完整维度")
+    private Integer coarseDimension = 256;
+
+    /**
+     * 待比较的粗排召回数
+     */
+    @NotEmpty(message = "至少提供一个粗排召回数")
+    @Size(max = 10, message = "一次最多比较 10 个召回数")
+    private List<@NotNull @Min(value = 1, message = "粗排召回数最小为 1")
+            @Max(value = 5000, message = "粗排召回数最大为 5000") Integer> candidates = List.of(100, 300, 500);
+}
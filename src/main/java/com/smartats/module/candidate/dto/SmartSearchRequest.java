@@ -1,16 +1,30 @@
 package com.smartats.module.candidate.dto;
 
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 import lombok.Data;
 
+import java.util.List;
+
 /**
  * 语义搜索请求 DTO
  * <p>
  * 用于 POST /candidates/smart-search 接口。
  * 支持自然语言查询，如：「3年以上 Java 后端，熟悉 Spring Boot 和微服务」。
+ * <p>
+ * 可选的结构化过滤条件（学历、工作年限、当前职位、技能）在 Milvus 检索内部执行，
+ * 过滤后仍返回最多 topK 个结果。
+ * <p>
+ * mode=HYBRID 时同时执行向量检索与关键词（全文索引）检索，并按倒数排名融合（RRF）排序。
+ * <p>
+ * 设置 rerank 后，先多召回一批结果，再按技能 / 经验 / 学历匹配度与检索分数加权重排，取前 topK 个。
+ * <p>
+ * 设置 pageSize 后开启搜索会话：排好序的结果（最多 smartats.search.session.max-results 个，忽略 topK）
+ * 缓存在 searchId 下，本次只返回第一页，后续页通过 GET /candidates/smart-search/{searchId}?cursor= 获取。
  */
 @Data
 public class SmartSearchRequest {
@@ -43,4 +57,78 @@ public class SmartSearchRequest {
     @Min(value = 0, message = "最低分数不能小于 0")
     @Max(value = 1, message = "最低分数不能大于 1")
     private Double minScore = 0.3;
+
+    /**
+     * 检索模式：VECTOR（默认，纯向量检索）/ HYBRID（向量 + 关键词混合检索）
+     * <p>
+     * 对 "Kafka"、"K8s" 等精确技术名词，HYBRID 模式召回更稳定。
+     */
+    @Pattern(regexp = "VECTOR|HYBRID", message = "检索模式只能为 VECTOR 或 HYBRID")
+    private String mode = "VECTOR";
+
+    /**
+     * 学历过滤（命中其一即可），如 ["本科", "硕士"]
+     */
+    @Size(max = 10, message = "学历过滤条件最多 10 个")
+    private List<String> educations;
+
+    /**
+     * 最低工作年限（含）
+     */
+    @Min(value = 0, message = "最低工作年限不能小于 0")
+    private Integer minWorkYears;
+
+    /**
+     * 最高工作年限（含）
+     */
+    @Min(value = 0, message = "最高工作年限不能小于 0")
+    private Integer maxWorkYears;
+
+    /**
+     * 当前职位关键字（模糊匹配）
+     */
+    @Size(max = 100, message = "职位关键字最长 100 字符")
+    private String currentPosition;
+
+    /**
+     * 必须同时具备的技能（大小写不敏感）
+     */
+    @Size(max = 20, message = "技能过滤条件最多 20 个")
+    private List<String> skills;
+
+    /**
+     * 重排条件（可选）：软性偏好，不满足的候选人降低排名而非被过滤
+     */
+    @Valid
+    private RerankCriteria rerank;
+
+    /**
+     * 分页大小（可选）：设置后开启搜索会话，按游标翻页
+     */
+    @Min(value = 1, message = "分页大小最小为 1")
+    @Max(value = 50, message = "分页大小最大为 50")
+    private Integer pageSize;
+
+    /**
+     * 结构化重排条件
+     */
+    @Data
+    public static class RerankCriteria {
+
+        /** 期望技能（按覆盖比例打分，大小写不敏感） */
+        @Size(max = 50, message = "重排技能最多 50 个")
+        private List<String> skills;
+
+        /** 期望学历（达到即满分，如 "本科"） */
+        @Size(max = 20, message = "学历最长 20 字符")
+        private String education;
+
+        /** 期望最低工作年限 */
+        @Min(value = 0, message = "最低工作年限不能小于 0")
+        private Integer minWorkYears;
+
+        /** 期望最高工作年限 */
+        @Min(value = 0, message = "最高工作年限不能小于 0")
+        private Integer maxWorkYears;
+    }
 }
@@ -10,12 +10,30 @@ import java.util.List;
 @Data
 public class SmartSearchResponse {
 
-    /** 原始查询文本 */
+    /** 原始查询文本（相似候选人查询时为 null） */
     private String query;
 
-    /** 返回的匹配候选人数量 */
+    /**
+     * 实际使用的检索模式：VECTOR / HYBRID；混合检索某一路失败时降级为 VECTOR 或 LEXICAL；
+     * 相似候选人查询为 SIMILAR
+     */
+    private String mode;
+
+    /** 是否为降级结果：embedding 服务或向量存储不可用（含熔断中），结果只来自关键词检索 */
+    private boolean degraded;
+
+    /** 返回的匹配候选人数量（分页时为当页数量） */
     private int totalMatches;
 
+    /** 搜索会话 ID（仅分页搜索） */
+    private String searchId;
+
+    /** 会话中的结果总数（仅分页搜索） */
+    private Integer totalResults;
+
+    /** 下一页游标，没有下一页时为 null（仅分页搜索） */
+    private String nextCursor;
+
     /** 匹配的候选人列表（按相似度倒序） */
     private List<MatchedCandidate> candidates;
 
@@ -31,9 +49,33 @@ public class SmartSearchResponse {
         /** 候选人姓名 */
         private String name;
 
-        /** 相似度分数（0~1，COSINE） */
+        /**
+         * 匹配分数（0~1）：VECTOR 模式为 COSINE 相似度，HYBRID 模式为归一化的 RRF 融合分数；
+         * 启用重排时为检索分数与结构化匹配度的加权分
+         */
         private double matchScore;
 
+        /** 重排前的检索分数（0~1，即未重排时的 matchScore） */
+        private Double retrievalScore;
+
+        /** 向量相似度（COSINE，未被向量检索召回时为 null） */
+        private Double vectorScore;
+
+        /** 关键词检索相关度（MySQL 全文检索分数，未被关键词检索召回时为 null） */
+        private Double lexicalScore;
+
+        /** RRF 融合分数（仅 HYBRID 模式） */
+        private Double fusionScore;
+
+        /** 技能匹配度（0~1，仅启用重排时） */
+        private Double skillScore;
+
+        /** 经验匹配度（0~1，仅启用重排时） */
+        private Double experienceScore;
+
+        /** 学历匹配度（0~1，仅启用重排时） */
+        private Double educationScore;
+
         /** 当前职位 */
         private String currentPosition;
 
@@ -0,0 +1,59 @@
+package com.smartats.module.candidate.dto;
+
+import com.smartats.infrastructure.vector.VectorIndexSettings;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 向量索引基准测试请求 DTO
+ * <p>
+ * 用于 POST /candidates/vector-index/benchmark 接口，一次比较多组索引参数。
+ */
+@Data
+public class VectorIndexBenchmarkRequest {
+
+    /**
+     * 数据集来源：SYNTHETIC（合成数据）/ EXPORTED（导出当前候选人向量）
+     */
+    @Pattern(regexp = "SYNTHETIC|EXPORTED", message = "数据集来源只能是 SYNTHETIC 或 EXPORTED")
+    private String source = "SYNTHETIC";
+
+    /**
+     * 数据集向量数量（导出模式下为上限）
+     */
+    @Min(value = 100, message = "数据集最少 100 条")
+    @Max(value = 100000, message = "数据集最多 100000 条")
+    private Integer datasetSize = 10000;
+
+    /**
+     * 查询数量
+     */
+    @Min(value = 10, message = "查询数量最少 10 条")
+    @Max(value = 1000, message = "查询数量最多 1000 条")
+    private Integer queryCount = 100;
+
+    /**
+     * recall@K 的 K
+     */
+    @Min(value = 1, message = "topK 最小为 1")
+    @Max(value = 100, message = "topK 最大为 100")
+    private Integer topK = 10;
+
+    /**
+     * 随机种子（相同种子生成相同的数据集和查询）
+     */
+    private Long seed = 42L;
+
+    /**
+     * 待比较的索引参数
+     */
+    @NotEmpty(message = "至少提供一组索引参数")
+    @Size(max = 6, message = "一次最多比较 6 组索引参数")
+    private List<VectorIndexSettings> settings;
+}
@@ -0,0 +1,31 @@
+package com.smartats.module.candidate.dto;
+
+import com.smartats.infrastructure.vector.VectorIndexSettings;
+import com.smartats.infrastructure.vector.MilvusVectorStoreService.RebuildStatus;
+import com.smartats.module.candidate.service.VectorIndexMaintenanceJob.MaintenanceReport;
+import lombok.Data;
+
+/**
+ * 向量索引状态响应 DTO
+ */
+@Data
+public class VectorIndexStatusResponse {
+
+    /** 当前生效的索引参数 */
+    private VectorIndexSettings activeSettings;
+
+    /** 是否支持标量过滤（旧版 Schema 为 false） */
+    private boolean scalarFilterSupported;
+
+    /** 当前 Collection 粗排字段维度（0 表示没有粗排字段） */
+    private int coarseDimension;
+
+    /** 是否走两阶段检索（低维粗排 + 完整向量精排） */
+    private boolean twoStageSearch;
+
+    /** 最近一次重建状态 */
+    private RebuildStatus lastRebuild;
+
+    /** 本实例最近一次自动维护检查（尚未检查过时为 null） */
+    private MaintenanceReport lastMaintenance;
+}
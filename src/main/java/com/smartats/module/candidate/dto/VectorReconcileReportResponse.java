@@ -0,0 +1,54 @@
+package com.smartats.module.candidate.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 候选人向量对账报告响应 DTO（MySQL 与向量存储的偏差统计）
+ */
+@Data
+public class VectorReconcileReportResponse {
+
+    /** INCREMENTAL（按 updated_at 水位线）/ FULL（全量主键比对） */
+    private String mode;
+
+    /** IDLE / RUNNING / SUCCEEDED / FAILED */
+    private String state;
+
+    /** 是否只统计偏差、不修复 */
+    private boolean dryRun;
+
+    /** 已检查的候选人数（不含刚更新、可能仍在向量化中的候选人） */
+    private long scanned;
+
+    /** 缺失：MySQL 中存在但没有向量 */
+    private long missing;
+
+    /** 孤儿：向量存在但 MySQL 中已无该候选人（仅全量对账检测） */
+    private long orphaned;
+
+    /** 过期：向量存在但嵌入文本指纹与 embedding_hash 不一致 */
+    private long stale;
+
+    /** 只回填指纹：引入 embedding_hash 之前向量化、嵌入文本未变的候选人（不计入偏差，不调用 embedding API） */
+    private long backfilled;
+
+    /** 已修复数（重新嵌入写入或删除孤儿向量） */
+    private long repaired;
+
+    /** 修复失败数 */
+    private long failed;
+
+    /** 偏差率（(missing + stale) / scanned） */
+    private double driftRate;
+
+    /** 增量对账水位线（已检查到的 updated_at） */
+    private LocalDateTime watermark;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+
+    private String errorMessage;
+}
@@ -0,0 +1,44 @@
+package com.smartats.module.candidate.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 候选人向量批量重建状态响应 DTO
+ */
+@Data
+public class VectorReindexStatusResponse {
+
+    /** IDLE / RUNNING / STOPPING / STOPPED / INTERRUPTED / SUCCEEDED / FAILED */
+    private String state;
+
+    /** 已处理到的最大候选人 ID（断点续跑从该 ID 之后开始） */
+    private long lastId;
+
+    /** 已处理候选人数（含失败） */
+    private long processed;
+
+    /** 向量化失败的候选人数 */
+    private long failed;
+
+    /** 任务开始时的候选人总数 */
+    private long total;
+
+    /** 当前进度百分比（0 - 100） */
+    private double progressPercent;
+
+    /** 本次运行的平均吞吐（条 / 秒） */
+    private double throughputPerSecond;
+
+    /** 预计剩余时间（秒），无法估算时为 null */
+    private Long etaSeconds;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime updatedAt;
+
+    private LocalDateTime finishedAt;
+
+    private String errorMessage;
+}
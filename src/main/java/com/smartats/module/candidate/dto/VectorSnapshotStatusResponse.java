@@ -0,0 +1,42 @@
+package com.smartats.module.candidate.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 候选人向量快照导出 / 导入状态响应 DTO
+ */
+@Data
+public class VectorSnapshotStatusResponse {
+
+    /** EXPORT / IMPORT；尚未执行过任务时为 null */
+    private String operation;
+
+    /** IDLE / RUNNING / SUCCEEDED / FAILED */
+    private String state;
+
+    /** 存储位置：LOCAL / MINIO */
+    private String storage;
+
+    /** 快照名称 */
+    private String name;
+
+    /** 向量编码：FLOAT32 / FLOAT16 / INT8 */
+    private String encoding;
+
+    /** 已导出 / 导入的向量数 */
+    private long rows;
+
+    /** 跳过的行数（导出：候选人尚未向量化；导入：候选人已不存在） */
+    private long skipped;
+
+    /** 快照文件字节数（导出完成后写入） */
+    private long bytes;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+
+    private String errorMessage;
+}
@@ -87,6 +87,9 @@ public class Candidate {
     /** AI 生成的候选人摘要（用于嵌入和展示）→ 对应 DB 列 ai_summary */
     private String aiSummary;
 
+    /** 嵌入文本指纹（SHA-256，含模型与维度），文本未变时跳过重新嵌入 → 对应 DB 列 embedding_hash */
+    private String embeddingHash;
+
     // ========== 审计字段 ==========
     private LocalDateTime createdAt;
 
@@ -1,12 +1,126 @@
 package com.smartats.module.candidate.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.smartats.common.handler.JsonTypeHandler;
 import com.smartats.module.candidate.entity.Candidate;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Result;
+import org.apache.ibatis.annotations.ResultMap;
+import org.apache.ibatis.annotations.Results;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 
 /**
  * 候选人 Mapper
  */
 @Mapper
 public interface CandidateMapper extends BaseMapper<Candidate> {
+
+    /**
+     * 基于 ai_summary 全文索引（ngram 分词）的关键词检索，按相关度倒序
+     * <p>
+     * ai_summary 即嵌入文本，包含职位、技能、工作与项目经历，可精确命中 "Kafka"、"K8s" 等技术名词。
+     * 结构化过滤条件与向量检索语义一致：工作年限为 NULL 时不满足年限条件，技能大小写不敏感且需全部具备
+     * （每个技能命中其任一等价写法即可）。
+     *
+     * @param query           查询文本
+     * @param educations      学历（命中其一即可，可选）
+     * @param minWorkYears    最低工作年限（可选）
+     * @param maxWorkYears    最高工作年限（可选）
+     * @param currentPosition 当前职位关键字（可选）
+     * @param skillGroups     技能分组（可选）：组间 AND，组内为已标准化（小写）的等价写法、命中其一即可
+     * @param limit           返回条数
+     * @return List of {id: Long, score: Double}
+     */
+    @Select({"<script>",
+            "SELECT id, MATCH(ai_summary) AGAINST(#{query} IN NATURAL LANGUAGE MODE) AS score",
+            "FROM candidates",
+            "WHERE MATCH(ai_summary) AGAINST(#{query} IN NATURAL LANGUAGE MODE)",
+            "<if test='educations != null and educations.size() > 0'>",
+            "  AND highest_education IN",
+            "  <foreach item='education' collection='educations' open='(' separator=',' close=')'>#{education}</foreach>",
+            "</if>",
+            "<if test='minWorkYears != null'>AND experience_years &gt;= #{minWorkYears}</if>",
+            "<if test='maxWorkYears != null'>AND experience_years &lt;= #{maxWorkYears}</if>",
+            "<if test='currentPosition != null'>AND current_position LIKE CONCAT('%', #{currentPosition}, '%')</if>",
+            "<if test='skillGroups != null'>",
+            "  <foreach item='group' collection='skillGroups'>",
+            "    AND <foreach item='skill' collection='group' open='(' separator=' OR ' close=')'>",
+            "      JSON_CONTAINS(LOWER(skills), JSON_QUOTE(#{skill}))",
+            "    </foreach>",
+            "  </foreach>",
+            "</if>",
+            "ORDER BY score DESC",
+            "LIMIT #{limit}",
+            "</script>"})
+    List<Map<String, Object>> fullTextSearch(@Param("query") String query,
+                                             @Param("educations") List<String> educations,
+                                             @Param("minWorkYears") Integer minWorkYears,
+                                             @Param("maxWorkYears") Integer maxWorkYears,
+                                             @Param("currentPosition") String currentPosition,
+                                             @Param("skillGroups") List<List<String>> skillGroups,
+                                             @Param("limit") int limit);
+
+    /**
+     * 按 id 键集分页读取筛选索引所需的列（id / 学历 / 工作年限 / 技能 / 更新时间），不读取大字段
+     *
+     * @param afterId 上一页最后一个 id
+     * @param limit   每页条数
+     */
+    @Select("SELECT id, highest_education, experience_years, skills, updated_at FROM candidates "
+            + "WHERE id > #{afterId} ORDER BY id LIMIT #{limit}")
+    @Results(id = "facetRow", value = {
+            @Result(column = "id", property = "id", id = true),
+            @Result(column = "highest_education", property = "education"),
+            @Result(column = "experience_years", property = "workYears"),
+            @Result(column = "skills", property = "skills", typeHandler = JsonTypeHandler.class),
+            @Result(column = "updated_at", property = "updatedAt")
+    })
+    List<Candidate> selectFacetRows(@Param("afterId") long afterId, @Param("limit") int limit);
+
+    /**
+     * 按 (updated_at, id) 键集分页读取指定时间之后变更的候选人（列同 {@link #selectFacetRows}）
+     *
+     * @param since   上次同步到的更新时间
+     * @param afterId 同一更新时间下上次同步到的 id
+     * @param limit   每页条数
+     */
+    @Select("SELECT id, highest_education, experience_years, skills, updated_at FROM candidates "
+            + "WHERE updated_at > #{since} OR (updated_at = #{since} AND id > #{afterId}) "
+            + "ORDER BY updated_at, id LIMIT #{limit}")
+    @ResultMap("facetRow")
+    List<Candidate> selectFacetRowsUpdatedSince(@Param("since") LocalDateTime since,
+                                                @Param("afterId") long afterId,
+                                                @Param("limit") int limit);
+
+    /**
+     * 批量回写向量信息（单条 UPDATE ... CASE id），显式保持 updated_at 不变
+     * <p>
+     * 批量重建 / 对账修复只改写派生字段；若触发 ON UPDATE CURRENT_TIMESTAMP，
+     * 对账增量水位线与筛选索引增量同步会把整表视为已变更。
+     *
+     * @param candidates 需包含 id、vectorId、aiSummary、embeddingHash
+     * @return 影响行数
+     */
+    @Update({"<script>",
+            "UPDATE candidates SET",
+            "  vector_id = CASE id",
+            "    <foreach item='c' collection='candidates'>WHEN #{c.id} THEN #{c.vectorId} </foreach>",
+            "  END,",
+            "  ai_summary = CASE id",
+            "    <foreach item='c' collection='candidates'>WHEN #{c.id} THEN #{c.aiSummary} </foreach>",
+            "  END,",
+            "  embedding_hash = CASE id",
+            "    <foreach item='c' collection='candidates'>WHEN #{c.id} THEN #{c.embeddingHash} </foreach>",
+            "  END,",
+            "  updated_at = updated_at",
+            "WHERE id IN",
+            "  <foreach item='c' collection='candidates' open='(' separator=',' close=')'>#{c.id}</foreach>",
+            "</script>"})
+    int batchUpdateVectorInfo(@Param("candidates") List<Candidate> candidates);
 }
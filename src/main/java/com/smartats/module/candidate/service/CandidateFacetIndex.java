@@ -0,0 +1,729 @@
+package com.smartats.module.candidate.service;
+
+import com.smartats.module.application.service.SkillNormalizer;
+import com.smartats.module.candidate.dto.CandidateFacetResponse;
+import com.smartats.module.candidate.dto.CandidateFacetResponse.FacetCount;
+import com.smartats.module.candidate.entity.Candidate;
+import com.smartats.module.candidate.mapper.CandidateMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 候选人结构化筛选 / 分面统计的进程内索引
+ * <p>
+ * 候选人列表的技能（JSON_CONTAINS）、学历、工作年限筛选在 MySQL 上需要扫描大 JSON 列，分面统计还要额外 GROUP BY。
+ * 这里按槽位（slot）为候选人编号，在进程内维护倒排集合与原始类型列：
+ * <ul>
+ *   <li>技能（经 {@link SkillNormalizer} 规范化）：每个技能一个槽位集合，稀疏时为有序 int 数组，
+ *       稠密后转为位图（Roaring 的 array / bitmap 容器思路）</li>
+ *   <li>学历：每个取值一个位图；工作年限：0 ~ 30 年每年一个位图，超过 30 年归入溢出位图并按列值复核</li>
+ *   <li>原始类型列（工作年限 / 学历编码 / 技能编码）：分面统计时对结果位图单次遍历计数</li>
+ * </ul>
+ * 槽位按候选人 id 递增分配，按 id 倒序（即创建时间倒序）分页时从结果位图高位向低位遍历即可，
+ * MySQL 只用于按当页 id 回表。
+ * <p>
+ * 启动后异步全量加载；本实例的创建 / 更新 / 删除由 CandidateService 在事务提交后写入，
+ * 其他实例的变更由定时增量同步（updated_at 键集）吸收；其他实例的删除在回表时过滤，由每日全量重建清除。
+ * 技能别名词典重新加载后自动全量重建。查询持有读锁、写入持有写锁，全量重建在锁外构建新索引后原子替换。
+ * 百万候选人的筛选 + 分面统计耗时见 test 目录下的 CandidateFacetIndexBenchmark。
+ */
+@Slf4j
+@Service
+public class CandidateFacetIndex {
+
+    /** 单独建位图的最大工作年限，超过的归入溢出位图 */
+    static final int MAX_INDEXED_WORK_YEARS = 30;
+
+    /** 工作年限分面区间下界（含），最后一档为「未知」 */
+    private static final int[] WORK_YEARS_FACET_BOUNDS = {0, 1, 3, 5, 10};
+    static final String[] WORK_YEARS_FACETS = {"1年以下", "1-3年", "3-5年", "5-10年", "10年以上", "未知"};
+
+    /** 增量同步回看窗口（秒），吸收各实例之间的时钟偏差，重复写入是幂等的 */
+    private static final long SYNC_OVERLAP_SECONDS = 60;
+
+    private static final int UNKNOWN = -1;
+
+    private final CandidateMapper candidateMapper;
+    private final SkillNormalizer skillNormalizer;
+    private final boolean enabled;
+    private final int loadPageSize;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Set<Long> removedDuringRebuild = ConcurrentHashMap.newKeySet();
+
+    /** 尚未加载完成时为 null */
+    private volatile Columns columns;
+    private volatile boolean rebuilding;
+    private volatile long indexedDictionaryVersion;
+    /** 增量同步水位（仅在 rebuild / sync 内读写，两者互斥） */
+    private LocalDateTime syncedUpTo;
+
+    public CandidateFacetIndex(CandidateMapper candidateMapper,
+                               SkillNormalizer skillNormalizer,
+                               @Value("${smartats.candidate.facet-index.enabled:true}") boolean enabled,
+                               @Value("${smartats.candidate.facet-index.load-page-size:5000}") int loadPageSize) {
+        this.candidateMapper = candidateMapper;
+        this.skillNormalizer = skillNormalizer;
+        this.enabled = enabled;
+        this.loadPageSize = loadPageSize;
+    }
+
+    /**
+     * 筛选条件
+     *
+     * @param education    学历（精确匹配，可选）
+     * @param skills       技能（可选）
+     * @param matchAll     true 需全部具备，false 具备其一即可
+     * @param minWorkYears 最低工作年限（含，可选）
+     * @param maxWorkYears 最高工作年限（含，可选）
+     */
+    public record Filter(String education, Collection<String> skills, boolean matchAll,
+                         Integer minWorkYears, Integer maxWorkYears) {
+    }
+
+    /**
+     * 分页命中结果
+     *
+     * @param total 命中总数
+     * @param ids   当页候选人 id（按 id 倒序）
+     */
+    public record Hits(long total, List<Long> ids) {
+    }
+
+    /**
+     * 索引是否可用（已启用且已完成首次加载）
+     */
+    public boolean isReady() {
+        return enabled && columns != null;
+    }
+
+    /**
+     * 已索引的候选人数
+     */
+    public int size() {
+        Columns current = columns;
+        return current == null ? 0 : current.live.cardinality();
+    }
+
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+    // 查询
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+
+    /**
+     * 按条件筛选并分页（按 id 倒序）
+     *
+     * @param offset 跳过的条数
+     * @param limit  当页条数
+     */
+    public Hits search(Filter filter, long offset, int limit) {
+        Set<String> skills = skillNormalizer.normalize(filter.skills());
+        lock.readLock().lock();
+        try {
+            Columns current = requireColumns();
+            BitSet result = current.evaluate(filter, skills);
+            return new Hits(result.cardinality(), current.page(result, offset, limit));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 按条件统计分面（技能 / 学历 / 工作年限）
+     *
+     * @param facetSize 技能分面返回的取值数
+     */
+    public CandidateFacetResponse facets(Filter filter, int facetSize) {
+        long start = System.nanoTime();
+        Set<String> skills = skillNormalizer.normalize(filter.skills());
+        CandidateFacetResponse response;
+        lock.readLock().lock();
+        try {
+            Columns current = requireColumns();
+            response = current.facets(current.evaluate(filter, skills), facetSize);
+        } finally {
+            lock.readLock().unlock();
+        }
+        response.setElapsedMs((System.nanoTime() - start) / 1_000_000);
+        return response;
+    }
+
+    private Columns requireColumns() {
+        Columns current = columns;
+        if (current == null) {
+            throw new IllegalStateException("候选人筛选索引尚未加载完成");
+        }
+        return current;
+    }
+
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+    // 写入
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+
+    /**
+     * 写入或更新候选人（需包含 id / 学历 / 工作年限 / 技能）
+     */
+    public void upsert(Candidate candidate) {
+        if (!isReady() || candidate == null || candidate.getId() == null) {
+            return;
+        }
+        Set<String> skills = skillNormalizer.normalize(candidate.getSkills());
+        lock.writeLock().lock();
+        try {
+            Columns current = columns;
+            current.put(candidate.getId(), workYears(candidate), current.educationCode(candidate.getEducation()),
+                    current.skillCodes(skills));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 移除候选人
+     */
+    public void remove(Long candidateId) {
+        if (candidateId == null) {
+            return;
+        }
+        if (rebuilding) {
+            removedDuringRebuild.add(candidateId);
+        }
+        if (!isReady()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            columns.remove(candidateId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 全量重建：按 id 键集分页读取后原子替换，随后补一次增量同步吸收重建期间的变更
+     *
+     * @return 已索引的候选人数
+     */
+    public synchronized int rebuild() {
+        if (!enabled) {
+            return 0;
+        }
+        long startMs = System.currentTimeMillis();
+        LocalDateTime startedAt = LocalDateTime.now();
+        long dictionaryVersion = skillNormalizer.version();
+        removedDuringRebuild.clear();
+        rebuilding = true;
+        try {
+            Columns fresh = new Columns();
+            long lastId = 0;
+            while (true) {
+                List<Candidate> page = candidateMapper.selectFacetRows(lastId, loadPageSize);
+                for (Candidate candidate : page) {
+                    fresh.put(candidate.getId(), workYears(candidate), fresh.educationCode(candidate.getEducation()),
+                            fresh.skillCodes(skillNormalizer.normalize(candidate.getSkills())));
+                }
+                if (page.size() < loadPageSize) {
+                    break;
+                }
+                lastId = page.get(page.size() - 1).getId();
+            }
+
+            lock.writeLock().lock();
+            try {
+                for (Long removed : removedDuringRebuild) {
+                    fresh.remove(removed);
+                }
+                columns = fresh;
+                rebuilding = false;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            indexedDictionaryVersion = dictionaryVersion;
+            syncedUpTo = startedAt;
+            sync();
+
+            int size = size();
+            log.info("候选人筛选索引重建完成: candidates={}, skills={}, elapsed={}ms",
+                    size, fresh.skillNames.size(), System.currentTimeMillis() - startMs);
+            return size;
+        } finally {
+            rebuilding = false;
+            removedDuringRebuild.clear();
+        }
+    }
+
+    /**
+     * 增量同步：写入上次同步以来（含回看窗口）更新过的候选人
+     *
+     * @return 写入的候选人数
+     */
+    public synchronized int sync() {
+        if (!isReady() || syncedUpTo == null) {
+            return 0;
+        }
+        LocalDateTime since = syncedUpTo.minusSeconds(SYNC_OVERLAP_SECONDS);
+        LocalDateTime maxSeen = syncedUpTo;
+        long afterId = 0;
+        int synced = 0;
+        while (true) {
+            List<Candidate> page = candidateMapper.selectFacetRowsUpdatedSince(since, afterId, loadPageSize);
+            for (Candidate candidate : page) {
+                upsert(candidate);
+                if (candidate.getUpdatedAt() != null && candidate.getUpdatedAt().isAfter(maxSeen)) {
+                    maxSeen = candidate.getUpdatedAt();
+                }
+            }
+            synced += page.size();
+            if (page.size() < loadPageSize) {
+                break;
+            }
+            Candidate last = page.get(page.size() - 1);
+            since = last.getUpdatedAt();
+            afterId = last.getId();
+        }
+        syncedUpTo = maxSeen;
+        log.debug("候选人筛选索引增量同步: synced={}", synced);
+        return synced;
+    }
+
+    /**
+     * 启动后异步全量加载（加载完成前候选人列表走 MySQL 查询）
+     */
+    @Async("asyncExecutor")
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.error("候选人筛选索引加载失败，候选人列表继续走 MySQL 查询: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 定时增量同步；技能别名词典重新加载后改为全量重建
+     */
+    @Scheduled(fixedDelayString = "${smartats.candidate.facet-index.sync-interval-ms:30000}",
+            initialDelayString = "${smartats.candidate.facet-index.sync-interval-ms:30000}")
+    public void scheduledSync() {
+        if (!isReady()) {
+            return;
+        }
+        try {
+            if (skillNormalizer.version() != indexedDictionaryVersion) {
+                log.info("技能别名词典已更新，全量重建候选人筛选索引");
+                rebuild();
+            } else {
+                sync();
+            }
+        } catch (Exception e) {
+            log.error("候选人筛选索引同步失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 每日全量重建：清除其他实例删除的候选人、压缩已删除的槽位并恢复槽位的 id 顺序
+     */
+    @Scheduled(cron = "${smartats.candidate.facet-index.rebuild-cron:0 0 4 * * *}")
+    public void scheduledRebuild() {
+        if (!isReady()) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.error("候选人筛选索引定时重建失败: {}", e.getMessage());
+        }
+    }
+
+    private static int workYears(Candidate candidate) {
+        Integer years = candidate.getWorkYears();
+        return years == null || years < 0 ? UNKNOWN : years;
+    }
+
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+    // 索引结构
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+
+    /**
+     * 列存 + 倒排集合（非线程安全，由外层读写锁保护）
+     */
+    static final class Columns {
+
+        private long[] ids = new long[1024];
+        private int[] workYears = new int[1024];
+        private int[] educations = new int[1024];
+        private int[][] skills = new int[1024][];
+        /** 已分配的槽位数（含已删除） */
+        private int slots;
+        private long maxId;
+        /** 出现过 id 小于已有最大 id 的追加（其他实例的乱序写入），分页需排序 */
+        private boolean outOfOrder;
+
+        private final Map<Long, Integer> slotById = new HashMap<>();
+        private final BitSet live = new BitSet();
+
+        private final Map<String, Integer> skillIds = new HashMap<>();
+        private final List<String> skillNames = new ArrayList<>();
+        private final List<SlotSet> skillSets = new ArrayList<>();
+
+        private final Map<String, Integer> educationIds = new HashMap<>();
+        private final List<String> educationNames = new ArrayList<>();
+        private final List<BitSet> educationSets = new ArrayList<>();
+
+        /** 下标 0 ~ MAX_INDEXED_WORK_YEARS 为对应年限，最后一个为溢出 */
+        private final BitSet[] workYearsSets = new BitSet[MAX_INDEXED_WORK_YEARS + 2];
+
+        Columns() {
+            for (int i = 0; i < workYearsSets.length; i++) {
+                workYearsSets[i] = new BitSet();
+            }
+        }
+
+        int educationCode(String education) {
+            if (!StringUtils.hasText(education)) {
+                return UNKNOWN;
+            }
+            return educationIds.computeIfAbsent(education.trim(), name -> {
+                educationNames.add(name);
+                educationSets.add(new BitSet());
+                return educationNames.size() - 1;
+            });
+        }
+
+        int[] skillCodes(Set<String> normalized) {
+            int[] codes = new int[normalized.size()];
+            int i = 0;
+            for (String skill : normalized) {
+                codes[i++] = skillIds.computeIfAbsent(skill, name -> {
+                    skillNames.add(name);
+                    skillSets.add(new SlotSet());
+                    return skillNames.size() - 1;
+                });
+            }
+            return codes;
+        }
+
+        void put(long id, int years, int education, int[] skillCodes) {
+            Integer existing = slotById.get(id);
+            int slot;
+            if (existing != null) {
+                slot = existing;
+                unlink(slot);
+            } else {
+                slot = slots++;
+                ensureCapacity(slots);
+                ids[slot] = id;
+                slotById.put(id, slot);
+                live.set(slot);
+                if (id <= maxId) {
+                    outOfOrder = true;
+                }
+                maxId = Math.max(maxId, id);
+            }
+            workYears[slot] = years;
+            educations[slot] = education;
+            skills[slot] = skillCodes;
+            if (years != UNKNOWN) {
+                workYearsSets[Math.min(years, MAX_INDEXED_WORK_YEARS + 1)].set(slot);
+            }
+            if (education != UNKNOWN) {
+                educationSets.get(education).set(slot);
+            }
+            for (int code : skillCodes) {
+                skillSets.get(code).add(slot, slots);
+            }
+        }
+
+        void remove(long id) {
+            Integer slot = slotById.remove(id);
+            if (slot != null) {
+                unlink(slot);
+                live.clear(slot);
+                skills[slot] = null;
+            }
+        }
+
+        private void unlink(int slot) {
+            if (workYears[slot] != UNKNOWN) {
+                workYearsSets[Math.min(workYears[slot], MAX_INDEXED_WORK_YEARS + 1)].clear(slot);
+            }
+            if (educations[slot] != UNKNOWN) {
+                educationSets.get(educations[slot]).clear(slot);
+            }
+            for (int code : skills[slot]) {
+                skillSets.get(code).remove(slot);
+            }
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity > ids.length) {
+                int grown = Math.max(capacity, ids.length * 2);
+                ids = Arrays.copyOf(ids, grown);
+                workYears = Arrays.copyOf(workYears, grown);
+                educations = Arrays.copyOf(educations, grown);
+                skills = Arrays.copyOf(skills, grown);
+            }
+        }
+
+        /**
+         * 计算满足条件的槽位
+         *
+         * @param skills 已规范化的技能
+         */
+        BitSet evaluate(Filter filter, Set<String> skills) {
+            BitSet result = (BitSet) live.clone();
+
+            if (StringUtils.hasText(filter.education())) {
+                Integer code = educationIds.get(filter.education().trim());
+                if (code == null) {
+                    return new BitSet();
+                }
+                result.and(educationSets.get(code));
+            }
+
+            if (!skills.isEmpty()) {
+                if (filter.matchAll()) {
+                    for (String skill : skills) {
+                        Integer code = skillIds.get(skill);
+                        if (code == null) {
+                            return new BitSet();
+                        }
+                        skillSets.get(code).andInto(result);
+                    }
+                } else {
+                    BitSet any = new BitSet();
+                    for (String skill : skills) {
+                        Integer code = skillIds.get(skill);
+                        if (code != null) {
+                            skillSets.get(code).orInto(any);
+                        }
+                    }
+                    result.and(any);
+                }
+            }
+
+            if (filter.minWorkYears() != null || filter.maxWorkYears() != null) {
+                result.and(workYearsRange(filter.minWorkYears(), filter.maxWorkYears()));
+            }
+            return result;
+        }
+
+        private BitSet workYearsRange(Integer minYears, Integer maxYears) {
+            int min = minYears == null ? 0 : Math.max(0, minYears);
+            int max = maxYears == null ? Integer.MAX_VALUE : maxYears;
+            BitSet range = new BitSet();
+            for (int years = min; years <= Math.min(max, MAX_INDEXED_WORK_YEARS); years++) {
+                range.or(workYearsSets[years]);
+            }
+            if (max > MAX_INDEXED_WORK_YEARS) {
+                BitSet overflow = workYearsSets[MAX_INDEXED_WORK_YEARS + 1];
+                if (maxYears == null && min <= MAX_INDEXED_WORK_YEARS + 1) {
+                    range.or(overflow);
+                } else {
+                    // 溢出位图内按列值复核
+                    for (int slot = overflow.nextSetBit(0); slot >= 0; slot = overflow.nextSetBit(slot + 1)) {
+                        if (workYears[slot] >= min && workYears[slot] <= max) {
+                            range.set(slot);
+                        }
+                    }
+                }
+            }
+            return range;
+        }
+
+        /**
+         * 按 id 倒序取一页
+         */
+        List<Long> page(BitSet result, long offset, int limit) {
+            List<Long> page = new ArrayList<>(limit);
+            if (!outOfOrder) {
+                long skipped = 0;
+                for (int slot = result.length() - 1; slot >= 0 && page.size() < limit;
+                     slot = result.previousSetBit(slot - 1)) {
+                    if (skipped++ >= offset) {
+                        page.add(ids[slot]);
+                    }
+                }
+                return page;
+            }
+            long[] matched = result.stream().mapToLong(slot -> ids[slot]).sorted().toArray();
+            for (long i = matched.length - 1 - offset; i >= 0 && page.size() < limit; i--) {
+                page.add(matched[(int) i]);
+            }
+            return page;
+        }
+
+        CandidateFacetResponse facets(BitSet result, int facetSize) {
+            long[] skillCounts = new long[skillNames.size()];
+            long[] educationCounts = new long[educationNames.size()];
+            long[] workYearsCounts = new long[WORK_YEARS_FACETS.length];
+
+            if (result.equals(live)) {
+                // 无筛选条件：直接取各集合的基数
+                for (int i = 0; i < skillCounts.length; i++) {
+                    skillCounts[i] = skillSets.get(i).cardinality();
+                }
+                for (int i = 0; i < educationCounts.length; i++) {
+                    educationCounts[i] = educationSets.get(i).cardinality();
+                }
+                long known = 0;
+                for (int years = 0; years < workYearsSets.length; years++) {
+                    long count = workYearsSets[years].cardinality();
+                    workYearsCounts[workYearsFacet(years)] += count;
+                    known += count;
+                }
+                workYearsCounts[WORK_YEARS_FACETS.length - 1] = live.cardinality() - known;
+            } else {
+                for (int slot = result.nextSetBit(0); slot >= 0; slot = result.nextSetBit(slot + 1)) {
+                    for (int code : skills[slot]) {
+                        skillCounts[code]++;
+                    }
+                    if (educations[slot] != UNKNOWN) {
+                        educationCounts[educations[slot]]++;
+                    }
+                    workYearsCounts[workYears[slot] == UNKNOWN
+                            ? WORK_YEARS_FACETS.length - 1 : workYearsFacet(workYears[slot])]++;
+                }
+            }
+
+            CandidateFacetResponse response = new CandidateFacetResponse();
+            response.setTotal(result.cardinality());
+            response.setSkills(topCounts(skillNames, skillCounts, facetSize));
+            response.setEducations(topCounts(educationNames, educationCounts, educationCounts.length));
+            List<FacetCount> years = new ArrayList<>(WORK_YEARS_FACETS.length);
+            for (int i = 0; i < WORK_YEARS_FACETS.length; i++) {
+                years.add(new FacetCount(WORK_YEARS_FACETS[i], workYearsCounts[i]));
+            }
+            response.setWorkYears(years);
+            return response;
+        }
+
+        private static int workYearsFacet(int years) {
+            int facet = 0;
+            while (facet + 1 < WORK_YEARS_FACET_BOUNDS.length && years >= WORK_YEARS_FACET_BOUNDS[facet + 1]) {
+                facet++;
+            }
+            return facet;
+        }
+
+        private static List<FacetCount> topCounts(List<String> names, long[] counts, int limit) {
+            List<FacetCount> facets = new ArrayList<>();
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] > 0) {
+                    facets.add(new FacetCount(names.get(i), counts[i]));
+                }
+            }
+            facets.sort(Comparator.comparingLong(FacetCount::getCount).reversed()
+                    .thenComparing(FacetCount::getValue));
+            return facets.size() > limit ? new ArrayList<>(facets.subList(0, limit)) : facets;
+        }
+    }
+
+    /**
+     * 槽位集合：稀疏时为有序 int 数组，元素数超过槽位总数的 1/32（位图更省内存）后转为位图
+     */
+    static final class SlotSet {
+
+        /** 数组容器的最小转换阈值，避免索引规模很小时过早转为位图 */
+        private static final int MIN_DENSE_SIZE = 64;
+        private static final int DENSE_RATIO = 32;
+
+        private int[] array = new int[4];
+        private BitSet bits;
+        private int size;
+
+        void add(int slot, int slots) {
+            if (bits != null) {
+                if (!bits.get(slot)) {
+                    bits.set(slot);
+                    size++;
+                }
+                return;
+            }
+            int i = Arrays.binarySearch(array, 0, size, slot);
+            if (i >= 0) {
+                return;
+            }
+            i = -i - 1;
+            if (size == array.length) {
+                array = Arrays.copyOf(array, size * 2);
+            }
+            System.arraycopy(array, i, array, i + 1, size - i);
+            array[i] = slot;
+            size++;
+            if (size > MIN_DENSE_SIZE && size > slots / DENSE_RATIO) {
+                bits = new BitSet(slots);
+                for (int j = 0; j < size; j++) {
+                    bits.set(array[j]);
+                }
+                array = null;
+            }
+        }
+
+        void remove(int slot) {
+            if (bits != null) {
+                if (bits.get(slot)) {
+                    bits.clear(slot);
+                    size--;
+                }
+                return;
+            }
+            int i = Arrays.binarySearch(array, 0, size, slot);
+            if (i >= 0) {
+                System.arraycopy(array, i + 1, array, i, size - i - 1);
+                size--;
+            }
+        }
+
+        int cardinality() {
+            return size;
+        }
+
+        /** target &= this */
+        void andInto(BitSet target) {
+            if (bits != null) {
+                target.and(bits);
+                return;
+            }
+            BitSet kept = new BitSet();
+            for (int i = 0; i < size; i++) {
+                if (target.get(array[i])) {
+                    kept.set(array[i]);
+                }
+            }
+            target.and(kept);
+        }
+
+        /** target |= this */
+        void orInto(BitSet target) {
+            if (bits != null) {
+                target.or(bits);
+                return;
+            }
+            for (int i = 0; i < size; i++) {
+                target.set(array[i]);
+            }
+        }
+    }
+}
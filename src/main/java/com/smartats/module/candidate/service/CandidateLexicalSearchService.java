@@ -0,0 +1,77 @@
+package com.smartats.module.candidate.service;
+
+import com.smartats.infrastructure.vector.CandidateVectorFilter;
+import com.smartats.module.candidate.mapper.CandidateMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 候选人关键词检索服务
+ * <p>
+ * 基于 MySQL 全文索引（ai_summary，ngram 分词）检索，弥补向量检索对精确技术名词（"Kafka"、"K8s"）不敏感的问题。
+ * 结构化过滤条件与向量检索保持一致，由 SQL 条件执行。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CandidateLexicalSearchService {
+
+    private final CandidateMapper candidateMapper;
+
+    /**
+     * 关键词检索
+     *
+     * @param query  查询文本
+     * @param limit  返回条数
+     * @param filter 结构化过滤条件（可为 null）
+     * @return 按相关度倒序的命中列表
+     */
+    public List<LexicalHit> search(String query, int limit, CandidateVectorFilter filter) {
+        if (query == null || query.isBlank()) {
+            return List.of();
+        }
+
+        List<String> educations = null;
+        Integer minWorkYears = null;
+        Integer maxWorkYears = null;
+        String currentPosition = null;
+        List<List<String>> skillGroups = null;
+        if (filter != null && !filter.isEmpty()) {
+            educations = filter.getEducations() == null ? null : filter.getEducations().stream()
+                    .filter(e -> e != null && !e.isBlank())
+                    .map(String::trim)
+                    .toList();
+            minWorkYears = filter.getMinWorkYears();
+            maxWorkYears = filter.getMaxWorkYears();
+            if (filter.getCurrentPosition() != null && !filter.getCurrentPosition().isBlank()) {
+                currentPosition = filter.getCurrentPosition().trim().replace("%", "");
+            }
+            List<Set<String>> groups = filter.skillGroups();
+            skillGroups = groups.isEmpty() ? null : groups.stream().map(List::copyOf).toList();
+        }
+
+        List<Map<String, Object>> rows = candidateMapper.fullTextSearch(query.trim(), educations,
+                minWorkYears, maxWorkYears, currentPosition, skillGroups, limit);
+
+        List<LexicalHit> hits = rows.stream()
+                .map(row -> new LexicalHit(((Number) row.get("id")).longValue(),
+                        ((Number) row.get("score")).doubleValue()))
+                .toList();
+        log.debug("关键词检索完成: query='{}', hits={}", query, hits.size());
+        return hits;
+    }
+
+    /**
+     * 关键词检索命中
+     *
+     * @param candidateId 候选人 ID
+     * @param score       全文检索相关度（MySQL MATCH 分数，无上界）
+     */
+    public record LexicalHit(Long candidateId, double score) {
+    }
+}
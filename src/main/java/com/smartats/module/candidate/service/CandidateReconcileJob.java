@@ -0,0 +1,530 @@
+package com.smartats.module.candidate.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.smartats.common.constants.RedisKeyConstants;
+import com.smartats.infrastructure.vector.EmbeddingService;
+import com.smartats.infrastructure.vector.VectorStoreService;
+import com.smartats.module.candidate.dto.VectorReconcileReportResponse;
+import com.smartats.module.candidate.entity.Candidate;
+import com.smartats.module.candidate.mapper.CandidateMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RLock;
+import org.redisson.api.RRateLimiter;
+import org.redisson.api.RateIntervalUnit;
+import org.redisson.api.RateType;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 候选人向量对账任务（MySQL ↔ 向量存储）
+ * <p>
+ * 向量化失败只记录日志、删除候选人时先删 MySQL 再删向量，两边会逐渐漂移：
+ * 搜索命中已删除的候选人浪费 ANN 召回名额，未向量化的候选人则永远搜不到。本任务分批检测并修复三类偏差：
+ * <ul>
+ *   <li>缺失：MySQL 中存在但没有向量 → 重新嵌入写入</li>
+ *   <li>过期：嵌入文本指纹与 embedding_hash 不一致（文本已变但向量化失败）→ 重新嵌入写入</li>
+ *   <li>孤儿：向量存在但 MySQL 中已无该候选人 → 删除向量</li>
+ * </ul>
+ * 引入 embedding_hash 之前向量化的候选人没有指纹：向量存在且 ai_summary（上次嵌入的文本）与当前文本一致
+ * （或未记录）时只回填指纹、不调用 embedding API，不计入偏差；ai_summary 与当前文本不一致才按过期处理。
+ * <p>
+ * 修复与批量重建共用同一个集群限流器（{@link RedisKeyConstants#RATE_VECTOR_REINDEX_KEY}），
+ * MySQL 回写不修改 updated_at。增量对账的水位线只推进到最后一个全部修复成功的页，
+ * 失败的页下一轮重新检查（已修复的候选人指纹一致，不会重复嵌入）。
+ * 两种模式：
+ * <ul>
+ *   <li>增量（INCREMENTAL）：按 (updated_at, id) 水位线只检查上次对账后变更的候选人，检测缺失与过期</li>
+ *   <li>全量（FULL）：按 id 键集分页，逐页与向量存储中同一主键区间的 ID 比对，额外检测孤儿</li>
+ * </ul>
+ * 最近 grace-minutes 内更新的候选人可能仍在向量化（或在写缓冲中等待刷盘），本轮跳过。
+ * 批量重建执行期间不对账；分布式锁保证全集群同一时刻只有一个对账任务。
+ */
+@Slf4j
+@Service
+public class CandidateReconcileJob {
+
+    static final String MODE_INCREMENTAL = "INCREMENTAL";
+    static final String MODE_FULL = "FULL";
+
+    static final String STATE_IDLE = "IDLE";
+    static final String STATE_RUNNING = "RUNNING";
+    static final String STATE_SUCCEEDED = "SUCCEEDED";
+    static final String STATE_FAILED = "FAILED";
+
+    /** 单次按主键区间列出向量 ID 的上限（Milvus 单次查询窗口上限），超过时二分区间 */
+    static final int LIST_IDS_LIMIT = 16384;
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private static final String F_STATE = "state";
+    private static final String F_DRY_RUN = "dryRun";
+    private static final String F_SCANNED = "scanned";
+    private static final String F_MISSING = "missing";
+    private static final String F_ORPHANED = "orphaned";
+    private static final String F_STALE = "stale";
+    private static final String F_BACKFILLED = "backfilled";
+    private static final String F_REPAIRED = "repaired";
+    private static final String F_FAILED = "failed";
+    private static final String F_STARTED_AT = "startedAt";
+    private static final String F_FINISHED_AT = "finishedAt";
+    private static final String F_ERROR = "errorMessage";
+    private static final String F_WATERMARK_TIME = "watermarkTime";
+    private static final String F_WATERMARK_ID = "watermarkId";
+
+    private final CandidateMapper candidateMapper;
+    private final EmbeddingService embeddingService;
+    private final VectorStoreService vectorStoreService;
+    private final CandidateVectorService candidateVectorService;
+    private final CandidateVectorWriteBuffer writeBuffer;
+    private final StringRedisTemplate redisTemplate;
+    private final RedissonClient redissonClient;
+    private final int pageSize;
+    private final int embedBatchSize;
+    private final long graceMinutes;
+    private final boolean dryRun;
+    private final int ratePerSecond;
+
+    public CandidateReconcileJob(CandidateMapper candidateMapper,
+                                 EmbeddingService embeddingService,
+                                 VectorStoreService vectorStoreService,
+                                 CandidateVectorService candidateVectorService,
+                                 CandidateVectorWriteBuffer writeBuffer,
+                                 StringRedisTemplate redisTemplate,
+                                 RedissonClient redissonClient,
+                                 @Value("${smartats.vector.reconcile.page-size:500}") int pageSize,
+                                 @Value("${smartats.vector.reconcile.embed-batch-size:64}") int embedBatchSize,
+                                 @Value("${smartats.vector.reconcile.grace-minutes:5}") long graceMinutes,
+                                 @Value("${smartats.vector.reconcile.dry-run:false}") boolean dryRun,
+                                 @Value("${smartats.vector.reindex.rate-per-second:200}") int ratePerSecond) {
+        if (pageSize <= 0 || embedBatchSize <= 0 || graceMinutes < 0 || ratePerSecond <= 0) {
+            throw new IllegalArgumentException(
+                    "page-size、embed-batch-size、rate-per-second 必须为正数，grace-minutes 不能为负");
+        }
+        this.candidateMapper = candidateMapper;
+        this.embeddingService = embeddingService;
+        this.vectorStoreService = vectorStoreService;
+        this.candidateVectorService = candidateVectorService;
+        this.writeBuffer = writeBuffer;
+        this.redisTemplate = redisTemplate;
+        this.redissonClient = redissonClient;
+        this.pageSize = pageSize;
+        this.embedBatchSize = embedBatchSize;
+        this.graceMinutes = graceMinutes;
+        this.dryRun = dryRun;
+        this.ratePerSecond = ratePerSecond;
+    }
+
+    /**
+     * 执行一次对账（同步）
+     *
+     * @param full true 全量对账（含孤儿检测）；false 按水位线增量对账
+     * @return 本次对账报告；批量重建执行中时跳过并返回 null
+     * @throws IllegalStateException 已有对账任务在执行
+     */
+    public VectorReconcileReportResponse run(boolean full) {
+        RLock lock = redissonClient.getLock(RedisKeyConstants.LOCK_VECTOR_RECONCILE_KEY);
+        if (!lock.tryLock()) {
+            throw new IllegalStateException("已有向量对账任务正在执行");
+        }
+        try {
+            if (redissonClient.getLock(RedisKeyConstants.LOCK_VECTOR_REINDEX_KEY).isLocked()) {
+                log.info("向量批量重建执行中，跳过本轮对账: full={}", full);
+                return null;
+            }
+
+            String mode = full ? MODE_FULL : MODE_INCREMENTAL;
+            VectorReconcileReportResponse report = new VectorReconcileReportResponse();
+            report.setMode(mode);
+            report.setState(STATE_RUNNING);
+            report.setDryRun(dryRun);
+            report.setStartedAt(LocalDateTime.now());
+            save(report);
+            log.info("开始候选人向量对账: mode={}, dryRun={}", mode, dryRun);
+
+            try {
+                LocalDateTime cutoff = LocalDateTime.now().minusMinutes(graceMinutes);
+                // 与批量重建共用限流器；重建从未执行过时按同一配置初始化（已设置则不覆盖）
+                RRateLimiter limiter = redissonClient.getRateLimiter(RedisKeyConstants.RATE_VECTOR_REINDEX_KEY);
+                limiter.trySetRate(RateType.OVERALL, ratePerSecond, 1, RateIntervalUnit.SECONDS);
+                if (full) {
+                    reconcileFull(report, cutoff, limiter);
+                } else {
+                    reconcileIncremental(report, cutoff, limiter);
+                }
+                report.setState(STATE_SUCCEEDED);
+            } catch (Exception e) {
+                log.error("候选人向量对账失败: mode={}", mode, e);
+                report.setState(STATE_FAILED);
+                report.setErrorMessage(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+            }
+
+            report.setFinishedAt(LocalDateTime.now());
+            if (report.getScanned() > 0) {
+                report.setDriftRate((double) (report.getMissing() + report.getStale()) / report.getScanned());
+            }
+            save(report);
+            log.info("候选人向量对账结束: mode={}, state={}, scanned={}, missing={}, stale={}, orphaned={}, "
+                            + "backfilled={}, repaired={}, failed={}", mode, report.getState(), report.getScanned(),
+                    report.getMissing(), report.getStale(), report.getOrphaned(), report.getBackfilled(),
+                    report.getRepaired(), report.getFailed());
+            return report;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 异步执行对账
+     * <p>
+     * ⚠ 注意：@Async 方法必须在不同 Bean 中调用才能生效（Spring AOP 代理机制）。
+     */
+    @Async("asyncExecutor")
+    public void runAsync(boolean full) {
+        try {
+            run(full);
+        } catch (Exception e) {
+            log.warn("异步向量对账未执行: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 是否有对账任务正在执行（集群范围）
+     */
+    public boolean isRunning() {
+        return redissonClient.getLock(RedisKeyConstants.LOCK_VECTOR_RECONCILE_KEY).isLocked();
+    }
+
+    /**
+     * 最近一次对账报告
+     *
+     * @param full true 全量对账报告；false 增量对账报告
+     */
+    public VectorReconcileReportResponse getReport(boolean full) {
+        String mode = full ? MODE_FULL : MODE_INCREMENTAL;
+        Map<Object, Object> fields = hash().entries(key(mode));
+        VectorReconcileReportResponse report = new VectorReconcileReportResponse();
+        report.setMode(mode);
+        report.setWatermark(parseTime(fields.get(F_WATERMARK_TIME)));
+        if (!fields.containsKey(F_STATE)) {
+            report.setState(STATE_IDLE);
+            return report;
+        }
+        report.setState((String) fields.get(F_STATE));
+        report.setDryRun(Boolean.parseBoolean((String) fields.get(F_DRY_RUN)));
+        report.setScanned(parseLong(fields.get(F_SCANNED)));
+        report.setMissing(parseLong(fields.get(F_MISSING)));
+        report.setOrphaned(parseLong(fields.get(F_ORPHANED)));
+        report.setStale(parseLong(fields.get(F_STALE)));
+        report.setBackfilled(parseLong(fields.get(F_BACKFILLED)));
+        report.setRepaired(parseLong(fields.get(F_REPAIRED)));
+        report.setFailed(parseLong(fields.get(F_FAILED)));
+        report.setStartedAt(parseTime(fields.get(F_STARTED_AT)));
+        report.setFinishedAt(parseTime(fields.get(F_FINISHED_AT)));
+        report.setErrorMessage((String) fields.get(F_ERROR));
+        if (report.getScanned() > 0) {
+            report.setDriftRate((double) (report.getMissing() + report.getStale()) / report.getScanned());
+        }
+        return report;
+    }
+
+    /**
+     * 增量对账：按 (updated_at, id) 水位线分页，只处理截止时间之前更新的候选人
+     * <p>
+     * 某页有修复失败后，本轮继续检查后续页，但水位线停在失败页之前。
+     */
+    private void reconcileIncremental(VectorReconcileReportResponse report, LocalDateTime cutoff,
+                                      RRateLimiter limiter) {
+        Map<Object, Object> fields = hash().entries(key(MODE_INCREMENTAL));
+        LocalDateTime watermarkTime = fields.containsKey(F_WATERMARK_TIME)
+                ? parseTime(fields.get(F_WATERMARK_TIME)) : EPOCH;
+        long watermarkId = parseLong(fields.get(F_WATERMARK_ID));
+        LocalDateTime cursorTime = watermarkTime;
+        long cursorId = watermarkId;
+        boolean watermarkFrozen = false;
+
+        while (true) {
+            LocalDateTime afterTime = cursorTime;
+            long afterId = cursorId;
+            List<Candidate> page = candidateMapper.selectList(new LambdaQueryWrapper<Candidate>()
+                    .le(Candidate::getUpdatedAt, cutoff)
+                    .and(w -> w.gt(Candidate::getUpdatedAt, afterTime)
+                            .or(o -> o.eq(Candidate::getUpdatedAt, afterTime).gt(Candidate::getId, afterId)))
+                    .orderByAsc(Candidate::getUpdatedAt)
+                    .orderByAsc(Candidate::getId)
+                    .last("LIMIT " + pageSize));
+            if (page.isEmpty()) {
+                break;
+            }
+
+            Set<Long> existing = vectorStoreService.existingIds(page.stream().map(Candidate::getId).toList());
+            boolean pageSucceeded = checkPage(page, existing, cutoff, report, limiter);
+
+            Candidate last = page.get(page.size() - 1);
+            cursorTime = last.getUpdatedAt();
+            cursorId = last.getId();
+            if (!pageSucceeded && !watermarkFrozen) {
+                watermarkFrozen = true;
+                log.warn("候选人向量对账本页存在修复失败，水位线停在本页之前: watermark=({}, {})",
+                        watermarkTime, watermarkId);
+            }
+            if (watermarkFrozen) {
+                continue;
+            }
+            watermarkTime = cursorTime;
+            watermarkId = cursorId;
+            Map<String, String> watermark = new HashMap<>();
+            watermark.put(F_WATERMARK_TIME, watermarkTime.toString());
+            watermark.put(F_WATERMARK_ID, String.valueOf(watermarkId));
+            hash().putAll(key(MODE_INCREMENTAL), watermark);
+            report.setWatermark(watermarkTime);
+        }
+    }
+
+    /**
+     * 全量对账：按 id 键集分页，每页 (上一页末尾 ID, 本页末尾 ID] 区间与向量存储比对；
+     * 最后一段区间延伸到 Long.MAX_VALUE，覆盖 ID 大于 MySQL 最大 ID 的孤儿向量
+     */
+    private void reconcileFull(VectorReconcileReportResponse report, LocalDateTime cutoff, RRateLimiter limiter) {
+        long lastId = 0L;
+        while (true) {
+            List<Candidate> page = candidateMapper.selectList(new LambdaQueryWrapper<Candidate>()
+                    .gt(Candidate::getId, lastId)
+                    .orderByAsc(Candidate::getId)
+                    .last("LIMIT " + pageSize));
+            long upperId = page.isEmpty() ? Long.MAX_VALUE : page.get(page.size() - 1).getId();
+
+            Set<Long> vectorIds = new HashSet<>(listVectorIds(lastId, upperId));
+            checkPage(page, vectorIds, cutoff, report, limiter);
+
+            Set<Long> orphans = new HashSet<>(vectorIds);
+            page.forEach(candidate -> orphans.remove(candidate.getId()));
+            removeOrphans(orphans, report);
+
+            if (page.isEmpty()) {
+                break;
+            }
+            lastId = upperId;
+        }
+    }
+
+    /**
+     * 列出主键区间内的全部向量 ID（单次结果达到上限时二分区间）
+     */
+    List<Long> listVectorIds(long fromExclusive, long toInclusive) {
+        List<Long> ids = vectorStoreService.listIds(fromExclusive, toInclusive, LIST_IDS_LIMIT);
+        if (ids.size() < LIST_IDS_LIMIT || toInclusive - fromExclusive <= LIST_IDS_LIMIT) {
+            return ids;
+        }
+        long middle = fromExclusive + (toInclusive - fromExclusive) / 2;
+        List<Long> all = new ArrayList<>(listVectorIds(fromExclusive, middle));
+        all.addAll(listVectorIds(middle, toInclusive));
+        return all;
+    }
+
+    /**
+     * 检查一页候选人的缺失与过期，并批量修复
+     *
+     * @return 本页修复（含指纹回填）是否全部成功
+     */
+    private boolean checkPage(List<Candidate> page, Set<Long> existing, LocalDateTime cutoff,
+                              VectorReconcileReportResponse report, RRateLimiter limiter) {
+        List<Candidate> toRepair = new ArrayList<>();
+        List<String> texts = new ArrayList<>();
+        List<Candidate> toBackfill = new ArrayList<>();
+        for (Candidate candidate : page) {
+            if (candidate.getUpdatedAt() != null && candidate.getUpdatedAt().isAfter(cutoff)) {
+                continue;
+            }
+            report.setScanned(report.getScanned() + 1);
+
+            String text = embeddingService.buildCandidateText(candidate);
+            String hash = candidateVectorService.fingerprint(text);
+            if (writeBuffer.hasPendingUpsert(candidate.getId(), hash)) {
+                continue;
+            }
+            if (!existing.contains(candidate.getId())) {
+                report.setMissing(report.getMissing() + 1);
+            } else if (hash.equals(candidate.getEmbeddingHash())) {
+                continue;
+            } else if (isLegacyVector(candidate, text)) {
+                report.setBackfilled(report.getBackfilled() + 1);
+                toBackfill.add(backfillUpdate(candidate, hash));
+                continue;
+            } else {
+                report.setStale(report.getStale() + 1);
+            }
+            toRepair.add(candidate);
+            texts.add(text);
+        }
+        if (dryRun) {
+            return true;
+        }
+        boolean succeeded = backfill(toBackfill, report);
+        if (!toRepair.isEmpty()) {
+            succeeded &= repair(toRepair, texts, report, limiter);
+        }
+        return succeeded;
+    }
+
+    /**
+     * 引入 embedding_hash 之前向量化的候选人：已有向量但没有指纹，且上次嵌入的文本未变（或未记录）
+     */
+    private static boolean isLegacyVector(Candidate candidate, String text) {
+        return candidate.getEmbeddingHash() == null && candidate.getVectorId() != null
+                && (candidate.getAiSummary() == null || candidate.getAiSummary().equals(text));
+    }
+
+    private static Candidate backfillUpdate(Candidate candidate, String hash) {
+        Candidate update = new Candidate();
+        update.setId(candidate.getId());
+        update.setVectorId(candidate.getVectorId());
+        update.setAiSummary(candidate.getAiSummary());
+        update.setEmbeddingHash(hash);
+        return update;
+    }
+
+    /**
+     * 只回填指纹（不调用 embedding API、不写向量存储）
+     *
+     * @return 是否成功
+     */
+    private boolean backfill(List<Candidate> updates, VectorReconcileReportResponse report) {
+        if (updates.isEmpty()) {
+            return true;
+        }
+        try {
+            candidateMapper.batchUpdateVectorInfo(updates);
+            return true;
+        } catch (Exception e) {
+            report.setFailed(report.getFailed() + updates.size());
+            log.error("候选人向量指纹回填失败: candidateIds={}", updates.stream().map(Candidate::getId).toList(), e);
+            return false;
+        }
+    }
+
+    /**
+     * 重新嵌入并写入（按 embed-batch-size 分批，经集群限流，单批失败不影响其他批次）
+     *
+     * @return 是否全部批次成功
+     */
+    private boolean repair(List<Candidate> candidates, List<String> texts, VectorReconcileReportResponse report,
+                           RRateLimiter limiter) {
+        boolean changed = false;
+        boolean succeeded = true;
+        for (int from = 0; from < candidates.size(); from += embedBatchSize) {
+            int to = Math.min(from + embedBatchSize, candidates.size());
+            List<Candidate> batch = candidates.subList(from, to);
+            List<String> batchTexts = texts.subList(from, to);
+            try {
+                limiter.acquire(batch.size());
+                List<List<Float>> embeddings = embeddingService.embedBatch(batchTexts);
+                vectorStoreService.upsertVectors(batch, embeddings);
+                changed = true;
+
+                List<Candidate> updates = new ArrayList<>(batch.size());
+                for (int i = 0; i < batch.size(); i++) {
+                    Candidate update = new Candidate();
+                    update.setId(batch.get(i).getId());
+                    update.setVectorId(String.valueOf(batch.get(i).getId()));
+                    update.setAiSummary(batchTexts.get(i));
+                    update.setEmbeddingHash(candidateVectorService.fingerprint(batchTexts.get(i)));
+                    updates.add(update);
+                }
+                candidateMapper.batchUpdateVectorInfo(updates);
+                report.setRepaired(report.getRepaired() + batch.size());
+            } catch (Exception e) {
+                succeeded = false;
+                report.setFailed(report.getFailed() + batch.size());
+                log.error("候选人向量对账修复失败: candidateIds={}", batch.stream().map(Candidate::getId).toList(), e);
+            }
+        }
+        if (changed) {
+            candidateVectorService.markVectorsChanged();
+        }
+        return succeeded;
+    }
+
+    /**
+     * 删除孤儿向量（删除前回查 MySQL，排除比对期间新建的候选人）
+     */
+    private void removeOrphans(Set<Long> orphans, VectorReconcileReportResponse report) {
+        if (orphans.isEmpty()) {
+            return;
+        }
+        candidateMapper.selectBatchIds(orphans).forEach(candidate -> orphans.remove(candidate.getId()));
+        if (orphans.isEmpty()) {
+            return;
+        }
+        report.setOrphaned(report.getOrphaned() + orphans.size());
+        if (dryRun) {
+            return;
+        }
+        try {
+            vectorStoreService.deleteVectors(orphans);
+            candidateVectorService.markVectorsChanged();
+            report.setRepaired(report.getRepaired() + orphans.size());
+            log.info("已删除孤儿向量: count={}", orphans.size());
+        } catch (Exception e) {
+            report.setFailed(report.getFailed() + orphans.size());
+            log.error("删除孤儿向量失败: candidateIds={}", orphans, e);
+        }
+    }
+
+    private void save(VectorReconcileReportResponse report) {
+        Map<String, String> fields = new HashMap<>();
+        fields.put(F_STATE, report.getState());
+        fields.put(F_DRY_RUN, String.valueOf(report.isDryRun()));
+        fields.put(F_SCANNED, String.valueOf(report.getScanned()));
+        fields.put(F_MISSING, String.valueOf(report.getMissing()));
+        fields.put(F_ORPHANED, String.valueOf(report.getOrphaned()));
+        fields.put(F_STALE, String.valueOf(report.getStale()));
+        fields.put(F_BACKFILLED, String.valueOf(report.getBackfilled()));
+        fields.put(F_REPAIRED, String.valueOf(report.getRepaired()));
+        fields.put(F_FAILED, String.valueOf(report.getFailed()));
+        fields.put(F_STARTED_AT, report.getStartedAt().toString());
+        if (report.getFinishedAt() != null) {
+            fields.put(F_FINISHED_AT, report.getFinishedAt().toString());
+        }
+        if (report.getErrorMessage() != null) {
+            fields.put(F_ERROR, report.getErrorMessage());
+        }
+        try {
+            String key = key(report.getMode());
+            if (report.getFinishedAt() == null) {
+                hash().delete(key, F_FINISHED_AT, F_ERROR);
+            }
+            hash().putAll(key, fields);
+        } catch (Exception e) {
+            log.warn("写入向量对账报告失败: mode={}", report.getMode(), e);
+        }
+    }
+
+    private static String key(String mode) {
+        return RedisKeyConstants.TASK_VECTOR_RECONCILE_KEY_PREFIX + mode.toLowerCase(Locale.ROOT);
+    }
+
+    private HashOperations<String, Object, Object> hash() {
+        return redisTemplate.opsForHash();
+    }
+
+    private static long parseLong(Object value) {
+        return value == null ? 0L : Long.parseLong(value.toString());
+    }
+
+    private static LocalDateTime parseTime(Object value) {
+        return value == null ? null : LocalDateTime.parse(value.toString());
+    }
+}
@@ -0,0 +1,83 @@
+package com.smartats.module.candidate.service;
+
+import com.smartats.common.exception.BusinessException;
+import com.smartats.common.result.ResultCode;
+import com.smartats.module.candidate.dto.VectorReconcileReportResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * 候选人向量对账服务
+ * <p>
+ * 定时触发增量 / 全量对账（见 {@link CandidateReconcileJob}），也可由管理员手动触发；
+ * 偏差统计通过 {@link #getReport(boolean)} 查询。
+ */
+@Slf4j
+@Service
+public class CandidateReconcileService {
+
+    private final CandidateReconcileJob reconcileJob;
+    private final CandidateReindexJob reindexJob;
+    private final boolean enabled;
+
+    public CandidateReconcileService(CandidateReconcileJob reconcileJob,
+                                     CandidateReindexJob reindexJob,
+                                     @Value("${smartats.vector.reconcile.enabled:true}") boolean enabled) {
+        this.reconcileJob = reconcileJob;
+        this.reindexJob = reindexJob;
+        this.enabled = enabled;
+    }
+
+    /**
+     * 发起对账（异步）
+     *
+     * @param full true 全量对账（含孤儿检测）；false 增量对账
+     */
+    public void start(boolean full) {
+        if (reconcileJob.isRunning()) {
+            throw new BusinessException(ResultCode.VECTOR_RECONCILE_RUNNING);
+        }
+        if (reindexJob.isRunning()) {
+            throw new BusinessException(ResultCode.VECTOR_REINDEX_RUNNING);
+        }
+        log.info("发起候选人向量对账: full={}", full);
+        reconcileJob.runAsync(full);
+    }
+
+    /**
+     * 最近一次对账报告
+     */
+    public VectorReconcileReportResponse getReport(boolean full) {
+        return reconcileJob.getReport(full);
+    }
+
+    /**
+     * 定时增量对账
+     */
+    @Scheduled(fixedDelayString = "${smartats.vector.reconcile.interval-ms:600000}",
+            initialDelayString = "${smartats.vector.reconcile.interval-ms:600000}")
+    public void scheduledIncremental() {
+        trigger(false);
+    }
+
+    /**
+     * 定时全量对账（默认每天凌晨 3:30）
+     */
+    @Scheduled(cron = "${smartats.vector.reconcile.full-cron:0 30 3 * * *}")
+    public void scheduledFull() {
+        trigger(true);
+    }
+
+    private void trigger(boolean full) {
+        if (!enabled || reconcileJob.isRunning() || reindexJob.isRunning()) {
+            return;
+        }
+        try {
+            reconcileJob.runAsync(full);
+        } catch (Exception e) {
+            log.warn("提交定时向量对账失败: full={}, error={}", full, e.getMessage());
+        }
+    }
+}
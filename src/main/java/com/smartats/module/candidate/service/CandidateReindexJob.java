@@ -0,0 +1,450 @@
+package com.smartats.module.candidate.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.smartats.common.constants.RedisKeyConstants;
+import com.smartats.infrastructure.vector.EmbeddingService;
+import com.smartats.infrastructure.vector.VectorStoreService;
+import com.smartats.module.candidate.dto.VectorReindexStatusResponse;
+import com.smartats.module.candidate.entity.Candidate;
+import com.smartats.module.candidate.mapper.CandidateMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RLock;
+import org.redisson.api.RRateLimiter;
+import org.redisson.api.RateIntervalUnit;
+import org.redisson.api.RateType;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 候选人向量批量重建任务
+ * <p>
+ * 更换 embedding 模型 / 维度，或 Milvus Collection 丢失后，全量重新生成候选人向量：
+ * <ul>
+ *   <li>按 candidates.id 键集分页（id &gt; lastId ORDER BY id LIMIT n），避免 OFFSET 深分页越翻越慢</li>
+ *   <li>每页拆成多个批次并发调用批量 embedding 接口（单次请求多条文本），失败按指数退避重试</li>
+ *   <li>批量 Upsert 向量存储，并以单条 SQL 批量回写 vector_id / ai_summary / embedding_hash（不改变 updated_at）</li>
+ *   <li>每页开始前先刷出向量写缓冲，避免重建前已缓冲的旧向量在重建之后才落盘、覆盖新向量</li>
+ *   <li>每页完成后把 lastId 写入 Redis 检查点，实例重启后从断点继续（最多重放一页）</li>
+ *   <li>重试耗尽的候选人记入失败集合，全部页处理完后再重试一轮</li>
+ *   <li>Redisson 分布式限流器按「条 / 秒」控制 embedding 调用速率，多实例共享同一配额</li>
+ * </ul>
+ * 分布式锁保证全集群同一时刻只有一个重建任务。
+ */
+@Slf4j
+@Service
+public class CandidateReindexJob {
+
+    static final String STATE_IDLE = "IDLE";
+    static final String STATE_RUNNING = "RUNNING";
+    static final String STATE_STOPPING = "STOPPING";
+    static final String STATE_STOPPED = "STOPPED";
+    static final String STATE_INTERRUPTED = "INTERRUPTED";
+    static final String STATE_SUCCEEDED = "SUCCEEDED";
+    static final String STATE_FAILED = "FAILED";
+
+    private static final String F_STATE = "state";
+    private static final String F_LAST_ID = "lastId";
+    private static final String F_PROCESSED = "processed";
+    private static final String F_FAILED = "failed";
+    private static final String F_TOTAL = "total";
+    private static final String F_STARTED_AT = "startedAt";
+    private static final String F_UPDATED_AT = "updatedAt";
+    private static final String F_FINISHED_AT = "finishedAt";
+    private static final String F_ERROR = "errorMessage";
+    private static final String F_RUN_STARTED_MS = "runStartedMs";
+    private static final String F_RUN_UPDATED_MS = "runUpdatedMs";
+    private static final String F_RUN_PROCESSED = "runProcessed";
+    private static final String F_STOP_REQUESTED = "stopRequested";
+
+    private final CandidateMapper candidateMapper;
+    private final EmbeddingService embeddingService;
+    private final VectorStoreService vectorStoreService;
+    private final CandidateVectorService candidateVectorService;
+    private final CandidateVectorWriteBuffer writeBuffer;
+    private final StringRedisTemplate redisTemplate;
+    private final RedissonClient redissonClient;
+    private final int pageSize;
+    private final int embedBatchSize;
+    private final int concurrency;
+    private final int ratePerSecond;
+    private final int maxRetries;
+    private final long retryBackoffMs;
+    private final boolean resumeOnStartup;
+
+    public CandidateReindexJob(CandidateMapper candidateMapper,
+                               EmbeddingService embeddingService,
+                               VectorStoreService vectorStoreService,
+                               CandidateVectorService candidateVectorService,
+                               CandidateVectorWriteBuffer writeBuffer,
+                               StringRedisTemplate redisTemplate,
+                               RedissonClient redissonClient,
+                               @Value("${smartats.vector.reindex.page-size:500}") int pageSize,
+                               @Value("${smartats.vector.reindex.embed-batch-size:64}") int embedBatchSize,
+                               @Value("${smartats.vector.reindex.concurrency:4}") int concurrency,
+                               @Value("${smartats.vector.reindex.rate-per-second:200}") int ratePerSecond,
+                               @Value("${smartats.vector.reindex.max-retries:3}") int maxRetries,
+                               @Value("${smartats.vector.reindex.retry-backoff-ms:1000}") long retryBackoffMs,
+                               @Value("${smartats.vector.reindex.resume-on-startup:true}") boolean resumeOnStartup) {
+        if (pageSize <= 0 || embedBatchSize <= 0 || concurrency <= 0 || ratePerSecond <= 0) {
+            throw new IllegalArgumentException("page-size、embed-batch-size、concurrency、rate-per-second 必须为正数");
+        }
+        this.candidateMapper = candidateMapper;
+        this.embeddingService = embeddingService;
+        this.vectorStoreService = vectorStoreService;
+        this.candidateVectorService = candidateVectorService;
+        this.writeBuffer = writeBuffer;
+        this.redisTemplate = redisTemplate;
+        this.redissonClient = redissonClient;
+        this.pageSize = pageSize;
+        // 限流器单次申请的令牌数不能超过速率本身
+        this.embedBatchSize = Math.min(embedBatchSize, ratePerSecond);
+        this.concurrency = concurrency;
+        this.ratePerSecond = ratePerSecond;
+        this.maxRetries = Math.max(0, maxRetries);
+        this.retryBackoffMs = Math.max(0, retryBackoffMs);
+        this.resumeOnStartup = resumeOnStartup;
+    }
+
+    /**
+     * 执行批量重建（同步，耗时与候选人数量成正比，调用方应放到后台线程）
+     *
+     * @param resume true 从 Redis 检查点继续；false 或没有检查点时从头开始
+     * @throws IllegalStateException 已有重建任务在执行
+     */
+    public void run(boolean resume) {
+        RLock lock = redissonClient.getLock(RedisKeyConstants.LOCK_VECTOR_REINDEX_KEY);
+        if (!lock.tryLock()) {
+            throw new IllegalStateException("已有向量批量重建任务正在执行");
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(concurrency);
+        try {
+            Map<Object, Object> checkpoint = hash().entries(RedisKeyConstants.TASK_VECTOR_REINDEX_KEY);
+            boolean continuing = resume && checkpoint.containsKey(F_LAST_ID);
+
+            long lastId = continuing ? parseLong(checkpoint.get(F_LAST_ID)) : 0L;
+            long processed = continuing ? parseLong(checkpoint.get(F_PROCESSED)) : 0L;
+            long failed = continuing ? parseLong(checkpoint.get(F_FAILED)) : 0L;
+            long total = candidateMapper.selectCount(null);
+
+            Map<String, String> init = new HashMap<>();
+            init.put(F_STATE, STATE_RUNNING);
+            init.put(F_LAST_ID, String.valueOf(lastId));
+            init.put(F_PROCESSED, String.valueOf(processed));
+            init.put(F_FAILED, String.valueOf(failed));
+            init.put(F_TOTAL, String.valueOf(total));
+            init.put(F_UPDATED_AT, LocalDateTime.now().toString());
+            init.put(F_RUN_STARTED_MS, String.valueOf(System.currentTimeMillis()));
+            init.put(F_RUN_UPDATED_MS, String.valueOf(System.currentTimeMillis()));
+            init.put(F_RUN_PROCESSED, "0");
+            init.put(F_STOP_REQUESTED, "false");
+            if (!continuing) {
+                init.put(F_STARTED_AT, LocalDateTime.now().toString());
+                redisTemplate.delete(RedisKeyConstants.TASK_VECTOR_REINDEX_KEY);
+                redisTemplate.delete(RedisKeyConstants.TASK_VECTOR_REINDEX_FAILED_KEY);
+            }
+            hash().putAll(RedisKeyConstants.TASK_VECTOR_REINDEX_KEY, init);
+            hash().delete(RedisKeyConstants.TASK_VECTOR_REINDEX_KEY, F_FINISHED_AT, F_ERROR);
+            log.info("开始候选人向量批量重建: resume={}, lastId={}, processed={}, total={}",
+                    continuing, lastId, processed, total);
+
+            RRateLimiter limiter = redissonClient.getRateLimiter(RedisKeyConstants.RATE_VECTOR_REINDEX_KEY);
+            limiter.setRate(RateType.OVERALL, ratePerSecond, 1, RateIntervalUnit.SECONDS);
+
+            long runProcessed = 0;
+            while (true) {
+                if (stopRequested()) {
+                    finish(STATE_STOPPED, null);
+                    log.info("候选人向量批量重建已停止: lastId={}, processed={}", lastId, processed);
+                    return;
+                }
+
+                // 先让此前缓冲的写入落盘，之后到达的缓冲写入都晚于本页读取，后写覆盖先写是正确的
+                writeBuffer.flush();
+                List<Candidate> page = candidateMapper.selectList(new LambdaQueryWrapper<Candidate>()
+                        .gt(Candidate::getId, lastId)
+                        .orderByAsc(Candidate::getId)
+                        .last("LIMIT " + pageSize));
+                if (page.isEmpty()) {
+                    break;
+                }
+
+                List<Long> pageFailed = processPage(page, limiter, pool);
+                if (!pageFailed.isEmpty()) {
+                    redisTemplate.opsForSet().add(RedisKeyConstants.TASK_VECTOR_REINDEX_FAILED_KEY,
+                            pageFailed.stream().map(String::valueOf).toArray(String[]::new));
+                }
+
+                lastId = page.get(page.size() - 1).getId();
+                processed += page.size();
+                failed += pageFailed.size();
+                runProcessed += page.size();
+
+                Map<String, String> progress = new HashMap<>();
+                progress.put(F_LAST_ID, String.valueOf(lastId));
+                progress.put(F_PROCESSED, String.valueOf(processed));
+                progress.put(F_FAILED, String.valueOf(failed));
+                progress.put(F_RUN_PROCESSED, String.valueOf(runProcessed));
+                progress.put(F_RUN_UPDATED_MS, String.valueOf(System.currentTimeMillis()));
+                progress.put(F_UPDATED_AT, LocalDateTime.now().toString());
+                hash().putAll(RedisKeyConstants.TASK_VECTOR_REINDEX_KEY, progress);
+                log.info("候选人向量批量重建进度: lastId={}, processed={}/{}, failed={}",
+                        lastId, processed, total, failed);
+            }
+
+            if (failed > 0) {
+                failed = retryFailed(limiter, pool);
+                hash().put(RedisKeyConstants.TASK_VECTOR_REINDEX_KEY, F_FAILED, String.valueOf(failed));
+                if (stopRequested()) {
+                    finish(STATE_STOPPED, null);
+                    log.info("候选人向量批量重建已在重试失败候选人时停止: failed={}", failed);
+                    return;
+                }
+            }
+            finish(STATE_SUCCEEDED, null);
+            log.info("候选人向量批量重建完成: processed={}, failed={}", processed, failed);
+
+        } catch (Exception e) {
+            log.error("候选人向量批量重建失败", e);
+            finish(STATE_FAILED, e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+            throw new IllegalStateException("候选人向量批量重建失败: " + e.getMessage(), e);
+        } finally {
+            pool.shutdownNow();
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 异步执行批量重建（失败原因记录在 {@link #getStatus()} 中）
+     * <p>
+     * ⚠ 注意：@Async 方法必须在不同 Bean 中调用才能生效（Spring AOP 代理机制）。
+     *
+     * @param resume 是否从检查点继续
+     */
+    @Async("asyncExecutor")
+    public void runAsync(boolean resume) {
+        try {
+            run(resume);
+        } catch (Exception e) {
+            log.error("异步向量批量重建失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 启动后自动续跑被中断的重建任务（上次运行时实例重启或宕机）
+     */
+    @Async("asyncExecutor")
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeOnStartup() {
+        if (!resumeOnStartup) {
+            return;
+        }
+        try {
+            if (STATE_INTERRUPTED.equals(getStatus().getState())) {
+                log.info("检测到被中断的候选人向量批量重建任务，从检查点继续");
+                run(true);
+            }
+        } catch (Exception e) {
+            log.error("续跑候选人向量批量重建失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 是否有重建任务正在执行（集群范围）
+     */
+    public boolean isRunning() {
+        return redissonClient.getLock(RedisKeyConstants.LOCK_VECTOR_REINDEX_KEY).isLocked();
+    }
+
+    /**
+     * 请求停止重建任务（当前页处理完后停止，可通过 resume 继续）
+     */
+    public void requestStop() {
+        hash().put(RedisKeyConstants.TASK_VECTOR_REINDEX_KEY, F_STOP_REQUESTED, "true");
+    }
+
+    /**
+     * 查询重建进度与预计剩余时间
+     */
+    public VectorReindexStatusResponse getStatus() {
+        Map<Object, Object> checkpoint = hash().entries(RedisKeyConstants.TASK_VECTOR_REINDEX_KEY);
+        VectorReindexStatusResponse status = new VectorReindexStatusResponse();
+        if (checkpoint.isEmpty()) {
+            status.setState(STATE_IDLE);
+            return status;
+        }
+
+        String state = (String) checkpoint.get(F_STATE);
+        boolean running = STATE_RUNNING.equals(state);
+        if (running && !isRunning()) {
+            // 状态为运行中但锁已释放：执行实例已退出，可从检查点续跑
+            state = STATE_INTERRUPTED;
+        } else if (running && "true".equals(checkpoint.get(F_STOP_REQUESTED))) {
+            state = STATE_STOPPING;
+        }
+        status.setState(state);
+        status.setLastId(parseLong(checkpoint.get(F_LAST_ID)));
+        status.setProcessed(parseLong(checkpoint.get(F_PROCESSED)));
+        status.setFailed(parseLong(checkpoint.get(F_FAILED)));
+        status.setTotal(parseLong(checkpoint.get(F_TOTAL)));
+        status.setStartedAt(parseTime(checkpoint.get(F_STARTED_AT)));
+        status.setUpdatedAt(parseTime(checkpoint.get(F_UPDATED_AT)));
+        status.setFinishedAt(parseTime(checkpoint.get(F_FINISHED_AT)));
+        status.setErrorMessage((String) checkpoint.get(F_ERROR));
+
+        if (status.getTotal() > 0) {
+            status.setProgressPercent(Math.min(100.0, status.getProcessed() * 100.0 / status.getTotal()));
+        }
+        long runProcessed = parseLong(checkpoint.get(F_RUN_PROCESSED));
+        long elapsedMs = parseLong(checkpoint.get(F_RUN_UPDATED_MS)) - parseLong(checkpoint.get(F_RUN_STARTED_MS));
+        if (runProcessed > 0 && elapsedMs > 0) {
+            double throughput = runProcessed * 1000.0 / elapsedMs;
+            status.setThroughputPerSecond(throughput);
+            if (STATE_RUNNING.equals(state) || STATE_STOPPING.equals(state)) {
+                long remaining = Math.max(0, status.getTotal() - status.getProcessed());
+                status.setEtaSeconds((long) Math.ceil(remaining / throughput));
+            }
+        }
+        return status;
+    }
+
+    /**
+     * 并发处理一页：拆成多个批次提交到线程池
+     *
+     * @return 失败的候选人 ID
+     */
+    private List<Long> processPage(List<Candidate> page, RRateLimiter limiter, ExecutorService pool) {
+        List<CompletableFuture<List<Long>>> futures = new ArrayList<>();
+        for (int from = 0; from < page.size(); from += embedBatchSize) {
+            List<Candidate> batch = page.subList(from, Math.min(from + embedBatchSize, page.size()));
+            futures.add(CompletableFuture.supplyAsync(() -> processBatch(batch, limiter), pool));
+        }
+        List<Long> failedIds = futures.stream().flatMap(future -> future.join().stream()).toList();
+        if (failedIds.size() < page.size()) {
+            // 本页有向量被改写，已缓存的搜索会话失效
+            candidateVectorService.markVectorsChanged();
+        }
+        return failedIds;
+    }
+
+    /**
+     * 重试失败集合中的候选人（已删除的直接移出集合）
+     *
+     * @return 重试后仍失败的候选人数
+     */
+    private long retryFailed(RRateLimiter limiter, ExecutorService pool) {
+        String key = RedisKeyConstants.TASK_VECTOR_REINDEX_FAILED_KEY;
+        Set<String> members = redisTemplate.opsForSet().members(key);
+        List<Long> ids = members == null ? List.of() : members.stream().map(Long::valueOf).sorted().toList();
+        log.info("重试向量批量重建失败的候选人: count={}", ids.size());
+        for (int from = 0; from < ids.size() && !stopRequested(); from += pageSize) {
+            List<Long> chunk = ids.subList(from, Math.min(from + pageSize, ids.size()));
+            writeBuffer.flush();
+            List<Candidate> page = candidateMapper.selectBatchIds(chunk);
+            Set<Long> stillFailed = page.isEmpty() ? Set.of() : Set.copyOf(processPage(page, limiter, pool));
+            String[] done = chunk.stream().filter(id -> !stillFailed.contains(id)).map(String::valueOf)
+                    .toArray(String[]::new);
+            if (done.length > 0) {
+                redisTemplate.opsForSet().remove(key, (Object[]) done);
+            }
+        }
+        Long remaining = redisTemplate.opsForSet().size(key);
+        return remaining == null ? 0L : remaining;
+    }
+
+    /**
+     * 处理一个批次：限流 → 批量嵌入（带重试）→ 批量 Upsert → 批量回写 MySQL
+     *
+     * @return 失败的候选人 ID（成功时为空）
+     */
+    private List<Long> processBatch(List<Candidate> batch, RRateLimiter limiter) {
+        try {
+            limiter.acquire(batch.size());
+
+            List<String> texts = batch.stream().map(embeddingService::buildCandidateText).toList();
+            List<List<Float>> embeddings = embedWithRetry(texts);
+            vectorStoreService.upsertVectors(batch, embeddings);
+
+            List<Candidate> updates = new ArrayList<>(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                Candidate update = new Candidate();
+                update.setId(batch.get(i).getId());
+                update.setVectorId(String.valueOf(batch.get(i).getId()));
+                update.setAiSummary(texts.get(i));
+                update.setEmbeddingHash(candidateVectorService.fingerprint(texts.get(i)));
+                updates.add(update);
+            }
+            candidateMapper.batchUpdateVectorInfo(updates);
+            return List.of();
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            List<Long> ids = batch.stream().map(Candidate::getId).toList();
+            log.error("候选人向量批量重建批次失败: candidateIds={}", ids, e);
+            return ids;
+        }
+    }
+
+    private List<List<Float>> embedWithRetry(List<String> texts) throws InterruptedException {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                return embeddingService.embedBatch(texts);
+            } catch (RuntimeException e) {
+                if (attempt >= maxRetries) {
+                    throw e;
+                }
+                long backoff = retryBackoffMs << attempt;
+                log.warn("批量嵌入失败，{}ms 后重试（第 {} 次）: {}", backoff, attempt + 1, e.getMessage());
+                Thread.sleep(backoff);
+            }
+        }
+    }
+
+    private boolean stopRequested() {
+        return "true".equals(hash().get(RedisKeyConstants.TASK_VECTOR_REINDEX_KEY, F_STOP_REQUESTED));
+    }
+
+    private void finish(String state, String error) {
+        Map<String, String> fields = new HashMap<>();
+        fields.put(F_STATE, state);
+        fields.put(F_FINISHED_AT, LocalDateTime.now().toString());
+        fields.put(F_UPDATED_AT, LocalDateTime.now().toString());
+        if (error != null) {
+            fields.put(F_ERROR, error);
+        }
+        try {
+            hash().putAll(RedisKeyConstants.TASK_VECTOR_REINDEX_KEY, fields);
+        } catch (Exception e) {
+            log.warn("写入向量批量重建状态失败: state={}", state, e);
+        }
+    }
+
+    private HashOperations<String, Object, Object> hash() {
+        return redisTemplate.opsForHash();
+    }
+
+    private static long parseLong(Object value) {
+        return value == null ? 0L : Long.parseLong(value.toString());
+    }
+
+    private static LocalDateTime parseTime(Object value) {
+        return value == null ? null : LocalDateTime.parse(value.toString());
+    }
+}
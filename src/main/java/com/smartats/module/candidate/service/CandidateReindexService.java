@@ -0,0 +1,53 @@
+package com.smartats.module.candidate.service;
+
+import com.smartats.common.exception.BusinessException;
+import com.smartats.common.result.ResultCode;
+import com.smartats.module.candidate.dto.VectorReindexStatusResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+/**
+ * 候选人向量批量重建服务
+ * <p>
+ * 管理员触发全量重建后，任务在后台执行（见 {@link CandidateReindexJob}），
+ * 进度、吞吐与预计剩余时间通过 {@link #getStatus()} 查询。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CandidateReindexService {
+
+    private final CandidateReindexJob reindexJob;
+
+    /**
+     * 发起批量重建（异步）
+     *
+     * @param resume true 从上次检查点继续；false 从头开始
+     */
+    public void start(boolean resume) {
+        if (reindexJob.isRunning()) {
+            throw new BusinessException(ResultCode.VECTOR_REINDEX_RUNNING);
+        }
+        log.info("发起候选人向量批量重建: resume={}", resume);
+        reindexJob.runAsync(resume);
+    }
+
+    /**
+     * 停止正在执行的批量重建（当前页处理完后停止，检查点保留）
+     */
+    public void stop() {
+        if (!reindexJob.isRunning()) {
+            throw new BusinessException(ResultCode.BAD_REQUEST, "没有正在执行的向量批量重建任务");
+        }
+        log.info("请求停止候选人向量批量重建");
+        reindexJob.requestStop();
+    }
+
+    /**
+     * 查询批量重建进度
+     */
+    public VectorReindexStatusResponse getStatus() {
+        return reindexJob.getStatus();
+    }
+}
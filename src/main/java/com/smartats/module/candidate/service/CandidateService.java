@@ -8,6 +8,9 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.smartats.common.constants.RedisKeyConstants;
 import com.smartats.common.exception.BusinessException;
 import com.smartats.common.result.ResultCode;
+import com.smartats.common.util.TransactionUtil;
+import com.smartats.module.application.service.SkillNormalizer;
+import com.smartats.module.candidate.dto.CandidateFacetResponse;
 import com.smartats.module.candidate.dto.CandidateQueryRequest;
 import com.smartats.module.candidate.dto.CandidateUpdateRequest;
 import com.smartats.module.candidate.entity.Candidate;
@@ -21,10 +24,17 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * 候选人服务
@@ -38,6 +48,8 @@ public class CandidateService {
     private final ObjectMapper objectMapper;
     private final StringRedisTemplate redisTemplate;
     private final CandidateVectorService candidateVectorService;
+    private final CandidateFacetIndex candidateFacetIndex;
+    private final SkillNormalizer skillNormalizer;
 
     /** 候选人缓存 TTL（分钟） */
     private static final long CACHE_TTL_MINUTES = 30;
@@ -67,6 +79,7 @@ public class CandidateService {
         candidate.setUpdatedAt(now);
 
         candidateMapper.insert(candidate);
+        TransactionUtil.afterCommit(() -> candidateFacetIndex.upsert(candidate));
         log.info("候选人记录创建成功: candidateId={}", candidate.getId());
         return candidate;
     }
@@ -89,6 +102,7 @@ public class CandidateService {
 
         candidateMapper.updateById(candidate);
         evictCache(id);
+        TransactionUtil.afterCommit(() -> candidateFacetIndex.upsert(candidate));
 
         log.info("候选人记录更新成功: candidateId={}", id);
         return candidateMapper.selectById(id);
@@ -149,7 +163,9 @@ public class CandidateService {
         candidateMapper.updateById(candidate);
         evictCache(candidate.getId());
         log.info("候选人手动更新成功: candidateId={}", candidate.getId());
-        return getById(candidate.getId());
+        Candidate saved = getById(candidate.getId());
+        TransactionUtil.afterCommit(() -> candidateFacetIndex.upsert(saved));
+        return saved;
     }
 
     /**
@@ -187,6 +203,7 @@ public class CandidateService {
         // 异步更新向量（候选人信息变更后需重新嵌入）
         Candidate updated = getById(id);
         candidateVectorService.vectorizeCandidateAsync(updated);
+        TransactionUtil.afterCommit(() -> candidateFacetIndex.upsert(updated));
 
         log.info("候选人更新成功: candidateId={}", id);
         return updated;
@@ -199,24 +216,41 @@ public class CandidateService {
     public void deleteById(Long id) {
         candidateMapper.deleteById(id);
         evictCache(id);
+        TransactionUtil.afterCommit(() -> candidateFacetIndex.remove(id));
         // 同步删除 Milvus 向量
         candidateVectorService.deleteVector(id);
         log.info("候选人删除成功: candidateId={}", id);
     }
 
+    /**
+     * 获取候选人向量化统计
+     */
+    public CandidateVectorService.VectorizeStats getVectorizeStats() {
+        return candidateVectorService.getStats();
+    }
+
     /**
      * 分页查询候选人列表，支持多维度高级筛选
      * <ul>
      *   <li>keyword  — 姓名/邮箱/公司/职位 模糊</li>
      *   <li>education — 学历精确匹配</li>
-     *   <li>skill    — 技能 JSON_CONTAINS</li>
+     *   <li>skill / skills — 技能（skillMatch=ALL 全部具备 / ANY 具备其一）</li>
      *   <li>minWorkYears / maxWorkYears — 工作年限范围</li>
      *   <li>currentPosition — 当前职位关键字</li>
      * </ul>
+     * 不含模糊条件且内存索引已就绪时由 {@link CandidateFacetIndex} 筛选，MySQL 仅按当页 id 回表；
+     * 否则查询 MySQL。两条路径都按 id 倒序分页，技能都按 {@link SkillNormalizer} 词典忽略大小写匹配：
+     * MySQL 上把每个技能展开为词典中同一规范 ID 的全部写法（{@link SkillNormalizer#variants}），
+     * 词典未列出的分隔符变体（如 spring-boot）只有内存索引能匹配。
      */
     public Page<Candidate> listCandidates(CandidateQueryRequest request) {
         int page = Math.max(1, request.getPage());
         int pageSize = Math.min(100, Math.max(1, request.getPageSize()));
+        List<String> skills = requestedSkills(request);
+
+        if (candidateFacetIndex.isReady() && !hasFuzzyCondition(request)) {
+            return listFromIndex(request, skills, page, pageSize);
+        }
 
         Page<Candidate> pageParam = new Page<>(page, pageSize);
         LambdaQueryWrapper<Candidate> wrapper = new LambdaQueryWrapper<>();
@@ -237,9 +271,15 @@ public class CandidateService {
             wrapper.eq(Candidate::getEducation, request.getEducation().trim());
         }
 
-        // ③ 技能 JSON_CONTAINS
-        if (StringUtils.hasText(request.getSkill())) {
-            wrapper.apply("JSON_CONTAINS(skills, JSON_QUOTE({0}))", request.getSkill().trim());
+        // ③ 技能 JSON_CONTAINS（按词典展开别名，忽略大小写）
+        if (!skills.isEmpty()) {
+            if (matchAllSkills(request)) {
+                skills.forEach(skill -> wrapper.and(w -> applyAnySkill(w, skillNormalizer.variants(skill))));
+            } else {
+                Set<String> variants = new LinkedHashSet<>();
+                skills.forEach(skill -> variants.addAll(skillNormalizer.variants(skill)));
+                wrapper.and(w -> applyAnySkill(w, variants));
+            }
         }
 
         // ④ 工作年限范围
@@ -255,10 +295,91 @@ public class CandidateService {
             wrapper.like(Candidate::getCurrentPosition, request.getCurrentPosition().trim());
         }
 
-        wrapper.orderByDesc(Candidate::getCreatedAt);
+        // 与内存索引路径一致，按 id 倒序
+        wrapper.orderByDesc(Candidate::getId);
         return candidateMapper.selectPage(pageParam, wrapper);
     }
 
+    /**
+     * 具备任一写法（技能 JSON 数组转小写后等值匹配）
+     */
+    private static void applyAnySkill(LambdaQueryWrapper<Candidate> wrapper, Collection<String> variants) {
+        boolean first = true;
+        for (String variant : variants) {
+            if (!first) {
+                wrapper.or();
+            }
+            wrapper.apply("JSON_CONTAINS(LOWER(skills), JSON_QUOTE({0}))", variant);
+            first = false;
+        }
+    }
+
+    /**
+     * 候选人筛选分面统计（技能 / 学历 / 工作年限），筛选条件同 {@link #listCandidates}，不支持模糊条件
+     *
+     * @param facetSize 技能分面返回的取值数
+     */
+    public CandidateFacetResponse facetCandidates(CandidateQueryRequest request, int facetSize) {
+        if (hasFuzzyCondition(request)) {
+            throw new BusinessException(ResultCode.BAD_REQUEST, "分面统计不支持关键字 / 当前职位模糊条件");
+        }
+        if (!candidateFacetIndex.isReady()) {
+            throw new BusinessException(ResultCode.INTERNAL_ERROR, "候选人筛选索引加载中，请稍后再试");
+        }
+        int size = Math.min(100, Math.max(1, facetSize));
+        return candidateFacetIndex.facets(toFilter(request, requestedSkills(request)), size);
+    }
+
+    /**
+     * 由内存索引筛选分页，按当页 id 回表
+     */
+    private Page<Candidate> listFromIndex(CandidateQueryRequest request, List<String> skills, int page, int pageSize) {
+        CandidateFacetIndex.Hits hits = candidateFacetIndex.search(
+                toFilter(request, skills), (long) (page - 1) * pageSize, pageSize);
+
+        Page<Candidate> result = new Page<>(page, pageSize, hits.total());
+        if (hits.ids().isEmpty()) {
+            result.setRecords(List.of());
+            return result;
+        }
+        Map<Long, Candidate> byId = candidateMapper.selectBatchIds(hits.ids()).stream()
+                .collect(Collectors.toMap(Candidate::getId, Function.identity()));
+        // 其他实例刚删除、本实例索引尚未同步的候选人在回表时过滤
+        result.setRecords(hits.ids().stream().map(byId::get).filter(Objects::nonNull).toList());
+        return result;
+    }
+
+    private CandidateFacetIndex.Filter toFilter(CandidateQueryRequest request, List<String> skills) {
+        return new CandidateFacetIndex.Filter(request.getEducation(), skills, matchAllSkills(request),
+                request.getMinWorkYears(), request.getMaxWorkYears());
+    }
+
+    private static boolean hasFuzzyCondition(CandidateQueryRequest request) {
+        return StringUtils.hasText(request.getKeyword()) || StringUtils.hasText(request.getCurrentPosition());
+    }
+
+    private static boolean matchAllSkills(CandidateQueryRequest request) {
+        return !"ANY".equalsIgnoreCase(request.getSkillMatch());
+    }
+
+    /**
+     * 合并 skill 与 skills（去空白、去空项）
+     */
+    private static List<String> requestedSkills(CandidateQueryRequest request) {
+        List<String> skills = new ArrayList<>();
+        if (StringUtils.hasText(request.getSkill())) {
+            skills.add(request.getSkill().trim());
+        }
+        if (request.getSkills() != null) {
+            for (String skill : request.getSkills()) {
+                if (StringUtils.hasText(skill) && !skills.contains(skill.trim())) {
+                    skills.add(skill.trim());
+                }
+            }
+        }
+        return skills;
+    }
+
     /**
      * 删除候选人详情缓存（写后失效策略）
      */
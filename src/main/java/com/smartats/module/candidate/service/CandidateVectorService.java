@@ -4,69 +4,121 @@ import com.smartats.infrastructure.vector.EmbeddingService;
 import com.smartats.infrastructure.vector.VectorStoreService;
 import com.smartats.module.candidate.entity.Candidate;
 import com.smartats.module.candidate.mapper.CandidateMapper;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * 候选人向量化服务
  * <p>
  * 职责：
- * 1. 在候选人创建/更新后，生成嵌入向量并存入 Milvus
+ * 1. 在候选人创建/更新后，生成嵌入向量并存入 Milvus（连同标量过滤字段）
  * 2. 在候选人删除时，同步删除 Milvus 中的向量
- * 3. 更新 candidates 表的 vector_id 和 ai_summary 字段
+ * 3. 更新 candidates 表的 vector_id、ai_summary 和 embedding_hash 字段
  * <p>
  * 向量化流程：
  *   Candidate → buildCandidateText → embedding-3 → 1024 维向量 → Milvus upsert
+ * <p>
+ * 嵌入文本指纹（模型 + 维度 + 文本的 SHA-256）与已持久化的 embedding_hash 一致且向量已存在时，
+ * 跳过 embedding API 调用和 upsert。手机号、邮箱等不参与嵌入文本的字段变更不会触发重新嵌入；
+ * 学历、年限、职位、技能等标量过滤字段都包含在嵌入文本中，指纹一致即说明过滤字段也未变化。
+ * <p>
+ * 开启写缓冲（smartats.vector.write-buffer.enabled）时，向量写入与删除交给 {@link CandidateVectorWriteBuffer}
+ * 批量刷入向量存储，刷盘成功后再回写 MySQL；关闭时同步写入。
+ * <p>
+ * 向量写入或删除生效后递增向量代数（{@link SearchSessionStore#bumpGeneration}），使已缓存的搜索会话失效；
+ * 写缓冲模式下由写缓冲在刷盘成功后递增。
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class CandidateVectorService {
 
     private final EmbeddingService embeddingService;
     private final VectorStoreService vectorStoreService;
     private final CandidateMapper candidateMapper;
+    private final CandidateVectorWriteBuffer writeBuffer;
+    private final SearchSessionStore searchSessionStore;
+    private final String model;
+    private final boolean writeBehind;
+
+    private final LongAdder performed = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    public CandidateVectorService(EmbeddingService embeddingService,
+                                  VectorStoreService vectorStoreService,
+                                  CandidateMapper candidateMapper,
+                                  CandidateVectorWriteBuffer writeBuffer,
+                                  SearchSessionStore searchSessionStore,
+                                  @Value("${smartats.ai.embedding.model:embedding-3}") String model,
+                                  @Value("${smartats.vector.write-buffer.enabled:true}") boolean writeBehind) {
+        this.embeddingService = embeddingService;
+        this.vectorStoreService = vectorStoreService;
+        this.candidateMapper = candidateMapper;
+        this.writeBuffer = writeBuffer;
+        this.searchSessionStore = searchSessionStore;
+        this.model = model;
+        this.writeBehind = writeBehind;
+    }
 
     /**
      * 为候选人生成向量并存入 Milvus（同步调用，用于解析管线中）
      *
      * @param candidate 已持久化的候选人实体
+     * @return 本次生成的向量；嵌入文本未变化而跳过或向量化失败时返回 null
      */
-    public void vectorizeCandidate(Candidate candidate) {
+    public List<Float> vectorizeCandidate(Candidate candidate) {
         log.info("开始向量化候选人: candidateId={}, name={}", candidate.getId(), candidate.getName());
 
         try {
-            // 1. 构建摘要文本
+            // 1. 构建摘要文本，计算指纹
             String aiSummary = embeddingService.buildCandidateText(candidate);
+            String embeddingHash = fingerprint(aiSummary);
+
+            boolean unchanged = embeddingHash.equals(candidate.getEmbeddingHash()) && candidate.getVectorId() != null;
+            if (unchanged || (writeBehind && writeBuffer.hasPendingUpsert(candidate.getId(), embeddingHash))) {
+                skipped.increment();
+                log.info("候选人嵌入文本未变化，跳过向量化: candidateId={}", candidate.getId());
+                return null;
+            }
 
             // 2. 生成嵌入向量
             List<Float> embedding = embeddingService.generateCandidateEmbedding(candidate);
 
-            // 3. 存入 Milvus
-            String vectorId = vectorStoreService.upsertVector(
-                    candidate.getId(),
-                    candidate.getName(),
-                    embedding
-            );
+            if (writeBehind) {
+                // 3'. 交给写缓冲批量刷盘，刷盘成功后回写 MySQL
+                writeBuffer.enqueueUpsert(candidate, embedding, aiSummary, embeddingHash);
+                performed.increment();
+                log.info("候选人向量已加入写缓冲: candidateId={}", candidate.getId());
+                return embedding;
+            }
 
-            // 4. 回写 MySQL（更新 vector_id 和 ai_summary）
+            // 3. 存入 Milvus（同步写入学历、年限、职位、技能等标量过滤字段）
+            String vectorId = vectorStoreService.upsertVector(candidate, embedding);
+            searchSessionStore.bumpGeneration();
+
+            // 4. 回写 MySQL（更新 vector_id、ai_summary 和 embedding_hash，不改动 updated_at）
             Candidate update = new Candidate();
             update.setId(candidate.getId());
             update.setVectorId(vectorId);
             update.setAiSummary(aiSummary);
-            update.setUpdatedAt(LocalDateTime.now());
-            candidateMapper.updateById(update);
+            update.setEmbeddingHash(embeddingHash);
+            candidateMapper.batchUpdateVectorInfo(List.of(update));
+            performed.increment();
 
             log.info("候选人向量化完成: candidateId={}, vectorId={}", candidate.getId(), vectorId);
+            return embedding;
 
         } catch (Exception e) {
             // 向量化失败不应阻断主流程，记录错误后跳过
+            failed.increment();
             log.error("候选人向量化失败（不影响主流程）: candidateId={}", candidate.getId(), e);
+            return null;
         }
     }
 
@@ -83,16 +135,60 @@ public class CandidateVectorService {
     }
 
     /**
-     * 删除候选人向量（同步）
+     * 删除候选人向量（开启写缓冲时与 upsert 一起按序批量刷盘）
      *
      * @param candidateId 候选人 ID
      */
     public void deleteVector(Long candidateId) {
+        if (writeBehind) {
+            writeBuffer.enqueueDelete(candidateId);
+            return;
+        }
         try {
             vectorStoreService.deleteVector(candidateId);
+            searchSessionStore.bumpGeneration();
             log.info("候选人向量删除成功: candidateId={}", candidateId);
         } catch (Exception e) {
             log.error("候选人向量删除失败（不影响主流程）: candidateId={}", candidateId, e);
         }
     }
+
+    /**
+     * 标记候选人向量已被批量改写（如批量重建），使已缓存的搜索会话失效
+     */
+    public void markVectorsChanged() {
+        searchSessionStore.bumpGeneration();
+    }
+
+    /**
+     * 获取向量化统计（执行 / 因文本未变跳过 / 失败次数）
+     */
+    public VectorizeStats getStats() {
+        return new VectorizeStats(performed.sum(), skipped.sum(), failed.sum());
+    }
+
+    /**
+     * 嵌入文本指纹：模型或维度变化时指纹随之变化，保证换模型后会重新嵌入
+     */
+    String fingerprint(String text) {
+        return DigestUtils.sha256Hex(model + ":" + EmbeddingService.EMBEDDING_DIMENSION + ":" + text);
+    }
+
+    /**
+     * 向量化统计
+     *
+     * @param performed 实际调用 embedding API 并写入向量的次数
+     * @param skipped   嵌入文本未变化而跳过的次数
+     * @param failed    向量化失败次数
+     */
+    public record VectorizeStats(long performed, long skipped, long failed) {
+
+        /**
+         * 跳过率（跳过次数 / 成功处理总数）
+         */
+        public double skipRate() {
+            long total = performed + skipped;
+            return total == 0 ? 0.0 : (double) skipped / total;
+        }
+    }
 }
@@ -0,0 +1,314 @@
+package com.smartats.module.candidate.service;
+
+import com.smartats.infrastructure.vector.VectorStoreService;
+import com.smartats.module.candidate.entity.Candidate;
+import com.smartats.module.candidate.mapper.CandidateMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 候选人向量写缓冲（write-behind）
+ * <p>
+ * 向量 upsert / delete 先进入内存缓冲，按数量或时间批量刷入向量存储：
+ * <ul>
+ *   <li>同一候选人只保留最后一次操作（后写覆盖前写），刷盘串行执行，保证同一候选人的写入顺序</li>
+ *   <li>缓冲达到 flush-size 时由后台线程刷盘；超过 max-pending 时调用方同步刷盘（背压）</li>
+ *   <li>批量写入减少网络往返，也避免大量单行写入在 Milvus 中产生碎片化的小 Segment</li>
+ *   <li>upsert 刷盘成功后才回写 MySQL 的 vector_id / ai_summary / embedding_hash；
+ *       刷盘失败的操作重新入队（不覆盖期间到达的更新操作），超过最大次数后丢弃</li>
+ *   <li>每轮刷盘有写入成功时递增向量代数，使已缓存的搜索会话失效</li>
+ *   <li>应用关闭时排空缓冲</li>
+ * </ul>
+ * 进程异常退出时未刷盘的操作会丢失，但对应候选人的 embedding_hash 未被回写，
+ * 下次更新或批量重建时会重新向量化。
+ */
+@Slf4j
+@Service
+public class CandidateVectorWriteBuffer {
+
+    private final VectorStoreService vectorStoreService;
+    private final CandidateMapper candidateMapper;
+    private final SearchSessionStore searchSessionStore;
+    private final int flushSize;
+    private final int maxPending;
+    private final int maxAttempts;
+
+    /** 待刷盘操作，按入队顺序排列；同一候选人只保留最后一次操作 */
+    private final LinkedHashMap<Long, PendingWrite> pending = new LinkedHashMap<>();
+
+    /** 刷盘锁：保证同一时刻只有一个线程刷盘 */
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+
+    private final ExecutorService flushExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "vector-write-buffer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public CandidateVectorWriteBuffer(VectorStoreService vectorStoreService,
+                                      CandidateMapper candidateMapper,
+                                      SearchSessionStore searchSessionStore,
+                                      @Value("${smartats.vector.write-buffer.flush-size:256}") int flushSize,
+                                      @Value("${smartats.vector.write-buffer.max-pending:10000}") int maxPending,
+                                      @Value("${smartats.vector.write-buffer.max-attempts:5}") int maxAttempts) {
+        if (flushSize <= 0 || maxPending < flushSize || maxAttempts <= 0) {
+            throw new IllegalArgumentException("write-buffer 参数非法: flushSize=" + flushSize
+                    + ", maxPending=" + maxPending + ", maxAttempts=" + maxAttempts);
+        }
+        this.vectorStoreService = vectorStoreService;
+        this.candidateMapper = candidateMapper;
+        this.searchSessionStore = searchSessionStore;
+        this.flushSize = flushSize;
+        this.maxPending = maxPending;
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * 缓冲一次向量 upsert（刷盘成功后回写 MySQL）
+     *
+     * @param candidate     候选人实体（需包含 ID）
+     * @param embedding     嵌入向量
+     * @param aiSummary     嵌入文本（回写 ai_summary）
+     * @param embeddingHash 嵌入文本指纹（回写 embedding_hash）
+     */
+    public void enqueueUpsert(Candidate candidate, List<Float> embedding, String aiSummary, String embeddingHash) {
+        enqueue(new PendingWrite(candidate.getId(), candidate, embedding, aiSummary, embeddingHash, 0));
+    }
+
+    /**
+     * 缓冲一次向量删除
+     *
+     * @param candidateId 候选人 ID
+     */
+    public void enqueueDelete(Long candidateId) {
+        enqueue(new PendingWrite(candidateId, null, null, null, null, 0));
+    }
+
+    /**
+     * 是否已有相同指纹的 upsert 在等待刷盘（用于跳过重复嵌入）
+     */
+    public boolean hasPendingUpsert(Long candidateId, String embeddingHash) {
+        synchronized (pending) {
+            PendingWrite write = pending.get(candidateId);
+            return write != null && !write.isDelete() && embeddingHash.equals(write.embeddingHash());
+        }
+    }
+
+    /**
+     * 当前待刷盘操作数
+     */
+    public int pendingCount() {
+        synchronized (pending) {
+            return pending.size();
+        }
+    }
+
+    /**
+     * 定时刷盘（已有线程在刷盘时跳过本轮）
+     */
+    @Scheduled(fixedDelayString = "${smartats.vector.write-buffer.flush-interval-ms:1000}")
+    public void scheduledFlush() {
+        if (flushLock.tryLock()) {
+            try {
+                flushPending();
+            } finally {
+                flushLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * 立即刷盘（阻塞直到本轮刷盘完成）
+     *
+     * @return 成功写入向量存储的操作数
+     */
+    public int flush() {
+        flushLock.lock();
+        try {
+            return flushPending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * 应用关闭时排空缓冲（失败的操作按最大次数重试）
+     */
+    @PreDestroy
+    public void shutdown() {
+        flushExecutor.shutdown();
+        try {
+            flushExecutor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (int round = 0; round < maxAttempts && pendingCount() > 0; round++) {
+            flush();
+        }
+        int remaining = pendingCount();
+        if (remaining > 0) {
+            log.error("关闭时仍有 {} 个向量写操作未能刷盘，相关候选人将在下次更新或批量重建时重新向量化", remaining);
+        } else {
+            log.info("向量写缓冲已排空");
+        }
+    }
+
+    private void enqueue(PendingWrite write) {
+        int size;
+        synchronized (pending) {
+            // 先移除再放入，使该候选人排到队尾，与最新操作的时间顺序一致
+            pending.remove(write.candidateId());
+            pending.put(write.candidateId(), write);
+            size = pending.size();
+        }
+
+        if (size >= maxPending) {
+            log.warn("向量写缓冲积压过多，调用方同步刷盘: pending={}", size);
+            flush();
+        } else if (size >= flushSize && flushScheduled.compareAndSet(false, true)) {
+            try {
+                flushExecutor.execute(() -> {
+                    flushScheduled.set(false);
+                    flush();
+                });
+            } catch (Exception e) {
+                // 执行器已关闭（应用关闭中），由 shutdown 排空
+                flushScheduled.set(false);
+            }
+        }
+    }
+
+    /**
+     * 分批刷出当前缓冲中的全部操作；某批失败时停止本轮，等待下次刷盘重试
+     */
+    private int flushPending() {
+        int written = 0;
+        while (true) {
+            List<PendingWrite> batch = drain();
+            if (batch.isEmpty()) {
+                break;
+            }
+            int ok = flushBatch(batch);
+            written += ok;
+            if (ok < batch.size()) {
+                break;
+            }
+        }
+        if (written > 0) {
+            searchSessionStore.bumpGeneration();
+        }
+        return written;
+    }
+
+    private List<PendingWrite> drain() {
+        synchronized (pending) {
+            List<PendingWrite> batch = new ArrayList<>(Math.min(flushSize, pending.size()));
+            Iterator<Map.Entry<Long, PendingWrite>> it = pending.entrySet().iterator();
+            while (it.hasNext() && batch.size() < flushSize) {
+                batch.add(it.next().getValue());
+                it.remove();
+            }
+            return batch;
+        }
+    }
+
+    private int flushBatch(List<PendingWrite> batch) {
+        List<PendingWrite> upserts = batch.stream().filter(w -> !w.isDelete()).toList();
+        List<PendingWrite> deletes = batch.stream().filter(PendingWrite::isDelete).toList();
+        int written = 0;
+
+        if (!deletes.isEmpty()) {
+            try {
+                vectorStoreService.deleteVectors(deletes.stream().map(PendingWrite::candidateId).toList());
+                written += deletes.size();
+            } catch (Exception e) {
+                log.warn("向量批量删除失败，重新入队: count={}", deletes.size(), e);
+                requeue(deletes);
+            }
+        }
+
+        if (!upserts.isEmpty()) {
+            try {
+                vectorStoreService.upsertVectors(
+                        upserts.stream().map(PendingWrite::candidate).toList(),
+                        upserts.stream().map(PendingWrite::embedding).toList());
+                written += upserts.size();
+            } catch (Exception e) {
+                log.warn("向量批量 Upsert 失败，重新入队: count={}", upserts.size(), e);
+                requeue(upserts);
+                return written;
+            }
+            writeBack(upserts);
+        }
+
+        log.debug("向量写缓冲刷盘完成: upserts={}, deletes={}", upserts.size(), deletes.size());
+        return written;
+    }
+
+    /**
+     * 向量写入成功后一次性批量回写 MySQL，不改动 updated_at（避免推动对账水位、触发筛选索引重同步）
+     * <p>
+     * 失败只记录日志：向量已存在，缺少指纹只会导致下次更新时重新嵌入。
+     */
+    private void writeBack(List<PendingWrite> upserts) {
+        List<Candidate> updates = new ArrayList<>(upserts.size());
+        for (PendingWrite write : upserts) {
+            Candidate update = new Candidate();
+            update.setId(write.candidateId());
+            update.setVectorId(String.valueOf(write.candidateId()));
+            update.setAiSummary(write.aiSummary());
+            update.setEmbeddingHash(write.embeddingHash());
+            updates.add(update);
+        }
+        try {
+            candidateMapper.batchUpdateVectorInfo(updates);
+        } catch (Exception e) {
+            log.warn("批量回写候选人向量信息失败: count={}", updates.size(), e);
+        }
+    }
+
+    private void requeue(List<PendingWrite> writes) {
+        synchronized (pending) {
+            for (PendingWrite write : writes) {
+                if (write.attempts() + 1 >= maxAttempts) {
+                    log.error("向量写操作重试次数耗尽，已丢弃: candidateId={}, delete={}",
+                            write.candidateId(), write.isDelete());
+                    continue;
+                }
+                // 期间到达的同一候选人的新操作优先，不被旧操作覆盖
+                pending.putIfAbsent(write.candidateId(), write.retry());
+            }
+        }
+    }
+
+    /**
+     * 待刷盘的向量写操作（embedding 为 null 表示删除）
+     */
+    private record PendingWrite(Long candidateId, Candidate candidate, List<Float> embedding,
+                                String aiSummary, String embeddingHash, int attempts) {
+
+        boolean isDelete() {
+            return embedding == null;
+        }
+
+        PendingWrite retry() {
+            return new PendingWrite(candidateId, candidate, embedding, aiSummary, embeddingHash, attempts + 1);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.smartats.module.candidate.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 倒数排名融合（Reciprocal Rank Fusion）
+ * <p>
+ * score(d) = Σ weight_i / (k + rank_i(d))，rank 从 1 开始，未出现在某一路结果中的文档在该路不得分。
+ * 只依赖名次、不依赖原始分数，因此可以直接融合量纲不同的向量相似度与全文检索相关度。
+ */
+final class ReciprocalRankFusion {
+
+    private ReciprocalRankFusion() {
+    }
+
+    /**
+     * 融合多路排名
+     *
+     * @param rankings 每一路按相关度倒序的 ID 列表
+     * @param weights  每一路的权重（与 rankings 一一对应）
+     * @param k        平滑常数（常用 60，越大名次差异的影响越小）
+     * @return 按融合分数倒序的 ID → 分数（分数相同时按首次出现顺序）
+     */
+    static LinkedHashMap<Long, Double> fuse(List<List<Long>> rankings, double[] weights, int k) {
+        if (rankings.size() != weights.length) {
+            throw new IllegalArgumentException("rankings 与 weights 数量不一致");
+        }
+
+        Map<Long, Double> scores = new LinkedHashMap<>();
+        for (int leg = 0; leg < rankings.size(); leg++) {
+            List<Long> ranking = rankings.get(leg);
+            for (int i = 0; i < ranking.size(); i++) {
+                scores.merge(ranking.get(i), weights[leg] / (k + i + 1), Double::sum);
+            }
+        }
+
+        List<Map.Entry<Long, Double>> entries = new ArrayList<>(scores.entrySet());
+        entries.sort(Map.Entry.<Long, Double>comparingByValue(Comparator.reverseOrder()));
+
+        LinkedHashMap<Long, Double> fused = new LinkedHashMap<>();
+        entries.forEach(e -> fused.put(e.getKey(), e.getValue()));
+        return fused;
+    }
+
+    /**
+     * 理论最高融合分数（文档在每一路都排第一），用于把融合分数归一化到 0~1
+     */
+    static double maxScore(double[] weights, int k) {
+        double sum = 0;
+        for (double weight : weights) {
+            sum += weight;
+        }
+        return sum / (k + 1);
+    }
+}
@@ -0,0 +1,134 @@
+package com.smartats.module.candidate.service;
+
+import com.smartats.module.application.service.MatchFeatureScorer;
+import com.smartats.module.application.service.SkillNormalizer;
+import com.smartats.module.candidate.dto.SmartSearchRequest.RerankCriteria;
+import com.smartats.module.candidate.dto.SmartSearchResponse.MatchedCandidate;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 语义搜索结果的结构化重排
+ * <p>
+ * ANN 检索只按向量相似度排序，对「必须会 Kafka」「5 年以上」这类结构化偏好不敏感。
+ * 重排阶段对多召回的候选人（topK × over-fetch-multiplier，最多 max-candidates 个）
+ * 在进程内计算技能 / 经验 / 学历匹配度（与 {@link MatchFeatureScorer} 同一口径，技能经 {@link SkillNormalizer} 规范化），
+ * 与检索分数加权后重新排序：
+ * <pre>
+ *   score = w_retrieval × retrievalScore + w_skill × skill + w_experience × experience + w_education × education
+ * </pre>
+ * 权重按总和归一化。纯内存计算，500 个候选人的重排耗时在亚毫秒级
+ * （见 test 目录下的 SearchRerankerBenchmark）。
+ */
+@Slf4j
+@Component
+public class SearchReranker {
+
+    private final SkillNormalizer skillNormalizer;
+    private final double retrievalWeight;
+    private final double skillWeight;
+    private final double experienceWeight;
+    private final double educationWeight;
+    private final int overFetchMultiplier;
+    private final int maxCandidates;
+
+    public SearchReranker(SkillNormalizer skillNormalizer,
+                          @Value("${smartats.search.rerank.retrieval-weight:0.5}") double retrievalWeight,
+                          @Value("${smartats.search.rerank.skill-weight:0.25}") double skillWeight,
+                          @Value("${smartats.search.rerank.experience-weight:0.15}") double experienceWeight,
+                          @Value("${smartats.search.rerank.education-weight:0.10}") double educationWeight,
+                          @Value("${smartats.search.rerank.over-fetch-multiplier:5}") int overFetchMultiplier,
+                          @Value("${smartats.search.rerank.max-candidates:500}") int maxCandidates) {
+        double sum = retrievalWeight + skillWeight + experienceWeight + educationWeight;
+        if (retrievalWeight < 0 || skillWeight < 0 || experienceWeight < 0 || educationWeight < 0 || sum <= 0
+                || overFetchMultiplier < 1 || maxCandidates < 1) {
+            throw new IllegalArgumentException("重排参数非法: weights=[" + retrievalWeight + ", " + skillWeight + ", "
+                    + experienceWeight + ", " + educationWeight + "], overFetchMultiplier=" + overFetchMultiplier
+                    + ", maxCandidates=" + maxCandidates);
+        }
+        this.skillNormalizer = skillNormalizer;
+        this.retrievalWeight = retrievalWeight / sum;
+        this.skillWeight = skillWeight / sum;
+        this.experienceWeight = experienceWeight / sum;
+        this.educationWeight = educationWeight / sum;
+        this.overFetchMultiplier = overFetchMultiplier;
+        this.maxCandidates = maxCandidates;
+    }
+
+    /**
+     * 重排前需要召回的候选人数
+     *
+     * @param topK 最终返回数量
+     */
+    public int candidatePoolSize(int topK) {
+        return Math.max(topK, Math.min(topK * overFetchMultiplier, maxCandidates));
+    }
+
+    /**
+     * 按结构化匹配度重排
+     * <p>
+     * 以 retrievalScore（为空时取 matchScore）作为检索分数，写入各维度分数与加权后的 matchScore，
+     * 按加权分倒序返回新列表（同分保持检索顺序）；可对同一批结果重复调用。
+     *
+     * @param hits     检索结果（按检索分数倒序）
+     * @param criteria 重排条件
+     * @return 重排后的结果
+     */
+    public List<MatchedCandidate> rerank(List<MatchedCandidate> hits, RerankCriteria criteria) {
+        int n = hits.size();
+        if (n == 0) {
+            return List.of();
+        }
+        long start = System.nanoTime();
+
+        // 查询侧特征只计算一次
+        Set<String> requiredSkills = skillNormalizer.normalize(criteria.getSkills());
+        String education = criteria.getEducation();
+        Integer minYears = criteria.getMinWorkYears();
+        Integer maxYears = criteria.getMaxWorkYears();
+
+        double[] scores = new double[n];
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            MatchedCandidate mc = hits.get(i);
+            if (mc.getRetrievalScore() == null) {
+                mc.setRetrievalScore(mc.getMatchScore());
+            }
+            double skill = requiredSkills.isEmpty() ? 1.0
+                    : MatchFeatureScorer.skillScore(requiredSkills, skillNormalizer.normalize(mc.getSkills())) / 100;
+            double experience = MatchFeatureScorer.experienceScore(mc.getWorkYears(), minYears, maxYears) / 100;
+            double edu = MatchFeatureScorer.educationScore(education, mc.getEducation()) / 100;
+
+            scores[i] = retrievalWeight * mc.getRetrievalScore()
+                    + skillWeight * skill
+                    + experienceWeight * experience
+                    + educationWeight * edu;
+            mc.setSkillScore(round4(skill));
+            mc.setExperienceScore(round4(experience));
+            mc.setEducationScore(round4(edu));
+            mc.setMatchScore(round4(scores[i]));
+            order[i] = i;
+        }
+
+        // 按未取整的加权分排序，稳定排序保证同分时保持检索顺序
+        Arrays.sort(order, Comparator.comparingDouble((Integer i) -> scores[i]).reversed());
+        List<MatchedCandidate> reranked = new ArrayList<>(n);
+        for (Integer i : order) {
+            reranked.add(hits.get(i));
+        }
+
+        log.debug("重排完成: candidates={}, elapsed={}µs", n, (System.nanoTime() - start) / 1000);
+        return reranked;
+    }
+
+    private static double round4(double value) {
+        return Math.round(value * 10000.0) / 10000.0;
+    }
+}
@@ -0,0 +1,121 @@
+package com.smartats.module.candidate.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartats.common.constants.RedisKeyConstants;
+import com.smartats.module.candidate.dto.SmartSearchResponse.MatchedCandidate;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 语义搜索会话存储
+ * <p>
+ * 首次搜索把排好序的候选人 ID 与各项分数（不含候选人详情）以 searchId 缓存到 Redis，
+ * 后续翻页直接按游标截取，只回表查询当页候选人，不再重复向量化、ANN 检索与重排。
+ * <p>
+ * 失效：候选人向量每次写入 / 删除后递增全局代数（{@link #bumpGeneration}），
+ * 会话记录创建时的代数，翻页时代数不一致即视为过期，客户端需重新搜索。
+ */
+@Slf4j
+@Service
+public class SearchSessionStore {
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final long ttlMinutes;
+
+    public SearchSessionStore(StringRedisTemplate redisTemplate,
+                              ObjectMapper objectMapper,
+                              @Value("${smartats.search.session.ttl-minutes:10}") long ttlMinutes) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.ttlMinutes = ttlMinutes;
+    }
+
+    /**
+     * 当前向量代数（Redis 不可用时返回 -1，此时新建的会话在 Redis 恢复后立即失效）
+     */
+    public long currentGeneration() {
+        try {
+            String value = redisTemplate.opsForValue().get(RedisKeyConstants.COUNTER_VECTOR_GENERATION_KEY);
+            return value != null ? Long.parseLong(value) : 0L;
+        } catch (Exception e) {
+            log.warn("读取向量代数失败: {}", e.getMessage());
+            return -1L;
+        }
+    }
+
+    /**
+     * 递增向量代数，使此前创建的全部搜索会话失效（失败只记录日志，不影响向量写入）
+     */
+    public void bumpGeneration() {
+        try {
+            redisTemplate.opsForValue().increment(RedisKeyConstants.COUNTER_VECTOR_GENERATION_KEY);
+        } catch (Exception e) {
+            log.warn("递增向量代数失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 保存搜索会话
+     *
+     * @return searchId；Redis 不可用时返回 null（本次搜索仍正常返回首页，只是无法翻页）
+     */
+    public String save(SearchSession session) {
+        String searchId = UUID.randomUUID().toString().replace("-", "");
+        try {
+            redisTemplate.opsForValue().set(RedisKeyConstants.CACHE_SEARCH_SESSION_KEY_PREFIX + searchId,
+                    objectMapper.writeValueAsString(session), ttlMinutes, TimeUnit.MINUTES);
+            return searchId;
+        } catch (Exception e) {
+            log.warn("保存搜索会话失败: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 读取搜索会话
+     *
+     * @return 会话；不存在、已过期或代数已变化时返回 null
+     */
+    public SearchSession get(String searchId) {
+        String key = RedisKeyConstants.CACHE_SEARCH_SESSION_KEY_PREFIX + searchId;
+        SearchSession session;
+        try {
+            String json = redisTemplate.opsForValue().get(key);
+            if (json == null) {
+                return null;
+            }
+            session = objectMapper.readValue(json, SearchSession.class);
+        } catch (Exception e) {
+            log.warn("读取搜索会话失败: searchId={}, error={}", searchId, e.getMessage());
+            return null;
+        }
+
+        if (session.generation() != currentGeneration()) {
+            log.info("候选人向量已更新，搜索会话失效: searchId={}", searchId);
+            redisTemplate.delete(key);
+            return null;
+        }
+        return session;
+    }
+
+    /**
+     * 搜索会话
+     *
+     * @param query      原始查询文本
+     * @param mode       实际使用的检索模式
+     * @param generation 创建时的向量代数
+     * @param pageSize   每页数量
+     * @param hits       排好序的结果（只含候选人 ID 与分数）
+     * @param degraded   是否为降级检索结果
+     */
+    public record SearchSession(String query, String mode, long generation, int pageSize,
+                                List<MatchedCandidate> hits, boolean degraded) {
+    }
+}
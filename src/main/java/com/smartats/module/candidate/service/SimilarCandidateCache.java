@@ -0,0 +1,95 @@
+package com.smartats.module.candidate.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartats.common.constants.RedisKeyConstants;
+import com.smartats.module.candidate.dto.SmartSearchResponse.MatchedCandidate;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 相似候选人结果缓存
+ * <p>
+ * 以种子候选人为单位缓存 ANN 排序结果（只含候选人 ID 与相似度，不含详情），
+ * 同时记录种子向量的嵌入文本指纹（embedding_hash）。种子简历更新、重新向量化后指纹变化，
+ * 旧结果立即失效；其他候选人的新增与更新在 TTL 到期后体现，已删除的候选人在回表时跳过。
+ */
+@Slf4j
+@Service
+public class SimilarCandidateCache {
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final long ttlMinutes;
+
+    public SimilarCandidateCache(StringRedisTemplate redisTemplate,
+                                 ObjectMapper objectMapper,
+                                 @Value("${smartats.search.similar.ttl-minutes:30}") long ttlMinutes) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.ttlMinutes = ttlMinutes;
+    }
+
+    /**
+     * 读取缓存的相似候选人
+     *
+     * @param candidateId   种子候选人 ID
+     * @param embeddingHash 种子当前的嵌入文本指纹
+     * @return 按相似度倒序的结果；未缓存、指纹不一致或 Redis 不可用时返回 null
+     */
+    public List<MatchedCandidate> get(Long candidateId, String embeddingHash) {
+        if (embeddingHash == null) {
+            return null;
+        }
+        String key = RedisKeyConstants.CACHE_SIMILAR_CANDIDATES_KEY_PREFIX + candidateId;
+        try {
+            String json = redisTemplate.opsForValue().get(key);
+            if (json == null) {
+                return null;
+            }
+            SimilarEntry entry = objectMapper.readValue(json, SimilarEntry.class);
+            if (!embeddingHash.equals(entry.embeddingHash())) {
+                log.debug("种子候选人向量已更新，相似候选人缓存失效: candidateId={}", candidateId);
+                redisTemplate.delete(key);
+                return null;
+            }
+            return entry.hits();
+        } catch (Exception e) {
+            log.warn("读取相似候选人缓存失败: candidateId={}, error={}", candidateId, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 缓存相似候选人（失败只记录日志）
+     *
+     * @param candidateId   种子候选人 ID
+     * @param embeddingHash 种子当前的嵌入文本指纹（为空时不缓存）
+     * @param hits          按相似度倒序的结果（只含候选人 ID 与分数）
+     */
+    public void put(Long candidateId, String embeddingHash, List<MatchedCandidate> hits) {
+        if (embeddingHash == null) {
+            return;
+        }
+        try {
+            redisTemplate.opsForValue().set(RedisKeyConstants.CACHE_SIMILAR_CANDIDATES_KEY_PREFIX + candidateId,
+                    objectMapper.writeValueAsString(new SimilarEntry(embeddingHash, hits)),
+                    ttlMinutes, TimeUnit.MINUTES);
+        } catch (Exception e) {
+            log.warn("写入相似候选人缓存失败: candidateId={}, error={}", candidateId, e.getMessage());
+        }
+    }
+
+    /**
+     * 缓存条目
+     *
+     * @param embeddingHash 计算结果时种子的嵌入文本指纹
+     * @param hits          按相似度倒序的结果
+     */
+    public record SimilarEntry(String embeddingHash, List<MatchedCandidate> hits) {
+    }
+}
@@ -2,106 +2,570 @@ package com.smartats.module.candidate.service;
 
 import com.smartats.common.exception.BusinessException;
 import com.smartats.common.result.ResultCode;
-import com.smartats.infrastructure.vector.EmbeddingService;
+import com.smartats.infrastructure.vector.CandidateVectorFilter;
+import com.smartats.infrastructure.vector.CircuitBreaker;
+import com.smartats.infrastructure.vector.QueryEmbeddingCache;
+import com.smartats.infrastructure.vector.QueryEmbeddingCache.CacheStats;
 import com.smartats.infrastructure.vector.VectorStoreService;
 import com.smartats.infrastructure.vector.VectorStoreService.SearchResult;
+import com.smartats.module.application.service.SkillNormalizer;
+import com.smartats.module.candidate.dto.BatchSmartSearchRequest;
+import com.smartats.module.candidate.dto.BatchSmartSearchResponse;
 import com.smartats.module.candidate.dto.SmartSearchRequest;
+import com.smartats.module.candidate.dto.SmartSearchRequest.RerankCriteria;
 import com.smartats.module.candidate.dto.SmartSearchResponse;
 import com.smartats.module.candidate.dto.SmartSearchResponse.MatchedCandidate;
 import com.smartats.module.candidate.entity.Candidate;
 import com.smartats.module.candidate.mapper.CandidateMapper;
-import lombok.RequiredArgsConstructor;
+import com.smartats.module.candidate.service.CandidateLexicalSearchService.LexicalHit;
+import com.smartats.module.candidate.service.SearchSessionStore.SearchSession;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
  * 候选人语义搜索服务
  * <p>
- * 流程：
- * 1. 将查询文本通过 embedding-3 生成向量
- * 2. 在 Milvus 中进行 ANN 搜索，获取 topK 个最相似候选人
+ * VECTOR 模式流程：
+ * 1. 将查询文本通过 embedding-3 生成向量（经两级缓存，重复查询不再调用 API）
+ * 2. 在 Milvus 中进行 ANN 搜索（结构化过滤条件在检索内部执行），获取 topK 个最相似候选人
  * 3. 按相似度阈值过滤
  * 4. 从 MySQL 获取候选人详细信息
  * 5. 组装响应返回
+ * <p>
+ * HYBRID 模式：向量检索与关键词检索（MySQL 全文索引）并发执行，各取 topK × leg-multiplier 个结果，
+ * 按倒数排名融合（RRF）后取前 topK 个，耗时约等于较慢的一路。某一路失败时降级为另一路的结果；
+ * 关键词一路在独立的 searchExecutor 中执行，超过 lexical-timeout-ms 或线程池已满时降级为纯向量结果。
+ * <p>
+ * 降级：embedding API 与向量存储各有熔断器保护，连续失败后直接拒绝调用而不是等待超时。
+ * 向量检索不可用时（含熔断中），VECTOR 模式降级为关键词检索，响应标记 degraded=true。
+ * <p>
+ * 请求携带 rerank 条件时，两种模式都先多召回一批结果，经 {@link SearchReranker} 结构化重排后取前 topK 个。
+ * <p>
+ * 请求携带 pageSize 时，排好序的结果（最多 session.max-results 个）经 {@link SearchSessionStore} 缓存，
+ * 每页只回表查询当页候选人；候选人向量更新后会话失效。
+ * <p>
+ * 相似候选人：直接按主键读取种子候选人已存储的向量作为查询向量，不调用 embedding API；
+ * 结果经 {@link SimilarCandidateCache} 缓存，种子向量更新后失效。
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class SmartSearchService {
 
-    private final EmbeddingService embeddingService;
+    /** 混合检索单路最大召回数 */
+    private static final int MAX_LEG_SIZE = 200;
+
+    /** 翻页时单页最大数量（与 SmartSearchRequest.pageSize 上限一致） */
+    private static final int MAX_PAGE_SIZE = 50;
+
+    /** 相似候选人单次检索与缓存的结果数（不同 topK / minScore 的请求共用同一份缓存） */
+    static final int SIMILAR_FETCH_SIZE = 50;
+
+    private final QueryEmbeddingCache queryEmbeddingCache;
     private final VectorStoreService vectorStoreService;
     private final CandidateMapper candidateMapper;
+    private final CandidateLexicalSearchService lexicalSearchService;
+    private final SearchReranker searchReranker;
+    private final SkillNormalizer skillNormalizer;
+    private final SearchSessionStore searchSessionStore;
+    private final SimilarCandidateCache similarCandidateCache;
+    private final CircuitBreaker vectorSearchCircuitBreaker;
+    private final Executor searchExecutor;
+    private final int rrfK;
+    private final double vectorWeight;
+    private final double lexicalWeight;
+    private final int legMultiplier;
+    private final long lexicalTimeoutMs;
+    private final int sessionMaxResults;
+    private final boolean fallbackEnabled;
+
+    public SmartSearchService(QueryEmbeddingCache queryEmbeddingCache,
+                              VectorStoreService vectorStoreService,
+                              CandidateMapper candidateMapper,
+                              CandidateLexicalSearchService lexicalSearchService,
+                              SearchReranker searchReranker,
+                              SkillNormalizer skillNormalizer,
+                              SearchSessionStore searchSessionStore,
+                              SimilarCandidateCache similarCandidateCache,
+                              @Qualifier("vectorSearchCircuitBreaker") CircuitBreaker vectorSearchCircuitBreaker,
+                              @Qualifier("searchExecutor") Executor searchExecutor,
+                              @Value("${smartats.search.hybrid.rrf-k:60}") int rrfK,
+                              @Value("${smartats.search.hybrid.vector-weight:1.0}") double vectorWeight,
+                              @Value("${smartats.search.hybrid.lexical-weight:1.0}") double lexicalWeight,
+                              @Value("${smartats.search.hybrid.leg-multiplier:3}") int legMultiplier,
+                              @Value("${smartats.search.hybrid.lexical-timeout-ms:1000}") long lexicalTimeoutMs,
+                              @Value("${smartats.search.session.max-results:200}") int sessionMaxResults,
+                              @Value("${smartats.search.fallback.enabled:true}") boolean fallbackEnabled) {
+        if (rrfK < 0 || vectorWeight < 0 || lexicalWeight < 0 || vectorWeight + lexicalWeight <= 0 || legMultiplier < 1
+                || lexicalTimeoutMs <= 0 || sessionMaxResults < 1) {
+            throw new IllegalArgumentException("检索参数非法: rrfK=" + rrfK + ", vectorWeight=" + vectorWeight
+                    + ", lexicalWeight=" + lexicalWeight + ", legMultiplier=" + legMultiplier
+                    + ", lexicalTimeoutMs=" + lexicalTimeoutMs + ", sessionMaxResults=" + sessionMaxResults);
+        }
+        this.queryEmbeddingCache = queryEmbeddingCache;
+        this.vectorStoreService = vectorStoreService;
+        this.candidateMapper = candidateMapper;
+        this.lexicalSearchService = lexicalSearchService;
+        this.searchReranker = searchReranker;
+        this.skillNormalizer = skillNormalizer;
+        this.searchSessionStore = searchSessionStore;
+        this.similarCandidateCache = similarCandidateCache;
+        this.vectorSearchCircuitBreaker = vectorSearchCircuitBreaker;
+        this.searchExecutor = searchExecutor;
+        this.rrfK = rrfK;
+        this.vectorWeight = vectorWeight;
+        this.lexicalWeight = lexicalWeight;
+        this.legMultiplier = legMultiplier;
+        this.lexicalTimeoutMs = lexicalTimeoutMs;
+        this.sessionMaxResults = sessionMaxResults;
+        this.fallbackEnabled = fallbackEnabled;
+    }
 
     /**
      * 执行语义搜索
      *
      * @param request 搜索请求
-     * @return 搜索结果
+     * @return 搜索结果（设置 pageSize 时为第一页）
      */
     public SmartSearchResponse search(SmartSearchRequest request) {
-        log.info("开始语义搜索: query='{}', topK={}, minScore={}",
-                request.getQuery(), request.getTopK(), request.getMinScore());
+        log.info("开始语义搜索: query='{}', topK={}, minScore={}, mode={}, pageSize={}",
+                request.getQuery(), request.getTopK(), request.getMinScore(), request.getMode(), request.getPageSize());
 
-        // 1. 生成查询向量
-        List<Float> queryEmbedding;
+        CandidateVectorFilter filter = buildFilter(request);
+        boolean paged = request.getPageSize() != null;
+        int topK = paged ? sessionMaxResults : request.getTopK();
+        // 先记录代数再检索：检索期间发生的向量更新会使本会话立即失效，而不是被遗漏
+        long generation = paged ? searchSessionStore.currentGeneration() : 0L;
+
+        // 1. 检索排序（只含候选人 ID 与分数）
+        Ranking ranking = "HYBRID".equals(request.getMode())
+                ? hybridRanking(request, filter, topK)
+                : vectorRanking(request, filter, topK);
+        List<MatchedCandidate> ranked = ranking.hits();
+        boolean hydrated = false;
+
+        // 2. 结构化重排需要候选人详情，先回表再重排
+        if (request.getRerank() != null && !ranked.isEmpty()) {
+            ranked = searchReranker.rerank(hydrate(ranked), request.getRerank());
+            hydrated = true;
+        }
+        if (ranked.size() > topK) {
+            ranked = new ArrayList<>(ranked.subList(0, topK));
+        }
+
+        if (!paged) {
+            List<MatchedCandidate> matchedCandidates = hydrated ? ranked : hydrate(ranked);
+            log.info("语义搜索完成: query='{}', mode={}, matches={}",
+                    request.getQuery(), ranking.mode(), matchedCandidates.size());
+            SmartSearchResponse response = buildResponse(request.getQuery(), ranking.mode(), matchedCandidates);
+            response.setDegraded(ranking.degraded());
+            return response;
+        }
+
+        // 3. 分页：缓存完整排序（不含详情），只回表第一页
+        List<MatchedCandidate> sessionHits = ranked.stream().map(SmartSearchService::scoresOnly).toList();
+        String searchId = searchSessionStore.save(new SearchSession(request.getQuery(), ranking.mode(), generation,
+                request.getPageSize(), sessionHits, ranking.degraded()));
+        SmartSearchResponse response = buildPage(request.getQuery(), ranking.mode(), sessionHits, 0,
+                request.getPageSize());
+        response.setSearchId(searchId);
+        response.setDegraded(ranking.degraded());
+        if (searchId == null) {
+            response.setNextCursor(null);
+        }
+        log.info("分页语义搜索完成: query='{}', searchId={}, totalResults={}",
+                request.getQuery(), searchId, sessionHits.size());
+        return response;
+    }
+
+    /**
+     * 按游标获取搜索会话的下一页
+     * <p>
+     * 只回表查询当页候选人，不重复向量化与检索
+     *
+     * @param searchId 搜索会话 ID
+     * @param cursor   上一页返回的 nextCursor
+     * @param pageSize 每页数量（为空时沿用首次搜索的 pageSize）
+     */
+    public SmartSearchResponse nextPage(String searchId, String cursor, Integer pageSize) {
+        SearchSession session = searchSessionStore.get(searchId);
+        if (session == null) {
+            throw new BusinessException(ResultCode.SEARCH_SESSION_EXPIRED);
+        }
+
+        int offset;
+        try {
+            offset = Integer.parseInt(cursor);
+        } catch (NumberFormatException e) {
+            throw new BusinessException(ResultCode.BAD_REQUEST, "无效的分页游标");
+        }
+        if (offset < 0 || offset > session.hits().size()) {
+            throw new BusinessException(ResultCode.BAD_REQUEST, "无效的分页游标");
+        }
+
+        if (pageSize != null && (pageSize < 1 || pageSize > MAX_PAGE_SIZE)) {
+            throw new BusinessException(ResultCode.BAD_REQUEST, "分页大小需在 1 ~ " + MAX_PAGE_SIZE + " 之间");
+        }
+        int size = pageSize != null ? pageSize : session.pageSize();
+        SmartSearchResponse response = buildPage(session.query(), session.mode(), session.hits(), offset, size);
+        response.setSearchId(searchId);
+        response.setDegraded(session.degraded());
+        return response;
+    }
+
+    /**
+     * 批量语义搜索
+     * <p>
+     * 所有查询的向量经缓存批量获取（未命中的合并为一次 embedding 请求），
+     * 作为一次多向量检索提交，全部结果中的候选人去重后只回表一次。
+     *
+     * @param request 批量搜索请求
+     * @return 与查询顺序一致的搜索结果
+     */
+    public BatchSmartSearchResponse batchSearch(BatchSmartSearchRequest request) {
+        List<String> queries = request.getQueries();
+        log.info("开始批量语义搜索: queries={}, topK={}, minScore={}",
+                queries.size(), request.getTopK(), request.getMinScore());
+
+        CandidateVectorFilter filter = buildFilter(request.getEducations(), request.getMinWorkYears(),
+                request.getMaxWorkYears(), request.getCurrentPosition(), request.getSkills());
+
+        // 1. 批量获取查询向量
+        List<List<Float>> embeddings;
         try {
-            queryEmbedding = embeddingService.generateQueryEmbedding(request.getQuery());
+            embeddings = queryEmbeddingCache.getQueryEmbeddings(queries);
         } catch (Exception e) {
-            log.error("查询文本向量化失败: query='{}'", request.getQuery(), e);
+            log.error("批量查询文本向量化失败: queries={}", queries.size(), e);
             throw new BusinessException(ResultCode.AI_SERVICE_ERROR, "AI 向量化服务不可用");
         }
 
-        // 2. Milvus 向量搜索
-        List<SearchResult> searchResults;
+        // 2. 一次多向量检索
+        List<List<SearchResult>> searchResults;
         try {
-            searchResults = vectorStoreService.search(queryEmbedding, request.getTopK());
+            searchResults = vectorSearchCircuitBreaker.call(
+                    () -> vectorStoreService.searchBatch(embeddings, request.getTopK(), filter));
         } catch (Exception e) {
-            log.error("Milvus 向量搜索失败", e);
+            log.error("Milvus 批量向量搜索失败", e);
             throw new BusinessException(ResultCode.INTERNAL_ERROR, "向量搜索服务不可用");
         }
 
-        // 3. 按阈值过滤
+        // 3. 按阈值过滤，收集全部候选人 ID（去重）
         double minScore = request.getMinScore() != null ? request.getMinScore() : 0.3;
-        List<SearchResult> filteredResults = searchResults.stream()
-                .filter(r -> r.getScore() >= minScore)
-                .toList();
+        List<List<MatchedCandidate>> rankings = new ArrayList<>(queries.size());
+        Set<Long> candidateIds = new LinkedHashSet<>();
+        for (List<SearchResult> results : searchResults) {
+            List<MatchedCandidate> hits = new ArrayList<>();
+            for (SearchResult sr : results) {
+                if (sr.getScore() >= minScore) {
+                    hits.add(vectorHit(sr));
+                    candidateIds.add(sr.getCandidateId());
+                }
+            }
+            rankings.add(hits);
+        }
 
-        log.info("向量搜索结果: total={}, filtered(minScore={})={}",
-                searchResults.size(), minScore, filteredResults.size());
+        // 4. 一次回表，按查询组装响应
+        Map<Long, Candidate> candidateMap = candidateIds.isEmpty()
+                ? Map.of() : loadCandidates(new ArrayList<>(candidateIds));
+        List<SmartSearchResponse> responses = new ArrayList<>(queries.size());
+        for (int i = 0; i < queries.size(); i++) {
+            responses.add(buildResponse(queries.get(i), "VECTOR", hydrate(rankings.get(i), candidateMap)));
+        }
+
+        BatchSmartSearchResponse response = new BatchSmartSearchResponse();
+        response.setTotalQueries(queries.size());
+        response.setUniqueCandidates(candidateIds.size());
+        response.setResults(responses);
+        log.info("批量语义搜索完成: queries={}, uniqueCandidates={}", queries.size(), candidateIds.size());
+        return response;
+    }
 
-        if (filteredResults.isEmpty()) {
-            return buildEmptyResponse(request.getQuery());
+    /**
+     * 查找与指定候选人相似的候选人
+     * <p>
+     * 按主键读取种子候选人已存储的向量直接做 ANN 检索（不调用 embedding API），结果中排除种子本身。
+     *
+     * @param candidateId 种子候选人 ID
+     * @param topK        返回数量（默认 10，最大 50）
+     * @param minScore    最低相似度（默认 0.3）
+     * @return 相似候选人（按相似度倒序）
+     */
+    public SmartSearchResponse similar(Long candidateId, Integer topK, Double minScore) {
+        int size = topK != null ? topK : 10;
+        if (size < 1 || size > SIMILAR_FETCH_SIZE) {
+            throw new BusinessException(ResultCode.BAD_REQUEST, "topK 需在 1 ~ " + SIMILAR_FETCH_SIZE + " 之间");
+        }
+        double threshold = minScore != null ? minScore : 0.3;
+        if (threshold < 0 || threshold > 1) {
+            throw new BusinessException(ResultCode.BAD_REQUEST, "最低分数需在 0 ~ 1 之间");
+        }
+
+        Candidate seed = candidateMapper.selectById(candidateId);
+        if (seed == null) {
+            throw new BusinessException(ResultCode.NOT_FOUND, "候选人不存在");
         }
 
-        // 4. 批量查询候选人详细信息（避免 N+1）
-        List<Long> candidateIds = filteredResults.stream()
-                .map(SearchResult::getCandidateId)
+        // 1. 缓存命中时直接使用排序结果，否则按种子向量检索
+        List<MatchedCandidate> ranked = similarCandidateCache.get(candidateId, seed.getEmbeddingHash());
+        if (ranked == null) {
+            ranked = similarRanking(candidateId);
+            similarCandidateCache.put(candidateId, seed.getEmbeddingHash(), ranked);
+        }
+
+        // 2. 按阈值与数量截取后回表
+        List<MatchedCandidate> hits = ranked.stream()
+                .filter(hit -> hit.getMatchScore() >= threshold)
+                .limit(size)
                 .toList();
+        List<MatchedCandidate> matchedCandidates = hydrate(hits);
+        log.info("相似候选人查询完成: candidateId={}, matches={}", candidateId, matchedCandidates.size());
+        return buildResponse(null, "SIMILAR", matchedCandidates);
+    }
 
-        List<Candidate> candidates = candidateMapper.selectBatchIds(candidateIds);
-        Map<Long, Candidate> candidateMap = candidates.stream()
-                .collect(Collectors.toMap(Candidate::getId, Function.identity()));
+    /**
+     * 以种子候选人的已存储向量做 ANN 检索，排除种子本身
+     */
+    private List<MatchedCandidate> similarRanking(Long candidateId) {
+        List<SearchResult> searchResults;
+        try {
+            List<Float> seedVector = vectorSearchCircuitBreaker.call(
+                    () -> vectorStoreService.getVectors(List.of(candidateId))).get(candidateId);
+            if (seedVector == null) {
+                throw new BusinessException(ResultCode.VECTOR_NOT_READY);
+            }
+            // 种子自身通常排在第一位，多取一个
+            searchResults = vectorSearchCircuitBreaker.call(
+                    () -> vectorStoreService.search(seedVector, SIMILAR_FETCH_SIZE + 1, null));
+        } catch (BusinessException e) {
+            throw e;
+        } catch (CircuitBreaker.OpenException e) {
+            throw new BusinessException(ResultCode.INTERNAL_ERROR, "向量搜索服务暂不可用");
+        } catch (Exception e) {
+            log.error("相似候选人向量检索失败: candidateId={}", candidateId, e);
+            throw new BusinessException(ResultCode.INTERNAL_ERROR, "向量搜索服务不可用");
+        }
 
-        // 5. 组装响应（保持相似度排序）
-        List<MatchedCandidate> matchedCandidates = new ArrayList<>();
-        for (SearchResult sr : filteredResults) {
-            Candidate candidate = candidateMap.get(sr.getCandidateId());
-            if (candidate == null) {
-                log.warn("候选人在 MySQL 中不存在，可能已被删除: candidateId={}", sr.getCandidateId());
-                continue;
+        List<MatchedCandidate> hits = new ArrayList<>(SIMILAR_FETCH_SIZE);
+        for (SearchResult sr : searchResults) {
+            if (!candidateId.equals(sr.getCandidateId()) && hits.size() < SIMILAR_FETCH_SIZE) {
+                hits.add(vectorHit(sr));
             }
+        }
+        return hits;
+    }
+
+    /**
+     * VECTOR 模式检索：ANN 搜索后按相似度阈值过滤；向量检索不可用时降级为关键词检索
+     */
+    private Ranking vectorRanking(SmartSearchRequest request, CandidateVectorFilter filter, int topK) {
+        // 1. 生成查询向量 + 2. Milvus 向量搜索（重排时多召回）
+        List<SearchResult> searchResults;
+        try {
+            searchResults = vectorSearch(request.getQuery(), fetchSize(request, topK), filter);
+        } catch (BusinessException e) {
+            if (!fallbackEnabled) {
+                throw e;
+            }
+            return lexicalFallback(request, filter, fetchSize(request, topK), e);
+        }
+
+        // 3. 按阈值过滤
+        double minScore = minScore(request);
+        List<MatchedCandidate> hits = new ArrayList<>();
+        for (SearchResult sr : searchResults) {
+            if (sr.getScore() >= minScore) {
+                hits.add(vectorHit(sr));
+            }
+        }
+
+        log.info("向量搜索结果: total={}, filtered(minScore={})={}", searchResults.size(), minScore, hits.size());
+        return new Ranking("VECTOR", hits, false);
+    }
+
+    /**
+     * 降级检索：向量检索不可用时改用关键词检索（分数按 RRF 归一化，与混合检索的 LEXICAL 降级一致）
+     *
+     * @param cause 向量检索失败原因（关键词检索也失败时抛出）
+     */
+    private Ranking lexicalFallback(SmartSearchRequest request, CandidateVectorFilter filter, int fetchSize,
+                                    BusinessException cause) {
+        List<LexicalHit> lexicalHits;
+        try {
+            lexicalHits = lexicalSearchService.search(request.getQuery(), Math.min(fetchSize, MAX_LEG_SIZE), filter);
+        } catch (Exception e) {
+            log.error("关键词降级检索失败: query='{}'", request.getQuery(), e);
+            throw cause;
+        }
+        log.warn("向量检索不可用，降级为关键词检索: query='{}', reason={}, hits={}",
+                request.getQuery(), cause.getMessage(), lexicalHits.size());
+        return new Ranking("LEXICAL", fuse(List.of(), lexicalHits, fetchSize), true);
+    }
+
+    private static MatchedCandidate vectorHit(SearchResult sr) {
+        MatchedCandidate mc = new MatchedCandidate();
+        mc.setCandidateId(sr.getCandidateId());
+        mc.setMatchScore(round4(sr.getScore()));  // 保留4位小数
+        mc.setRetrievalScore(mc.getMatchScore());
+        mc.setVectorScore(mc.getMatchScore());
+        return mc;
+    }
+
+    /**
+     * 混合检索：向量与关键词两路并发，RRF 融合
+     */
+    private Ranking hybridRanking(SmartSearchRequest request, CandidateVectorFilter filter, int topK) {
+        int fetchSize = fetchSize(request, topK);
+        int legSize = Math.min(Math.max(topK * legMultiplier, fetchSize), MAX_LEG_SIZE);
+
+        // 关键词检索在检索线程池中执行，向量检索在当前线程执行，两路并发
+        long lexicalDeadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lexicalTimeoutMs);
+        CompletableFuture<List<LexicalHit>> lexicalFuture;
+        try {
+            lexicalFuture = CompletableFuture.supplyAsync(
+                    () -> lexicalSearchService.search(request.getQuery(), legSize, filter), searchExecutor);
+        } catch (RejectedExecutionException e) {
+            lexicalFuture = CompletableFuture.failedFuture(e);
+        }
+
+        List<SearchResult> vectorHits = null;
+        BusinessException vectorError = null;
+        try {
+            double minScore = minScore(request);
+            vectorHits = vectorSearch(request.getQuery(), legSize, filter).stream()
+                    .filter(r -> r.getScore() >= minScore)
+                    .toList();
+        } catch (BusinessException e) {
+            vectorError = e;
+        }
+
+        List<LexicalHit> lexicalHits = null;
+        try {
+            lexicalHits = lexicalFuture.get(Math.max(0, lexicalDeadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            lexicalFuture.cancel(true);
+            log.warn("关键词检索超时（{}ms），降级为纯向量检索: query='{}'", lexicalTimeoutMs, request.getQuery());
+        } catch (ExecutionException e) {
+            log.warn("关键词检索失败，降级为纯向量检索: query='{}'", request.getQuery(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("等待关键词检索时被中断，降级为纯向量检索: query='{}'", request.getQuery());
+        }
 
+        if (vectorHits == null && lexicalHits == null) {
+            throw vectorError;
+        }
+        if (vectorHits == null) {
+            log.warn("向量检索失败，降级为纯关键词检索: query='{}'", request.getQuery());
+        }
+        String mode = vectorHits != null && lexicalHits != null ? "HYBRID" : vectorHits != null ? "VECTOR" : "LEXICAL";
+
+        List<SearchResult> vectorList = vectorHits != null ? vectorHits : List.of();
+        List<LexicalHit> lexicalList = lexicalHits != null ? lexicalHits : List.of();
+        List<MatchedCandidate> hits = fuse(vectorList, lexicalList, fetchSize);
+
+        log.info("混合检索结果: mode={}, vector={}, lexical={}, fused={}",
+                mode, vectorList.size(), lexicalList.size(), hits.size());
+        return new Ranking(mode, hits, vectorHits == null);
+    }
+
+    /**
+     * 按 RRF 融合两路结果，取前 fetchSize 个（融合分数按两路都排第一时的最大值归一化）
+     */
+    private List<MatchedCandidate> fuse(List<SearchResult> vectorList, List<LexicalHit> lexicalList, int fetchSize) {
+        Map<Long, Double> vectorScores = vectorList.stream()
+                .collect(Collectors.toMap(SearchResult::getCandidateId, r -> (double) r.getScore(), (a, b) -> a));
+        Map<Long, Double> lexicalScores = lexicalList.stream()
+                .collect(Collectors.toMap(LexicalHit::candidateId, LexicalHit::score, (a, b) -> a));
+
+        double[] weights = {vectorWeight, lexicalWeight};
+        LinkedHashMap<Long, Double> fused = ReciprocalRankFusion.fuse(
+                List.of(vectorList.stream().map(SearchResult::getCandidateId).toList(),
+                        lexicalList.stream().map(LexicalHit::candidateId).toList()),
+                weights, rrfK);
+
+        double maxFused = ReciprocalRankFusion.maxScore(weights, rrfK);
+        List<MatchedCandidate> hits = new ArrayList<>();
+        for (Map.Entry<Long, Double> entry : fused.entrySet()) {
+            if (hits.size() >= fetchSize) {
+                break;
+            }
+            Long candidateId = entry.getKey();
+            double fusionScore = entry.getValue();
             MatchedCandidate mc = new MatchedCandidate();
-            mc.setCandidateId(candidate.getId());
+            mc.setCandidateId(candidateId);
+            mc.setMatchScore(round4(fusionScore / maxFused));
+            mc.setRetrievalScore(mc.getMatchScore());
+            mc.setFusionScore(fusionScore);
+            Double vectorScore = vectorScores.get(candidateId);
+            mc.setVectorScore(vectorScore != null ? round4(vectorScore) : null);
+            Double lexicalScore = lexicalScores.get(candidateId);
+            mc.setLexicalScore(lexicalScore != null ? round4(lexicalScore) : null);
+            hits.add(mc);
+        }
+        return hits;
+    }
+
+    /**
+     * 检索阶段的召回数：未重排时为 topK，重排时按 {@link SearchReranker#candidatePoolSize} 多召回
+     */
+    private int fetchSize(SmartSearchRequest request, int topK) {
+        return request.getRerank() != null ? searchReranker.candidatePoolSize(topK) : topK;
+    }
+
+    /**
+     * 截取一页并回表查询候选人详情
+     */
+    private SmartSearchResponse buildPage(String query, String mode, List<MatchedCandidate> hits,
+                                          int offset, int pageSize) {
+        int end = Math.min(offset + pageSize, hits.size());
+        List<MatchedCandidate> page = hydrate(hits.subList(offset, end));
+
+        SmartSearchResponse response = buildResponse(query, mode, page);
+        response.setTotalResults(hits.size());
+        response.setNextCursor(end < hits.size() ? String.valueOf(end) : null);
+        return response;
+    }
+
+    /**
+     * 批量回表查询候选人详情（避免 N+1），保持传入顺序；MySQL 中已删除的候选人被跳过
+     *
+     * @return 填充详情后的新列表（不修改传入的对象）
+     */
+    private List<MatchedCandidate> hydrate(List<MatchedCandidate> hits) {
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+        return hydrate(hits, loadCandidates(hits.stream()
+                .map(MatchedCandidate::getCandidateId)
+                .toList()));
+    }
+
+    private static List<MatchedCandidate> hydrate(List<MatchedCandidate> hits, Map<Long, Candidate> candidateMap) {
+        List<MatchedCandidate> matchedCandidates = new ArrayList<>(hits.size());
+        for (MatchedCandidate hit : hits) {
+            Candidate candidate = candidateMap.get(hit.getCandidateId());
+            if (candidate == null) {
+                log.warn("候选人在 MySQL 中不存在，可能已被删除: candidateId={}", hit.getCandidateId());
+                continue;
+            }
+            MatchedCandidate mc = scoresOnly(hit);
             mc.setName(candidate.getName());
-            mc.setMatchScore(Math.round(sr.getScore() * 10000.0) / 10000.0);  // 保留4位小数
             mc.setCurrentPosition(candidate.getCurrentPosition());
             mc.setCurrentCompany(candidate.getCurrentCompany());
             mc.setEducation(candidate.getEducation());
@@ -110,21 +574,133 @@ public class SmartSearchService {
             mc.setAiSummary(candidate.getAiSummary());
             matchedCandidates.add(mc);
         }
+        return matchedCandidates;
+    }
 
-        SmartSearchResponse response = new SmartSearchResponse();
-        response.setQuery(request.getQuery());
-        response.setTotalMatches(matchedCandidates.size());
-        response.setCandidates(matchedCandidates);
+    /**
+     * 复制 ID 与各项分数，丢弃候选人详情（会话中只缓存排序结果）
+     */
+    private static MatchedCandidate scoresOnly(MatchedCandidate hit) {
+        MatchedCandidate mc = new MatchedCandidate();
+        mc.setCandidateId(hit.getCandidateId());
+        mc.setMatchScore(hit.getMatchScore());
+        mc.setRetrievalScore(hit.getRetrievalScore());
+        mc.setVectorScore(hit.getVectorScore());
+        mc.setLexicalScore(hit.getLexicalScore());
+        mc.setFusionScore(hit.getFusionScore());
+        mc.setSkillScore(hit.getSkillScore());
+        mc.setExperienceScore(hit.getExperienceScore());
+        mc.setEducationScore(hit.getEducationScore());
+        return mc;
+    }
 
-        log.info("语义搜索完成: query='{}', matches={}", request.getQuery(), matchedCandidates.size());
-        return response;
+    /**
+     * 生成查询向量并执行向量检索
+     */
+    private List<SearchResult> vectorSearch(String query, int topK, CandidateVectorFilter filter) {
+        // 1. 生成查询向量
+        List<Float> queryEmbedding;
+        try {
+            queryEmbedding = queryEmbeddingCache.getQueryEmbedding(query);
+        } catch (CircuitBreaker.OpenException e) {
+            throw new BusinessException(ResultCode.AI_SERVICE_ERROR, "AI 向量化服务暂不可用");
+        } catch (Exception e) {
+            log.error("查询文本向量化失败: query='{}'", query, e);
+            throw new BusinessException(ResultCode.AI_SERVICE_ERROR, "AI 向量化服务不可用");
+        }
+
+        // 2. Milvus 向量搜索
+        try {
+            return vectorSearchCircuitBreaker.call(() -> vectorStoreService.search(queryEmbedding, topK, filter));
+        } catch (CircuitBreaker.OpenException e) {
+            throw new BusinessException(ResultCode.INTERNAL_ERROR, "向量搜索服务暂不可用");
+        } catch (Exception e) {
+            log.error("Milvus 向量搜索失败", e);
+            throw new BusinessException(ResultCode.INTERNAL_ERROR, "向量搜索服务不可用");
+        }
+    }
+
+    private Map<Long, Candidate> loadCandidates(List<Long> candidateIds) {
+        List<Candidate> candidates = candidateMapper.selectBatchIds(candidateIds);
+        return candidates.stream()
+                .collect(Collectors.toMap(Candidate::getId, Function.identity()));
     }
 
-    private SmartSearchResponse buildEmptyResponse(String query) {
+    private static double minScore(SmartSearchRequest request) {
+        return request.getMinScore() != null ? request.getMinScore() : 0.3;
+    }
+
+    private static double round4(double value) {
+        return Math.round(value * 10000.0) / 10000.0;
+    }
+
+    /**
+     * 从请求中提取结构化过滤条件
+     *
+     * @return 过滤条件；未设置任何条件时返回 null
+     */
+    private CandidateVectorFilter buildFilter(SmartSearchRequest request) {
+        RerankCriteria rerank = request.getRerank();
+        if (rerank != null && rerank.getMinWorkYears() != null && rerank.getMaxWorkYears() != null
+                && rerank.getMinWorkYears() > rerank.getMaxWorkYears()) {
+            throw new BusinessException(ResultCode.BAD_REQUEST, "重排最低工作年限不能大于最高工作年限");
+        }
+        return buildFilter(request.getEducations(), request.getMinWorkYears(), request.getMaxWorkYears(),
+                request.getCurrentPosition(), request.getSkills());
+    }
+
+    /**
+     * 技能按词典展开等价写法（"K8s" → kubernetes / k8s），与列表搜索、重排打分的技能口径一致
+     * <p>
+     * 词典未收录的写法差异（如 "Spring-Boot" 与 "Spring Boot"）仍不视为同一技能。
+     */
+    private CandidateVectorFilter buildFilter(List<String> educations, Integer minWorkYears, Integer maxWorkYears,
+                                              String currentPosition, List<String> skills) {
+        if (minWorkYears != null && maxWorkYears != null && minWorkYears > maxWorkYears) {
+            throw new BusinessException(ResultCode.BAD_REQUEST, "最低工作年限不能大于最高工作年限");
+        }
+
+        CandidateVectorFilter filter = new CandidateVectorFilter();
+        filter.setEducations(educations);
+        filter.setMinWorkYears(minWorkYears);
+        filter.setMaxWorkYears(maxWorkYears);
+        filter.setCurrentPosition(currentPosition);
+        filter.setSkills(skills);
+        if (skills != null) {
+            Map<String, Set<String>> variants = new LinkedHashMap<>();
+            for (String skill : skills) {
+                if (skill != null && !skill.isBlank()) {
+                    variants.put(skill, skillNormalizer.variants(skill));
+                }
+            }
+            filter.setSkillVariants(variants);
+        }
+        return filter.isEmpty() ? null : filter;
+    }
+
+    /**
+     * 获取查询向量缓存统计
+     */
+    public CacheStats getEmbeddingCacheStats() {
+        return queryEmbeddingCache.getStats();
+    }
+
+    private SmartSearchResponse buildResponse(String query, String mode, List<MatchedCandidate> candidates) {
         SmartSearchResponse response = new SmartSearchResponse();
         response.setQuery(query);
-        response.setTotalMatches(0);
-        response.setCandidates(List.of());
+        response.setMode(mode);
+        response.setTotalMatches(candidates.size());
+        response.setCandidates(candidates);
         return response;
     }
+
+    /**
+     * 检索排序结果
+     *
+     * @param mode     实际使用的检索模式
+     * @param hits     按检索分数倒序的结果（只含候选人 ID 与分数）
+     * @param degraded 向量检索不可用，结果只来自关键词检索
+     */
+    private record Ranking(String mode, List<MatchedCandidate> hits, boolean degraded) {
+    }
 }
@@ -0,0 +1,178 @@
+package com.smartats.module.candidate.service;
+
+import com.smartats.common.constants.RedisKeyConstants;
+import com.smartats.infrastructure.vector.MilvusVectorStoreService;
+import com.smartats.infrastructure.vector.MilvusVectorStoreService.CollectionStats;
+import com.smartats.infrastructure.vector.VectorIndexSettings;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+
+/**
+ * 向量索引自动维护任务
+ * <p>
+ * IVF 索引的 nlist 按建库时的数据量选定（≈ 4 * sqrt(N)），数据增长后每个聚类的向量数随之膨胀，
+ * 相同 nprobe 下搜索延迟上升；候选人删除后的向量在 compaction 前仍占用内存并参与扫描。本任务定期：
+ * <ol>
+ *   <li>刷新本实例的索引参数（其他实例重建并切换别名后，以实际 nlist 为准）</li>
+ *   <li>统计有效行数与已删除未回收行数</li>
+ *   <li>推荐 nlist 与当前值相差超过 drift-factor 倍时，按推荐值在线重建索引（影子 Collection + 别名切换，
+ *       nprobe 保持绝对值，单次查询扫描量随数据量次线性增长；重建只复制有效行，同时完成回收）</li>
+ *   <li>否则已删除行占比超过阈值时触发 compaction</li>
+ * </ol>
+ * 分布式锁保证全集群同一时刻只有一个实例执行检查与重建。
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "smartats.vector.store", havingValue = "milvus", matchIfMissing = true)
+public class VectorIndexMaintenanceJob {
+
+    static final String ACTION_NONE = "NONE";
+    static final String ACTION_COMPACT = "COMPACT";
+    static final String ACTION_REBUILD = "REBUILD";
+    static final String ACTION_SKIPPED = "SKIPPED";
+    static final String ACTION_FAILED = "FAILED";
+
+    private final MilvusVectorStoreService vectorStoreService;
+    private final RedissonClient redissonClient;
+    private final double compactionDeletedRatio;
+    private final long retuneMinRows;
+    private final double nlistDriftFactor;
+
+    private volatile MaintenanceReport lastReport;
+
+    public VectorIndexMaintenanceJob(MilvusVectorStoreService vectorStoreService,
+                                     RedissonClient redissonClient,
+                                     @Value("${smartats.vector.maintenance.compaction-deleted-ratio:0.2}")
+                                     double compactionDeletedRatio,
+                                     @Value("${smartats.vector.maintenance.retune-min-rows:10000}") long retuneMinRows,
+                                     @Value("${smartats.vector.maintenance.nlist-drift-factor:2.0}")
+                                     double nlistDriftFactor) {
+        if (compactionDeletedRatio <= 0 || compactionDeletedRatio > 1 || nlistDriftFactor <= 1) {
+            throw new IllegalArgumentException("compaction-deleted-ratio 需在 (0, 1] 之间，nlist-drift-factor 需大于 1");
+        }
+        this.vectorStoreService = vectorStoreService;
+        this.redissonClient = redissonClient;
+        this.compactionDeletedRatio = compactionDeletedRatio;
+        this.retuneMinRows = retuneMinRows;
+        this.nlistDriftFactor = nlistDriftFactor;
+    }
+
+    /**
+     * 执行一次维护检查（同步；触发重建时耗时与数据量成正比，调用方应放到后台线程）
+     *
+     * @return 本次检查报告；其他实例正在维护时返回 null
+     */
+    public MaintenanceReport run() {
+        vectorStoreService.refreshIndexSettings();
+
+        RLock lock = redissonClient.getLock(RedisKeyConstants.LOCK_VECTOR_INDEX_MAINTENANCE_KEY);
+        if (!lock.tryLock()) {
+            log.debug("其他实例正在执行向量索引维护，跳过");
+            return null;
+        }
+        MaintenanceReport report = new MaintenanceReport();
+        report.setCheckedAt(LocalDateTime.now());
+        try {
+            if (vectorStoreService.isRebuilding()) {
+                report.setAction(ACTION_SKIPPED);
+                report.setMessage("索引重建执行中");
+                return report;
+            }
+
+            CollectionStats stats = vectorStoreService.getCollectionStats();
+            VectorIndexSettings settings = vectorStoreService.getActiveSettings();
+            report.setTotalRows(stats.totalRows());
+            report.setLiveRows(stats.liveRows());
+            report.setDeletedRatio(stats.deletedRatio());
+            report.setIndexType(settings.getIndexType());
+            report.setNlist(settings.getNlist());
+            report.setAction(ACTION_NONE);
+
+            VectorIndexSettings retuned = retune(settings, stats.liveRows());
+            if (retuned != null) {
+                report.setRecommendedNlist(retuned.getNlist());
+                report.setAction(ACTION_REBUILD);
+                log.info("数据量变化，按新 nlist 重建向量索引: rows={}, nlist {} -> {}, nprobe {} -> {}",
+                        stats.liveRows(), settings.getNlist(), retuned.getNlist(),
+                        settings.getNprobe(), retuned.getNprobe());
+                vectorStoreService.rebuildIndex(retuned);
+            } else if (stats.deletedRatio() >= compactionDeletedRatio) {
+                report.setAction(ACTION_COMPACT);
+                log.info("已删除行占比 {} 超过阈值，触发 compaction: total={}, live={}",
+                        String.format("%.3f", stats.deletedRatio()), stats.totalRows(), stats.liveRows());
+                vectorStoreService.compact();
+            }
+        } catch (Exception e) {
+            log.error("向量索引维护失败", e);
+            report.setAction(ACTION_FAILED);
+            report.setMessage(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        } finally {
+            lastReport = report;
+            lock.unlock();
+        }
+        return report;
+    }
+
+    /**
+     * 异步执行维护检查
+     * <p>
+     * ⚠ 注意：@Async 方法必须在不同 Bean 中调用才能生效（Spring AOP 代理机制）。
+     */
+    @Async("asyncExecutor")
+    public void runAsync() {
+        try {
+            run();
+        } catch (Exception e) {
+            log.error("异步向量索引维护失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 本实例最近一次维护检查报告（尚未检查过时为 null）
+     */
+    public MaintenanceReport getLastReport() {
+        return lastReport;
+    }
+
+    /**
+     * 判断是否需要按数据量调整 nlist
+     *
+     * @return 调整后的参数；HNSW、数据量不足或偏差未超过阈值时返回 null
+     */
+    VectorIndexSettings retune(VectorIndexSettings settings, long liveRows) {
+        if (settings.isGraphIndex() || liveRows < retuneMinRows || settings.getNlist() == null) {
+            return null;
+        }
+        int current = settings.getNlist();
+        int recommended = VectorIndexSettings.recommendedNlist(liveRows);
+        double drift = Math.max((double) recommended / current, (double) current / recommended);
+        return drift >= nlistDriftFactor ? settings.withNlist(recommended) : null;
+    }
+
+    /**
+     * 维护检查报告
+     */
+    @Data
+    public static class MaintenanceReport {
+        /** NONE / COMPACT / REBUILD / SKIPPED / FAILED */
+        private String action;
+        private long totalRows;
+        private long liveRows;
+        /** 已删除未回收行占比（估算） */
+        private double deletedRatio;
+        private String indexType;
+        private Integer nlist;
+        /** 触发重建时的推荐 nlist */
+        private Integer recommendedNlist;
+        private String message;
+        private LocalDateTime checkedAt;
+    }
+}
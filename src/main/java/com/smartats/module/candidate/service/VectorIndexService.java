@@ -0,0 +1,151 @@
+package com.smartats.module.candidate.service;
+
+import com.smartats.common.exception.BusinessException;
+import com.smartats.common.result.ResultCode;
+import com.smartats.infrastructure.vector.VectorIndexBenchmarkService;
+import com.smartats.infrastructure.vector.VectorIndexBenchmarkService.BenchmarkDataset;
+import com.smartats.infrastructure.vector.VectorIndexBenchmarkService.BenchmarkResult;
+import com.smartats.infrastructure.vector.VectorIndexBenchmarkService.CoarseRecallResult;
+import com.smartats.infrastructure.vector.VectorIndexSettings;
+import com.smartats.infrastructure.vector.MilvusVectorStoreService;
+import com.smartats.module.candidate.dto.CoarseRecallBenchmarkRequest;
+import com.smartats.module.candidate.dto.VectorIndexBenchmarkRequest;
+import com.smartats.module.candidate.dto.VectorIndexStatusResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * 候选人向量索引管理服务
+ * <p>
+ * 职责：
+ * 1. 查询当前索引参数与重建进度
+ * 2. 发起在线索引重建（后台执行，别名切换，搜索不中断）
+ * 3. 执行 recall / 延迟基准测试，辅助选择索引类型与参数
+ * 4. 对比两阶段检索（低维粗排 + 完整向量重排）的召回率，辅助选择粗排维度与召回数
+ * 5. 定时触发索引维护（按数据量调整 nlist、回收已删除向量，见 {@link VectorIndexMaintenanceJob}）
+ * <p>
+ * 仅 Milvus 存储后端可用（嵌入式后端的索引参数通过配置文件调整）。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "smartats.vector.store", havingValue = "milvus", matchIfMissing = true)
+public class VectorIndexService {
+
+    private final MilvusVectorStoreService vectorStoreService;
+    private final VectorIndexBenchmarkService benchmarkService;
+    private final VectorIndexMaintenanceJob maintenanceJob;
+
+    @Value("${smartats.vector.maintenance.enabled:true}")
+    private boolean maintenanceEnabled;
+
+    /**
+     * 查询索引状态
+     */
+    public VectorIndexStatusResponse getStatus() {
+        VectorIndexStatusResponse response = new VectorIndexStatusResponse();
+        response.setActiveSettings(vectorStoreService.getActiveSettings());
+        response.setScalarFilterSupported(vectorStoreService.isScalarFilterSupported());
+        response.setCoarseDimension(vectorStoreService.getActiveCoarseDimension());
+        response.setTwoStageSearch(vectorStoreService.isTwoStageSearchEnabled());
+        response.setLastRebuild(vectorStoreService.getRebuildStatus());
+        response.setLastMaintenance(maintenanceJob.getLastReport());
+        return response;
+    }
+
+    /**
+     * 立即执行一次索引维护检查（异步），结果通过 {@link #getStatus()} 查询
+     */
+    public void startMaintenance() {
+        if (vectorStoreService.isRebuilding()) {
+            throw new BusinessException(ResultCode.VECTOR_INDEX_REBUILDING);
+        }
+        log.info("发起向量索引维护检查");
+        maintenanceJob.runAsync();
+    }
+
+    /**
+     * 定时索引维护检查（默认每小时）
+     */
+    @Scheduled(fixedDelayString = "${smartats.vector.maintenance.interval-ms:3600000}",
+            initialDelayString = "${smartats.vector.maintenance.interval-ms:3600000}")
+    public void scheduledMaintenance() {
+        if (maintenanceEnabled && !vectorStoreService.isRebuilding()) {
+            maintenanceJob.runAsync();
+        }
+    }
+
+    /**
+     * 发起在线索引重建（异步），进度通过 {@link #getStatus()} 查询
+     *
+     * @param settings 新的索引参数
+     */
+    public void startRebuild(VectorIndexSettings settings) {
+        validate(settings);
+        if (vectorStoreService.isRebuilding()) {
+            throw new BusinessException(ResultCode.VECTOR_INDEX_REBUILDING);
+        }
+        log.info("发起向量索引重建: settings={}", settings);
+        vectorStoreService.rebuildIndexAsync(settings);
+    }
+
+    /**
+     * 执行索引基准测试（同步，耗时与数据集规模和参数组数成正比）
+     *
+     * @param request 基准测试请求
+     * @return 每组参数的 recall@K 与延迟
+     */
+    public List<BenchmarkResult> benchmark(VectorIndexBenchmarkRequest request) {
+        request.getSettings().forEach(this::validate);
+
+        BenchmarkDataset dataset = loadDataset(request.getSource(), request.getDatasetSize(),
+                request.getQueryCount(), request.getSeed());
+        try {
+            return benchmarkService.run(dataset, request.getSettings(), request.getTopK());
+        } catch (Exception e) {
+            log.error("向量索引基准测试失败", e);
+            throw new BusinessException(ResultCode.INTERNAL_ERROR, "向量索引基准测试失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 两阶段检索召回对比（同步，内存中精确计算，不创建临时 Collection）
+     *
+     * @param request 对比请求
+     * @return 每个粗排召回数的 recall@K
+     */
+    public List<CoarseRecallResult> compareCoarse(CoarseRecallBenchmarkRequest request) {
+        BenchmarkDataset dataset = loadDataset(request.getSource(), request.getDatasetSize(),
+                request.getQueryCount(), request.getSeed());
+        try {
+            return benchmarkService.compareCoarse(dataset, request.getCoarseDimension(),
+                    request.getCandidates(), request.getTopK());
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException(ResultCode.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    private BenchmarkDataset loadDataset(String source, int size, int queryCount, long seed) {
+        try {
+            return "EXPORTED".equals(source)
+                    ? benchmarkService.exportedDataset(size, queryCount, seed)
+                    : benchmarkService.syntheticDataset(size, queryCount, seed);
+        } catch (IllegalStateException e) {
+            throw new BusinessException(ResultCode.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    private void validate(VectorIndexSettings settings) {
+        try {
+            settings.validate();
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException(ResultCode.BAD_REQUEST, e.getMessage());
+        }
+    }
+}
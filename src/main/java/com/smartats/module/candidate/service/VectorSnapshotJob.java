@@ -0,0 +1,328 @@
+package com.smartats.module.candidate.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.smartats.infrastructure.storage.FileStorageService;
+import com.smartats.infrastructure.vector.EmbeddingService;
+import com.smartats.infrastructure.vector.VectorMath;
+import com.smartats.infrastructure.vector.VectorSnapshotCodec;
+import com.smartats.infrastructure.vector.VectorSnapshotCodec.Encoding;
+import com.smartats.infrastructure.vector.VectorSnapshotCodec.Entry;
+import com.smartats.infrastructure.vector.VectorStoreService;
+import com.smartats.module.candidate.dto.VectorSnapshotStatusResponse;
+import com.smartats.module.candidate.entity.Candidate;
+import com.smartats.module.candidate.mapper.CandidateMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 候选人向量快照导出 / 导入任务
+ * <p>
+ * Milvus Collection 被删除或迁移时，直接从快照恢复向量，不再调用付费的 embedding 接口：
+ * <ul>
+ *   <li>导出：按 candidates.id 键集分页，每页按主键批量读取向量，以 {@link VectorSnapshotCodec} 格式流式写入本地文件，
+ *       目标为 MINIO 时写完后上传并删除本地文件</li>
+ *   <li>导入：逐块读取并校验快照，按 ID 回表取当前的候选人标量字段（学历 / 技能等过滤字段以 MySQL 为准），
+ *       批量 Upsert 向量存储；已删除的候选人跳过</li>
+ * </ul>
+ * 同一实例同一时刻只执行一个任务，状态保存在内存中。
+ */
+@Slf4j
+@Service
+public class VectorSnapshotJob {
+
+    static final String STATE_IDLE = "IDLE";
+    static final String STATE_RUNNING = "RUNNING";
+    static final String STATE_SUCCEEDED = "SUCCEEDED";
+    static final String STATE_FAILED = "FAILED";
+
+    static final String STORAGE_LOCAL = "LOCAL";
+    static final String STORAGE_MINIO = "MINIO";
+
+    static final String FILE_SUFFIX = ".vsnap";
+
+    private static final DateTimeFormatter NAME_TIME = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+
+    private final CandidateMapper candidateMapper;
+    private final VectorStoreService vectorStoreService;
+    private final CandidateVectorService candidateVectorService;
+    private final FileStorageService fileStorageService;
+    private final Path localDir;
+    private final String objectPrefix;
+    private final int batchSize;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private volatile VectorSnapshotStatusResponse status = idle();
+
+    public VectorSnapshotJob(CandidateMapper candidateMapper,
+                             VectorStoreService vectorStoreService,
+                             CandidateVectorService candidateVectorService,
+                             FileStorageService fileStorageService,
+                             @Value("${smartats.vector.snapshot.local-dir:./data/vector/export}") String localDir,
+                             @Value("${smartats.vector.snapshot.object-prefix:vector-snapshots/}") String objectPrefix,
+                             @Value("${smartats.vector.snapshot.batch-size:1000}") int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batch-size 必须为正数");
+        }
+        this.candidateMapper = candidateMapper;
+        this.vectorStoreService = vectorStoreService;
+        this.candidateVectorService = candidateVectorService;
+        this.fileStorageService = fileStorageService;
+        this.localDir = Paths.get(localDir);
+        this.objectPrefix = objectPrefix;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * 生成新快照的名称
+     */
+    static String newSnapshotName(Encoding encoding) {
+        return "candidates-" + LocalDateTime.now().format(NAME_TIME) + "-"
+                + encoding.name().toLowerCase(Locale.ROOT) + FILE_SUFFIX;
+    }
+
+    /**
+     * 快照是否存在
+     *
+     * @param storage LOCAL / MINIO
+     * @param name    快照名称
+     */
+    public boolean exists(String storage, String name) {
+        return STORAGE_MINIO.equals(storage)
+                ? fileStorageService.fileExists(objectPrefix + name)
+                : Files.isRegularFile(localDir.resolve(name));
+    }
+
+    /**
+     * 导出全部候选人向量（同步，耗时与向量数成正比，调用方应放到后台线程）
+     *
+     * @param storage  LOCAL / MINIO
+     * @param name     快照名称
+     * @param encoding 向量编码
+     * @throws IllegalStateException 已有任务在执行或导出失败
+     */
+    public void export(String storage, String name, Encoding encoding) {
+        VectorSnapshotStatusResponse current = begin("EXPORT", storage, name, encoding.name());
+        Path file = localDir.resolve(name);
+        try {
+            Files.createDirectories(localDir);
+            try (VectorSnapshotCodec.Writer writer = new VectorSnapshotCodec.Writer(
+                    new BufferedOutputStream(Files.newOutputStream(file), 1 << 16),
+                    EmbeddingService.EMBEDDING_DIMENSION, encoding, batchSize)) {
+                long lastId = 0L;
+                while (true) {
+                    List<Candidate> page = candidateMapper.selectList(new LambdaQueryWrapper<Candidate>()
+                            .gt(Candidate::getId, lastId)
+                            .orderByAsc(Candidate::getId)
+                            .last("LIMIT " + batchSize));
+                    if (page.isEmpty()) {
+                        break;
+                    }
+                    Map<Long, List<Float>> vectors = vectorStoreService.getVectors(
+                            page.stream().map(Candidate::getId).toList());
+                    for (Candidate candidate : page) {
+                        List<Float> vector = vectors.get(candidate.getId());
+                        if (vector == null) {
+                            current.setSkipped(current.getSkipped() + 1);
+                            continue;
+                        }
+                        writer.write(candidate.getId(), candidate.getName(), VectorMath.toArray(vector));
+                    }
+                    current.setRows(writer.rows());
+                    lastId = page.get(page.size() - 1).getId();
+                    log.info("向量快照导出进度: lastId={}, rows={}, skipped={}",
+                            lastId, writer.rows(), current.getSkipped());
+                }
+            }
+            current.setBytes(Files.size(file));
+
+            if (STORAGE_MINIO.equals(storage)) {
+                try (InputStream in = Files.newInputStream(file)) {
+                    fileStorageService.uploadFile(in, objectPrefix + name, current.getBytes(),
+                            "application/octet-stream");
+                }
+                Files.deleteIfExists(file);
+            }
+
+            finish(current, null);
+            log.info("向量快照导出完成: storage={}, name={}, rows={}, bytes={}",
+                    storage, name, current.getRows(), current.getBytes());
+        } catch (Exception e) {
+            log.error("向量快照导出失败: storage={}, name={}", storage, name, e);
+            deleteQuietly(file);
+            finish(current, e);
+            throw new IllegalStateException("向量快照导出失败: " + e.getMessage(), e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * 从快照恢复候选人向量（同步，调用方应放到后台线程）
+     *
+     * @param storage LOCAL / MINIO
+     * @param name    快照名称
+     * @throws IllegalStateException 已有任务在执行、快照损坏或维度与当前模型不一致
+     */
+    public void importSnapshot(String storage, String name) {
+        VectorSnapshotStatusResponse current = begin("IMPORT", storage, name, null);
+        try (VectorSnapshotCodec.Reader reader = new VectorSnapshotCodec.Reader(
+                new BufferedInputStream(open(storage, name), 1 << 16))) {
+            if (reader.dimension() != EmbeddingService.EMBEDDING_DIMENSION) {
+                throw new IOException("快照维度与当前 embedding 模型不一致: " + reader.dimension()
+                        + " vs " + EmbeddingService.EMBEDDING_DIMENSION);
+            }
+            current.setEncoding(reader.encoding().name());
+
+            List<Entry> block;
+            while ((block = reader.nextBlock()) != null) {
+                Map<Long, Candidate> candidates = candidateMapper.selectBatchIds(
+                                block.stream().map(Entry::candidateId).toList()).stream()
+                        .collect(Collectors.toMap(Candidate::getId, Function.identity()));
+
+                List<Candidate> batch = new ArrayList<>(block.size());
+                List<List<Float>> embeddings = new ArrayList<>(block.size());
+                for (Entry entry : block) {
+                    Candidate candidate = candidates.get(entry.candidateId());
+                    if (candidate == null) {
+                        current.setSkipped(current.getSkipped() + 1);
+                        continue;
+                    }
+                    batch.add(candidate);
+                    embeddings.add(toList(entry.vector()));
+                }
+                if (!batch.isEmpty()) {
+                    vectorStoreService.upsertVectors(batch, embeddings);
+                    current.setRows(current.getRows() + batch.size());
+                }
+                log.info("向量快照导入进度: rows={}, skipped={}", current.getRows(), current.getSkipped());
+            }
+
+            finish(current, null);
+            log.info("向量快照导入完成: storage={}, name={}, rows={}, skipped={}",
+                    storage, name, current.getRows(), current.getSkipped());
+        } catch (Exception e) {
+            log.error("向量快照导入失败: storage={}, name={}", storage, name, e);
+            finish(current, e);
+            throw new IllegalStateException("向量快照导入失败: " + e.getMessage(), e);
+        } finally {
+            if (current.getRows() > 0) {
+                // 向量已被批量改写，已缓存的搜索会话失效
+                candidateVectorService.markVectorsChanged();
+            }
+            running.set(false);
+        }
+    }
+
+    /**
+     * 异步导出（失败原因记录在 {@link #getStatus()} 中）
+     * <p>
+     * ⚠ 注意：@Async 方法必须在不同 Bean 中调用才能生效（Spring AOP 代理机制）。
+     */
+    @Async("asyncExecutor")
+    public void exportAsync(String storage, String name, Encoding encoding) {
+        try {
+            export(storage, name, encoding);
+        } catch (Exception e) {
+            log.error("异步向量快照导出失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 异步导入（失败原因记录在 {@link #getStatus()} 中）
+     * <p>
+     * ⚠ 注意：@Async 方法必须在不同 Bean 中调用才能生效（Spring AOP 代理机制）。
+     */
+    @Async("asyncExecutor")
+    public void importAsync(String storage, String name) {
+        try {
+            importSnapshot(storage, name);
+        } catch (Exception e) {
+            log.error("异步向量快照导入失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 是否有任务正在执行（当前实例）
+     */
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    /**
+     * 最近一次任务的状态
+     */
+    public VectorSnapshotStatusResponse getStatus() {
+        return status;
+    }
+
+    private VectorSnapshotStatusResponse begin(String operation, String storage, String name, String encoding) {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("已有向量快照任务正在执行");
+        }
+        VectorSnapshotStatusResponse current = new VectorSnapshotStatusResponse();
+        current.setOperation(operation);
+        current.setState(STATE_RUNNING);
+        current.setStorage(storage);
+        current.setName(name);
+        current.setEncoding(encoding);
+        current.setStartedAt(LocalDateTime.now());
+        status = current;
+        log.info("开始向量快照任务: operation={}, storage={}, name={}", operation, storage, name);
+        return current;
+    }
+
+    private void finish(VectorSnapshotStatusResponse current, Exception error) {
+        current.setFinishedAt(LocalDateTime.now());
+        if (error != null) {
+            current.setErrorMessage(error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName());
+        }
+        current.setState(error == null ? STATE_SUCCEEDED : STATE_FAILED);
+    }
+
+    private InputStream open(String storage, String name) throws IOException {
+        return STORAGE_MINIO.equals(storage)
+                ? fileStorageService.downloadFile(objectPrefix + name)
+                : Files.newInputStream(localDir.resolve(name));
+    }
+
+    private static List<Float> toList(float[] vector) {
+        List<Float> list = new ArrayList<>(vector.length);
+        for (float value : vector) {
+            list.add(value);
+        }
+        return list;
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("删除未完成的向量快照失败: {}", file, e);
+        }
+    }
+
+    private static VectorSnapshotStatusResponse idle() {
+        VectorSnapshotStatusResponse idle = new VectorSnapshotStatusResponse();
+        idle.setState(STATE_IDLE);
+        return idle;
+    }
+}
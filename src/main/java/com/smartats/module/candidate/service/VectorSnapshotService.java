@@ -0,0 +1,93 @@
+package com.smartats.module.candidate.service;
+
+import com.smartats.common.exception.BusinessException;
+import com.smartats.common.result.ResultCode;
+import com.smartats.infrastructure.vector.VectorSnapshotCodec.Encoding;
+import com.smartats.module.candidate.dto.VectorSnapshotStatusResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * 候选人向量快照服务
+ * <p>
+ * 校验参数后在后台执行导出 / 导入（见 {@link VectorSnapshotJob}），进度通过 {@link #getStatus()} 查询。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class VectorSnapshotService {
+
+    /** 快照名称只允许字母、数字、点、下划线与短横线，防止路径穿越 */
+    private static final Pattern NAME_PATTERN = Pattern.compile("[A-Za-z0-9][A-Za-z0-9._-]{0,127}");
+
+    private final VectorSnapshotJob snapshotJob;
+
+    /**
+     * 发起导出（异步）
+     *
+     * @param storage  LOCAL / MINIO
+     * @param encoding FLOAT32 / FLOAT16 / INT8
+     * @return 快照名称（导入时使用）
+     */
+    public String startExport(String storage, String encoding) {
+        String target = parseStorage(storage);
+        Encoding parsed;
+        try {
+            parsed = Encoding.valueOf(encoding.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException(ResultCode.BAD_REQUEST, "向量编码只能是 FLOAT32 / FLOAT16 / INT8");
+        }
+        ensureIdle();
+
+        String name = VectorSnapshotJob.newSnapshotName(parsed);
+        log.info("发起向量快照导出: storage={}, name={}", target, name);
+        snapshotJob.exportAsync(target, name, parsed);
+        return name;
+    }
+
+    /**
+     * 发起导入（异步）
+     *
+     * @param storage LOCAL / MINIO
+     * @param name    快照名称
+     */
+    public void startImport(String storage, String name) {
+        String source = parseStorage(storage);
+        if (name == null || !NAME_PATTERN.matcher(name).matches() || name.contains("..")) {
+            throw new BusinessException(ResultCode.BAD_REQUEST, "快照名称非法");
+        }
+        if (!snapshotJob.exists(source, name)) {
+            throw new BusinessException(ResultCode.VECTOR_SNAPSHOT_NOT_FOUND);
+        }
+        ensureIdle();
+
+        log.info("发起向量快照导入: storage={}, name={}", source, name);
+        snapshotJob.importAsync(source, name);
+    }
+
+    /**
+     * 查询最近一次导出 / 导入的状态
+     */
+    public VectorSnapshotStatusResponse getStatus() {
+        return snapshotJob.getStatus();
+    }
+
+    private void ensureIdle() {
+        if (snapshotJob.isRunning()) {
+            throw new BusinessException(ResultCode.VECTOR_SNAPSHOT_RUNNING);
+        }
+    }
+
+    private static String parseStorage(String storage) {
+        String normalized = storage == null ? "" : storage.trim().toUpperCase(Locale.ROOT);
+        if (!VectorSnapshotJob.STORAGE_LOCAL.equals(normalized)
+                && !VectorSnapshotJob.STORAGE_MINIO.equals(normalized)) {
+            throw new BusinessException(ResultCode.BAD_REQUEST, "存储位置只能是 LOCAL 或 MINIO");
+        }
+        return normalized;
+    }
+}
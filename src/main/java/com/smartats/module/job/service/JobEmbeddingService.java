@@ -0,0 +1,117 @@
+package com.smartats.module.job.service;
+
+import com.smartats.common.constants.RedisKeyConstants;
+import com.smartats.infrastructure.vector.EmbeddingService;
+import com.smartats.infrastructure.vector.VectorCodec;
+import com.smartats.module.job.entity.Job;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 职位向量服务
+ * <p>
+ * 职位向量按 jobId 存入 Redis，值带有「模型 + 维度 + 职位文本」的指纹：
+ * 职位内容未变时直接复用，变更后指纹不一致自动重新生成，无需在职位更新时显式失效。
+ * 匹配打分时同一职位的多个申请只调用一次 embedding API。
+ */
+@Slf4j
+@Service
+public class JobEmbeddingService {
+
+    private final EmbeddingService embeddingService;
+    private final StringRedisTemplate redisTemplate;
+    private final JobProfileCache jobProfileCache;
+    private final String model;
+    private final long ttlDays;
+
+    public JobEmbeddingService(EmbeddingService embeddingService,
+                               StringRedisTemplate redisTemplate,
+                               JobProfileCache jobProfileCache,
+                               @Value("${smartats.ai.embedding.model:embedding-3}") String model,
+                               @Value("${smartats.vector.job-embedding.ttl-days:7}") long ttlDays) {
+        this.embeddingService = embeddingService;
+        this.redisTemplate = redisTemplate;
+        this.jobProfileCache = jobProfileCache;
+        this.model = model;
+        this.ttlDays = ttlDays;
+    }
+
+    /**
+     * 获取职位向量（Redis 命中且指纹一致时复用，否则调用 embedding API 并回写）
+     *
+     * @param job 职位实体（需包含 ID）
+     * @return 1024 维向量
+     */
+    public List<Float> getJobEmbedding(Job job) {
+        JobProfile profile = jobProfileCache.get(job);
+        String fingerprint = fingerprint(profile.textHash());
+        String key = RedisKeyConstants.CACHE_JOB_EMBEDDING_KEY_PREFIX + job.getId();
+
+        List<Float> cached = readRedis(key, fingerprint);
+        if (cached != null) {
+            return cached;
+        }
+
+        List<Float> embedding = List.copyOf(embeddingService.generateQueryEmbedding(profile.text()));
+        writeRedis(key, fingerprint, embedding);
+        log.debug("职位向量已生成: jobId={}", job.getId());
+        return embedding;
+    }
+
+    /**
+     * 删除职位向量缓存
+     */
+    public void evict(Long jobId) {
+        try {
+            redisTemplate.delete(RedisKeyConstants.CACHE_JOB_EMBEDDING_KEY_PREFIX + jobId);
+        } catch (Exception e) {
+            log.warn("删除职位向量缓存失败: jobId={}", jobId, e);
+        }
+    }
+
+    /**
+     * 构建职位描述文本（用于生成 Embedding，取自编译后的职位画像）
+     */
+    public String buildJobText(Job job) {
+        return jobProfileCache.get(job).text();
+    }
+
+    /**
+     * 向量指纹：模型 + 维度 + 职位文本哈希（文本哈希在职位画像编译时算好）
+     */
+    String fingerprint(String textHash) {
+        return DigestUtils.sha256Hex(model + ":" + EmbeddingService.EMBEDDING_DIMENSION + ":" + textHash);
+    }
+
+    private List<Float> readRedis(String key, String fingerprint) {
+        try {
+            String value = redisTemplate.opsForValue().get(key);
+            if (value == null) {
+                return null;
+            }
+            int separator = value.indexOf(':');
+            if (separator < 0 || !fingerprint.equals(value.substring(0, separator))) {
+                return null;
+            }
+            List<Float> embedding = VectorCodec.decode(value.substring(separator + 1));
+            return embedding.size() == EmbeddingService.EMBEDDING_DIMENSION ? List.copyOf(embedding) : null;
+        } catch (Exception e) {
+            log.warn("读取职位向量缓存失败，降级为直接调用 embedding API: key={}", key, e);
+            return null;
+        }
+    }
+
+    private void writeRedis(String key, String fingerprint, List<Float> embedding) {
+        try {
+            redisTemplate.opsForValue().set(key, fingerprint + ":" + VectorCodec.encode(embedding), ttlDays, TimeUnit.DAYS);
+        } catch (Exception e) {
+            log.warn("写入职位向量缓存失败: key={}", key, e);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.smartats.module.job.service;
+
+import com.smartats.module.application.service.MatchFeatureScorer;
+import com.smartats.module.application.service.SkillNormalizer;
+import com.smartats.module.job.entity.Job;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 编译后的职位要求画像（不可变，由 {@link JobProfileCache} 按职位内容版本缓存）
+ * <p>
+ * 技能 JSON 只解析一次并预先规范化，学历等级、经验区间、嵌入文本及其哈希一并算好，
+ * 匹配打分与职位向量生成直接读取，不再逐次解析。
+ *
+ * @param jobId             职位 ID
+ * @param requiredSkills    要求技能（原始写法与顺序，未设置时为空列表）
+ * @param normalizedSkills  规范化后的要求技能（见 {@link SkillNormalizer}）
+ * @param education         学历要求
+ * @param educationRequired 是否有学历要求（见 {@link MatchFeatureScorer#requiresEducation}）
+ * @param educationRank     要求学历等级（见 {@link MatchFeatureScorer#educationRank}）
+ * @param experienceMin     最低工作年限
+ * @param experienceMax     最高工作年限
+ * @param text              嵌入文本（用于生成职位向量）
+ * @param textHash          嵌入文本的 SHA-256
+ */
+public record JobProfile(Long jobId,
+                         List<String> requiredSkills,
+                         Set<String> normalizedSkills,
+                         String education,
+                         boolean educationRequired,
+                         int educationRank,
+                         Integer experienceMin,
+                         Integer experienceMax,
+                         String text,
+                         String textHash) {
+
+    /**
+     * 编译职位画像
+     *
+     * @param job            职位
+     * @param requiredSkills 已解析的要求技能，未设置或解析失败时为 null
+     * @param normalizer     技能规范化
+     */
+    public static JobProfile compile(Job job, List<String> requiredSkills, SkillNormalizer normalizer) {
+        List<String> skills = requiredSkills != null
+                ? Collections.unmodifiableList(new ArrayList<>(requiredSkills)) : List.of();
+        String text = buildText(job, skills);
+        return new JobProfile(job.getId(),
+                skills,
+                Set.copyOf(normalizer.normalize(skills)),
+                job.getEducation(),
+                MatchFeatureScorer.requiresEducation(job.getEducation()),
+                MatchFeatureScorer.educationRank(job.getEducation()),
+                job.getExperienceMin(),
+                job.getExperienceMax(),
+                text,
+                DigestUtils.sha256Hex(text));
+    }
+
+    /**
+     * 构建职位描述文本（用于生成 Embedding）
+     */
+    private static String buildText(Job job, List<String> skills) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("职位: ").append(job.getTitle()).append("\n");
+        if (StringUtils.hasText(job.getDepartment())) {
+            sb.append("部门: ").append(job.getDepartment()).append("\n");
+        }
+        if (StringUtils.hasText(job.getDescription())) {
+            sb.append("描述: ").append(job.getDescription()).append("\n");
+        }
+        if (StringUtils.hasText(job.getRequirements())) {
+            sb.append("要求: ").append(job.getRequirements()).append("\n");
+        }
+        if (!skills.isEmpty()) {
+            sb.append("技能: ").append(String.join(", ", skills)).append("\n");
+        }
+        if (job.getEducation() != null) {
+            sb.append("学历: ").append(job.getEducation()).append("\n");
+        }
+        if (job.getExperienceMin() != null) {
+            sb.append("经验: ").append(job.getExperienceMin());
+            if (job.getExperienceMax() != null) {
+                sb.append("-").append(job.getExperienceMax());
+            } else {
+                sb.append("+");
+            }
+            sb.append("年\n");
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,104 @@
+package com.smartats.module.job.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartats.module.application.service.SkillNormalizer;
+import com.smartats.module.job.entity.Job;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 职位画像进程内缓存（LRU）
+ * <p>
+ * 按 jobId 缓存 {@link JobProfile}，条目同时记录编译时的职位内容版本（参与画像的原始字段）：
+ * 传入的职位内容与版本不一致、或技能别名词典已重新加载时重新编译，因此其他实例更新职位后本实例也不会读到旧画像；
+ * 本实例更新、删除职位时由 JobService 显式失效以尽早释放。
+ */
+@Slf4j
+@Service
+public class JobProfileCache {
+
+    private final ObjectMapper objectMapper;
+    private final SkillNormalizer skillNormalizer;
+    private final Map<Long, Entry> cache;
+
+    public JobProfileCache(ObjectMapper objectMapper, SkillNormalizer skillNormalizer,
+                           @Value("${smartats.job.profile-cache.max-size:1000}") int maxSize) {
+        this.objectMapper = objectMapper;
+        this.skillNormalizer = skillNormalizer;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * 获取职位画像（缓存未命中或职位内容已变化时编译）
+     *
+     * @param job 职位实体
+     */
+    public JobProfile get(Job job) {
+        Version version = Version.of(job);
+        long dictionaryVersion = skillNormalizer.version();
+        if (job.getId() != null) {
+            synchronized (cache) {
+                Entry entry = cache.get(job.getId());
+                if (entry != null && entry.dictionaryVersion() == dictionaryVersion
+                        && entry.version().equals(version)) {
+                    return entry.profile();
+                }
+            }
+        }
+
+        JobProfile profile = JobProfile.compile(job, parseJsonArray(job.getRequiredSkills()), skillNormalizer);
+        if (job.getId() != null) {
+            synchronized (cache) {
+                cache.put(job.getId(), new Entry(version, dictionaryVersion, profile));
+            }
+        }
+        return profile;
+    }
+
+    /**
+     * 失效职位画像（职位更新、删除时调用）
+     */
+    public void evict(Long jobId) {
+        synchronized (cache) {
+            cache.remove(jobId);
+        }
+    }
+
+    private List<String> parseJsonArray(String json) {
+        if (!StringUtils.hasText(json)) return null;
+        try {
+            return objectMapper.readValue(json, objectMapper.getTypeFactory()
+                    .constructCollectionType(List.class, String.class));
+        } catch (JsonProcessingException e) {
+            log.warn("解析 JSON 数组失败: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private record Entry(Version version, long dictionaryVersion, JobProfile profile) {
+    }
+
+    /**
+     * 职位内容版本：参与画像编译的原始字段
+     */
+    private record Version(String title, String department, String description, String requirements,
+                           String requiredSkills, String education, Integer experienceMin, Integer experienceMax) {
+
+        static Version of(Job job) {
+            return new Version(job.getTitle(), job.getDepartment(), job.getDescription(), job.getRequirements(),
+                    job.getRequiredSkills(), job.getEducation(), job.getExperienceMin(), job.getExperienceMax());
+        }
+    }
+}
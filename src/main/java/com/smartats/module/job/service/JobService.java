@@ -8,10 +8,13 @@ import com.smartats.common.constants.RedisKeyConstants;
 import com.smartats.common.enums.JobStatus;
 import com.smartats.common.exception.BusinessException;
 import com.smartats.common.result.ResultCode;
+import com.smartats.common.util.TransactionUtil;
+import com.smartats.module.application.service.MatchScoreService;
 import com.smartats.module.job.dto.request.*;
 import com.smartats.module.job.dto.response.JobResponse;
 import com.smartats.module.job.entity.Job;
 import com.smartats.module.job.mapper.JobMapper;
+import com.smartats.module.recommendation.service.JobTopCandidateService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.BeanUtils;
@@ -34,6 +37,10 @@ public class JobService {
     private final StringRedisTemplate redisTemplate;
     private final ObjectMapper objectMapper;
     private final CacheEvictionService cacheEvictionService;
+    private final JobVectorService jobVectorService;
+    private final MatchScoreService matchScoreService;
+    private final JobTopCandidateService jobTopCandidateService;
+    private final JobProfileCache jobProfileCache;
 
     /**
      * 创建职位
@@ -68,6 +75,9 @@ public class JobService {
             throw new BusinessException(ResultCode.INTERNAL_ERROR, "职位创建失败");
         }
 
+        // 事务提交后异步生成职位向量（用于双向推荐）
+        TransactionUtil.afterCommit(() -> jobVectorService.syncJobAsync(job));
+
         log.info("职位创建成功：id={}, title={}", job.getId(), job.getTitle());
         return job.getId();
     }
@@ -166,6 +176,20 @@ public class JobService {
 
         cacheEvictionService.asyncDeleteCache(cacheKey);
 
+        // 以下异步任务都会重新读取职位，必须在事务提交后再发出，否则可能读到旧数据
+        TransactionUtil.afterCommit(() -> jobProfileCache.evict(job.getId()));
+
+        // 职位内容变化，异步刷新职位向量
+        TransactionUtil.afterCommit(() -> jobVectorService.syncJobAsync(job));
+
+        // 影响匹配打分的要求变化，异步批量重算该职位下全部申请的匹配分数并重建推荐列表
+        if (affectsMatchScore(request)) {
+            TransactionUtil.afterCommit(() -> {
+                matchScoreService.rescoreJobAsync(job);
+                jobTopCandidateService.rebuildAsync(job);
+            });
+        }
+
         log.info("职位更新成功：id={}", job.getId());
     }
 
@@ -334,6 +358,12 @@ public class JobService {
         // 清除缓存
         redisTemplate.delete(RedisKeyConstants.CACHE_JOB_KEY_PREFIX + id);
 
+        // 同步职位向量中的状态（只有已发布职位参与职位推荐）
+        TransactionUtil.afterCommit(() -> jobVectorService.syncJobAsync(job));
+
+        // 物化推荐候选人列表
+        TransactionUtil.afterCommit(() -> jobTopCandidateService.rebuildAsync(job));
+
         log.info("职位发布成功：id={}", id);
     }
 
@@ -363,6 +393,12 @@ public class JobService {
         // 清除缓存
         redisTemplate.delete(RedisKeyConstants.CACHE_JOB_KEY_PREFIX + id);
 
+        // 同步职位向量中的状态（只有已发布职位参与职位推荐）
+        TransactionUtil.afterCommit(() -> {
+            jobVectorService.syncJobAsync(job);
+            jobTopCandidateService.evict(id);
+        });
+
         log.info("职位关闭成功：id={}", id);
     }
 
@@ -390,6 +426,12 @@ public class JobService {
         // 清除缓存
         redisTemplate.delete(RedisKeyConstants.CACHE_JOB_KEY_PREFIX + id);
 
+        TransactionUtil.afterCommit(() -> {
+            jobVectorService.deleteJobAsync(id);
+            jobTopCandidateService.evict(id);
+            jobProfileCache.evict(id);
+        });
+
         log.info("职位删除成功：id={}", id);
     }
 
@@ -410,6 +452,19 @@ public class JobService {
         return resultPage.getRecords().stream().map(this::convertToResponse).collect(Collectors.toList());
     }
 
+    /**
+     * 本次更新是否涉及匹配打分用到的字段（职位文本影响语义分，技能/经验/学历影响结构化分）
+     */
+    private boolean affectsMatchScore(UpdateJobRequest request) {
+        return StringUtils.hasText(request.getTitle())
+                || StringUtils.hasText(request.getDescription())
+                || StringUtils.hasText(request.getRequirements())
+                || request.getRequiredSkills() != null
+                || request.getExperienceMin() != null
+                || request.getExperienceMax() != null
+                || request.getEducation() != null;
+    }
+
     /**
      * 转换为响应对象
      */
@@ -0,0 +1,127 @@
+package com.smartats.module.job.service;
+
+import com.smartats.infrastructure.vector.JobVectorStoreService;
+import com.smartats.module.job.entity.Job;
+import com.smartats.module.job.mapper.JobMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 职位向量同步服务（独立 Service 保证 @Async 代理生效）
+ * <p>
+ * 职责：
+ * 1. 职位创建 / 更新 / 发布 / 关闭后，异步生成职位向量并写入 job_vectors（连同最新状态）
+ * 2. 职位删除后，异步删除向量
+ * 3. 启动时回填尚未向量化的职位（存量数据、嵌入式存储重启）
+ * <p>
+ * 职位向量通过 {@link JobEmbeddingService} 生成，内容未变时复用 Redis 中的向量，
+ * 仅状态变化（发布 / 关闭）不会产生 embedding 调用。
+ */
+@Slf4j
+@Service
+public class JobVectorService {
+
+    /** 回填时每批查询的职位数 */
+    private static final int BACKFILL_BATCH_SIZE = 100;
+
+    private final JobEmbeddingService jobEmbeddingService;
+    private final JobVectorStoreService jobVectorStoreService;
+    private final JobMapper jobMapper;
+    private final boolean backfillOnStartup;
+
+    public JobVectorService(JobEmbeddingService jobEmbeddingService,
+                            JobVectorStoreService jobVectorStoreService,
+                            JobMapper jobMapper,
+                            @Value("${smartats.vector.job-embedding.backfill-on-startup:true}") boolean backfillOnStartup) {
+        this.jobEmbeddingService = jobEmbeddingService;
+        this.jobVectorStoreService = jobVectorStoreService;
+        this.jobMapper = jobMapper;
+        this.backfillOnStartup = backfillOnStartup;
+    }
+
+    /**
+     * 同步职位向量
+     *
+     * @param job 已持久化的职位实体（包含最新内容与状态）
+     */
+    public void syncJob(Job job) {
+        List<Float> embedding = jobEmbeddingService.getJobEmbedding(job);
+        jobVectorStoreService.upsertVector(job, embedding);
+    }
+
+    /**
+     * 异步同步职位向量（职位写操作后调用，不阻塞接口）
+     */
+    @Async("asyncExecutor")
+    public void syncJobAsync(Job job) {
+        try {
+            syncJob(job);
+        } catch (Exception e) {
+            log.error("职位向量同步失败: jobId={}", job.getId(), e);
+        }
+    }
+
+    /**
+     * 异步删除职位向量
+     */
+    @Async("asyncExecutor")
+    public void deleteJobAsync(Long jobId) {
+        try {
+            jobVectorStoreService.deleteVector(jobId);
+            jobEmbeddingService.evict(jobId);
+        } catch (Exception e) {
+            log.error("职位向量删除失败: jobId={}", jobId, e);
+        }
+    }
+
+    /**
+     * 启动后异步回填缺失的职位向量
+     */
+    @Async("asyncExecutor")
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (!backfillOnStartup) {
+            return;
+        }
+        try {
+            int filled = backfillMissing();
+            log.info("职位向量回填完成: filled={}", filled);
+        } catch (Exception e) {
+            log.error("职位向量回填失败", e);
+        }
+    }
+
+    /**
+     * 为尚未向量化的职位生成向量
+     *
+     * @return 回填的职位数
+     */
+    public int backfillMissing() {
+        List<Job> jobs = jobMapper.selectList(null);
+        int filled = 0;
+        for (int from = 0; from < jobs.size(); from += BACKFILL_BATCH_SIZE) {
+            List<Job> batch = jobs.subList(from, Math.min(jobs.size(), from + BACKFILL_BATCH_SIZE));
+            Map<Long, List<Float>> existing = jobVectorStoreService.getVectors(
+                    batch.stream().map(Job::getId).toList());
+            for (Job job : batch) {
+                if (existing.containsKey(job.getId())) {
+                    continue;
+                }
+                try {
+                    syncJob(job);
+                    filled++;
+                } catch (Exception e) {
+                    log.warn("职位向量回填失败，跳过: jobId={}", job.getId(), e);
+                }
+            }
+        }
+        return filled;
+    }
+}
@@ -0,0 +1,68 @@
+package com.smartats.module.recommendation.controller;
+
+import com.smartats.common.result.Result;
+import com.smartats.module.recommendation.dto.RecommendedCandidate;
+import com.smartats.module.recommendation.dto.RecommendedJob;
+import com.smartats.module.recommendation.service.JobTopCandidateService;
+import com.smartats.module.recommendation.service.RecommendationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * 职位-候选人双向推荐接口
+ * <p>
+ * 基于已存储的职位向量与候选人向量检索，查询时不调用 embedding API。
+ * 路径不放在 /jobs 下，避免落入职位 GET 接口的匿名访问规则。
+ */
+@Slf4j
+@RestController
+@RequestMapping("/recommendations")
+@RequiredArgsConstructor
+@Tag(name = "智能推荐", description = "职位与候选人双向推荐")
+public class RecommendationController {
+
+    private final RecommendationService recommendationService;
+    private final JobTopCandidateService jobTopCandidateService;
+
+    /**
+     * 为职位推荐候选人
+     */
+    @GetMapping("/jobs/{jobId}/candidates")
+    @Operation(summary = "为职位推荐候选人", description = "按职位向量检索最相似的候选人")
+    public Result<List<RecommendedCandidate>> recommendCandidates(
+            @PathVariable Long jobId,
+            @RequestParam(defaultValue = "10") Integer topN) {
+        return Result.success(recommendationService.recommendCandidates(jobId, topN));
+    }
+
+    /**
+     * 读取职位的物化推荐候选人
+     */
+    @GetMapping("/jobs/{jobId}/top-candidates")
+    @Operation(summary = "职位物化推荐候选人", description = "读取预先按综合匹配分（语义 + 技能/经验/学历）维护的 Top-K 列表")
+    public Result<List<RecommendedCandidate>> topCandidates(
+            @PathVariable Long jobId,
+            @RequestParam(defaultValue = "10") Integer topN) {
+        return Result.success(jobTopCandidateService.getTopCandidates(jobId, topN));
+    }
+
+    /**
+     * 为候选人推荐职位
+     */
+    @GetMapping("/candidates/{candidateId}/jobs")
+    @Operation(summary = "为候选人推荐职位", description = "按候选人向量检索最相似的已发布职位")
+    public Result<List<RecommendedJob>> recommendJobs(
+            @PathVariable Long candidateId,
+            @RequestParam(defaultValue = "10") Integer topN) {
+        return Result.success(recommendationService.recommendJobs(candidateId, topN));
+    }
+}
@@ -0,0 +1,33 @@
+package com.smartats.module.recommendation.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 职位推荐候选人结果
+ */
+@Data
+public class RecommendedCandidate {
+
+    /** 候选人 ID */
+    private Long candidateId;
+
+    /** 候选人姓名 */
+    private String name;
+
+    /** 匹配分数（实时推荐为 0~1 COSINE 相似度；物化推荐为 0~100 综合匹配分） */
+    private double matchScore;
+
+    /** 当前职位 */
+    private String currentPosition;
+
+    /** 最高学历 */
+    private String education;
+
+    /** 工作年限 */
+    private Integer workYears;
+
+    /** 技能标签 */
+    private List<String> skills;
+}
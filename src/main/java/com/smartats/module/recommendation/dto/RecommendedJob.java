@@ -0,0 +1,31 @@
+package com.smartats.module.recommendation.dto;
+
+import lombok.Data;
+
+/**
+ * 候选人推荐职位结果
+ */
+@Data
+public class RecommendedJob {
+
+    /** 职位 ID */
+    private Long jobId;
+
+    /** 职位名称 */
+    private String title;
+
+    /** 部门 */
+    private String department;
+
+    /** 相似度分数（0~1，COSINE） */
+    private double matchScore;
+
+    /** 最低薪资（K） */
+    private Integer salaryMin;
+
+    /** 最高薪资（K） */
+    private Integer salaryMax;
+
+    /** 学历要求 */
+    private String education;
+}
@@ -0,0 +1,280 @@
+package com.smartats.module.recommendation.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.smartats.common.constants.RedisKeyConstants;
+import com.smartats.common.enums.JobStatus;
+import com.smartats.common.exception.BusinessException;
+import com.smartats.common.result.ResultCode;
+import com.smartats.infrastructure.vector.JobVectorStoreService;
+import com.smartats.infrastructure.vector.VectorStoreService;
+import com.smartats.module.application.service.MatchScoreService;
+import com.smartats.module.candidate.entity.Candidate;
+import com.smartats.module.candidate.mapper.CandidateMapper;
+import com.smartats.module.job.entity.Job;
+import com.smartats.module.job.mapper.JobMapper;
+import com.smartats.module.job.service.JobEmbeddingService;
+import com.smartats.module.recommendation.dto.RecommendedCandidate;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 已发布职位的物化 Top-K 推荐候选人
+ * <p>
+ * 每个已发布职位在 Redis ZSet 中维护综合匹配分最高的 K 个候选人，读取只需一次 ZREVRANGE + 主键回表：
+ * <ul>
+ *   <li>全量重建：职位向量 ANN 召回 K × poolMultiplier 个候选人，按 {@link MatchScoreService} 综合分
+ *       （语义 + 技能/经验/学历）重排后取前 K，写入临时 Key 后 RENAME 原子替换。
+ *       职位发布、要求变更时异步触发，列表不存在或过期时读取方同步触发</li>
+ *   <li>增量写入：简历解析完成的新候选人与所有已物化的职位逐一打分，进入前 K 名时写入并裁剪</li>
+ * </ul>
+ * 职位关闭、删除时清除列表；候选人资料变更在 TTL 到期重建后体现，已删除的候选人在读取时移除。
+ */
+@Slf4j
+@Service
+public class JobTopCandidateService {
+
+    /** 默认返回数量 */
+    private static final int DEFAULT_TOP_N = 10;
+
+    private final VectorStoreService vectorStoreService;
+    private final JobVectorStoreService jobVectorStoreService;
+    private final JobEmbeddingService jobEmbeddingService;
+    private final MatchScoreService matchScoreService;
+    private final JobMapper jobMapper;
+    private final CandidateMapper candidateMapper;
+    private final StringRedisTemplate redisTemplate;
+    private final int size;
+    private final int poolMultiplier;
+    private final long ttlHours;
+
+    public JobTopCandidateService(VectorStoreService vectorStoreService,
+                                  JobVectorStoreService jobVectorStoreService,
+                                  JobEmbeddingService jobEmbeddingService,
+                                  MatchScoreService matchScoreService,
+                                  JobMapper jobMapper,
+                                  CandidateMapper candidateMapper,
+                                  StringRedisTemplate redisTemplate,
+                                  @Value("${smartats.recommendation.top-k.size:50}") int size,
+                                  @Value("${smartats.recommendation.top-k.pool-multiplier:4}") int poolMultiplier,
+                                  @Value("${smartats.recommendation.top-k.ttl-hours:24}") long ttlHours) {
+        this.vectorStoreService = vectorStoreService;
+        this.jobVectorStoreService = jobVectorStoreService;
+        this.jobEmbeddingService = jobEmbeddingService;
+        this.matchScoreService = matchScoreService;
+        this.jobMapper = jobMapper;
+        this.candidateMapper = candidateMapper;
+        this.redisTemplate = redisTemplate;
+        this.size = size;
+        this.poolMultiplier = poolMultiplier;
+        this.ttlHours = ttlHours;
+    }
+
+    /**
+     * 读取职位的物化推荐候选人（列表不存在或已过期时同步重建）
+     *
+     * @param jobId 职位 ID
+     * @param topN  返回数量（1~K，非法值按默认 10 处理）
+     * @return 按综合匹配分倒序的候选人
+     */
+    public List<RecommendedCandidate> getTopCandidates(Long jobId, Integer topN) {
+        int limit = (topN != null && topN > 0 && topN <= size) ? topN : Math.min(DEFAULT_TOP_N, size);
+        Job job = jobMapper.selectById(jobId);
+        if (job == null) {
+            throw new BusinessException(ResultCode.NOT_FOUND, "职位不存在");
+        }
+        if (!JobStatus.PUBLISHED.getCode().equals(job.getStatus())) {
+            throw new BusinessException(ResultCode.BAD_REQUEST, "职位未发布，暂无推荐列表");
+        }
+
+        String key = key(jobId);
+        Set<TypedTuple<String>> tuples = redisTemplate.opsForZSet().reverseRangeWithScores(key, 0, limit - 1);
+        if (tuples == null || tuples.isEmpty()) {
+            if (rebuild(job) == 0) {
+                return List.of();
+            }
+            tuples = redisTemplate.opsForZSet().reverseRangeWithScores(key, 0, limit - 1);
+            if (tuples == null || tuples.isEmpty()) {
+                return List.of();
+            }
+        }
+
+        List<Long> ids = tuples.stream().map(t -> Long.valueOf(t.getValue())).toList();
+        Map<Long, Candidate> candidateMap = candidateMapper.selectBatchIds(ids).stream()
+                .collect(Collectors.toMap(Candidate::getId, Function.identity()));
+
+        List<RecommendedCandidate> result = new ArrayList<>(tuples.size());
+        List<String> removed = new ArrayList<>();
+        for (TypedTuple<String> tuple : tuples) {
+            Candidate candidate = candidateMap.get(Long.valueOf(tuple.getValue()));
+            if (candidate == null) {
+                removed.add(tuple.getValue());
+                continue;
+            }
+            RecommendedCandidate item = new RecommendedCandidate();
+            item.setCandidateId(candidate.getId());
+            item.setName(candidate.getName());
+            item.setMatchScore(tuple.getScore() != null ? tuple.getScore() : 0.0);
+            item.setCurrentPosition(candidate.getCurrentPosition());
+            item.setEducation(candidate.getEducation());
+            item.setWorkYears(candidate.getWorkYears());
+            item.setSkills(candidate.getSkills());
+            result.add(item);
+        }
+        if (!removed.isEmpty()) {
+            redisTemplate.opsForZSet().remove(key, removed.toArray());
+        }
+
+        log.info("读取职位物化推荐: jobId={}, topN={}, resultCount={}", jobId, limit, result.size());
+        return result;
+    }
+
+    /**
+     * 全量重建职位的推荐列表（职位未发布时清除列表）
+     *
+     * @param job 职位
+     * @return 列表中的候选人数
+     */
+    public int rebuild(Job job) {
+        String key = key(job.getId());
+        if (!JobStatus.PUBLISHED.getCode().equals(job.getStatus())) {
+            redisTemplate.delete(key);
+            return 0;
+        }
+
+        List<Float> jobVector = jobEmbeddingService.getJobEmbedding(job);
+        List<Long> ids = vectorStoreService.search(jobVector, size * poolMultiplier).stream()
+                .map(VectorStoreService.SearchResult::getCandidateId)
+                .toList();
+        List<Candidate> candidates = ids.isEmpty() ? List.of() : candidateMapper.selectBatchIds(ids);
+        if (candidates.isEmpty()) {
+            redisTemplate.delete(key);
+            return 0;
+        }
+
+        Map<Long, BigDecimal> scores = matchScoreService.scoreCandidates(job, jobVector, candidates,
+                vectorStoreService.getVectors(ids));
+        Set<TypedTuple<String>> top = scores.entrySet().stream()
+                .sorted(Map.Entry.<Long, BigDecimal>comparingByValue().reversed())
+                .limit(size)
+                .map(e -> TypedTuple.of(String.valueOf(e.getKey()), e.getValue().doubleValue()))
+                .collect(Collectors.toSet());
+
+        // 临时 Key 写完整后 RENAME 原子替换（TTL 随之保留），读取方不会看到半成品列表
+        String tempKey = key + ":" + UUID.randomUUID();
+        redisTemplate.opsForZSet().add(tempKey, top);
+        redisTemplate.expire(tempKey, ttlHours, TimeUnit.HOURS);
+        redisTemplate.rename(tempKey, key);
+
+        log.info("职位推荐列表重建完成: jobId={}, pool={}, size={}", job.getId(), candidates.size(), top.size());
+        return top.size();
+    }
+
+    /**
+     * 异步重建（职位发布、要求变更后触发）
+     */
+    @Async("asyncExecutor")
+    public void rebuildAsync(Job job) {
+        try {
+            rebuild(job);
+        } catch (Exception e) {
+            log.error("职位推荐列表重建失败: jobId={}, error={}", job.getId(), e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 新候选人增量写入各已发布职位的推荐列表
+     * <p>
+     * 只更新已物化的列表（未物化的职位在首次读取时全量重建）；职位向量取自已存储的职位向量，不调用 embedding API
+     *
+     * @param candidate       候选人
+     * @param candidateVector 候选人向量，为 null 时按主键读取已存储的向量
+     * @return 进入推荐列表的职位数
+     */
+    public int offerCandidate(Candidate candidate, List<Float> candidateVector) {
+        List<Float> vector = candidateVector != null ? candidateVector
+                : vectorStoreService.getVectors(List.of(candidate.getId())).get(candidate.getId());
+        if (vector == null) {
+            log.debug("候选人尚未向量化，跳过推荐列表增量写入: candidateId={}", candidate.getId());
+            return 0;
+        }
+
+        List<Job> jobs = jobMapper.selectList(new LambdaQueryWrapper<Job>()
+                .eq(Job::getStatus, JobStatus.PUBLISHED.getCode()));
+        if (jobs.isEmpty()) {
+            return 0;
+        }
+        Map<Long, List<Float>> jobVectors = jobVectorStoreService.getVectors(jobs.stream().map(Job::getId).toList());
+
+        int admitted = 0;
+        for (Job job : jobs) {
+            List<Float> jobVector = jobVectors.get(job.getId());
+            String key = key(job.getId());
+            if (jobVector == null || !Boolean.TRUE.equals(redisTemplate.hasKey(key))) {
+                continue;
+            }
+            BigDecimal score = matchScoreService.scoreCandidates(job, jobVector, List.of(candidate),
+                    Map.of(candidate.getId(), vector)).get(candidate.getId());
+            if (admit(key, candidate.getId(), score.doubleValue())) {
+                admitted++;
+            }
+        }
+
+        log.info("候选人增量写入推荐列表: candidateId={}, publishedJobs={}, admitted={}",
+                candidate.getId(), jobs.size(), admitted);
+        return admitted;
+    }
+
+    /**
+     * 异步增量写入（简历解析完成后触发）
+     */
+    @Async("asyncExecutor")
+    public void offerCandidateAsync(Candidate candidate, List<Float> candidateVector) {
+        try {
+            offerCandidate(candidate, candidateVector);
+        } catch (Exception e) {
+            log.error("推荐列表增量写入失败: candidateId={}, error={}", candidate.getId(), e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 清除职位的推荐列表（职位关闭、删除时调用）
+     */
+    public void evict(Long jobId) {
+        redisTemplate.delete(key(jobId));
+    }
+
+    /**
+     * 列表已满且分数不高于当前最低分时不写入；写入后裁剪到 K 个
+     */
+    private boolean admit(String key, Long candidateId, double score) {
+        ZSetOperations<String, String> zSet = redisTemplate.opsForZSet();
+        Long card = zSet.zCard(key);
+        if (card != null && card >= size) {
+            Set<TypedTuple<String>> lowest = zSet.rangeWithScores(key, 0, 0);
+            if (lowest != null && !lowest.isEmpty()) {
+                Double min = lowest.iterator().next().getScore();
+                if (min != null && score <= min) {
+                    return false;
+                }
+            }
+        }
+        zSet.add(key, String.valueOf(candidateId), score);
+        zSet.removeRange(key, 0, -(size + 1L));
+        return true;
+    }
+
+    private static String key(Long jobId) {
+        return RedisKeyConstants.RECOMMEND_JOB_TOP_CANDIDATES_KEY_PREFIX + jobId;
+    }
+}
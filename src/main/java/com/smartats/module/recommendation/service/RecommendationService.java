@@ -0,0 +1,152 @@
+package com.smartats.module.recommendation.service;
+
+import com.smartats.common.enums.JobStatus;
+import com.smartats.common.exception.BusinessException;
+import com.smartats.common.result.ResultCode;
+import com.smartats.infrastructure.vector.JobVectorStoreService;
+import com.smartats.infrastructure.vector.VectorStoreService;
+import com.smartats.module.candidate.entity.Candidate;
+import com.smartats.module.candidate.mapper.CandidateMapper;
+import com.smartats.module.job.entity.Job;
+import com.smartats.module.job.mapper.JobMapper;
+import com.smartats.module.recommendation.dto.RecommendedCandidate;
+import com.smartats.module.recommendation.dto.RecommendedJob;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 职位-候选人双向推荐服务
+ * <p>
+ * 只使用已存储的向量：
+ * <ul>
+ *   <li>为职位推荐候选人：按 jobId 取职位向量 → 在候选人向量库中检索</li>
+ *   <li>为候选人推荐职位：按 candidateId 取候选人向量 → 在已发布职位中检索</li>
+ * </ul>
+ * 查询时不调用 embedding API，延迟只取决于一次主键读取 + 一次向量检索。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RecommendationService {
+
+    /** 默认推荐数量 */
+    private static final int DEFAULT_TOP_N = 10;
+    /** 最大推荐数量 */
+    private static final int MAX_TOP_N = 100;
+
+    private final VectorStoreService vectorStoreService;
+    private final JobVectorStoreService jobVectorStoreService;
+    private final JobMapper jobMapper;
+    private final CandidateMapper candidateMapper;
+
+    /**
+     * 为职位推荐最相似的候选人
+     *
+     * @param jobId 职位 ID
+     * @param topN  推荐数量（1~100，非法值按默认 10 处理）
+     */
+    public List<RecommendedCandidate> recommendCandidates(Long jobId, Integer topN) {
+        int safeTopN = safeTopN(topN);
+        Job job = jobMapper.selectById(jobId);
+        if (job == null) {
+            throw new BusinessException(ResultCode.NOT_FOUND, "职位不存在");
+        }
+
+        List<Float> jobVector = jobVectorStoreService.getVectors(List.of(jobId)).get(jobId);
+        if (jobVector == null) {
+            throw new BusinessException(ResultCode.VECTOR_NOT_READY, "职位向量尚未生成，请稍后再试");
+        }
+
+        List<VectorStoreService.SearchResult> hits = vectorStoreService.search(jobVector, safeTopN);
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Candidate> candidateMap = candidateMapper.selectBatchIds(
+                        hits.stream().map(VectorStoreService.SearchResult::getCandidateId).toList())
+                .stream()
+                .collect(Collectors.toMap(Candidate::getId, Function.identity()));
+
+        List<RecommendedCandidate> result = new ArrayList<>(hits.size());
+        for (VectorStoreService.SearchResult hit : hits) {
+            Candidate candidate = candidateMap.get(hit.getCandidateId());
+            if (candidate == null) {
+                continue;
+            }
+            RecommendedCandidate item = new RecommendedCandidate();
+            item.setCandidateId(candidate.getId());
+            item.setName(candidate.getName());
+            item.setMatchScore(hit.getScore());
+            item.setCurrentPosition(candidate.getCurrentPosition());
+            item.setEducation(candidate.getEducation());
+            item.setWorkYears(candidate.getWorkYears());
+            item.setSkills(candidate.getSkills());
+            result.add(item);
+        }
+
+        log.info("职位推荐候选人完成: jobId={}, topN={}, resultCount={}", jobId, safeTopN, result.size());
+        return result;
+    }
+
+    /**
+     * 为候选人推荐最相似的已发布职位
+     *
+     * @param candidateId 候选人 ID
+     * @param topN        推荐数量（1~100，非法值按默认 10 处理）
+     */
+    public List<RecommendedJob> recommendJobs(Long candidateId, Integer topN) {
+        int safeTopN = safeTopN(topN);
+        Candidate candidate = candidateMapper.selectById(candidateId);
+        if (candidate == null) {
+            throw new BusinessException(ResultCode.NOT_FOUND, "候选人不存在");
+        }
+
+        List<Float> candidateVector = vectorStoreService.getVectors(List.of(candidateId)).get(candidateId);
+        if (candidateVector == null) {
+            throw new BusinessException(ResultCode.VECTOR_NOT_READY, "候选人向量尚未生成，请稍后再试");
+        }
+
+        List<JobVectorStoreService.JobSearchResult> hits =
+                jobVectorStoreService.search(candidateVector, safeTopN, JobStatus.PUBLISHED.getCode());
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Job> jobMap = jobMapper.selectBatchIds(
+                        hits.stream().map(JobVectorStoreService.JobSearchResult::getJobId).toList())
+                .stream()
+                .collect(Collectors.toMap(Job::getId, Function.identity()));
+
+        List<RecommendedJob> result = new ArrayList<>(hits.size());
+        for (JobVectorStoreService.JobSearchResult hit : hits) {
+            Job job = jobMap.get(hit.getJobId());
+            // 以数据库状态为准，过滤掉向量状态尚未同步的已关闭 / 已删除职位
+            if (job == null || !JobStatus.PUBLISHED.getCode().equals(job.getStatus())) {
+                continue;
+            }
+            RecommendedJob item = new RecommendedJob();
+            item.setJobId(job.getId());
+            item.setTitle(job.getTitle());
+            item.setDepartment(job.getDepartment());
+            item.setMatchScore(hit.getScore());
+            item.setSalaryMin(job.getSalaryMin());
+            item.setSalaryMax(job.getSalaryMax());
+            item.setEducation(job.getEducation());
+            result.add(item);
+        }
+
+        log.info("候选人推荐职位完成: candidateId={}, topN={}, resultCount={}", candidateId, safeTopN, result.size());
+        return result;
+    }
+
+    private static int safeTopN(Integer topN) {
+        return (topN != null && topN > 0 && topN <= MAX_TOP_N) ? topN : DEFAULT_TOP_N;
+    }
+}
@@ -12,6 +12,7 @@ import com.smartats.module.resume.mapper.ResumeMapper;
 import com.smartats.module.candidate.entity.Candidate;
 import com.smartats.module.candidate.service.CandidateService;
 import com.smartats.module.candidate.service.CandidateVectorService;
+import com.smartats.module.recommendation.service.JobTopCandidateService;
 import com.smartats.module.resume.dto.CandidateInfo;
 import com.smartats.module.resume.service.ResumeContentExtractor;
 import com.smartats.module.resume.service.ResumeParseService;
@@ -29,6 +30,7 @@ import org.springframework.stereotype.Component;
 
 import java.io.IOException;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Slf4j
@@ -39,6 +41,7 @@ public class ResumeParseConsumer {
     private final ResumeParseService parseService;
     private final CandidateService candidateService;
     private final CandidateVectorService candidateVectorService;
+    private final JobTopCandidateService jobTopCandidateService;
     private final RedissonClient redissonClient;
     private final StringRedisTemplate redisTemplate;
     private final ObjectMapper objectMapper;
@@ -123,9 +126,12 @@ public class ResumeParseConsumer {
 
             // 7.5 向量化候选人（生成嵌入并存入 Milvus）
             log.info("开始向量化候选人: candidateId={}", candidate.getId());
-            candidateVectorService.vectorizeCandidate(candidate);
+            List<Float> embedding = candidateVectorService.vectorizeCandidate(candidate);
             updateTaskStatus(taskId, "PROCESSING", 95);
 
+            // 7.6 增量写入各已发布职位的物化推荐列表
+            jobTopCandidateService.offerCandidateAsync(candidate, embedding);
+
             // 8. 更新任务状态为 COMPLETED
             updateTaskStatus(taskId, "COMPLETED", 100);
 
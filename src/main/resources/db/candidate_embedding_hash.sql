@@ -0,0 +1,9 @@
+-- ============================================================================
+-- 候选人嵌入文本指纹 (candidates.embedding_hash)
+-- 创建时间: 2026-10-19
+-- 说明: 记录最近一次嵌入所用文本的 SHA-256 指纹（含模型与维度），
+--       候选人更新后嵌入文本未变化（如仅修改手机号、邮箱）时跳过 embedding API 调用
+-- ============================================================================
+
+ALTER TABLE `candidates`
+    ADD COLUMN `embedding_hash` CHAR(64) NULL COMMENT '嵌入文本指纹（SHA-256），未变化时跳过重新嵌入' AFTER `ai_summary`;
@@ -0,0 +1,9 @@
+-- ============================================================================
+-- 候选人全文索引 (candidates.ft_ai_summary)
+-- 创建时间: 2026-10-19
+-- 说明: 混合检索（关键词 + 向量）的关键词检索通道。ai_summary 即嵌入文本，
+--       使用 ngram 分词器（默认 ngram_token_size=2）同时支持中文与 "Kafka"、"K8s" 等技术名词
+-- ============================================================================
+
+ALTER TABLE `candidates`
+    ADD FULLTEXT INDEX `ft_ai_summary` (`ai_summary`) WITH PARSER ngram;
@@ -0,0 +1,69 @@
+package com.smartats.infrastructure.vector;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * CandidateVectorFilter 单元测试
+ */
+@DisplayName("CandidateVectorFilter 单元测试")
+class CandidateVectorFilterTest {
+
+    @Test
+    @DisplayName("无条件时为空表达式")
+    void shouldBeEmptyWithoutConditions() {
+        CandidateVectorFilter filter = new CandidateVectorFilter();
+
+        assertThat(filter.isEmpty()).isTrue();
+        assertThat(filter.toExpression()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("多个条件以 AND 组合")
+    void shouldCombineConditionsWithAnd() {
+        CandidateVectorFilter filter = new CandidateVectorFilter();
+        filter.setEducations(List.of("本科", "硕士"));
+        filter.setMinWorkYears(3);
+        filter.setMaxWorkYears(8);
+        filter.setCurrentPosition("后端");
+        filter.setSkills(List.of(" Java ", "Redis"));
+
+        assertThat(filter.toExpression()).isEqualTo(
+                "(education in [\"本科\", \"硕士\"])"
+                        + " and (work_years >= 3)"
+                        + " and (work_years >= 0 and work_years <= 8)"
+                        + " and (current_position like \"%后端%\")"
+                        + " and (array_contains_all(skills, [\"java\", \"redis\"]))");
+    }
+
+    @Test
+    @DisplayName("技能别名：组内命中任一写法即可，组间仍为 AND")
+    void shouldMatchAnySkillVariant() {
+        CandidateVectorFilter filter = new CandidateVectorFilter();
+        filter.setSkills(List.of("Java", "K8s"));
+        filter.setSkillVariants(Map.of("K8s", new LinkedHashSet<>(List.of("kubernetes", "kube", "k8s"))));
+
+        assertThat(filter.toExpression()).isEqualTo(
+                "(array_contains_all(skills, [\"java\"]))"
+                        + " and (array_contains_any(skills, [\"k8s\", \"kubernetes\", \"kube\"]))");
+        assertThat(filter.matches(null, -1, null, List.of("java", "kubernetes"))).isTrue();
+        assertThat(filter.matches(null, -1, null, List.of("java", "k8s"))).isTrue();
+        assertThat(filter.matches(null, -1, null, List.of("kubernetes"))).isFalse();
+    }
+
+    @Test
+    @DisplayName("字符串字面量中的引号被转义")
+    void shouldEscapeQuotes() {
+        CandidateVectorFilter filter = new CandidateVectorFilter();
+        filter.setCurrentPosition("a\" or 1==1 or \"%");
+
+        assertThat(filter.toExpression())
+                .isEqualTo("(current_position like \"%a\\\" or 1==1 or \\\"%\")");
+    }
+}
@@ -0,0 +1,98 @@
+package com.smartats.infrastructure.vector;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * CircuitBreaker 单元测试
+ */
+@DisplayName("CircuitBreaker 单元测试")
+class CircuitBreakerTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private CircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() {
+        breaker = new CircuitBreaker("test", true, 3, 1000, now::get);
+    }
+
+    private void fail(int times) {
+        for (int i = 0; i < times; i++) {
+            assertThat(breaker.tryAcquire()).isTrue();
+            breaker.onFailure();
+        }
+    }
+
+    @Test
+    @DisplayName("连续失败达到阈值后打开，期间直接拒绝")
+    void shouldOpenAfterConsecutiveFailures() {
+        fail(2);
+        assertThat(breaker.getStats().state()).isEqualTo("CLOSED");
+
+        fail(1);
+
+        assertThat(breaker.getStats().state()).isEqualTo("OPEN");
+        assertThat(breaker.tryAcquire()).isFalse();
+        assertThatThrownBy(() -> breaker.call(() -> "x")).isInstanceOf(CircuitBreaker.OpenException.class);
+        assertThat(breaker.getStats().rejected()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("成功调用清零连续失败计数")
+    void shouldResetFailuresOnSuccess() {
+        fail(2);
+        assertThat(breaker.call(() -> "ok")).isEqualTo("ok");
+        fail(2);
+
+        assertThat(breaker.getStats().state()).isEqualTo("CLOSED");
+    }
+
+    @Test
+    @DisplayName("打开时长到期后只放行一个探测请求，成功即恢复")
+    void shouldCloseAfterSuccessfulProbe() {
+        fail(3);
+        now.set(1000);
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isFalse();
+        breaker.onSuccess();
+
+        assertThat(breaker.getStats().state()).isEqualTo("CLOSED");
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    @Test
+    @DisplayName("探测失败重新打开并重新计时")
+    void shouldReopenAfterFailedProbe() {
+        fail(3);
+        now.set(1000);
+
+        assertThatThrownBy(() -> breaker.call(() -> {
+            throw new IllegalStateException("down");
+        })).hasMessage("down");
+
+        assertThat(breaker.getStats().state()).isEqualTo("OPEN");
+        now.set(1999);
+        assertThat(breaker.tryAcquire()).isFalse();
+        now.set(2000);
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    @Test
+    @DisplayName("关闭熔断时始终放行")
+    void shouldAlwaysPermitWhenDisabled() {
+        breaker = new CircuitBreaker("test", false, 1, 1000, now::get);
+
+        breaker.onFailure();
+        breaker.onFailure();
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.getStats().state()).isEqualTo("CLOSED");
+    }
+}
@@ -0,0 +1,301 @@
+package com.smartats.infrastructure.vector;
+
+import com.smartats.infrastructure.vector.VectorStoreService.SearchResult;
+import com.smartats.module.candidate.entity.Candidate;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * EmbeddedVectorStoreService 单元测试
+ */
+@DisplayName("EmbeddedVectorStoreService 单元测试")
+class EmbeddedVectorStoreServiceTest {
+
+    private static final int DIMENSION = 32;
+
+    @TempDir
+    Path tempDir;
+
+    private EmbeddedVectorStoreService newStore(String indexType) {
+        return new EmbeddedVectorStoreService(DIMENSION, tempDir.resolve("candidates.snapshot").toString(),
+                indexType, 16, 200, 64, 0.2);
+    }
+
+    private static List<Float> randomVector(Random random) {
+        List<Float> vector = new ArrayList<>(DIMENSION);
+        for (int i = 0; i < DIMENSION; i++) {
+            vector.add((float) random.nextGaussian());
+        }
+        return vector;
+    }
+
+    private static Candidate candidate(long id, String education, Integer workYears, String... skills) {
+        Candidate candidate = new Candidate();
+        candidate.setId(id);
+        candidate.setName("候选人" + id);
+        candidate.setEducation(education);
+        candidate.setWorkYears(workYears);
+        candidate.setCurrentPosition("Java 开发工程师");
+        candidate.setSkills(List.of(skills));
+        return candidate;
+    }
+
+    private static Set<Long> ids(List<SearchResult> results) {
+        return results.stream().map(SearchResult::getCandidateId).collect(Collectors.toSet());
+    }
+
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+    // 写入与检索
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+
+    @Nested
+    @DisplayName("写入与检索")
+    class SearchTests {
+
+        @Test
+        @DisplayName("用已入库向量检索时自身排第一且分数接近 1")
+        void shouldFindSelfFirst() {
+            EmbeddedVectorStoreService store = newStore("HNSW");
+            Random random = new Random(1);
+            List<List<Float>> vectors = new ArrayList<>();
+            for (long id = 1; id <= 200; id++) {
+                List<Float> vector = randomVector(random);
+                vectors.add(vector);
+                store.upsertVector(candidate(id, "本科", 3), vector);
+            }
+
+            List<SearchResult> results = store.search(vectors.get(41), 5);
+
+            assertThat(results).hasSize(5);
+            assertThat(results.get(0).getCandidateId()).isEqualTo(42L);
+            assertThat(results.get(0).getCandidateName()).isEqualTo("候选人42");
+            assertThat(results.get(0).getScore()).isCloseTo(1f, within(1e-4f));
+        }
+
+        @Test
+        @DisplayName("HNSW 与 FLAT 精确检索的 recall@10 不低于 0.95")
+        void shouldReachHighRecall() {
+            EmbeddedVectorStoreService hnsw = newStore("HNSW");
+            EmbeddedVectorStoreService flat = newStore("FLAT");
+            Random random = new Random(7);
+            for (long id = 1; id <= 3000; id++) {
+                List<Float> vector = randomVector(random);
+                Candidate candidate = candidate(id, "本科", 3);
+                hnsw.upsertVector(candidate, vector);
+                flat.upsertVector(candidate, vector);
+            }
+
+            int hits = 0;
+            int queries = 50;
+            for (int q = 0; q < queries; q++) {
+                List<Float> query = randomVector(random);
+                Set<Long> truth = ids(flat.search(query, 10));
+                Set<Long> approx = ids(hnsw.search(query, 10));
+                approx.retainAll(truth);
+                hits += approx.size();
+            }
+
+            assertThat(hits / (queries * 10.0)).isGreaterThanOrEqualTo(0.95);
+        }
+
+        @Test
+        @DisplayName("重复 Upsert 覆盖旧向量，删除后不再返回")
+        void shouldReplaceAndDelete() {
+            EmbeddedVectorStoreService store = newStore("HNSW");
+            Random random = new Random(3);
+            List<Float> first = randomVector(random);
+            List<Float> second = randomVector(random);
+            store.upsertVector(candidate(1L, "本科", 3), first);
+            store.upsertVector(candidate(2L, "本科", 3), randomVector(random));
+            store.upsertVector(candidate(1L, "本科", 3), second);
+
+            assertThat(store.size()).isEqualTo(2);
+            assertThat(store.tombstoneCount()).isEqualTo(1);
+            assertThat(store.search(second, 1).get(0).getCandidateId()).isEqualTo(1L);
+            assertThat(store.search(first, 2)).extracting(SearchResult::getCandidateId)
+                    .containsExactlyInAnyOrder(1L, 2L);
+
+            store.deleteVector(1L);
+
+            assertThat(store.search(second, 10)).extracting(SearchResult::getCandidateId).containsExactly(2L);
+        }
+
+        @Test
+        @DisplayName("维度不一致时抛出 IllegalArgumentException")
+        void shouldRejectWrongDimension() {
+            EmbeddedVectorStoreService store = newStore("HNSW");
+
+            assertThatThrownBy(() -> store.search(List.of(1f, 2f), 5))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+
+        @Test
+        @DisplayName("不支持的索引类型启动失败")
+        void shouldRejectUnknownIndexType() {
+            assertThatThrownBy(() -> newStore("IVF_FLAT"))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("IVF_FLAT");
+        }
+    }
+
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+    // 标量过滤
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+
+    @Nested
+    @DisplayName("标量过滤")
+    class FilterTests {
+
+        @Test
+        @DisplayName("选择性高的过滤条件仍返回完整 topK，且全部满足条件")
+        void shouldReturnFullTopKForSelectiveFilter() {
+            EmbeddedVectorStoreService store = newStore("HNSW");
+            Random random = new Random(11);
+            for (long id = 1; id <= 1000; id++) {
+                boolean master = id % 50 == 0;
+                store.upsertVector(candidate(id, master ? "硕士" : "本科", (int) (id % 10), "Java"), randomVector(random));
+            }
+            CandidateVectorFilter filter = new CandidateVectorFilter();
+            filter.setEducations(List.of("硕士"));
+
+            List<SearchResult> results = store.search(randomVector(random), 10, filter);
+
+            assertThat(results).hasSize(10);
+            assertThat(results).allMatch(r -> r.getCandidateId() % 50 == 0);
+        }
+
+        @Test
+        @DisplayName("技能与年限条件组合过滤，未知年限不满足年限条件")
+        void shouldCombineConditions() {
+            EmbeddedVectorStoreService store = newStore("FLAT");
+            Random random = new Random(13);
+            store.upsertVector(candidate(1L, "本科", 5, "Java", "Redis"), randomVector(random));
+            store.upsertVector(candidate(2L, "本科", 1, "Java", "Redis"), randomVector(random));
+            store.upsertVector(candidate(3L, "本科", null, "Java", "Redis"), randomVector(random));
+            store.upsertVector(candidate(4L, "本科", 6, "Java"), randomVector(random));
+            CandidateVectorFilter filter = new CandidateVectorFilter();
+            filter.setMinWorkYears(3);
+            filter.setSkills(List.of(" JAVA ", "redis"));
+
+            List<SearchResult> results = store.search(randomVector(random), 10, filter);
+
+            assertThat(results).extracting(SearchResult::getCandidateId).containsExactly(1L);
+        }
+    }
+
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+    // 快照与压缩
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+
+    @Nested
+    @DisplayName("快照与压缩")
+    class SnapshotTests {
+
+        @Test
+        @DisplayName("快照写入后重新加载，检索结果一致")
+        void shouldRoundTripSnapshot() throws IOException {
+            EmbeddedVectorStoreService store = newStore("HNSW");
+            Random random = new Random(17);
+            for (long id = 1; id <= 300; id++) {
+                store.upsertVector(candidate(id, "本科", 3, "Java"), randomVector(random));
+            }
+            store.deleteVector(5L);
+            store.saveSnapshot();
+
+            EmbeddedVectorStoreService reloaded = newStore("HNSW");
+            reloaded.init();
+
+            List<Float> query = randomVector(random);
+            assertThat(reloaded.size()).isEqualTo(299);
+            assertThat(reloaded.search(query, 10)).usingRecursiveFieldByFieldElementComparator()
+                    .isEqualTo(store.search(query, 10));
+        }
+
+        @Test
+        @DisplayName("快照损坏时以空索引启动并保留原文件")
+        void shouldStartEmptyWhenSnapshotCorrupt() throws IOException {
+            EmbeddedVectorStoreService store = newStore("HNSW");
+            Random random = new Random(19);
+            for (long id = 1; id <= 20; id++) {
+                store.upsertVector(candidate(id, "本科", 3), randomVector(random));
+            }
+            store.saveSnapshot();
+            Path snapshot = tempDir.resolve("candidates.snapshot");
+            byte[] bytes = Files.readAllBytes(snapshot);
+            bytes[bytes.length / 2] ^= 0x5A;
+            Files.write(snapshot, bytes);
+
+            EmbeddedVectorStoreService reloaded = newStore("HNSW");
+            reloaded.init();
+
+            assertThat(reloaded.size()).isZero();
+            assertThat(tempDir.resolve("candidates.snapshot.corrupt")).exists();
+        }
+
+        @Test
+        @DisplayName("墓碑比例超过阈值时压缩，删除的向量不再占用槽位")
+        void shouldCompactTombstones() {
+            EmbeddedVectorStoreService store = newStore("HNSW");
+            Random random = new Random(23);
+            List<List<Float>> vectors = new ArrayList<>();
+            for (long id = 1; id <= 100; id++) {
+                List<Float> vector = randomVector(random);
+                vectors.add(vector);
+                store.upsertVector(candidate(id, "本科", 3), vector);
+            }
+            for (long id = 1; id <= 30; id++) {
+                store.deleteVector(id);
+            }
+
+            store.compactIfNeeded();
+
+            assertThat(store.tombstoneCount()).isZero();
+            assertThat(store.size()).isEqualTo(70);
+            assertThat(store.search(vectors.get(79), 1).get(0).getCandidateId()).isEqualTo(80L);
+        }
+
+        @Test
+        @DisplayName("压缩与写快照期间的并发写入不丢失：重建完成后补齐新增向量与删除")
+        void shouldKeepWritesMadeDuringCompaction() throws Exception {
+            EmbeddedVectorStoreService store = newStore("HNSW");
+            Random random = new Random(29);
+            for (long id = 1; id <= 2000; id++) {
+                store.upsertVector(candidate(id, "本科", 3), randomVector(random));
+            }
+            for (long id = 1; id <= 600; id++) {
+                store.deleteVector(id);
+            }
+            List<Float> probe = randomVector(random);
+
+            Thread writer = new Thread(() -> {
+                Random writerRandom = new Random(31);
+                for (long id = 2001; id <= 2300; id++) {
+                    store.upsertVector(candidate(id, "硕士", 5), id == 2300 ? probe : randomVector(writerRandom));
+                    store.deleteVector(id - 1400);
+                }
+            });
+            writer.start();
+            store.compactIfNeeded();
+            store.saveSnapshot();
+            writer.join();
+            store.compactIfNeeded();
+
+            assertThat(store.size()).isEqualTo(2000 - 600 + 300 - 300);
+            assertThat(store.existingIds(List.of(601L, 900L, 901L, 2300L))).containsExactlyInAnyOrder(901L, 2300L);
+            assertThat(store.search(probe, 1).get(0).getCandidateId()).isEqualTo(2300L);
+        }
+    }
+}
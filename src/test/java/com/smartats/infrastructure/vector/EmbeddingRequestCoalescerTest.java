@@ -0,0 +1,183 @@
+package com.smartats.infrastructure.vector;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.*;
+
+/**
+ * EmbeddingRequestCoalescer 单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("EmbeddingRequestCoalescer 单元测试")
+class EmbeddingRequestCoalescerTest {
+
+    @Mock
+    private EmbeddingService embeddingService;
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private EmbeddingRequestCoalescer coalescer;
+
+    @AfterEach
+    void tearDown() {
+        if (coalescer != null) {
+            coalescer.shutdown();
+        }
+        executor.shutdownNow();
+    }
+
+    private static List<Float> vector(float value) {
+        return List.of(value, value);
+    }
+
+    private static List<List<Float>> vectorsFor(List<String> texts) {
+        return texts.stream().map(text -> vector(text.length())).toList();
+    }
+
+    @Test
+    @DisplayName("并发相同查询只发起一次请求")
+    void shouldSingleFlightIdenticalQueries() throws Exception {
+        coalescer = new EmbeddingRequestCoalescer(embeddingService, executor, true, 0, 64, false, 50, 1000);
+        CountDownLatch release = new CountDownLatch(1);
+        given(embeddingService.embedBatch(anyList())).willAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return vectorsFor(invocation.getArgument(0));
+        });
+
+        List<Future<List<Float>>> results = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            results.add(executor.submit(() -> coalescer.embed("key", "java")));
+        }
+        long deadline = System.currentTimeMillis() + 5000;
+        while (coalescer.getStats().coalesced() < 4 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+
+        for (Future<List<Float>> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo(vector(4));
+        }
+        then(embeddingService).should(times(1)).embedBatch(List.of("java"));
+        assertThat(coalescer.getStats().coalesced()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("窗口期内不同查询合并为一次批量请求，结果按查询分发")
+    void shouldMicroBatchDistinctQueries() throws Exception {
+        coalescer = new EmbeddingRequestCoalescer(embeddingService, executor, true, 10_000, 3, false, 50, 1000);
+        given(embeddingService.embedBatch(anyList()))
+                .willAnswer(invocation -> vectorsFor(invocation.getArgument(0)));
+
+        Future<List<Float>> a = executor.submit(() -> coalescer.embed("a", "go"));
+        Future<List<Float>> b = executor.submit(() -> coalescer.embed("b", "java"));
+        Future<List<Float>> c = executor.submit(() -> coalescer.embed("c", "python"));
+
+        // 窗口 10s，满 maxBatch=3 时立即发出
+        assertThat(a.get(5, TimeUnit.SECONDS)).isEqualTo(vector(2));
+        assertThat(b.get(5, TimeUnit.SECONDS)).isEqualTo(vector(4));
+        assertThat(c.get(5, TimeUnit.SECONDS)).isEqualTo(vector(6));
+        then(embeddingService).should(times(1)).embedBatch(anyList());
+        assertThat(coalescer.getStats().batches()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("原请求过慢时对冲请求先返回")
+    void shouldHedgeSlowRequest() {
+        coalescer = new EmbeddingRequestCoalescer(embeddingService, executor, true, 0, 64, true, 20, 20);
+        CountDownLatch slow = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        given(embeddingService.embedBatch(anyList())).willAnswer(invocation -> {
+            if (calls.incrementAndGet() == 1) {
+                slow.await(5, TimeUnit.SECONDS);
+            }
+            return vectorsFor(invocation.getArgument(0));
+        });
+
+        try {
+            assertThat(coalescer.embed("key", "java")).isEqualTo(vector(4));
+        } finally {
+            slow.countDown();
+        }
+        assertThat(coalescer.getStats().hedges()).isEqualTo(1);
+        assertThat(coalescer.getStats().hedgeWins()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("请求失败时异常传递给调用方，且不残留在途请求")
+    void shouldPropagateFailure() {
+        coalescer = new EmbeddingRequestCoalescer(embeddingService, executor, true, 0, 64, false, 50, 1000);
+        given(embeddingService.embedBatch(anyList()))
+                .willThrow(new RuntimeException("API 不可用"))
+                .willReturn(List.of(vector(1)));
+
+        assertThatThrownBy(() -> coalescer.embed("key", "java")).hasMessage("API 不可用");
+        assertThat(coalescer.embed("key", "java")).isEqualTo(vector(1));
+    }
+
+    @Test
+    @DisplayName("执行器拒绝时整批失败，不在调用方线程执行 HTTP 请求")
+    void shouldFailBatchWhenExecutorRejects() {
+        Executor rejecting = task -> {
+            throw new RejectedExecutionException("queue full");
+        };
+        coalescer = new EmbeddingRequestCoalescer(embeddingService, rejecting, true, 0, 64, false, 50, 1000);
+
+        assertThatThrownBy(() -> coalescer.embed("key", "java"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasCauseInstanceOf(RejectedExecutionException.class);
+        then(embeddingService).should(never()).embedBatch(anyList());
+    }
+
+    @Test
+    @DisplayName("对冲延迟取近期 p95，并限制在上下限之间")
+    void shouldDeriveHedgeDelayFromP95() {
+        coalescer = new EmbeddingRequestCoalescer(embeddingService, executor, true, 0, 64, true, 50, 500);
+        assertThat(coalescer.hedgeDelayMs()).isEqualTo(500);
+
+        for (int i = 1; i <= 100; i++) {
+            coalescer.recordLatency(i * 2L);
+        }
+        assertThat(coalescer.hedgeDelayMs()).isEqualTo(190);
+
+        for (int i = 0; i < EmbeddingRequestCoalescer.LATENCY_WINDOW; i++) {
+            coalescer.recordLatency(10);
+        }
+        assertThat(coalescer.hedgeDelayMs()).isEqualTo(50);
+    }
+
+    @Test
+    @DisplayName("关闭合并时直接调用单条 embedding")
+    void shouldBypassWhenDisabled() {
+        coalescer = new EmbeddingRequestCoalescer(embeddingService, executor, false, 3, 64, false, 50, 1000);
+        given(embeddingService.generateQueryEmbedding("java")).willReturn(vector(1));
+
+        assertThat(coalescer.embed("key", "java")).isEqualTo(vector(1));
+        then(embeddingService).should(never()).embedBatch(anyList());
+    }
+
+    @Test
+    @DisplayName("参数非法 - 拒绝创建")
+    void shouldRejectInvalidSettings() {
+        assertThatThrownBy(() -> new EmbeddingRequestCoalescer(embeddingService, executor, true, 3, 65, false, 50, 1000))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new EmbeddingRequestCoalescer(embeddingService, executor, true, 3, 64, true, 100, 50))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
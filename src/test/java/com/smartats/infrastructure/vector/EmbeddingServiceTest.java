@@ -168,6 +168,50 @@ class EmbeddingServiceTest {
         }
     }
 
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+    // embedBatch 测试
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+
+    @Nested
+    @DisplayName("embedBatch")
+    class EmbedBatchTests {
+
+        @Test
+        @DisplayName("单次调用返回与输入顺序一致的向量")
+        void shouldEmbedInOneCall() {
+            Embedding first = mock(Embedding.class);
+            given(first.getOutput()).willReturn(new float[]{1f, 0f});
+            Embedding second = mock(Embedding.class);
+            given(second.getOutput()).willReturn(new float[]{0f, 1f});
+            EmbeddingResponse response = mock(EmbeddingResponse.class);
+            given(response.getResults()).willReturn(List.of(first, second));
+            given(embeddingModel.call(any(EmbeddingRequest.class))).willReturn(response);
+
+            List<List<Float>> embeddings = embeddingService.embedBatch(List.of("Java", "Python"));
+
+            assertThat(embeddings).containsExactly(List.of(1f, 0f), List.of(0f, 1f));
+            then(embeddingModel).should(times(1)).call(any(EmbeddingRequest.class));
+        }
+
+        @Test
+        @DisplayName("返回数量不一致时抛出异常")
+        void shouldRejectSizeMismatch() {
+            EmbeddingResponse response = mock(EmbeddingResponse.class);
+            given(response.getResults()).willReturn(List.of());
+            given(embeddingModel.call(any(EmbeddingRequest.class))).willReturn(response);
+
+            assertThatThrownBy(() -> embeddingService.embedBatch(List.of("Java")))
+                    .isInstanceOf(IllegalStateException.class);
+        }
+
+        @Test
+        @DisplayName("空输入不调用模型")
+        void shouldSkipEmptyInput() {
+            assertThat(embeddingService.embedBatch(List.of())).isEmpty();
+            then(embeddingModel).shouldHaveNoInteractions();
+        }
+    }
+
     // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
     // generateQueryEmbedding 测试
     // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
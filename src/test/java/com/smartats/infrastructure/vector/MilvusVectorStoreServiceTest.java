@@ -0,0 +1,83 @@
+package com.smartats.infrastructure.vector;
+
+import com.smartats.infrastructure.vector.VectorStoreService.SearchResult;
+import io.milvus.v2.common.IndexParam;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * MilvusVectorStoreService 单元测试（两阶段检索精排、索引参数解析、向量字段索引）
+ */
+@DisplayName("MilvusVectorStoreService 单元测试")
+class MilvusVectorStoreServiceTest {
+
+    private static SearchResult hit(long candidateId, float coarseScore) {
+        SearchResult result = new SearchResult();
+        result.setCandidateId(candidateId);
+        result.setScore(coarseScore);
+        return result;
+    }
+
+    @Test
+    @DisplayName("按完整向量的余弦相似度重排并截取 topK")
+    void shouldRescoreWithFullVectors() {
+        List<SearchResult> coarse = List.of(hit(1L, 0.99f), hit(2L, 0.95f), hit(3L, 0.90f));
+        Map<Long, List<Float>> full = Map.of(
+                1L, List.of(0f, 1f, 0f),
+                2L, List.of(2f, 0f, 0f),
+                3L, List.of(1f, 1f, 0f));
+
+        List<SearchResult> result = MilvusVectorStoreService.rescore(coarse, new float[]{1f, 0f, 0f}, full, 2);
+
+        assertThat(result).extracting(SearchResult::getCandidateId).containsExactly(2L, 3L);
+        assertThat(result.get(0).getScore()).isEqualTo(1f);
+        assertThat(result.get(1).getScore()).isCloseTo(0.7071f, within(1e-4f));
+    }
+
+    @Test
+    @DisplayName("粗排后已删除（取不到完整向量）的候选人被丢弃")
+    void shouldDropMissingVectors() {
+        List<SearchResult> coarse = List.of(hit(1L, 0.99f), hit(2L, 0.95f));
+
+        List<SearchResult> result = MilvusVectorStoreService.rescore(coarse, new float[]{1f, 0f},
+                Map.of(2L, List.of(1f, 0f)), 10);
+
+        assertThat(result).extracting(SearchResult::getCandidateId).containsExactly(2L);
+    }
+
+    @Test
+    @DisplayName("从索引描述中解析实际 nlist")
+    void shouldParseNlistFromIndexParams() {
+        assertThat(MilvusVectorStoreService.parseNlist(Map.of("nlist", "2048"))).isEqualTo(2048);
+        assertThat(MilvusVectorStoreService.parseNlist(Map.of("params", "{\"nlist\":\"512\"}"))).isEqualTo(512);
+        assertThat(MilvusVectorStoreService.parseNlist(Map.of("params", "{\"M\":16}"))).isNull();
+        assertThat(MilvusVectorStoreService.parseNlist(Map.of("nlist", "abc"))).isNull();
+        assertThat(MilvusVectorStoreService.parseNlist(null)).isNull();
+    }
+
+    @Test
+    @DisplayName("两阶段检索时 ANN 索引只建在粗排字段，完整向量为 FLAT + mmap")
+    void shouldIndexCoarseFieldOnlyWhenTwoStage() {
+        VectorIndexSettings settings = VectorIndexSettings.builder()
+                .indexType("HNSW").m(16).efConstruction(200).ef(64).build();
+
+        List<IndexParam> single = MilvusVectorStoreService.vectorIndexParams(settings, 0);
+        List<IndexParam> twoStage = MilvusVectorStoreService.vectorIndexParams(settings, 256);
+
+        assertThat(single).singleElement().satisfies(p -> {
+            assertThat(p.getFieldName()).isEqualTo("embedding");
+            assertThat(p.getIndexType()).isEqualTo(IndexParam.IndexType.HNSW);
+        });
+        assertThat(twoStage).extracting(IndexParam::getFieldName, IndexParam::getIndexType)
+                .containsExactly(tuple("embedding", IndexParam.IndexType.FLAT),
+                        tuple("embedding_coarse", IndexParam.IndexType.HNSW));
+        assertThat(twoStage.get(0).getExtraParams()).containsEntry("mmap.enabled", "true");
+        assertThat(MilvusVectorStoreService.vectorFields(256)).containsExactly("embedding", "embedding_coarse");
+        assertThat(MilvusVectorStoreService.vectorFields(0)).containsExactly("embedding");
+    }
+}
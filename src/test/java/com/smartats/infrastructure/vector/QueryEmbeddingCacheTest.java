@@ -0,0 +1,249 @@
+package com.smartats.infrastructure.vector;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.*;
+
+/**
+ * QueryEmbeddingCache 单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("QueryEmbeddingCache 单元测试")
+class QueryEmbeddingCacheTest {
+
+    @Mock
+    private EmbeddingService embeddingService;
+    @Mock
+    private StringRedisTemplate redisTemplate;
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private QueryEmbeddingCache cache;
+    private CircuitBreaker circuitBreaker;
+    private List<Float> mockEmbedding;
+
+    @BeforeEach
+    void setUp() {
+        circuitBreaker = new CircuitBreaker("embedding", true, 2, 30_000);
+        cache = new QueryEmbeddingCache(embeddingService,
+                new EmbeddingRequestCoalescer(embeddingService, Runnable::run, false, 3, 64, false, 50, 1000),
+                circuitBreaker, redisTemplate, "embedding-3", 2, 24);
+        mockEmbedding = new ArrayList<>(Collections.nCopies(EmbeddingService.EMBEDDING_DIMENSION, 0.1f));
+    }
+
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+    // 查询文本归一化
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+
+    @Nested
+    @DisplayName("查询文本归一化")
+    class NormalizeTests {
+
+        @Test
+        @DisplayName("全角、大小写、多余空白归一化为同一文本")
+        void shouldNormalizeEquivalentQueries() {
+            assertThat(QueryEmbeddingCache.normalize("  Ｊａｖａ   后端\t5年 "))
+                    .isEqualTo(QueryEmbeddingCache.normalize("java 后端 5年"));
+        }
+
+        @Test
+        @DisplayName("等价查询生成相同的缓存 Key")
+        void shouldBuildSameKeyForEquivalentQueries() {
+            assertThat(cache.buildKey("JAVA 后端  5年"))
+                    .isEqualTo(cache.buildKey("java 后端 5年"))
+                    .startsWith("cache:embedding:query:embedding-3:1024:");
+        }
+    }
+
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+    // 两级缓存读写
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+
+    @Nested
+    @DisplayName("两级缓存读写")
+    class LookupTests {
+
+        @Test
+        @DisplayName("未命中时调用 embedding API 并回写 Redis")
+        void shouldCallApiOnMissAndWriteRedis() {
+            given(redisTemplate.opsForValue()).willReturn(valueOperations);
+            given(valueOperations.get(anyString())).willReturn(null);
+            given(embeddingService.generateQueryEmbedding("java 后端")).willReturn(mockEmbedding);
+
+            List<Float> result = cache.getQueryEmbedding("java 后端");
+
+            assertThat(result).hasSize(EmbeddingService.EMBEDDING_DIMENSION);
+            then(valueOperations).should().set(anyString(), eq(VectorCodec.encode(mockEmbedding)), eq(24L), eq(TimeUnit.HOURS));
+            assertThat(cache.getStats().misses()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("重复查询命中进程内缓存，不再访问 Redis 和 API")
+        void shouldHitLocalCacheOnRepeat() {
+            given(redisTemplate.opsForValue()).willReturn(valueOperations);
+            given(embeddingService.generateQueryEmbedding(anyString())).willReturn(mockEmbedding);
+
+            cache.getQueryEmbedding("Java 后端");
+            cache.getQueryEmbedding("  java   后端 ");
+
+            then(embeddingService).should(times(1)).generateQueryEmbedding(anyString());
+            then(valueOperations).should(times(1)).get(anyString());
+            assertThat(cache.getStats().localHits()).isEqualTo(1);
+            assertThat(cache.getStats().hitRate()).isEqualTo(0.5);
+        }
+
+        @Test
+        @DisplayName("Redis 命中时不调用 API")
+        void shouldHitRedis() {
+            given(redisTemplate.opsForValue()).willReturn(valueOperations);
+            given(valueOperations.get(anyString())).willReturn(VectorCodec.encode(mockEmbedding));
+
+            List<Float> result = cache.getQueryEmbedding("java 后端");
+
+            assertThat(result).isEqualTo(mockEmbedding);
+            then(embeddingService).shouldHaveNoInteractions();
+            assertThat(cache.getStats().redisHits()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Redis 不可用时降级为直接调用 API")
+        void shouldFallbackWhenRedisUnavailable() {
+            given(redisTemplate.opsForValue()).willThrow(new RedisConnectionFailureException("down"));
+            given(embeddingService.generateQueryEmbedding(anyString())).willReturn(mockEmbedding);
+
+            List<Float> result = cache.getQueryEmbedding("java 后端");
+
+            assertThat(result).hasSize(EmbeddingService.EMBEDDING_DIMENSION);
+        }
+
+        @Test
+        @DisplayName("进程内缓存超出容量时淘汰最久未访问的条目")
+        void shouldEvictEldestEntry() {
+            given(redisTemplate.opsForValue()).willReturn(valueOperations);
+            given(embeddingService.generateQueryEmbedding(anyString())).willReturn(mockEmbedding);
+
+            cache.getQueryEmbedding("q1");
+            cache.getQueryEmbedding("q2");
+            cache.getQueryEmbedding("q3");
+
+            assertThat(cache.getStats().localSize()).isEqualTo(2);
+        }
+    }
+
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+    // 批量获取
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+
+    @Nested
+    @DisplayName("批量获取")
+    class BatchTests {
+
+        @Test
+        @DisplayName("L1 / L2 命中的不再嵌入，其余合并为一次批量请求且相同查询只嵌入一次")
+        void shouldEmbedOnlyMissesInOneRequest() {
+            given(redisTemplate.opsForValue()).willReturn(valueOperations);
+            // q1 预先进入 L1
+            given(valueOperations.get(anyString())).willReturn(null);
+            given(embeddingService.generateQueryEmbedding("q1")).willReturn(mockEmbedding);
+            cache.getQueryEmbedding("q1");
+
+            List<Float> redisVector = new ArrayList<>(Collections.nCopies(EmbeddingService.EMBEDDING_DIMENSION, 0.2f));
+            given(valueOperations.multiGet(anyList())).willAnswer(inv -> {
+                List<String> keys = inv.getArgument(0);
+                return keys.stream()
+                        .map(k -> k.equals(cache.buildKey("q2")) ? VectorCodec.encode(redisVector) : null)
+                        .toList();
+            });
+            List<Float> apiVector = new ArrayList<>(Collections.nCopies(EmbeddingService.EMBEDDING_DIMENSION, 0.3f));
+            given(embeddingService.embedBatch(List.of("q3"))).willReturn(List.of(apiVector));
+
+            List<List<Float>> result = cache.getQueryEmbeddings(List.of("q1", "q2", "q3", "Q3 "));
+
+            assertThat(result).containsExactly(mockEmbedding, redisVector, apiVector, apiVector);
+            then(embeddingService).should().embedBatch(List.of("q3"));
+            then(valueOperations).should().set(eq(cache.buildKey("q3")), anyString(), eq(24L), eq(TimeUnit.HOURS));
+        }
+
+        @Test
+        @DisplayName("Redis 不可用时全部走批量嵌入")
+        void shouldFallbackWhenRedisDown() {
+            given(redisTemplate.opsForValue()).willReturn(valueOperations);
+            given(valueOperations.multiGet(anyList())).willThrow(new RedisConnectionFailureException("down"));
+            given(embeddingService.embedBatch(List.of("a", "b"))).willReturn(List.of(mockEmbedding, mockEmbedding));
+
+            List<List<Float>> result = cache.getQueryEmbeddings(List.of("a", "b"));
+
+            assertThat(result).hasSize(2);
+            assertThat(cache.getStats().misses()).isEqualTo(2);
+        }
+    }
+
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+    // 熔断
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+
+    @Nested
+    @DisplayName("熔断")
+    class CircuitBreakerTests {
+
+        @Test
+        @DisplayName("API 连续失败后熔断，未命中直接拒绝，已缓存的查询不受影响")
+        void shouldRejectMissesWhileOpen() {
+            given(redisTemplate.opsForValue()).willReturn(valueOperations);
+            given(embeddingService.generateQueryEmbedding("java")).willReturn(mockEmbedding);
+            cache.getQueryEmbedding("java");
+            given(embeddingService.generateQueryEmbedding("go"))
+                    .willThrow(new RuntimeException("429 Too Many Requests"));
+
+            assertThatThrownBy(() -> cache.getQueryEmbedding("go")).hasMessageContaining("429");
+            assertThatThrownBy(() -> cache.getQueryEmbedding("go")).hasMessageContaining("429");
+            assertThatThrownBy(() -> cache.getQueryEmbedding("go")).isInstanceOf(CircuitBreaker.OpenException.class);
+            assertThatThrownBy(() -> cache.getQueryEmbeddings(List.of("python")))
+                    .isInstanceOf(CircuitBreaker.OpenException.class);
+
+            assertThat(cache.getQueryEmbedding("java")).isEqualTo(mockEmbedding);
+            then(embeddingService).should(times(2)).generateQueryEmbedding("go");
+            then(embeddingService).should(never()).embedBatch(anyList());
+        }
+    }
+
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+    // 向量编解码
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+
+    @Nested
+    @DisplayName("向量编解码")
+    class CodecTests {
+
+        @Test
+        @DisplayName("编码后解码得到原向量")
+        void shouldRoundTrip() {
+            List<Float> vector = List.of(0.5f, -1.25f, 3.0e-5f);
+
+            assertThat(VectorCodec.decode(VectorCodec.encode(vector))).isEqualTo(vector);
+        }
+
+        @Test
+        @DisplayName("字节长度非法时抛出异常")
+        void shouldRejectInvalidLength() {
+            assertThatThrownBy(() -> VectorCodec.decode("AAA="))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+}
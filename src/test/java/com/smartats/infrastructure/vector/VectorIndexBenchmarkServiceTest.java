@@ -0,0 +1,138 @@
+package com.smartats.infrastructure.vector;
+
+import com.smartats.infrastructure.vector.VectorIndexBenchmarkService.BenchmarkDataset;
+import com.smartats.infrastructure.vector.VectorIndexBenchmarkService.CoarseRecallResult;
+import io.milvus.v2.client.MilvusClientV2;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * VectorIndexBenchmarkService 单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("VectorIndexBenchmarkService 单元测试")
+class VectorIndexBenchmarkServiceTest {
+
+    @InjectMocks
+    private VectorIndexBenchmarkService benchmarkService;
+
+    @Mock
+    private MilvusClientV2 milvusClient;
+    @Mock
+    private MilvusVectorStoreService vectorStoreService;
+
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+    // 真值与指标计算
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+
+    @Nested
+    @DisplayName("真值与指标计算")
+    class MetricTests {
+
+        @Test
+        @DisplayName("暴力搜索返回点积最大的 K 个下标")
+        void shouldFindExactTopK() {
+            float[][] vectors = {
+                    {1f, 0f}, {0f, 1f}, {0.8f, 0.6f}, {-1f, 0f}
+            };
+
+            Set<Long> top2 = VectorIndexBenchmarkService.exactTopK(vectors, new float[]{1f, 0f}, 2);
+
+            assertThat(top2).containsExactlyInAnyOrder(0L, 2L);
+        }
+
+        @Test
+        @DisplayName("recall@K 为命中真值的比例")
+        void shouldCalculateRecall() {
+            double recall = VectorIndexBenchmarkService.recall(List.of(1L, 2L, 9L, 4L), Set.of(1L, 2L, 3L, 4L), 4);
+
+            assertThat(recall).isEqualTo(0.75);
+        }
+
+        @Test
+        @DisplayName("最近秩法计算百分位")
+        void shouldCalculatePercentile() {
+            long[] sorted = new long[100];
+            for (int i = 0; i < 100; i++) {
+                sorted[i] = i + 1;
+            }
+
+            assertThat(VectorIndexBenchmarkService.percentile(sorted, 0.50)).isEqualTo(50);
+            assertThat(VectorIndexBenchmarkService.percentile(sorted, 0.99)).isEqualTo(99);
+            assertThat(VectorIndexBenchmarkService.percentile(new long[0], 0.99)).isZero();
+        }
+    }
+
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+    // 合成数据集
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+
+    @Nested
+    @DisplayName("合成数据集")
+    class SyntheticDatasetTests {
+
+        @Test
+        @DisplayName("生成指定数量的归一化向量，相同种子可复现")
+        void shouldGenerateNormalizedReproducibleVectors() {
+            BenchmarkDataset first = benchmarkService.syntheticDataset(200, 5, 7L);
+            BenchmarkDataset second = benchmarkService.syntheticDataset(200, 5, 7L);
+
+            assertThat(first.vectors()).hasNumberOfRows(200);
+            assertThat(first.queries()).hasNumberOfRows(5);
+            assertThat(first.vectors()[0]).hasSize(EmbeddingService.EMBEDDING_DIMENSION);
+            assertThat(VectorMath.norm(first.vectors()[0])).isCloseTo(1f, within(1e-4f));
+            assertThat(first.vectors()[123]).containsExactly(second.vectors()[123]);
+        }
+    }
+
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+    // 两阶段检索召回对比
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+
+    @Nested
+    @DisplayName("两阶段检索召回对比")
+    class CoarseRecallTests {
+
+        @Test
+        @DisplayName("按相似度倒序返回 topK 下标")
+        void shouldRankTopK() {
+            float[][] vectors = {
+                    {1f, 0f}, {0f, 1f}, {0.8f, 0.6f}, {-1f, 0f}
+            };
+
+            assertThat(VectorIndexBenchmarkService.rankTopK(vectors, new float[]{1f, 0f}, 3))
+                    .containsExactly(0, 2, 1);
+        }
+
+        @Test
+        @DisplayName("完整向量重排提升召回，召回数覆盖全量时与精确检索一致")
+        void shouldImproveRecallWithRescore() {
+            BenchmarkDataset dataset = benchmarkService.syntheticDataset(500, 20, 11L);
+
+            List<CoarseRecallResult> results = benchmarkService.compareCoarse(dataset, 64, List.of(50, 500), 10);
+
+            assertThat(results).hasSize(2);
+            CoarseRecallResult partial = results.get(0);
+            CoarseRecallResult full = results.get(1);
+            assertThat(partial.getCandidates()).isEqualTo(50);
+            assertThat(partial.getFullDimension()).isEqualTo(EmbeddingService.EMBEDDING_DIMENSION);
+            assertThat(partial.getRecallAtK()).isGreaterThanOrEqualTo(partial.getCoarseOnlyRecallAtK());
+            assertThat(full.getRecallAtK()).isEqualTo(1.0);
+            assertThat(partial.getFullBytesPerVector()).isEqualTo(EmbeddingService.EMBEDDING_DIMENSION * 4L);
+            assertThat(partial.getResidentBytesPerVector()).isEqualTo(64 * 4L);
+            assertThat(partial.getRescoreFetchBytesPerQuery())
+                    .isEqualTo(50L * EmbeddingService.EMBEDDING_DIMENSION * 4);
+            assertThat(partial.getRescoreMeanMs()).isGreaterThanOrEqualTo(0);
+        }
+    }
+}
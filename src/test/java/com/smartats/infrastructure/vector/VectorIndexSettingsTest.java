@@ -0,0 +1,132 @@
+package com.smartats.infrastructure.vector;
+
+import io.milvus.v2.common.IndexParam;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * VectorIndexSettings 单元测试
+ */
+@DisplayName("VectorIndexSettings 单元测试")
+class VectorIndexSettingsTest {
+
+    private VectorIndexSettings ivf(String type) {
+        return VectorIndexSettings.builder().indexType(type).nlist(1024).nprobe(32).build();
+    }
+
+    private VectorIndexSettings hnsw() {
+        return VectorIndexSettings.builder().indexType("hnsw").m(16).efConstruction(200).ef(64).build();
+    }
+
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+    // 参数映射
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+
+    @Nested
+    @DisplayName("参数映射")
+    class ParamTests {
+
+        @Test
+        @DisplayName("IVF 索引使用 nlist 构建、nprobe 搜索")
+        void shouldMapIvfParams() {
+            VectorIndexSettings settings = ivf("IVF_SQ8");
+
+            assertThat(settings.resolveIndexType()).isEqualTo(IndexParam.IndexType.IVF_SQ8);
+            assertThat(settings.buildParams()).isEqualTo(Map.of("nlist", 1024));
+            assertThat(settings.searchParams(10)).isEqualTo(Map.of("nprobe", 32));
+        }
+
+        @Test
+        @DisplayName("HNSW 索引使用 M/efConstruction 构建，ef 不小于 topK")
+        void shouldMapHnswParams() {
+            VectorIndexSettings settings = hnsw();
+
+            assertThat(settings.resolveIndexType()).isEqualTo(IndexParam.IndexType.HNSW);
+            assertThat(settings.buildParams()).isEqualTo(Map.of("M", 16, "efConstruction", 200));
+            assertThat(settings.searchParams(10)).isEqualTo(Map.of("ef", 64));
+            assertThat(settings.searchParams(100)).isEqualTo(Map.of("ef", 100));
+        }
+    }
+
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+    // 参数校验
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+
+    @Nested
+    @DisplayName("参数校验")
+    class ValidateTests {
+
+        @Test
+        @DisplayName("合法参数校验通过")
+        void shouldAcceptValidSettings() {
+            assertThatCode(() -> ivf("IVF_FLAT").validate()).doesNotThrowAnyException();
+            assertThatCode(() -> hnsw().validate()).doesNotThrowAnyException();
+        }
+
+        @Test
+        @DisplayName("不支持的索引类型")
+        void shouldRejectUnknownType() {
+            assertThatThrownBy(() -> ivf("DISKANN").validate())
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("不支持的索引类型");
+        }
+
+        @Test
+        @DisplayName("nprobe 不能大于 nlist")
+        void shouldRejectNprobeGreaterThanNlist() {
+            VectorIndexSettings settings = ivf("IVF_FLAT");
+            settings.setNprobe(2048);
+
+            assertThatThrownBy(settings::validate)
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("nprobe");
+        }
+
+        @Test
+        @DisplayName("HNSW 缺少 M 参数")
+        void shouldRejectMissingHnswParam() {
+            VectorIndexSettings settings = hnsw();
+            settings.setM(null);
+
+            assertThatThrownBy(settings::validate)
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("M");
+        }
+    }
+
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+    // 按数据量调参
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+
+    @Nested
+    @DisplayName("按数据量调参")
+    class RetuneTests {
+
+        @Test
+        @DisplayName("推荐 nlist 为 4 * sqrt(N)，并限制在上下限之间")
+        void shouldRecommendNlistBySqrtRows() {
+            assertThat(VectorIndexSettings.recommendedNlist(1_000_000)).isEqualTo(4000);
+            assertThat(VectorIndexSettings.recommendedNlist(10)).isEqualTo(VectorIndexSettings.MIN_NLIST);
+            assertThat(VectorIndexSettings.recommendedNlist(Long.MAX_VALUE)).isEqualTo(VectorIndexSettings.MAX_NLIST);
+        }
+
+        @Test
+        @DisplayName("调整 nlist 时 nprobe 保持绝对值（不超过 nlist），且不修改原对象")
+        void shouldKeepAbsoluteNprobeWithNlist() {
+            VectorIndexSettings settings = ivf("IVF_SQ8");
+
+            VectorIndexSettings retuned = settings.withNlist(4096);
+
+            assertThat(retuned.getNlist()).isEqualTo(4096);
+            assertThat(retuned.getNprobe()).isEqualTo(32);
+            assertThat(retuned.getIndexType()).isEqualTo("IVF_SQ8");
+            assertThat(settings.getNlist()).isEqualTo(1024);
+            assertThat(settings.withNlist(16).getNprobe()).isEqualTo(16);
+        }
+    }
+}
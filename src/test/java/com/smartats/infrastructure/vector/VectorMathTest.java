@@ -0,0 +1,81 @@
+package com.smartats.infrastructure.vector;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * VectorMath 单元测试
+ */
+@DisplayName("VectorMath 单元测试")
+class VectorMathTest {
+
+    @Test
+    @DisplayName("测试 JVM 已加载 Vector API 时启用 SIMD")
+    void shouldEnableSimdWhenModulePresent() {
+        boolean modulePresent = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+        assertThat(VectorMath.isSimdEnabled()).isEqualTo(modulePresent);
+    }
+
+    @Test
+    @DisplayName("点积与标量实现一致（含非 SIMD 宽度整数倍的尾部）")
+    void shouldMatchScalarDot() {
+        Random random = new Random(5);
+        for (int length : new int[]{1, 3, 8, 17, 1024, 1031}) {
+            float[] a = new float[length];
+            float[] b = new float[length];
+            for (int i = 0; i < length; i++) {
+                a[i] = (float) random.nextGaussian();
+                b[i] = (float) random.nextGaussian();
+            }
+
+            assertThat(VectorMath.dot(a, b)).isCloseTo(VectorMath.scalarDot(a, b), within(1e-3f));
+        }
+    }
+
+    @Test
+    @DisplayName("维度不一致时抛出 IllegalArgumentException")
+    void shouldRejectDimensionMismatch() {
+        assertThatThrownBy(() -> VectorMath.dot(new float[2], new float[3]))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("归一化后余弦等于点积，零向量保持不变")
+    void shouldNormalize() {
+        float[] a = VectorMath.normalize(new float[]{3f, 4f});
+        float[] zero = VectorMath.normalize(new float[]{0f, 0f});
+
+        assertThat(a).containsExactly(0.6f, 0.8f);
+        assertThat(zero).containsExactly(0f, 0f);
+        assertThat(VectorMath.cosine(new float[]{1f, 0f}, new float[]{2f, 0f})).isEqualTo(1f);
+    }
+
+    @Test
+    @DisplayName("截断取前 N 维并重新归一化，不修改原向量")
+    void shouldTruncateAndRenormalize() {
+        float[] vector = {3f, 4f, 12f};
+
+        float[] truncated = VectorMath.truncate(vector, 2);
+
+        assertThat(truncated).containsExactly(0.6f, 0.8f);
+        assertThat(vector).containsExactly(3f, 4f, 12f);
+        assertThatThrownBy(() -> VectorMath.truncate(vector, 4)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> VectorMath.truncate(vector, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("数组 List 视图按值相等且只读")
+    void shouldViewArrayAsList() {
+        List<Float> view = VectorMath.asList(new float[]{1f, 2f});
+
+        assertThat(view).isEqualTo(List.of(1f, 2f));
+        assertThat(VectorMath.toArray(view)).containsExactly(1f, 2f);
+        assertThatThrownBy(() -> view.set(0, 3f)).isInstanceOf(UnsupportedOperationException.class);
+    }
+}
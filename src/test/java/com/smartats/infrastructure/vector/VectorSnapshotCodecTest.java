@@ -0,0 +1,125 @@
+package com.smartats.infrastructure.vector;
+
+import com.smartats.infrastructure.vector.VectorSnapshotCodec.Encoding;
+import com.smartats.infrastructure.vector.VectorSnapshotCodec.Entry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * VectorSnapshotCodec 单元测试
+ */
+@DisplayName("VectorSnapshotCodec 单元测试")
+class VectorSnapshotCodecTest {
+
+    private static final int DIM = 64;
+
+    private static float[][] randomVectors(int count) {
+        Random random = new Random(3);
+        float[][] vectors = new float[count][DIM];
+        for (float[] vector : vectors) {
+            for (int i = 0; i < DIM; i++) {
+                vector[i] = (float) random.nextGaussian();
+            }
+            VectorMath.normalize(vector);
+        }
+        return vectors;
+    }
+
+    private static byte[] write(float[][] vectors, Encoding encoding, int blockRows) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (VectorSnapshotCodec.Writer writer = new VectorSnapshotCodec.Writer(out, DIM, encoding, blockRows)) {
+            for (int i = 0; i < vectors.length; i++) {
+                writer.write(i + 1, "候选人" + i, vectors[i]);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    private static List<Entry> readAll(byte[] bytes) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        try (VectorSnapshotCodec.Reader reader = new VectorSnapshotCodec.Reader(new ByteArrayInputStream(bytes))) {
+            List<Entry> block;
+            while ((block = reader.nextBlock()) != null) {
+                entries.addAll(block);
+            }
+        }
+        return entries;
+    }
+
+    @Test
+    @DisplayName("多块写入后读回：ID、姓名一致，向量余弦误差在量化精度内")
+    void shouldRoundTrip() throws IOException {
+        float[][] vectors = randomVectors(25);
+
+        for (Encoding encoding : Encoding.values()) {
+            List<Entry> entries = readAll(write(vectors, encoding, 10));
+
+            assertThat(entries).hasSize(25);
+            for (int i = 0; i < vectors.length; i++) {
+                Entry entry = entries.get(i);
+                assertThat(entry.candidateId()).isEqualTo(i + 1);
+                assertThat(entry.name()).isEqualTo("候选人" + i);
+                assertThat(VectorMath.cosine(vectors[i], entry.vector())).as(encoding.name())
+                        .isCloseTo(1f, within(2e-3f));
+            }
+        }
+        assertThat(readAll(write(vectors, Encoding.FLOAT32, 10)).get(7).vector()).containsExactly(vectors[7]);
+    }
+
+    @Test
+    @DisplayName("量化编码显著缩小文件")
+    void shouldShrinkWithQuantization() throws IOException {
+        float[][] vectors = randomVectors(50);
+
+        int float32 = write(vectors, Encoding.FLOAT32, 100).length;
+        int float16 = write(vectors, Encoding.FLOAT16, 100).length;
+        int int8 = write(vectors, Encoding.INT8, 100).length;
+
+        assertThat(float16).isLessThan(float32 * 6 / 10);
+        assertThat(int8).isLessThan(float32 * 4 / 10);
+    }
+
+    @Test
+    @DisplayName("块内容被篡改时 CRC 校验失败")
+    void shouldDetectCorruption() throws IOException {
+        byte[] bytes = write(randomVectors(5), Encoding.FLOAT32, 10);
+        bytes[60] ^= 0x01;
+
+        assertThatThrownBy(() -> readAll(bytes))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("CRC");
+    }
+
+    @Test
+    @DisplayName("文件被截断时拒绝读取")
+    void shouldDetectTruncation() throws IOException {
+        byte[] bytes = write(randomVectors(5), Encoding.FLOAT16, 2);
+
+        assertThatThrownBy(() -> readAll(Arrays.copyOf(bytes, bytes.length - 20)))
+                .isInstanceOf(IOException.class);
+    }
+
+    @Test
+    @DisplayName("非快照文件与维度不一致的向量被拒绝")
+    void shouldRejectInvalidInput() {
+        assertThatThrownBy(() -> new VectorSnapshotCodec.Reader(new ByteArrayInputStream(new byte[32])))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("不是向量快照文件");
+        assertThatThrownBy(() -> {
+            try (VectorSnapshotCodec.Writer writer = new VectorSnapshotCodec.Writer(
+                    new ByteArrayOutputStream(), DIM, Encoding.FLOAT32, 10)) {
+                writer.write(1L, "x", new float[DIM + 1]);
+            }
+        }).isInstanceOf(IllegalArgumentException.class);
+    }
+}
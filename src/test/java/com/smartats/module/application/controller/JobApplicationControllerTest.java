@@ -325,4 +325,42 @@ class JobApplicationControllerTest {
                     .andExpect(jsonPath("$.data.records").isArray());
         }
     }
+
+    @Nested
+    @DisplayName("POST /applications/job/{jobId}/match-score - 批量重算")
+    class RescoreTests {
+
+        @Test
+        @DisplayName("批量重算职位匹配分数 - 200")
+        void rescoreJob_success() throws Exception {
+            MatchRescoreResponse response = new MatchRescoreResponse();
+            response.setJobId(10L);
+            response.setTotalApplications(3);
+            response.setScored(2);
+            response.setSkipped(1);
+            given(matchScoreService.rescoreJob(10L)).willReturn(response);
+
+            mockMvc.perform(post("/applications/job/10/match-score")
+                            .with(authentication(mockAuth(1L)))
+                            .with(csrf()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.code").value(200))
+                    .andExpect(jsonPath("$.data.scored").value(2))
+                    .andExpect(jsonPath("$.data.skipped").value(1));
+        }
+
+        @Test
+        @DisplayName("职位不存在 - 业务异常")
+        void rescoreJob_notFound() throws Exception {
+            given(matchScoreService.rescoreJob(999L))
+                    .willThrow(new BusinessException(ResultCode.NOT_FOUND, "职位不存在"));
+
+            mockMvc.perform(post("/applications/job/999/match-score")
+                            .with(authentication(mockAuth(1L)))
+                            .with(csrf()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.code").value(ResultCode.NOT_FOUND.getCode()))
+                    .andExpect(jsonPath("$.message").value("职位不存在"));
+        }
+    }
 }
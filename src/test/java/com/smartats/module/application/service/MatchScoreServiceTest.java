@@ -0,0 +1,215 @@
+package com.smartats.module.application.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartats.common.exception.BusinessException;
+import com.smartats.infrastructure.vector.EmbeddingService;
+import com.smartats.infrastructure.vector.VectorStoreService;
+import com.smartats.module.application.dto.MatchRescoreResponse;
+import com.smartats.module.application.dto.MatchScoreResponse;
+import com.smartats.module.application.entity.JobApplication;
+import com.smartats.module.application.mapper.JobApplicationMapper;
+import com.smartats.module.candidate.entity.Candidate;
+import com.smartats.module.candidate.mapper.CandidateMapper;
+import com.smartats.module.job.entity.Job;
+import com.smartats.module.job.mapper.JobMapper;
+import com.smartats.module.job.service.JobEmbeddingService;
+import com.smartats.module.job.service.JobProfileCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.*;
+
+/**
+ * MatchScoreService 单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("MatchScoreService 单元测试")
+class MatchScoreServiceTest {
+
+    @InjectMocks
+    private MatchScoreService matchScoreService;
+
+    @Mock
+    private JobEmbeddingService jobEmbeddingService;
+    @Mock
+    private VectorStoreService vectorStoreService;
+    @Mock
+    private JobMapper jobMapper;
+    @Mock
+    private CandidateMapper candidateMapper;
+    @Mock
+    private JobApplicationMapper jobApplicationMapper;
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+    @Spy
+    private SkillNormalizer skillNormalizer =
+            new SkillNormalizer(new DefaultResourceLoader(), "classpath:skill-aliases.txt");
+    @Spy
+    private JobProfileCache jobProfileCache = new JobProfileCache(new ObjectMapper(), skillNormalizer, 100);
+
+    private Job job;
+    private Candidate candidate;
+
+    @BeforeEach
+    void setUp() {
+        job = new Job();
+        job.setId(100L);
+        job.setTitle("Java 后端工程师");
+
+        candidate = new Candidate();
+        candidate.setId(200L);
+    }
+
+    private void givenApplication() {
+        given(jobApplicationMapper.selectById(1L)).willReturn(application(1L, 200L));
+        given(jobMapper.selectById(100L)).willReturn(job);
+        given(candidateMapper.selectById(200L)).willReturn(candidate);
+    }
+
+    private static JobApplication application(Long id, Long candidateId) {
+        JobApplication application = new JobApplication();
+        application.setId(id);
+        application.setJobId(100L);
+        application.setCandidateId(candidateId);
+        return application;
+    }
+
+    private static List<Float> unitVector(int hotIndex) {
+        List<Float> vector = new ArrayList<>(Collections.nCopies(EmbeddingService.EMBEDDING_DIMENSION, 0f));
+        vector.set(hotIndex, 1f);
+        return vector;
+    }
+
+    @Test
+    @DisplayName("按主键取候选人向量，本地计算职位与候选人的余弦相似度")
+    void shouldComputeExactCosine() {
+        List<Float> candidateVector = unitVector(0);
+        candidateVector.set(1, 1f);
+        given(vectorStoreService.getVectors(List.of(200L))).willReturn(Map.of(200L, candidateVector));
+        given(jobEmbeddingService.getJobEmbedding(job)).willReturn(unitVector(0));
+        givenApplication();
+
+        MatchScoreResponse response = matchScoreService.calculateAndSave(1L);
+
+        // cos = 1 / sqrt(2) ≈ 0.7071
+        assertThat(response.getBreakdown().getSemanticScore()).isEqualByComparingTo(new BigDecimal("70.71"));
+        then(vectorStoreService).should(never()).search(anyList(), anyInt());
+        then(vectorStoreService).should(never()).search(anyList(), anyInt(), any());
+    }
+
+    @Test
+    @DisplayName("候选人尚未向量化时语义分为 50，且不生成职位向量")
+    void shouldUseDefaultWhenCandidateNotVectorized() {
+        given(vectorStoreService.getVectors(List.of(200L))).willReturn(Map.of());
+        givenApplication();
+
+        MatchScoreResponse response = matchScoreService.calculateAndSave(1L);
+
+        assertThat(response.getBreakdown().getSemanticScore()).isEqualByComparingTo(new BigDecimal("50.00"));
+        then(jobEmbeddingService).shouldHaveNoInteractions();
+    }
+
+    @Test
+    @DisplayName("负相似度按 0 分计")
+    void shouldClampNegativeCosine() {
+        List<Float> opposite = unitVector(0);
+        opposite.set(0, -1f);
+        given(vectorStoreService.getVectors(List.of(200L))).willReturn(Map.of(200L, opposite));
+        given(jobEmbeddingService.getJobEmbedding(job)).willReturn(unitVector(0));
+        givenApplication();
+
+        MatchScoreResponse response = matchScoreService.calculateAndSave(1L);
+
+        assertThat(response.getBreakdown().getSemanticScore()).isEqualByComparingTo(BigDecimal.ZERO);
+    }
+
+    // ━━━━━━━━━━━━━━ 批量重算 ━━━━━━━━━━━━━━
+
+    @Test
+    @DisplayName("批量重算 - 职位向量只生成一次，候选人与向量批量取回，结果一次写回")
+    void shouldRescoreJobInBatch() {
+        Candidate unvectorized = new Candidate();
+        unvectorized.setId(201L);
+        given(jobMapper.selectById(100L)).willReturn(job);
+        given(jobApplicationMapper.selectList(any()))
+                .willReturn(List.of(application(1L, 200L), application(2L, 201L), application(3L, 202L)));
+        given(candidateMapper.selectBatchIds(List.of(200L, 201L, 202L))).willReturn(List.of(candidate, unvectorized));
+        given(vectorStoreService.getVectors(List.of(200L, 201L, 202L))).willReturn(Map.of(200L, unitVector(0)));
+        given(jobEmbeddingService.getJobEmbedding(job)).willReturn(unitVector(0));
+
+        MatchRescoreResponse result = matchScoreService.rescoreJob(100L);
+
+        assertThat(result.getTotalApplications()).isEqualTo(3);
+        assertThat(result.getScored()).isEqualTo(2);
+        assertThat(result.getSkipped()).isEqualTo(1); // 候选人 202 已删除
+
+        ArgumentCaptor<List<JobApplication>> captor = ArgumentCaptor.forClass(List.class);
+        then(jobApplicationMapper).should().batchUpdateMatchScores(captor.capture());
+        Map<Long, BigDecimal> scores = captor.getValue().stream()
+                .collect(Collectors.toMap(JobApplication::getId, JobApplication::getMatchScore));
+        // 职位未设置技能/经验/学历要求，结构化维度满分；201 未向量化，语义分 50
+        assertThat(scores.get(1L)).isEqualByComparingTo(new BigDecimal("100.00"));
+        assertThat(scores.get(2L)).isEqualByComparingTo(new BigDecimal("85.00"));
+        assertThat(captor.getValue()).allSatisfy(a -> {
+            assertThat(a.getMatchReasons()).isNotBlank();
+            assertThat(a.getMatchCalculatedAt()).isNotNull();
+        });
+
+        then(jobEmbeddingService).should(times(1)).getJobEmbedding(job);
+        then(candidateMapper).should(never()).selectById(any());
+        then(jobApplicationMapper).should(never()).updateById(any(JobApplication.class));
+    }
+
+    @Test
+    @DisplayName("批量重算 - 职位下没有申请时不生成职位向量也不写库")
+    void shouldSkipEmptyJob() {
+        given(jobMapper.selectById(100L)).willReturn(job);
+        given(jobApplicationMapper.selectList(any())).willReturn(List.of());
+
+        MatchRescoreResponse result = matchScoreService.rescoreJob(100L);
+
+        assertThat(result.getTotalApplications()).isZero();
+        then(jobEmbeddingService).shouldHaveNoInteractions();
+        then(jobApplicationMapper).should(never()).batchUpdateMatchScores(any());
+    }
+
+    @Test
+    @DisplayName("内存打分 - 使用传入的职位向量与候选人向量，不访问存储")
+    void shouldScoreCandidatesInMemory() {
+        Candidate unvectorized = new Candidate();
+        unvectorized.setId(201L);
+
+        Map<Long, BigDecimal> scores = matchScoreService.scoreCandidates(job, unitVector(0),
+                List.of(candidate, unvectorized), Map.of(200L, unitVector(0)));
+
+        assertThat(scores.get(200L)).isEqualByComparingTo(new BigDecimal("100.00"));
+        assertThat(scores.get(201L)).isEqualByComparingTo(new BigDecimal("85.00"));
+        then(vectorStoreService).shouldHaveNoInteractions();
+        then(jobEmbeddingService).shouldHaveNoInteractions();
+    }
+
+    @Test
+    @DisplayName("批量重算 - 职位不存在")
+    void shouldRejectMissingJob() {
+        assertThatThrownBy(() -> matchScoreService.rescoreJob(999L))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("职位不存在");
+    }
+}
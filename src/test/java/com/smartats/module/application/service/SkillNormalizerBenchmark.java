@@ -0,0 +1,57 @@
+package com.smartats.module.application.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SkillNormalizer 单个技能规范化吞吐微基准（默认词典，别名命中与未收录混合）
+ * <p>
+ * 运行方式（不参与 mvn test）：
+ * <pre>
+ *   mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *        com.smartats.module.application.service.SkillNormalizerBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SkillNormalizerBenchmark {
+
+    private static final String[] SKILLS = {"Java", "Spring Boot", "springboot", "MySQL", "redis", "K8s",
+            "Kubernetes", "Golang", "Python3", "React.js", "Vue", "TypeScript", "ES", "Apache Kafka",
+            "微服务", "Machine Learning", "Terraform", "项目管理", "Excel", "沟通能力"};
+
+    private final SkillNormalizer normalizer =
+            new SkillNormalizer(new DefaultResourceLoader(), "classpath:skill-aliases.txt");
+    private int next;
+
+    @Benchmark
+    public String normalize() {
+        String skill = SKILLS[next];
+        next = next + 1 == SKILLS.length ? 0 : next + 1;
+        return normalizer.normalize(skill);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SkillNormalizerBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
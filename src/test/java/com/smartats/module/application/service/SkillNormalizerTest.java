@@ -0,0 +1,93 @@
+package com.smartats.module.application.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * SkillNormalizer 单元测试
+ */
+@DisplayName("SkillNormalizer 单元测试")
+class SkillNormalizerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final SkillNormalizer normalizer =
+            new SkillNormalizer(new DefaultResourceLoader(), "classpath:skill-aliases.txt");
+
+    @Test
+    @DisplayName("别名与大小写、空白、连字符、全角变体映射为同一规范 ID")
+    void shouldMapAliasesToCanonicalId() {
+        assertThat(normalizer.normalize(Arrays.asList("SpringBoot", "Spring Boot", "spring-boot", " SPRING_BOOT ")))
+                .containsExactly("spring boot");
+        assertThat(normalizer.normalize(Arrays.asList("K8s", "kubernetes", "ｋ８ｓ"))).containsExactly("kubernetes");
+        assertThat(normalizer.normalize("NodeJS")).isEqualTo("node.js");
+        assertThat(normalizer.normalize("Golang")).isEqualTo("go");
+        assertThat(normalizer.normalize("机器学习")).isEqualTo(normalizer.normalize("Machine Learning"));
+    }
+
+    @Test
+    @DisplayName("未收录的技能去空白、转小写；空白项忽略")
+    void shouldFallBackForUnknownSkills() {
+        assertThat(normalizer.normalize(" Terraform ")).isEqualTo("terraform");
+        assertThat(normalizer.normalize("Spring")).isEqualTo("spring");
+        assertThat(normalizer.normalize(" - ")).isEqualTo("-");
+        assertThat(normalizer.normalize(Arrays.asList(null, "  ", "Java"))).containsExactly("java");
+    }
+
+    @Test
+    @DisplayName("展开为词典中同一规范 ID 的全部写法（小写），未收录的技能只有自身")
+    void shouldExpandVariantsFromDictionary() {
+        assertThat(normalizer.variants("K8S")).contains("kubernetes", "k8s");
+        assertThat(normalizer.variants("Golang")).contains("go", "golang");
+        assertThat(normalizer.variants(" Terraform ")).containsExactly("terraform");
+        assertThat(normalizer.variants("  ")).isEmpty();
+        assertThat(normalizer.variants(null)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("词典文件变更后重新加载并递增版本；加载失败保留旧词典")
+    void shouldReloadModifiedDictionary() throws IOException {
+        Path file = tempDir.resolve("aliases.txt");
+        Files.writeString(file, "# 测试词典\nKubernetes: k8s\n", StandardCharsets.UTF_8);
+        SkillNormalizer fileNormalizer = new SkillNormalizer(new DefaultResourceLoader(), file.toUri().toString());
+        long version = fileNormalizer.version();
+        assertThat(fileNormalizer.normalize("k8s")).isEqualTo("kubernetes");
+
+        fileNormalizer.reloadIfModified();
+        assertThat(fileNormalizer.version()).isEqualTo(version);
+
+        Files.writeString(file, "Kubernetes: k8s\nGo: golang\n", StandardCharsets.UTF_8);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 1000));
+        fileNormalizer.reloadIfModified();
+        assertThat(fileNormalizer.version()).isEqualTo(version + 1);
+        assertThat(fileNormalizer.normalize("golang")).isEqualTo("go");
+
+        Files.delete(file);
+        assertThat(fileNormalizer.reload()).isFalse();
+        assertThat(fileNormalizer.normalize("golang")).isEqualTo("go");
+    }
+
+    @Test
+    @DisplayName("别名冲突保留先出现的映射")
+    void shouldKeepFirstMappingOnConflict() throws IOException {
+        Path file = tempDir.resolve("conflict.txt");
+        Files.writeString(file, "Elasticsearch: es\nECMAScript: es, es6\n", StandardCharsets.UTF_8);
+
+        SkillNormalizer fileNormalizer = new SkillNormalizer(new DefaultResourceLoader(), file.toUri().toString());
+
+        assertThat(fileNormalizer.normalize("ES")).isEqualTo("elasticsearch");
+        assertThat(fileNormalizer.normalize("ES6")).isEqualTo("ecmascript");
+    }
+}
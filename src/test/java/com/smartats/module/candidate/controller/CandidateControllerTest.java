@@ -6,9 +6,12 @@ import com.smartats.common.exception.BusinessException;
 import com.smartats.common.result.ResultCode;
 import com.smartats.config.SecurityConfig;
 import com.smartats.module.auth.filter.JwtAuthenticationFilter;
+import com.smartats.module.candidate.dto.CandidateFacetResponse;
+import com.smartats.module.candidate.dto.CandidateQueryRequest;
 import com.smartats.module.candidate.dto.CandidateUpdateRequest;
 import com.smartats.module.candidate.entity.Candidate;
 import com.smartats.module.candidate.service.CandidateService;
+import com.smartats.module.candidate.service.CandidateVectorService.VectorizeStats;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -16,6 +19,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
@@ -28,6 +32,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import java.util.Collections;
 import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
@@ -124,6 +129,29 @@ class CandidateControllerTest {
         }
     }
 
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+    // 向量化统计
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+
+    @Nested
+    @DisplayName("GET /candidates/vectorize-stats")
+    class VectorizeStatsTests {
+
+        @Test
+        @DisplayName("返回执行 / 跳过 / 失败次数")
+        void shouldReturnStats() throws Exception {
+            given(candidateService.getVectorizeStats()).willReturn(new VectorizeStats(3, 1, 0));
+
+            mockMvc.perform(get("/candidates/vectorize-stats")
+                            .with(authentication(mockAuth(1L))))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.code").value(200))
+                    .andExpect(jsonPath("$.data.performed").value(3))
+                    .andExpect(jsonPath("$.data.skipped").value(1))
+                    .andExpect(jsonPath("$.data.failed").value(0));
+        }
+    }
+
     // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
     // 查询候选人详情
     // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
@@ -244,5 +272,29 @@ class CandidateControllerTest {
             mockMvc.perform(get("/candidates"))
                     .andExpect(status().isForbidden());
         }
+
+        @Test
+        @DisplayName("分面统计 - 多技能参数透传")
+        void shouldReturnFacets() throws Exception {
+            CandidateFacetResponse facets = new CandidateFacetResponse();
+            facets.setTotal(2);
+            facets.setSkills(List.of(new CandidateFacetResponse.FacetCount("java", 2)));
+            given(candidateService.facetCandidates(any(), eq(5))).willReturn(facets);
+
+            mockMvc.perform(get("/candidates/facets")
+                            .param("skills", "Java", "Kafka")
+                            .param("skillMatch", "ANY")
+                            .param("facetSize", "5")
+                            .with(authentication(mockAuth(1L))))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.code").value(200))
+                    .andExpect(jsonPath("$.data.total").value(2))
+                    .andExpect(jsonPath("$.data.skills[0].value").value("java"));
+
+            ArgumentCaptor<CandidateQueryRequest> request = ArgumentCaptor.forClass(CandidateQueryRequest.class);
+            then(candidateService).should().facetCandidates(request.capture(), eq(5));
+            assertThat(request.getValue().getSkills()).containsExactly("Java", "Kafka");
+            assertThat(request.getValue().getSkillMatch()).isEqualTo("ANY");
+        }
     }
 }
@@ -5,6 +5,8 @@ import com.smartats.common.exception.BusinessException;
 import com.smartats.common.result.ResultCode;
 import com.smartats.config.SecurityConfig;
 import com.smartats.module.auth.filter.JwtAuthenticationFilter;
+import com.smartats.module.candidate.dto.BatchSmartSearchRequest;
+import com.smartats.module.candidate.dto.BatchSmartSearchResponse;
 import com.smartats.module.candidate.dto.SmartSearchRequest;
 import com.smartats.module.candidate.dto.SmartSearchResponse;
 import com.smartats.module.candidate.dto.SmartSearchResponse.MatchedCandidate;
@@ -31,6 +33,7 @@ import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -185,4 +188,145 @@ class SmartSearchControllerTest {
                     .andExpect(jsonPath("$.data.candidates").isEmpty());
         }
     }
+
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+    // 批量搜索
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+
+    @Nested
+    @DisplayName("POST /candidates/smart-search/batch")
+    class BatchSearchTests {
+
+        @Test
+        @DisplayName("成功返回按查询顺序的结果")
+        void shouldReturnBatchResults() throws Exception {
+            SmartSearchResponse first = new SmartSearchResponse();
+            first.setQuery("Java");
+            first.setCandidates(List.of());
+            BatchSmartSearchResponse response = new BatchSmartSearchResponse();
+            response.setTotalQueries(1);
+            response.setUniqueCandidates(0);
+            response.setResults(List.of(first));
+            given(smartSearchService.batchSearch(any(BatchSmartSearchRequest.class))).willReturn(response);
+
+            BatchSmartSearchRequest request = new BatchSmartSearchRequest();
+            request.setQueries(List.of("Java"));
+
+            mockMvc.perform(post("/candidates/smart-search/batch")
+                            .with(authentication(hrAuth()))
+                            .with(csrf())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.data.totalQueries").value(1))
+                    .andExpect(jsonPath("$.data.results[0].query").value("Java"));
+        }
+
+        @Test
+        @DisplayName("查询列表为空或含空查询返回400")
+        void shouldReturn400WhenQueriesInvalid() throws Exception {
+            BatchSmartSearchRequest request = new BatchSmartSearchRequest();
+            request.setQueries(List.of("Java", " "));
+
+            mockMvc.perform(post("/candidates/smart-search/batch")
+                            .with(authentication(hrAuth()))
+                            .with(csrf())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isBadRequest());
+
+            request.setQueries(List.of());
+            mockMvc.perform(post("/candidates/smart-search/batch")
+                            .with(authentication(hrAuth()))
+                            .with(csrf())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+    // 分页
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+
+    @Nested
+    @DisplayName("GET /candidates/smart-search/{searchId}")
+    class NextPageTests {
+
+        @Test
+        @DisplayName("按游标返回下一页")
+        void shouldReturnNextPage() throws Exception {
+            SmartSearchResponse page = new SmartSearchResponse();
+            page.setSearchId("sid");
+            page.setTotalMatches(0);
+            page.setTotalResults(12);
+            page.setNextCursor("10");
+            page.setCandidates(List.of());
+            given(smartSearchService.nextPage("sid", "5", 5)).willReturn(page);
+
+            mockMvc.perform(get("/candidates/smart-search/sid")
+                            .param("cursor", "5")
+                            .param("size", "5")
+                            .with(authentication(hrAuth())))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.data.searchId").value("sid"))
+                    .andExpect(jsonPath("$.data.totalResults").value(12))
+                    .andExpect(jsonPath("$.data.nextCursor").value("10"));
+        }
+
+        @Test
+        @DisplayName("会话过期返回错误码")
+        void shouldReturnErrorWhenSessionExpired() throws Exception {
+            given(smartSearchService.nextPage(eq("sid"), eq("5"), isNull()))
+                    .willThrow(new BusinessException(ResultCode.SEARCH_SESSION_EXPIRED));
+
+            mockMvc.perform(get("/candidates/smart-search/sid")
+                            .param("cursor", "5")
+                            .with(authentication(hrAuth())))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.code").value(ResultCode.SEARCH_SESSION_EXPIRED.getCode()));
+        }
+    }
+
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+    // 相似候选人
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+
+    @Nested
+    @DisplayName("GET /candidates/{id}/similar")
+    class SimilarTests {
+
+        @Test
+        @DisplayName("返回相似候选人")
+        void shouldReturnSimilarCandidates() throws Exception {
+            MatchedCandidate mc = new MatchedCandidate();
+            mc.setCandidateId(2L);
+            mc.setName("李四");
+            mc.setMatchScore(0.8);
+            SmartSearchResponse response = new SmartSearchResponse();
+            response.setMode("SIMILAR");
+            response.setTotalMatches(1);
+            response.setCandidates(List.of(mc));
+            given(smartSearchService.similar(1L, 5, null)).willReturn(response);
+
+            mockMvc.perform(get("/candidates/1/similar")
+                            .param("topK", "5")
+                            .with(authentication(hrAuth())))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.data.mode").value("SIMILAR"))
+                    .andExpect(jsonPath("$.data.candidates[0].candidateId").value(2));
+        }
+
+        @Test
+        @DisplayName("候选人尚未向量化返回错误码")
+        void shouldReturnErrorWhenVectorNotReady() throws Exception {
+            given(smartSearchService.similar(eq(1L), isNull(), isNull()))
+                    .willThrow(new BusinessException(ResultCode.VECTOR_NOT_READY));
+
+            mockMvc.perform(get("/candidates/1/similar")
+                            .with(authentication(hrAuth())))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.code").value(ResultCode.VECTOR_NOT_READY.getCode()));
+        }
+    }
 }
@@ -0,0 +1,119 @@
+package com.smartats.module.candidate.controller;
+
+import com.smartats.common.exception.BusinessException;
+import com.smartats.common.result.ResultCode;
+import com.smartats.config.SecurityConfig;
+import com.smartats.module.auth.filter.JwtAuthenticationFilter;
+import com.smartats.module.candidate.dto.VectorReconcileReportResponse;
+import com.smartats.module.candidate.service.CandidateReconcileService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * VectorReconcileController 集成测试
+ */
+@WebMvcTest(VectorReconcileController.class)
+@Import(SecurityConfig.class)
+@DisplayName("VectorReconcileController 集成测试")
+class VectorReconcileControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private CandidateReconcileService candidateReconcileService;
+
+    @MockBean
+    private JwtAuthenticationFilter jwtAuthenticationFilter;
+
+    @BeforeEach
+    void configureMockFilter() throws Exception {
+        lenient().doAnswer(invocation -> {
+            HttpServletRequest req = invocation.getArgument(0);
+            HttpServletResponse res = invocation.getArgument(1);
+            FilterChain chain = invocation.getArgument(2);
+            chain.doFilter(req, res);
+            return null;
+        }).when(jwtAuthenticationFilter)
+                .doFilter(any(HttpServletRequest.class), any(HttpServletResponse.class), any(FilterChain.class));
+    }
+
+    private UsernamePasswordAuthenticationToken adminAuth() {
+        return new UsernamePasswordAuthenticationToken(
+                1L, null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+    }
+
+    @Test
+    @DisplayName("GET 报告 - 返回偏差统计")
+    void shouldReturnReport() throws Exception {
+        VectorReconcileReportResponse report = new VectorReconcileReportResponse();
+        report.setMode("FULL");
+        report.setState("SUCCEEDED");
+        report.setMissing(3);
+        report.setOrphaned(2);
+        given(candidateReconcileService.getReport(true)).willReturn(report);
+
+        mockMvc.perform(get("/candidates/vector-reconcile")
+                        .param("full", "true")
+                        .with(authentication(adminAuth())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value(200))
+                .andExpect(jsonPath("$.data.mode").value("FULL"))
+                .andExpect(jsonPath("$.data.missing").value(3))
+                .andExpect(jsonPath("$.data.orphaned").value(2));
+    }
+
+    @Test
+    @DisplayName("POST 发起 - 默认增量对账")
+    void shouldStartIncrementalByDefault() throws Exception {
+        mockMvc.perform(post("/candidates/vector-reconcile")
+                        .with(csrf())
+                        .with(authentication(adminAuth())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value(200));
+
+        then(candidateReconcileService).should().start(false);
+    }
+
+    @Test
+    @DisplayName("POST 发起 - 已在执行时返回业务错误")
+    void shouldRejectWhenRunning() throws Exception {
+        willThrow(new BusinessException(ResultCode.VECTOR_RECONCILE_RUNNING))
+                .given(candidateReconcileService).start(true);
+
+        mockMvc.perform(post("/candidates/vector-reconcile")
+                        .param("full", "true")
+                        .with(csrf())
+                        .with(authentication(adminAuth())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value(ResultCode.VECTOR_RECONCILE_RUNNING.getCode()));
+    }
+
+    @Test
+    @DisplayName("未认证 - 403")
+    void shouldRequireAuthentication() throws Exception {
+        mockMvc.perform(post("/candidates/vector-reconcile").with(csrf()))
+                .andExpect(status().isForbidden());
+    }
+}
@@ -0,0 +1,116 @@
+package com.smartats.module.candidate.controller;
+
+import com.smartats.common.exception.BusinessException;
+import com.smartats.common.result.ResultCode;
+import com.smartats.config.SecurityConfig;
+import com.smartats.module.auth.filter.JwtAuthenticationFilter;
+import com.smartats.module.candidate.dto.VectorReindexStatusResponse;
+import com.smartats.module.candidate.service.CandidateReindexService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * VectorReindexController 集成测试
+ */
+@WebMvcTest(VectorReindexController.class)
+@Import(SecurityConfig.class)
+@DisplayName("VectorReindexController 集成测试")
+class VectorReindexControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private CandidateReindexService candidateReindexService;
+
+    @MockBean
+    private JwtAuthenticationFilter jwtAuthenticationFilter;
+
+    @BeforeEach
+    void configureMockFilter() throws Exception {
+        lenient().doAnswer(invocation -> {
+            HttpServletRequest req = invocation.getArgument(0);
+            HttpServletResponse res = invocation.getArgument(1);
+            FilterChain chain = invocation.getArgument(2);
+            chain.doFilter(req, res);
+            return null;
+        }).when(jwtAuthenticationFilter)
+                .doFilter(any(HttpServletRequest.class), any(HttpServletResponse.class), any(FilterChain.class));
+    }
+
+    private UsernamePasswordAuthenticationToken adminAuth() {
+        return new UsernamePasswordAuthenticationToken(
+                1L, null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+    }
+
+    @Test
+    @DisplayName("GET 进度 - 返回状态与预计剩余时间")
+    void shouldReturnStatus() throws Exception {
+        VectorReindexStatusResponse status = new VectorReindexStatusResponse();
+        status.setState("RUNNING");
+        status.setProcessed(500);
+        status.setTotal(1000);
+        status.setEtaSeconds(60L);
+        given(candidateReindexService.getStatus()).willReturn(status);
+
+        mockMvc.perform(get("/candidates/vector-reindex").with(authentication(adminAuth())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value(200))
+                .andExpect(jsonPath("$.data.state").value("RUNNING"))
+                .andExpect(jsonPath("$.data.etaSeconds").value(60));
+    }
+
+    @Test
+    @DisplayName("POST 发起 - 默认断点续跑")
+    void shouldStartWithResumeByDefault() throws Exception {
+        mockMvc.perform(post("/candidates/vector-reindex")
+                        .with(csrf())
+                        .with(authentication(adminAuth())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value(200));
+
+        then(candidateReindexService).should().start(true);
+    }
+
+    @Test
+    @DisplayName("POST 发起 - 已在执行时返回业务错误")
+    void shouldRejectWhenRunning() throws Exception {
+        willThrow(new BusinessException(ResultCode.VECTOR_REINDEX_RUNNING))
+                .given(candidateReindexService).start(false);
+
+        mockMvc.perform(post("/candidates/vector-reindex")
+                        .param("resume", "false")
+                        .with(csrf())
+                        .with(authentication(adminAuth())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value(ResultCode.VECTOR_REINDEX_RUNNING.getCode()));
+    }
+
+    @Test
+    @DisplayName("未认证 - 403")
+    void shouldRequireAuthentication() throws Exception {
+        mockMvc.perform(post("/candidates/vector-reindex/stop").with(csrf()))
+                .andExpect(status().isForbidden());
+    }
+}
@@ -0,0 +1,116 @@
+package com.smartats.module.candidate.controller;
+
+import com.smartats.common.exception.BusinessException;
+import com.smartats.common.result.ResultCode;
+import com.smartats.config.SecurityConfig;
+import com.smartats.module.auth.filter.JwtAuthenticationFilter;
+import com.smartats.module.candidate.dto.VectorSnapshotStatusResponse;
+import com.smartats.module.candidate.service.VectorSnapshotService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * VectorSnapshotController 集成测试
+ */
+@WebMvcTest(VectorSnapshotController.class)
+@Import(SecurityConfig.class)
+@DisplayName("VectorSnapshotController 集成测试")
+class VectorSnapshotControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private VectorSnapshotService vectorSnapshotService;
+
+    @MockBean
+    private JwtAuthenticationFilter jwtAuthenticationFilter;
+
+    @BeforeEach
+    void configureMockFilter() throws Exception {
+        lenient().doAnswer(invocation -> {
+            HttpServletRequest req = invocation.getArgument(0);
+            HttpServletResponse res = invocation.getArgument(1);
+            FilterChain chain = invocation.getArgument(2);
+            chain.doFilter(req, res);
+            return null;
+        }).when(jwtAuthenticationFilter)
+                .doFilter(any(HttpServletRequest.class), any(HttpServletResponse.class), any(FilterChain.class));
+    }
+
+    private UsernamePasswordAuthenticationToken adminAuth() {
+        return new UsernamePasswordAuthenticationToken(
+                1L, null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+    }
+
+    @Test
+    @DisplayName("GET 状态 - 返回最近一次任务")
+    void shouldReturnStatus() throws Exception {
+        VectorSnapshotStatusResponse status = new VectorSnapshotStatusResponse();
+        status.setOperation("EXPORT");
+        status.setState("RUNNING");
+        status.setRows(1000);
+        given(vectorSnapshotService.getStatus()).willReturn(status);
+
+        mockMvc.perform(get("/candidates/vector-snapshot").with(authentication(adminAuth())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.operation").value("EXPORT"))
+                .andExpect(jsonPath("$.data.rows").value(1000));
+    }
+
+    @Test
+    @DisplayName("POST 导出 - 默认本地 float32，返回快照名称")
+    void shouldExportWithDefaults() throws Exception {
+        given(vectorSnapshotService.startExport("LOCAL", "FLOAT32")).willReturn("candidates-1-float32.vsnap");
+
+        mockMvc.perform(post("/candidates/vector-snapshot/export")
+                        .with(csrf())
+                        .with(authentication(adminAuth())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value(200))
+                .andExpect(jsonPath("$.data").value("candidates-1-float32.vsnap"));
+    }
+
+    @Test
+    @DisplayName("POST 导入 - 快照不存在时返回业务错误")
+    void shouldRejectMissingSnapshot() throws Exception {
+        willThrow(new BusinessException(ResultCode.VECTOR_SNAPSHOT_NOT_FOUND))
+                .given(vectorSnapshotService).startImport("MINIO", "missing.vsnap");
+
+        mockMvc.perform(post("/candidates/vector-snapshot/import")
+                        .param("storage", "MINIO")
+                        .param("name", "missing.vsnap")
+                        .with(csrf())
+                        .with(authentication(adminAuth())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value(ResultCode.VECTOR_SNAPSHOT_NOT_FOUND.getCode()));
+    }
+
+    @Test
+    @DisplayName("未认证 - 403")
+    void shouldRequireAuthentication() throws Exception {
+        mockMvc.perform(post("/candidates/vector-snapshot/export").with(csrf()))
+                .andExpect(status().isForbidden());
+    }
+}
@@ -0,0 +1,122 @@
+package com.smartats.module.candidate.service;
+
+import com.smartats.module.application.service.SkillNormalizer;
+import com.smartats.module.candidate.dto.CandidateFacetResponse;
+import com.smartats.module.candidate.entity.Candidate;
+import com.smartats.module.candidate.mapper.CandidateMapper;
+import com.smartats.module.candidate.service.CandidateFacetIndex.Filter;
+import com.smartats.module.candidate.service.CandidateFacetIndex.Hits;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.any;
+
+/**
+ * CandidateFacetIndex 筛选 / 分面耗时微基准（随机生成的候选人，每人 8 个技能，技能长尾分布）
+ * <p>
+ * 运行方式（不参与 mvn test，百万候选人需 -Xmx2g 左右）：
+ * <pre>
+ *   mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *        com.smartats.module.candidate.service.CandidateFacetIndexBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class CandidateFacetIndexBenchmark {
+
+    private static final String[] COMMON_SKILLS = {"Java", "Spring Boot", "MySQL", "Redis", "Kafka", "Docker",
+            "Kubernetes", "Go", "Python", "React", "Vue", "TypeScript", "Elasticsearch", "Flink", "Spark"};
+    private static final String[] EDUCATIONS = {"大专", "本科", "硕士", "博士", null};
+    private static final int LONG_TAIL_SKILLS = 5000;
+    private static final int LOAD_PAGE_SIZE = 10_000;
+
+    @Param({"1000000"})
+    private int candidates;
+
+    private CandidateFacetIndex index;
+    private final Filter allSkills = new Filter(null, List.of("java", "redis", "kafka"), true, 3, 8);
+    private final Filter anySkills = new Filter("本科", List.of("go", "rust", "flink"), false, null, null);
+    private final Filter noFilter = new Filter(null, null, true, null, null);
+
+    @Setup
+    public void setUp() {
+        CandidateMapper mapper = Mockito.mock(CandidateMapper.class);
+        Random random = new Random(42);
+        Mockito.when(mapper.selectFacetRows(anyLong(), anyInt())).thenAnswer(invocation -> {
+            long afterId = invocation.getArgument(0);
+            List<Candidate> page = new ArrayList<>(LOAD_PAGE_SIZE);
+            for (long id = afterId + 1; id <= Math.min(afterId + LOAD_PAGE_SIZE, candidates); id++) {
+                Candidate candidate = new Candidate();
+                candidate.setId(id);
+                candidate.setEducation(EDUCATIONS[random.nextInt(EDUCATIONS.length)]);
+                candidate.setWorkYears(random.nextInt(10) == 0 ? null : random.nextInt(20));
+                List<String> skills = new ArrayList<>(8);
+                for (int s = 0; s < 8; s++) {
+                    skills.add(random.nextBoolean()
+                            ? COMMON_SKILLS[random.nextInt(COMMON_SKILLS.length)]
+                            : "skill-" + random.nextInt(LONG_TAIL_SKILLS));
+                }
+                candidate.setSkills(skills);
+                page.add(candidate);
+            }
+            return page;
+        });
+        Mockito.when(mapper.selectFacetRowsUpdatedSince(any(), anyLong(), anyInt())).thenReturn(List.of());
+
+        index = new CandidateFacetIndex(mapper,
+                new SkillNormalizer(new DefaultResourceLoader(), "classpath:skill-aliases.txt"), true, LOAD_PAGE_SIZE);
+        index.rebuild();
+    }
+
+    @Benchmark
+    public Hits searchAllSkills() {
+        return index.search(allSkills, 0, 20);
+    }
+
+    @Benchmark
+    public Hits searchAnySkills() {
+        return index.search(anySkills, 0, 20);
+    }
+
+    @Benchmark
+    public CandidateFacetResponse facetsAllSkills() {
+        return index.facets(allSkills, 20);
+    }
+
+    @Benchmark
+    public CandidateFacetResponse facetsNoFilter() {
+        return index.facets(noFilter, 20);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CandidateFacetIndexBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
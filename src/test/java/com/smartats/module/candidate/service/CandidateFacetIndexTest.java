@@ -0,0 +1,222 @@
+package com.smartats.module.candidate.service;
+
+import com.smartats.module.application.service.SkillNormalizer;
+import com.smartats.module.candidate.dto.CandidateFacetResponse;
+import com.smartats.module.candidate.dto.CandidateFacetResponse.FacetCount;
+import com.smartats.module.candidate.entity.Candidate;
+import com.smartats.module.candidate.mapper.CandidateMapper;
+import com.smartats.module.candidate.service.CandidateFacetIndex.Filter;
+import com.smartats.module.candidate.service.CandidateFacetIndex.Hits;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.*;
+
+/**
+ * CandidateFacetIndex 单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CandidateFacetIndex 单元测试")
+class CandidateFacetIndexTest {
+
+    @Mock
+    private CandidateMapper candidateMapper;
+
+    private CandidateFacetIndex index;
+
+    @BeforeEach
+    void setUp() {
+        SkillNormalizer skillNormalizer =
+                new SkillNormalizer(new DefaultResourceLoader(), "classpath:skill-aliases.txt");
+        index = new CandidateFacetIndex(candidateMapper, skillNormalizer, true, 2);
+    }
+
+    private static Candidate candidate(long id, String education, Integer workYears, String... skills) {
+        Candidate candidate = new Candidate();
+        candidate.setId(id);
+        candidate.setEducation(education);
+        candidate.setWorkYears(workYears);
+        candidate.setSkills(List.of(skills));
+        candidate.setUpdatedAt(LocalDateTime.now());
+        return candidate;
+    }
+
+    /**
+     * 按 id 键集分页（每页 2 条）加载：
+     * 1 本科 3 年 Java/Redis，2 硕士 6 年 Java/K8s，3 本科 1 年 Vue，4 未填 / 35 年 Java
+     */
+    private void load() {
+        given(candidateMapper.selectFacetRows(0L, 2)).willReturn(List.of(
+                candidate(1, "本科", 3, "Java", "Redis"),
+                candidate(2, "硕士", 6, "java", "K8s")));
+        given(candidateMapper.selectFacetRows(2L, 2)).willReturn(List.of(
+                candidate(3, "本科", 1, "Vue"),
+                candidate(4, null, 35, "Java")));
+        given(candidateMapper.selectFacetRows(4L, 2)).willReturn(List.of());
+        given(candidateMapper.selectFacetRowsUpdatedSince(any(), eq(0L), eq(2))).willReturn(List.of());
+
+        assertThat(index.rebuild()).isEqualTo(4);
+    }
+
+    private static Filter skills(boolean matchAll, String... skills) {
+        return new Filter(null, List.of(skills), matchAll, null, null);
+    }
+
+    private static Filter workYears(Integer min, Integer max) {
+        return new Filter(null, null, true, min, max);
+    }
+
+    private static long count(List<FacetCount> facets, String value) {
+        return facets.stream().filter(f -> f.getValue().equals(value)).mapToLong(FacetCount::getCount)
+                .findFirst().orElse(0);
+    }
+
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+    // 筛选
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+
+    @Nested
+    @DisplayName("筛选与分页")
+    class SearchTests {
+
+        @Test
+        @DisplayName("多技能 ALL / ANY，技能按别名词典规范化")
+        void shouldFilterBySkills() {
+            load();
+
+            assertThat(index.search(skills(true, "JAVA", "Kubernetes"), 0, 10).ids()).containsExactly(2L);
+            assertThat(index.search(skills(false, "redis", "vue.js"), 0, 10).ids()).containsExactly(3L, 1L);
+            assertThat(index.search(skills(true, "Java", "Go"), 0, 10).total()).isZero();
+            assertThat(index.search(skills(false, "Java", "Go"), 0, 10).total()).isEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("学历与工作年限组合筛选，超过 30 年的按列值复核，年限未知不满足年限条件")
+        void shouldFilterByEducationAndWorkYears() {
+            load();
+
+            assertThat(index.search(new Filter("本科", List.of("java"), true, 2, null), 0, 10).ids())
+                    .containsExactly(1L);
+            assertThat(index.search(workYears(3, 10), 0, 10).ids()).containsExactly(2L, 1L);
+            assertThat(index.search(workYears(31, 40), 0, 10).ids()).containsExactly(4L);
+            assertThat(index.search(workYears(36, null), 0, 10).total()).isZero();
+            assertThat(index.search(new Filter("博士", null, true, null, null), 0, 10).total()).isZero();
+        }
+
+        @Test
+        @DisplayName("按 id 倒序分页；乱序追加的 id 分页时仍按 id 倒序")
+        void shouldPageByIdDesc() {
+            load();
+
+            Hits second = index.search(skills(true), 2, 2);
+            assertThat(second.total()).isEqualTo(4);
+            assertThat(second.ids()).containsExactly(2L, 1L);
+
+            index.remove(2L);
+            index.upsert(candidate(2, "硕士", 6, "Go"));
+            assertThat(index.search(skills(true), 0, 3).ids()).containsExactly(4L, 3L, 2L);
+        }
+    }
+
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+    // 分面
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+
+    @Nested
+    @DisplayName("分面统计")
+    class FacetTests {
+
+        @Test
+        @DisplayName("无筛选条件：技能 / 学历 / 工作年限分面")
+        void shouldCountAllFacets() {
+            load();
+
+            CandidateFacetResponse facets = index.facets(skills(true), 1);
+
+            assertThat(facets.getTotal()).isEqualTo(4);
+            assertThat(facets.getSkills()).containsExactly(new FacetCount("java", 3));
+            assertThat(count(facets.getEducations(), "本科")).isEqualTo(2);
+            assertThat(count(facets.getEducations(), "硕士")).isEqualTo(1);
+            assertThat(facets.getWorkYears()).extracting(FacetCount::getCount).containsExactly(0L, 1L, 1L, 1L, 1L, 0L);
+        }
+
+        @Test
+        @DisplayName("带筛选条件：只统计命中的候选人")
+        void shouldCountFilteredFacets() {
+            load();
+
+            CandidateFacetResponse facets = index.facets(new Filter("本科", null, true, null, null), 10);
+
+            assertThat(facets.getTotal()).isEqualTo(2);
+            assertThat(facets.getSkills()).extracting(FacetCount::getValue)
+                    .containsExactlyInAnyOrder("java", "redis", "vue");
+            assertThat(facets.getEducations()).containsExactly(new FacetCount("本科", 2));
+            assertThat(count(facets.getWorkYears(), "1-3年")).isEqualTo(1);
+            assertThat(count(facets.getWorkYears(), "3-5年")).isEqualTo(1);
+        }
+    }
+
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+    // 写入与同步
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+
+    @Nested
+    @DisplayName("写入与同步")
+    class WriteTests {
+
+        @Test
+        @DisplayName("更新替换旧的技能 / 学历 / 年限，删除后不再命中")
+        void shouldUpdateAndRemove() {
+            load();
+
+            index.upsert(candidate(1, "硕士", 8, "Go"));
+            assertThat(index.search(skills(true, "redis"), 0, 10).total()).isZero();
+            assertThat(index.search(skills(true, "golang"), 0, 10).ids()).containsExactly(1L);
+            assertThat(index.search(new Filter("硕士", null, true, 8, 8), 0, 10).ids()).containsExactly(1L);
+
+            index.remove(1L);
+            assertThat(index.search(skills(true, "go"), 0, 10).total()).isZero();
+            assertThat(index.size()).isEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("增量同步写入其他实例的变更并按 (updated_at, id) 键集翻页")
+        void shouldSyncChangedRows() {
+            load();
+            Candidate changed = candidate(5, "博士", 2, "Rust");
+            Candidate moved = candidate(3, "本科", 1, "Vue", "Go");
+            List<Candidate> firstPage = new ArrayList<>(List.of(moved, changed));
+            given(candidateMapper.selectFacetRowsUpdatedSince(any(), eq(0L), eq(2))).willReturn(firstPage);
+            given(candidateMapper.selectFacetRowsUpdatedSince(changed.getUpdatedAt(), 5L, 2)).willReturn(List.of());
+
+            assertThat(index.sync()).isEqualTo(2);
+
+            assertThat(index.search(new Filter("博士", null, true, null, null), 0, 10).ids()).containsExactly(5L);
+            assertThat(index.search(skills(true, "vue", "go"), 0, 10).ids()).containsExactly(3L);
+        }
+
+        @Test
+        @DisplayName("未加载完成时不可用，写入被忽略")
+        void shouldIgnoreWritesBeforeLoaded() {
+            assertThat(index.isReady()).isFalse();
+
+            index.upsert(candidate(1, "本科", 3, "Java"));
+            index.remove(1L);
+
+            then(candidateMapper).shouldHaveNoInteractions();
+            assertThatThrownBy(() -> index.search(skills(true), 0, 10)).isInstanceOf(IllegalStateException.class);
+        }
+    }
+}
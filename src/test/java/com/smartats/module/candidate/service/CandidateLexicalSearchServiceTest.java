@@ -0,0 +1,71 @@
+package com.smartats.module.candidate.service;
+
+import com.smartats.infrastructure.vector.CandidateVectorFilter;
+import com.smartats.module.candidate.mapper.CandidateMapper;
+import com.smartats.module.candidate.service.CandidateLexicalSearchService.LexicalHit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigInteger;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.*;
+
+/**
+ * CandidateLexicalSearchService 单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CandidateLexicalSearchService 单元测试")
+class CandidateLexicalSearchServiceTest {
+
+    @InjectMocks
+    private CandidateLexicalSearchService lexicalSearchService;
+
+    @Mock
+    private CandidateMapper candidateMapper;
+
+    @Test
+    @DisplayName("映射全文检索结果并保持相关度顺序")
+    void shouldMapRows() {
+        given(candidateMapper.fullTextSearch("Kafka", null, null, null, null, null, 30))
+                .willReturn(List.of(Map.of("id", BigInteger.valueOf(3), "score", 12.5),
+                        Map.of("id", 1L, "score", 3.0)));
+
+        List<LexicalHit> hits = lexicalSearchService.search(" Kafka ", 30, null);
+
+        assertThat(hits).containsExactly(new LexicalHit(3L, 12.5), new LexicalHit(1L, 3.0));
+    }
+
+    @Test
+    @DisplayName("过滤条件与向量检索一致：技能标准化为小写，别名按组展开")
+    void shouldPassNormalizedFilter() {
+        CandidateVectorFilter filter = new CandidateVectorFilter();
+        filter.setEducations(List.of(" 本科 ", ""));
+        filter.setMinWorkYears(3);
+        filter.setCurrentPosition(" 后端% ");
+        filter.setSkills(List.of(" Kafka ", "kafka", "K8s"));
+        filter.setSkillVariants(Map.of("K8s", new LinkedHashSet<>(List.of("kubernetes", "k8s"))));
+        given(candidateMapper.fullTextSearch(anyString(), anyList(), any(), any(), anyString(), anyList(), anyInt()))
+                .willReturn(List.of());
+
+        lexicalSearchService.search("Kafka", 10, filter);
+
+        then(candidateMapper).should().fullTextSearch("Kafka", List.of("本科"), 3, null, "后端",
+                List.of(List.of("kafka"), List.of("k8s", "kubernetes")), 10);
+    }
+
+    @Test
+    @DisplayName("空查询不访问数据库")
+    void shouldSkipBlankQuery() {
+        assertThat(lexicalSearchService.search("  ", 10, null)).isEmpty();
+        then(candidateMapper).shouldHaveNoInteractions();
+    }
+}
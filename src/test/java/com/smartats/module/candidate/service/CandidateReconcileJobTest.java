@@ -0,0 +1,374 @@
+package com.smartats.module.candidate.service;
+
+import com.smartats.common.constants.RedisKeyConstants;
+import com.smartats.infrastructure.vector.EmbeddingService;
+import com.smartats.infrastructure.vector.VectorStoreService;
+import com.smartats.module.candidate.dto.VectorReconcileReportResponse;
+import com.smartats.module.candidate.entity.Candidate;
+import com.smartats.module.candidate.mapper.CandidateMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RLock;
+import org.redisson.api.RRateLimiter;
+import org.redisson.api.RedissonClient;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.*;
+
+/**
+ * CandidateReconcileJob 单元测试
+ * <p>
+ * Redis Hash 使用内存 Map 模拟，便于断言报告与水位线。
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CandidateReconcileJob 单元测试")
+class CandidateReconcileJobTest {
+
+    private static final String INCREMENTAL_KEY = RedisKeyConstants.TASK_VECTOR_RECONCILE_KEY_PREFIX + "incremental";
+    private static final String FULL_KEY = RedisKeyConstants.TASK_VECTOR_RECONCILE_KEY_PREFIX + "full";
+
+    @Mock
+    private CandidateMapper candidateMapper;
+    @Mock
+    private EmbeddingService embeddingService;
+    @Mock
+    private VectorStoreService vectorStoreService;
+    @Mock
+    private CandidateVectorService candidateVectorService;
+    @Mock
+    private CandidateVectorWriteBuffer writeBuffer;
+    @Mock
+    private StringRedisTemplate redisTemplate;
+    @Mock
+    private HashOperations<String, Object, Object> hashOperations;
+    @Mock
+    private RedissonClient redissonClient;
+    @Mock
+    private RLock lock;
+    @Mock
+    private RLock reindexLock;
+    @Mock
+    private RRateLimiter rateLimiter;
+
+    private final Map<String, Map<Object, Object>> hashes = new ConcurrentHashMap<>();
+
+    private CandidateReconcileJob job;
+
+    @BeforeEach
+    void setUp() {
+        job = newJob(false);
+
+        lenient().when(redisTemplate.opsForHash()).thenReturn(hashOperations);
+        lenient().when(hashOperations.entries(anyString()))
+                .thenAnswer(inv -> Map.copyOf(hashes.getOrDefault(inv.<String>getArgument(0), Map.of())));
+        lenient().doAnswer(inv -> {
+            hashes.computeIfAbsent(inv.getArgument(0), k -> new ConcurrentHashMap<>()).putAll(inv.getArgument(1));
+            return null;
+        }).when(hashOperations).putAll(anyString(), anyMap());
+
+        lenient().when(redissonClient.getLock(RedisKeyConstants.LOCK_VECTOR_RECONCILE_KEY)).thenReturn(lock);
+        lenient().when(redissonClient.getLock(RedisKeyConstants.LOCK_VECTOR_REINDEX_KEY)).thenReturn(reindexLock);
+        lenient().when(redissonClient.getRateLimiter(RedisKeyConstants.RATE_VECTOR_REINDEX_KEY))
+                .thenReturn(rateLimiter);
+        lenient().when(lock.tryLock()).thenReturn(true);
+        lenient().when(embeddingService.buildCandidateText(any(Candidate.class)))
+                .thenAnswer(inv -> "候选人" + ((Candidate) inv.getArgument(0)).getId());
+        lenient().when(embeddingService.embedBatch(anyList()))
+                .thenAnswer(inv -> ((List<?>) inv.getArgument(0)).stream().map(t -> List.of(0.1f)).toList());
+        lenient().when(candidateVectorService.fingerprint(anyString())).thenAnswer(inv -> "hash:" + inv.getArgument(0));
+    }
+
+    private CandidateReconcileJob newJob(boolean dryRun) {
+        return new CandidateReconcileJob(candidateMapper, embeddingService, vectorStoreService,
+                candidateVectorService, writeBuffer, redisTemplate, redissonClient, 3, 2, 5, dryRun, 200);
+    }
+
+    /**
+     * @param current true 表示 embedding_hash 与当前文本一致
+     */
+    private static Candidate candidate(long id, boolean current, LocalDateTime updatedAt) {
+        Candidate candidate = new Candidate();
+        candidate.setId(id);
+        candidate.setEmbeddingHash(current ? "hash:候选人" + id : "old");
+        candidate.setUpdatedAt(updatedAt);
+        return candidate;
+    }
+
+    private static LocalDateTime hoursAgo(int hours) {
+        return LocalDateTime.now().minusHours(hours);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Long> upsertedIds() {
+        ArgumentCaptor<List<Candidate>> captor = ArgumentCaptor.forClass(List.class);
+        then(vectorStoreService).should(atLeastOnce()).upsertVectors(captor.capture(), anyList());
+        return captor.getAllValues().stream().flatMap(List::stream).map(Candidate::getId).toList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Candidate> writtenBack() {
+        ArgumentCaptor<List<Candidate>> captor = ArgumentCaptor.forClass(List.class);
+        then(candidateMapper).should(atLeastOnce()).batchUpdateVectorInfo(captor.capture());
+        return captor.getAllValues().stream().flatMap(List::stream).toList();
+    }
+
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+    // 全量对账
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+
+    @Nested
+    @DisplayName("全量对账")
+    class FullTests {
+
+        @Test
+        @DisplayName("检测缺失、过期与孤儿向量并分批修复")
+        void shouldRepairAllDriftKinds() {
+            given(candidateMapper.selectList(any())).willReturn(
+                    List.of(candidate(1, true, hoursAgo(2)), candidate(2, true, hoursAgo(2)),
+                            candidate(4, false, hoursAgo(2))),
+                    List.of());
+            // (0, 4] 中 2 缺失、3 为孤儿；(4, MAX] 中 9 为孤儿
+            given(vectorStoreService.listIds(0L, 4L, CandidateReconcileJob.LIST_IDS_LIMIT))
+                    .willReturn(List.of(1L, 3L, 4L));
+            given(vectorStoreService.listIds(4L, Long.MAX_VALUE, CandidateReconcileJob.LIST_IDS_LIMIT))
+                    .willReturn(List.of(9L));
+            given(candidateMapper.selectBatchIds(anyCollection())).willReturn(List.of());
+
+            VectorReconcileReportResponse report = job.run(true);
+
+            assertThat(report.getState()).isEqualTo(CandidateReconcileJob.STATE_SUCCEEDED);
+            assertThat(report.getScanned()).isEqualTo(3);
+            assertThat(report.getMissing()).isEqualTo(1);
+            assertThat(report.getStale()).isEqualTo(1);
+            assertThat(report.getOrphaned()).isEqualTo(2);
+            assertThat(report.getRepaired()).isEqualTo(4);
+            assertThat(report.getDriftRate()).isCloseTo(2.0 / 3, within(1e-9));
+
+            assertThat(upsertedIds()).containsExactly(2L, 4L);
+            then(vectorStoreService).should().deleteVectors(Set.of(3L));
+            then(vectorStoreService).should().deleteVectors(Set.of(9L));
+            assertThat(writtenBack()).extracting(Candidate::getId).containsExactly(2L, 4L);
+            then(candidateMapper).should(never()).updateById(any(Candidate.class));
+            then(rateLimiter).should(times(1)).acquire(2);
+            then(lock).should().unlock();
+            assertThat(hashes.get(FULL_KEY)).containsEntry("state", "SUCCEEDED").containsEntry("orphaned", "2");
+        }
+
+        @Test
+        @DisplayName("删除孤儿前回查 MySQL，跳过比对期间新建的候选人")
+        void shouldNotDeleteCandidateCreatedDuringScan() {
+            given(candidateMapper.selectList(any())).willReturn(List.of());
+            given(vectorStoreService.listIds(0L, Long.MAX_VALUE, CandidateReconcileJob.LIST_IDS_LIMIT))
+                    .willReturn(List.of(7L));
+            given(candidateMapper.selectBatchIds(anyCollection())).willReturn(List.of(candidate(7, true, null)));
+
+            VectorReconcileReportResponse report = job.run(true);
+
+            assertThat(report.getOrphaned()).isZero();
+            then(vectorStoreService).should(never()).deleteVectors(anyCollection());
+        }
+
+        @Test
+        @DisplayName("区间内向量数达到单次查询上限时二分区间")
+        void shouldBisectLargeRange() {
+            List<Long> full = LongStream.rangeClosed(1, CandidateReconcileJob.LIST_IDS_LIMIT).boxed().toList();
+            long upper = 4L * CandidateReconcileJob.LIST_IDS_LIMIT;
+            given(vectorStoreService.listIds(0L, upper, CandidateReconcileJob.LIST_IDS_LIMIT)).willReturn(full);
+            given(vectorStoreService.listIds(0L, upper / 2, CandidateReconcileJob.LIST_IDS_LIMIT))
+                    .willReturn(List.of(1L, 2L));
+            given(vectorStoreService.listIds(upper / 2, upper, CandidateReconcileJob.LIST_IDS_LIMIT))
+                    .willReturn(List.of(upper));
+
+            assertThat(job.listVectorIds(0L, upper)).containsExactly(1L, 2L, upper);
+        }
+    }
+
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+    // 增量对账
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+
+    @Nested
+    @DisplayName("增量对账")
+    class IncrementalTests {
+
+        @Test
+        @DisplayName("按主键判断存在性，修复后推进水位线")
+        void shouldAdvanceWatermark() {
+            LocalDateTime updatedAt = LocalDateTime.of(2026, 10, 1, 8, 0);
+            given(candidateMapper.selectList(any()))
+                    .willReturn(List.of(candidate(5, true, updatedAt), candidate(6, true, updatedAt)), List.of());
+            given(vectorStoreService.existingIds(anyCollection())).willReturn(Set.of(5L));
+
+            VectorReconcileReportResponse report = job.run(false);
+
+            assertThat(report.getMissing()).isEqualTo(1);
+            assertThat(report.getOrphaned()).isZero();
+            assertThat(upsertedIds()).containsExactly(6L);
+            then(vectorStoreService).should(never()).listIds(anyLong(), anyLong(), anyInt());
+            assertThat(hashes.get(INCREMENTAL_KEY))
+                    .containsEntry("watermarkTime", updatedAt.toString())
+                    .containsEntry("watermarkId", "6");
+            assertThat(job.getReport(false).getWatermark()).isEqualTo(updatedAt);
+        }
+
+        @Test
+        @DisplayName("最近更新或已在写缓冲中的候选人不计入偏差")
+        void shouldSkipInFlightCandidates() {
+            given(candidateMapper.selectList(any())).willReturn(
+                    List.of(candidate(1, false, hoursAgo(1)), candidate(2, false, LocalDateTime.now())), List.of());
+            given(vectorStoreService.existingIds(anyCollection())).willReturn(Set.of());
+            given(writeBuffer.hasPendingUpsert(1L, "hash:候选人1")).willReturn(true);
+
+            VectorReconcileReportResponse report = job.run(false);
+
+            assertThat(report.getScanned()).isEqualTo(1);
+            assertThat(report.getMissing()).isZero();
+            then(embeddingService).should(never()).embedBatch(anyList());
+        }
+
+        @Test
+        @DisplayName("修复批次失败：计入失败，不递增向量代数")
+        void shouldCountFailedRepairs() {
+            given(candidateMapper.selectList(any()))
+                    .willReturn(List.of(candidate(1, false, hoursAgo(1))), List.of());
+            given(vectorStoreService.existingIds(anyCollection())).willReturn(Set.of(1L));
+            given(embeddingService.embedBatch(anyList())).willThrow(new RuntimeException("429 Too Many Requests"));
+
+            VectorReconcileReportResponse report = job.run(false);
+
+            assertThat(report.getStale()).isEqualTo(1);
+            assertThat(report.getFailed()).isEqualTo(1);
+            assertThat(report.getState()).isEqualTo(CandidateReconcileJob.STATE_SUCCEEDED);
+            then(candidateVectorService).should(never()).markVectorsChanged();
+        }
+
+        @Test
+        @DisplayName("没有指纹的旧向量：文本未变只回填指纹，文本已变才重新嵌入")
+        void shouldBackfillLegacyHashWithoutEmbedding() {
+            Candidate unchanged = candidate(1, false, hoursAgo(1));
+            unchanged.setEmbeddingHash(null);
+            unchanged.setVectorId("1");
+            unchanged.setAiSummary("候选人1");
+            Candidate unknown = candidate(2, false, hoursAgo(1));
+            unknown.setEmbeddingHash(null);
+            unknown.setVectorId("2");
+            Candidate changed = candidate(3, false, hoursAgo(1));
+            changed.setEmbeddingHash(null);
+            changed.setVectorId("3");
+            changed.setAiSummary("旧简历文本");
+            given(candidateMapper.selectList(any())).willReturn(List.of(unchanged, unknown, changed), List.of());
+            given(vectorStoreService.existingIds(anyCollection())).willReturn(Set.of(1L, 2L, 3L));
+
+            VectorReconcileReportResponse report = job.run(false);
+
+            assertThat(report.getBackfilled()).isEqualTo(2);
+            assertThat(report.getStale()).isEqualTo(1);
+            assertThat(upsertedIds()).containsExactly(3L);
+            then(embeddingService).should(times(1)).embedBatch(List.of("候选人3"));
+            assertThat(writtenBack())
+                    .extracting(Candidate::getId, Candidate::getVectorId, Candidate::getEmbeddingHash)
+                    .containsExactly(tuple(1L, "1", "hash:候选人1"), tuple(2L, "2", "hash:候选人2"),
+                            tuple(3L, "3", "hash:候选人3"));
+            assertThat(hashes.get(INCREMENTAL_KEY)).containsEntry("backfilled", "2");
+        }
+
+        @Test
+        @DisplayName("某页修复失败：水位线停在该页之前，后续页仍检查修复")
+        void shouldHoldWatermarkAtFailedPage() {
+            LocalDateTime t1 = LocalDateTime.of(2026, 10, 1, 8, 0);
+            LocalDateTime t2 = t1.plusMinutes(1);
+            LocalDateTime t3 = t1.plusMinutes(2);
+            given(candidateMapper.selectList(any())).willReturn(
+                    List.of(candidate(1, true, t1)),
+                    List.of(candidate(2, false, t2)),
+                    List.of(candidate(3, false, t3)),
+                    List.of());
+            given(vectorStoreService.existingIds(anyCollection())).willReturn(Set.of(1L, 2L, 3L));
+            given(embeddingService.embedBatch(List.of("候选人2"))).willThrow(new RuntimeException("timeout"));
+            given(embeddingService.embedBatch(List.of("候选人3"))).willReturn(List.of(List.of(0.1f)));
+
+            VectorReconcileReportResponse report = job.run(false);
+
+            assertThat(report.getFailed()).isEqualTo(1);
+            assertThat(report.getRepaired()).isEqualTo(1);
+            assertThat(upsertedIds()).containsExactly(3L);
+            assertThat(hashes.get(INCREMENTAL_KEY))
+                    .containsEntry("watermarkTime", t1.toString())
+                    .containsEntry("watermarkId", "1");
+        }
+    }
+
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+    // 运行控制
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+
+    @Nested
+    @DisplayName("运行控制")
+    class ControlTests {
+
+        @Test
+        @DisplayName("dry-run：只统计偏差，不写入也不删除")
+        void shouldOnlyReportInDryRun() {
+            job = newJob(true);
+            given(candidateMapper.selectList(any())).willReturn(List.of(candidate(1, true, hoursAgo(1))), List.of());
+            given(vectorStoreService.listIds(0L, 1L, CandidateReconcileJob.LIST_IDS_LIMIT)).willReturn(List.of());
+            given(vectorStoreService.listIds(1L, Long.MAX_VALUE, CandidateReconcileJob.LIST_IDS_LIMIT))
+                    .willReturn(List.of(8L));
+            given(candidateMapper.selectBatchIds(anyCollection())).willReturn(List.of());
+
+            VectorReconcileReportResponse report = job.run(true);
+
+            assertThat(report.isDryRun()).isTrue();
+            assertThat(report.getMissing()).isEqualTo(1);
+            assertThat(report.getOrphaned()).isEqualTo(1);
+            assertThat(report.getRepaired()).isZero();
+            then(vectorStoreService).should(never()).upsertVectors(anyList(), anyList());
+            then(vectorStoreService).should(never()).deleteVectors(any(Collection.class));
+        }
+
+        @Test
+        @DisplayName("批量重建执行中 - 跳过对账")
+        void shouldSkipWhileReindexing() {
+            given(reindexLock.isLocked()).willReturn(true);
+
+            assertThat(job.run(false)).isNull();
+            then(candidateMapper).shouldHaveNoInteractions();
+            then(lock).should().unlock();
+        }
+
+        @Test
+        @DisplayName("已有任务持有锁 - 拒绝执行")
+        void shouldRejectWhenLocked() {
+            given(lock.tryLock()).willReturn(false);
+
+            assertThatThrownBy(() -> job.run(true)).isInstanceOf(IllegalStateException.class);
+            then(candidateMapper).shouldHaveNoInteractions();
+        }
+
+        @Test
+        @DisplayName("从未执行 - IDLE")
+        void shouldReturnIdleReport() {
+            VectorReconcileReportResponse report = job.getReport(true);
+
+            assertThat(report.getState()).isEqualTo(CandidateReconcileJob.STATE_IDLE);
+            assertThat(report.getMode()).isEqualTo(CandidateReconcileJob.MODE_FULL);
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package com.smartats.module.candidate.service;
+
+import com.smartats.common.constants.RedisKeyConstants;
+import com.smartats.infrastructure.vector.EmbeddingService;
+import com.smartats.infrastructure.vector.VectorStoreService;
+import com.smartats.module.candidate.dto.VectorReindexStatusResponse;
+import com.smartats.module.candidate.entity.Candidate;
+import com.smartats.module.candidate.mapper.CandidateMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RLock;
+import org.redisson.api.RRateLimiter;
+import org.redisson.api.RateIntervalUnit;
+import org.redisson.api.RateType;
+import org.redisson.api.RedissonClient;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.*;
+
+/**
+ * CandidateReindexJob 单元测试
+ * <p>
+ * Redis Hash 使用内存 Map 模拟，便于断言检查点内容。
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CandidateReindexJob 单元测试")
+class CandidateReindexJobTest {
+
+    private static final String KEY = RedisKeyConstants.TASK_VECTOR_REINDEX_KEY;
+    private static final String FAILED_KEY = RedisKeyConstants.TASK_VECTOR_REINDEX_FAILED_KEY;
+
+    @Mock
+    private CandidateMapper candidateMapper;
+    @Mock
+    private EmbeddingService embeddingService;
+    @Mock
+    private VectorStoreService vectorStoreService;
+    @Mock
+    private CandidateVectorService candidateVectorService;
+    @Mock
+    private CandidateVectorWriteBuffer writeBuffer;
+    @Mock
+    private StringRedisTemplate redisTemplate;
+    @Mock
+    private HashOperations<String, Object, Object> hashOperations;
+    @Mock
+    private SetOperations<String, String> setOperations;
+    @Mock
+    private RedissonClient redissonClient;
+    @Mock
+    private RLock lock;
+    @Mock
+    private RRateLimiter rateLimiter;
+
+    private final Map<Object, Object> checkpoint = new ConcurrentHashMap<>();
+    private final Set<String> failedIds = ConcurrentHashMap.newKeySet();
+
+    private CandidateReindexJob job;
+
+    @BeforeEach
+    void setUp() {
+        // pageSize=2, embedBatchSize=1：每页拆成两个批次
+        job = new CandidateReindexJob(candidateMapper, embeddingService, vectorStoreService,
+                candidateVectorService, writeBuffer, redisTemplate, redissonClient,
+                2, 1, 2, 100, 1, 0, false);
+
+        lenient().when(redisTemplate.opsForHash()).thenReturn(hashOperations);
+        lenient().when(hashOperations.entries(KEY)).thenAnswer(inv -> Map.copyOf(checkpoint));
+        lenient().when(hashOperations.get(eq(KEY), any())).thenAnswer(inv -> checkpoint.get(inv.getArgument(1)));
+        lenient().doAnswer(inv -> {
+            checkpoint.putAll(inv.getArgument(1));
+            return null;
+        }).when(hashOperations).putAll(eq(KEY), anyMap());
+        lenient().doAnswer(inv -> {
+            checkpoint.put(inv.getArgument(1), inv.getArgument(2));
+            return null;
+        }).when(hashOperations).put(eq(KEY), any(), any());
+        lenient().when(redisTemplate.delete(KEY)).thenAnswer(inv -> {
+            checkpoint.clear();
+            return true;
+        });
+
+        lenient().when(redisTemplate.opsForSet()).thenReturn(setOperations);
+        lenient().when(setOperations.add(eq(FAILED_KEY), any(String[].class))).thenAnswer(inv -> {
+            Object[] args = inv.getArguments();
+            for (int i = 1; i < args.length; i++) {
+                failedIds.add((String) args[i]);
+            }
+            return (long) args.length - 1;
+        });
+        lenient().when(setOperations.members(FAILED_KEY)).thenAnswer(inv -> Set.copyOf(failedIds));
+        lenient().when(setOperations.remove(eq(FAILED_KEY), any(Object[].class))).thenAnswer(inv -> {
+            Object[] args = inv.getArguments();
+            for (int i = 1; i < args.length; i++) {
+                failedIds.remove(args[i]);
+            }
+            return (long) args.length - 1;
+        });
+        lenient().when(setOperations.size(FAILED_KEY)).thenAnswer(inv -> (long) failedIds.size());
+
+        lenient().when(redissonClient.getLock(RedisKeyConstants.LOCK_VECTOR_REINDEX_KEY)).thenReturn(lock);
+        lenient().when(redissonClient.getRateLimiter(RedisKeyConstants.RATE_VECTOR_REINDEX_KEY)).thenReturn(rateLimiter);
+        lenient().when(lock.tryLock()).thenReturn(true);
+        lenient().when(embeddingService.buildCandidateText(any(Candidate.class)))
+                .thenAnswer(inv -> "候选人" + ((Candidate) inv.getArgument(0)).getId());
+        lenient().when(embeddingService.embedBatch(anyList()))
+                .thenAnswer(inv -> ((List<?>) inv.getArgument(0)).stream().map(t -> List.of(0.1f)).toList());
+        lenient().when(candidateVectorService.fingerprint(anyString())).thenReturn("hash");
+    }
+
+    private static Candidate candidate(long id) {
+        Candidate candidate = new Candidate();
+        candidate.setId(id);
+        return candidate;
+    }
+
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+    // run 测试
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+
+    @Nested
+    @DisplayName("run")
+    class RunTests {
+
+        @Test
+        @DisplayName("全量重建：按页处理、批量嵌入写入并记录检查点")
+        void shouldReindexAllPages() {
+            given(candidateMapper.selectCount(null)).willReturn(3L);
+            given(candidateMapper.selectList(any()))
+                    .willReturn(List.of(candidate(1), candidate(2)), List.of(candidate(3)), List.of());
+
+            job.run(false);
+
+            then(rateLimiter).should().setRate(RateType.OVERALL, 100, 1, RateIntervalUnit.SECONDS);
+            then(rateLimiter).should(times(3)).acquire(1L);
+            then(embeddingService).should(times(3)).embedBatch(anyList());
+            then(vectorStoreService).should(times(3)).upsertVectors(anyList(), anyList());
+            then(candidateMapper).should(times(3)).batchUpdateVectorInfo(anyList());
+            then(candidateMapper).should(never()).updateById(any(Candidate.class));
+            then(writeBuffer).should(times(3)).flush();
+            then(lock).should().unlock();
+            then(candidateVectorService).should(times(2)).markVectorsChanged();
+
+            assertThat(checkpoint.get("state")).isEqualTo(CandidateReindexJob.STATE_SUCCEEDED);
+            assertThat(checkpoint.get("lastId")).isEqualTo("3");
+            assertThat(checkpoint.get("processed")).isEqualTo("3");
+            assertThat(checkpoint.get("failed")).isEqualTo("0");
+            assertThat(checkpoint).containsKeys("startedAt", "finishedAt");
+        }
+
+        @Test
+        @DisplayName("断点续跑：累计进度、保留开始时间并重试上次失败的候选人")
+        void shouldResumeFromCheckpoint() {
+            checkpoint.putAll(Map.of("state", "RUNNING", "lastId", "2", "processed", "2",
+                    "failed", "1", "startedAt", "2026-01-01T00:00"));
+            failedIds.add("1");
+            given(candidateMapper.selectCount(null)).willReturn(3L);
+            given(candidateMapper.selectList(any())).willReturn(List.of(candidate(3)), List.of());
+            given(candidateMapper.selectBatchIds(List.of(1L))).willReturn(List.of(candidate(1)));
+
+            job.run(true);
+
+            // 上次失败的候选人 1 在结束前的重试轮中成功
+            assertThat(checkpoint.get("processed")).isEqualTo("3");
+            assertThat(checkpoint.get("failed")).isEqualTo("0");
+            assertThat(checkpoint.get("lastId")).isEqualTo("3");
+            assertThat(checkpoint.get("startedAt")).isEqualTo("2026-01-01T00:00");
+            then(redisTemplate).should(never()).delete(KEY);
+        }
+
+        @Test
+        @DisplayName("嵌入重试耗尽：记入失败集合，继续处理后续页，结束前再重试一轮")
+        void shouldCountFailedBatches() {
+            given(candidateMapper.selectCount(null)).willReturn(2L);
+            given(candidateMapper.selectList(any())).willReturn(List.of(candidate(1), candidate(2)), List.of());
+            given(candidateMapper.selectBatchIds(anyCollection())).willReturn(List.of(candidate(1), candidate(2)));
+            given(embeddingService.embedBatch(anyList())).willThrow(new RuntimeException("429 Too Many Requests"));
+
+            job.run(false);
+
+            // maxRetries=1：每批最多调用两次；主流程与重试轮各两个批次
+            then(embeddingService).should(times(8)).embedBatch(anyList());
+            assertThat(failedIds).containsExactlyInAnyOrder("1", "2");
+            then(vectorStoreService).shouldHaveNoInteractions();
+            then(candidateVectorService).should(never()).markVectorsChanged();
+            assertThat(checkpoint.get("failed")).isEqualTo("2");
+            assertThat(checkpoint.get("lastId")).isEqualTo("2");
+            assertThat(checkpoint.get("state")).isEqualTo(CandidateReindexJob.STATE_SUCCEEDED);
+        }
+
+        @Test
+        @DisplayName("失败的候选人在重试轮成功后移出失败集合")
+        void shouldRetryFailedCandidates() {
+            given(candidateMapper.selectCount(null)).willReturn(2L);
+            given(candidateMapper.selectList(any())).willReturn(List.of(candidate(1), candidate(2)), List.of());
+            given(candidateMapper.selectBatchIds(anyCollection())).willReturn(List.of(candidate(1)));
+            given(embeddingService.embedBatch(List.of("候选人1")))
+                    .willThrow(new RuntimeException("timeout"), new RuntimeException("timeout"))
+                    .willReturn(List.of(List.of(0.1f)));
+
+            job.run(false);
+
+            assertThat(failedIds).isEmpty();
+            assertThat(checkpoint.get("failed")).isEqualTo("0");
+            then(vectorStoreService).should(times(2)).upsertVectors(anyList(), anyList());
+            then(candidateMapper).should().selectBatchIds(List.of(1L));
+        }
+
+        @Test
+        @DisplayName("收到停止请求：当前页完成后停止")
+        void shouldStopAfterCurrentPage() {
+            given(candidateMapper.selectCount(null)).willReturn(4L);
+            given(candidateMapper.selectList(any())).willAnswer(inv -> {
+                checkpoint.put("stopRequested", "true");
+                return List.of(candidate(1), candidate(2));
+            });
+
+            job.run(false);
+
+            then(candidateMapper).should(times(1)).selectList(any());
+            assertThat(checkpoint.get("state")).isEqualTo(CandidateReindexJob.STATE_STOPPED);
+            assertThat(checkpoint.get("lastId")).isEqualTo("2");
+        }
+
+        @Test
+        @DisplayName("已有任务持有锁 - 拒绝执行")
+        void shouldRejectWhenLocked() {
+            given(lock.tryLock()).willReturn(false);
+
+            assertThatThrownBy(() -> job.run(false)).isInstanceOf(IllegalStateException.class);
+            then(candidateMapper).shouldHaveNoInteractions();
+        }
+    }
+
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+    // getStatus 测试
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+
+    @Nested
+    @DisplayName("getStatus")
+    class GetStatusTests {
+
+        @Test
+        @DisplayName("无检查点 - IDLE")
+        void shouldReturnIdle() {
+            assertThat(job.getStatus().getState()).isEqualTo(CandidateReindexJob.STATE_IDLE);
+        }
+
+        @Test
+        @DisplayName("运行中 - 计算进度、吞吐与预计剩余时间")
+        void shouldComputeEta() {
+            given(lock.isLocked()).willReturn(true);
+            checkpoint.putAll(Map.of("state", "RUNNING", "lastId", "50", "processed", "50", "failed", "0",
+                    "total", "100", "runProcessed", "50", "runStartedMs", "0", "runUpdatedMs", "10000"));
+
+            VectorReindexStatusResponse status = job.getStatus();
+
+            assertThat(status.getState()).isEqualTo(CandidateReindexJob.STATE_RUNNING);
+            assertThat(status.getProgressPercent()).isEqualTo(50.0);
+            assertThat(status.getThroughputPerSecond()).isEqualTo(5.0);
+            assertThat(status.getEtaSeconds()).isEqualTo(10L);
+        }
+
+        @Test
+        @DisplayName("状态为运行中但锁已释放 - INTERRUPTED")
+        void shouldReportInterrupted() {
+            given(lock.isLocked()).willReturn(false);
+            checkpoint.putAll(Map.of("state", "RUNNING", "lastId", "10", "processed", "10", "total", "100"));
+
+            VectorReindexStatusResponse status = job.getStatus();
+
+            assertThat(status.getState()).isEqualTo(CandidateReindexJob.STATE_INTERRUPTED);
+            assertThat(status.getEtaSeconds()).isNull();
+        }
+    }
+}
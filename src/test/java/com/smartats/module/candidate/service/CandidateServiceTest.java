@@ -1,20 +1,27 @@
 package com.smartats.module.candidate.service;
 
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.smartats.common.exception.BusinessException;
+import com.smartats.module.application.service.SkillNormalizer;
 import com.smartats.module.candidate.dto.CandidateQueryRequest;
 import com.smartats.module.candidate.dto.CandidateUpdateRequest;
 import com.smartats.module.candidate.entity.Candidate;
 import com.smartats.module.candidate.mapper.CandidateMapper;
+import com.smartats.module.candidate.service.CandidateFacetIndex.Filter;
+import com.smartats.module.candidate.service.CandidateFacetIndex.Hits;
 import com.smartats.module.resume.dto.CandidateInfo;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -22,7 +29,9 @@ import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.core.ValueOperations;
 
 import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -47,6 +56,10 @@ class CandidateServiceTest {
     @Mock
     private CandidateVectorService candidateVectorService;
     @Mock
+    private CandidateFacetIndex candidateFacetIndex;
+    @Mock
+    private SkillNormalizer skillNormalizer;
+    @Mock
     private ValueOperations<String, String> valueOperations;
 
     private Candidate testCandidate;
@@ -261,6 +274,7 @@ class CandidateServiceTest {
             then(candidateMapper).should().deleteById(1L);
             then(redisTemplate).should().delete(contains("cache:candidate:1"));
             then(candidateVectorService).should().deleteVector(1L);
+            then(candidateFacetIndex).should().remove(1L);
         }
     }
 
@@ -330,6 +344,72 @@ class CandidateServiceTest {
 
             then(candidateMapper).should().selectPage(any(Page.class), any(LambdaQueryWrapper.class));
         }
+
+        @Test
+        @DisplayName("索引就绪且无模糊条件时由内存索引筛选，按当页 id 回表并过滤已删除的候选人")
+        void shouldListFromFacetIndex() {
+            CandidateQueryRequest request = new CandidateQueryRequest();
+            request.setPage(2);
+            request.setPageSize(2);
+            request.setSkill("Java");
+            request.setSkills(List.of("Kafka", " java "));
+            request.setSkillMatch("any");
+
+            Candidate other = new Candidate();
+            other.setId(3L);
+            given(candidateFacetIndex.isReady()).willReturn(true);
+            given(candidateFacetIndex.search(any(Filter.class), eq(2L), eq(2)))
+                    .willReturn(new Hits(5, List.of(3L, 2L, 1L)));
+            given(candidateMapper.selectBatchIds(List.of(3L, 2L, 1L))).willReturn(List.of(testCandidate, other));
+
+            Page<Candidate> result = candidateService.listCandidates(request);
+
+            assertThat(result.getTotal()).isEqualTo(5);
+            assertThat(result.getRecords()).extracting(Candidate::getId).containsExactly(3L, 1L);
+            ArgumentCaptor<Filter> filter = ArgumentCaptor.forClass(Filter.class);
+            then(candidateFacetIndex).should().search(filter.capture(), eq(2L), eq(2));
+            assertThat(filter.getValue().skills()).containsExactly("Java", "Kafka", "java");
+            assertThat(filter.getValue().matchAll()).isFalse();
+            then(candidateMapper).should(never()).selectPage(any(), any());
+        }
+
+        @Test
+        @DisplayName("走 MySQL 时技能按词典展开别名、忽略大小写匹配，按 id 倒序（与内存索引一致）")
+        @SuppressWarnings("unchecked")
+        void shouldMatchSkillAliasesInSql() {
+            TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""),
+                    Candidate.class);
+            CandidateQueryRequest request = new CandidateQueryRequest();
+            request.setPage(1);
+            request.setPageSize(10);
+            request.setKeyword("张三");
+            request.setSkills(List.of("K8s", "Java"));
+            given(skillNormalizer.variants("K8s")).willReturn(new LinkedHashSet<>(List.of("kubernetes", "k8s")));
+            given(skillNormalizer.variants("Java")).willReturn(Set.of("java"));
+            given(candidateMapper.selectPage(any(Page.class), any(LambdaQueryWrapper.class)))
+                    .willReturn(new Page<>(1, 10));
+
+            candidateService.listCandidates(request);
+
+            ArgumentCaptor<LambdaQueryWrapper<Candidate>> captor = ArgumentCaptor.forClass(LambdaQueryWrapper.class);
+            then(candidateMapper).should().selectPage(any(Page.class), captor.capture());
+            String sql = captor.getValue().getSqlSegment();
+            assertThat(sql).contains("JSON_CONTAINS(LOWER(skills)").doesNotContain("JSON_CONTAINS(skills")
+                    .endsWith("ORDER BY id DESC");
+            assertThat(captor.getValue().getParamNameValuePairs().values())
+                    .contains("kubernetes", "k8s", "java");
+        }
+
+        @Test
+        @DisplayName("分面统计不支持关键字条件")
+        void shouldRejectFacetsWithKeyword() {
+            CandidateQueryRequest request = new CandidateQueryRequest();
+            request.setKeyword("张三");
+
+            assertThatThrownBy(() -> candidateService.facetCandidates(request, 20))
+                    .isInstanceOf(BusinessException.class);
+            then(candidateFacetIndex).shouldHaveNoInteractions();
+        }
     }
 
     // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
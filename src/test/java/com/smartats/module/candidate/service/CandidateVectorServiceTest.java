@@ -10,7 +10,6 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -29,7 +28,6 @@ import static org.mockito.BDDMockito.*;
 @DisplayName("CandidateVectorService 单元测试")
 class CandidateVectorServiceTest {
 
-    @InjectMocks
     private CandidateVectorService candidateVectorService;
 
     @Mock
@@ -38,12 +36,20 @@ class CandidateVectorServiceTest {
     private VectorStoreService vectorStoreService;
     @Mock
     private CandidateMapper candidateMapper;
+    @Mock
+    private CandidateVectorWriteBuffer writeBuffer;
+    @Mock
+    private SearchSessionStore searchSessionStore;
 
     private Candidate testCandidate;
     private List<Float> mockEmbedding;
 
     @BeforeEach
     void setUp() {
+        candidateVectorService = new CandidateVectorService(
+                embeddingService, vectorStoreService, candidateMapper, writeBuffer, searchSessionStore,
+                "embedding-3", false);
+
         testCandidate = new Candidate();
         testCandidate.setId(1L);
         testCandidate.setName("张三");
@@ -67,7 +73,7 @@ class CandidateVectorServiceTest {
                     .willReturn("姓名: 张三\n学历: 本科");
             given(embeddingService.generateCandidateEmbedding(any(Candidate.class)))
                     .willReturn(mockEmbedding);
-            given(vectorStoreService.upsertVector(eq(1L), eq("张三"), anyList()))
+            given(vectorStoreService.upsertVector(any(Candidate.class), anyList()))
                     .willReturn("1");
 
             // When
@@ -76,17 +82,83 @@ class CandidateVectorServiceTest {
             // Then
             then(embeddingService).should().buildCandidateText(testCandidate);
             then(embeddingService).should().generateCandidateEmbedding(testCandidate);
-            then(vectorStoreService).should().upsertVector(eq(1L), eq("张三"), eq(mockEmbedding));
+            then(vectorStoreService).should().upsertVector(eq(testCandidate), eq(mockEmbedding));
+            then(searchSessionStore).should().bumpGeneration();
 
             // 验证回写 MySQL
-            ArgumentCaptor<Candidate> captor = ArgumentCaptor.forClass(Candidate.class);
-            then(candidateMapper).should().updateById(captor.capture());
+            @SuppressWarnings("unchecked")
+            ArgumentCaptor<List<Candidate>> captor = ArgumentCaptor.forClass(List.class);
+            then(candidateMapper).should().batchUpdateVectorInfo(captor.capture());
 
-            Candidate updated = captor.getValue();
+            assertThat(captor.getValue()).hasSize(1);
+            Candidate updated = captor.getValue().get(0);
             assertThat(updated.getId()).isEqualTo(1L);
             assertThat(updated.getVectorId()).isEqualTo("1");
             assertThat(updated.getAiSummary()).isEqualTo("姓名: 张三\n学历: 本科");
-            assertThat(updated.getUpdatedAt()).isNotNull();
+            assertThat(updated.getEmbeddingHash())
+                    .isEqualTo(candidateVectorService.fingerprint("姓名: 张三\n学历: 本科"));
+            // 只回写向量信息，不改动 updated_at
+            assertThat(updated.getUpdatedAt()).isNull();
+            assertThat(candidateVectorService.getStats().performed()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("嵌入文本未变化 - 跳过 embedding 和 upsert")
+        void shouldSkipWhenTextUnchanged() {
+            String text = "姓名: 张三\n学历: 本科";
+            testCandidate.setVectorId("1");
+            testCandidate.setEmbeddingHash(candidateVectorService.fingerprint(text));
+            given(embeddingService.buildCandidateText(any(Candidate.class))).willReturn(text);
+
+            candidateVectorService.vectorizeCandidate(testCandidate);
+
+            then(embeddingService).should(never()).generateCandidateEmbedding(any());
+            then(vectorStoreService).shouldHaveNoInteractions();
+            then(candidateMapper).shouldHaveNoInteractions();
+            CandidateVectorService.VectorizeStats stats = candidateVectorService.getStats();
+            assertThat(stats.skipped()).isEqualTo(1);
+            assertThat(stats.performed()).isZero();
+            assertThat(stats.skipRate()).isEqualTo(1.0);
+        }
+
+        @Test
+        @DisplayName("嵌入文本变化 - 重新嵌入")
+        void shouldReembedWhenTextChanged() {
+            testCandidate.setVectorId("1");
+            testCandidate.setEmbeddingHash(candidateVectorService.fingerprint("姓名: 张三\n学历: 本科"));
+            given(embeddingService.buildCandidateText(any(Candidate.class))).willReturn("姓名: 张三\n学历: 硕士");
+            given(embeddingService.generateCandidateEmbedding(any(Candidate.class))).willReturn(mockEmbedding);
+            given(vectorStoreService.upsertVector(any(Candidate.class), anyList())).willReturn("1");
+
+            candidateVectorService.vectorizeCandidate(testCandidate);
+
+            then(vectorStoreService).should().upsertVector(eq(testCandidate), eq(mockEmbedding));
+            then(candidateMapper).should().batchUpdateVectorInfo(anyList());
+            assertThat(candidateVectorService.getStats().skipped()).isZero();
+        }
+
+        @Test
+        @DisplayName("指纹一致但向量不存在 - 仍然嵌入")
+        void shouldEmbedWhenVectorMissing() {
+            String text = "姓名: 张三";
+            testCandidate.setEmbeddingHash(candidateVectorService.fingerprint(text));
+            given(embeddingService.buildCandidateText(any(Candidate.class))).willReturn(text);
+            given(embeddingService.generateCandidateEmbedding(any(Candidate.class))).willReturn(mockEmbedding);
+            given(vectorStoreService.upsertVector(any(Candidate.class), anyList())).willReturn("1");
+
+            candidateVectorService.vectorizeCandidate(testCandidate);
+
+            then(vectorStoreService).should().upsertVector(eq(testCandidate), eq(mockEmbedding));
+        }
+
+        @Test
+        @DisplayName("模型变化时指纹不同")
+        void fingerprintShouldDependOnModel() {
+            CandidateVectorService other = new CandidateVectorService(
+                    embeddingService, vectorStoreService, candidateMapper, writeBuffer, searchSessionStore,
+                    "embedding-4", false);
+
+            assertThat(other.fingerprint("张三")).isNotEqualTo(candidateVectorService.fingerprint("张三"));
         }
 
         @Test
@@ -105,6 +177,62 @@ class CandidateVectorServiceTest {
             // Milvus 和 MySQL 不应被调用
             then(vectorStoreService).shouldHaveNoInteractions();
             then(candidateMapper).shouldHaveNoInteractions();
+            assertThat(candidateVectorService.getStats().failed()).isEqualTo(1);
+        }
+    }
+
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+    // 写缓冲模式测试
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+
+    @Nested
+    @DisplayName("write-behind")
+    class WriteBehindTests {
+
+        private CandidateVectorService bufferedService;
+
+        @BeforeEach
+        void setUp() {
+            bufferedService = new CandidateVectorService(
+                    embeddingService, vectorStoreService, candidateMapper, writeBuffer, searchSessionStore,
+                    "embedding-3", true);
+        }
+
+        @Test
+        @DisplayName("向量交给写缓冲，不直接写入向量存储和 MySQL")
+        void shouldEnqueueUpsert() {
+            given(embeddingService.buildCandidateText(any(Candidate.class))).willReturn("姓名: 张三");
+            given(embeddingService.generateCandidateEmbedding(any(Candidate.class))).willReturn(mockEmbedding);
+
+            bufferedService.vectorizeCandidate(testCandidate);
+
+            then(writeBuffer).should().enqueueUpsert(
+                    testCandidate, mockEmbedding, "姓名: 张三", bufferedService.fingerprint("姓名: 张三"));
+            then(vectorStoreService).shouldHaveNoInteractions();
+            then(candidateMapper).shouldHaveNoInteractions();
+            assertThat(bufferedService.getStats().performed()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("写缓冲中已有相同指纹的 upsert - 跳过嵌入")
+        void shouldSkipWhenSameUpsertPending() {
+            given(embeddingService.buildCandidateText(any(Candidate.class))).willReturn("姓名: 张三");
+            given(writeBuffer.hasPendingUpsert(1L, bufferedService.fingerprint("姓名: 张三"))).willReturn(true);
+
+            bufferedService.vectorizeCandidate(testCandidate);
+
+            then(embeddingService).should(never()).generateCandidateEmbedding(any());
+            then(writeBuffer).should(never()).enqueueUpsert(any(), anyList(), anyString(), anyString());
+            assertThat(bufferedService.getStats().skipped()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("删除交给写缓冲")
+        void shouldEnqueueDelete() {
+            bufferedService.deleteVector(1L);
+
+            then(writeBuffer).should().enqueueDelete(1L);
+            then(vectorStoreService).shouldHaveNoInteractions();
         }
     }
 
@@ -122,6 +250,7 @@ class CandidateVectorServiceTest {
             candidateVectorService.deleteVector(1L);
 
             then(vectorStoreService).should().deleteVector(1L);
+            then(searchSessionStore).should().bumpGeneration();
         }
 
         @Test
@@ -0,0 +1,240 @@
+package com.smartats.module.candidate.service;
+
+import com.smartats.infrastructure.vector.VectorStoreService;
+import com.smartats.module.candidate.entity.Candidate;
+import com.smartats.module.candidate.mapper.CandidateMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.*;
+
+/**
+ * CandidateVectorWriteBuffer 单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CandidateVectorWriteBuffer 单元测试")
+class CandidateVectorWriteBufferTest {
+
+    @Mock
+    private VectorStoreService vectorStoreService;
+    @Mock
+    private CandidateMapper candidateMapper;
+    @Mock
+    private SearchSessionStore searchSessionStore;
+
+    private CandidateVectorWriteBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        // flushSize=10, maxPending=100, maxAttempts=2
+        buffer = new CandidateVectorWriteBuffer(vectorStoreService, candidateMapper, searchSessionStore, 10, 100, 2);
+    }
+
+    private static Candidate candidate(long id) {
+        Candidate candidate = new Candidate();
+        candidate.setId(id);
+        return candidate;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Candidate> captureUpsertedCandidates() {
+        ArgumentCaptor<List<Candidate>> captor = ArgumentCaptor.forClass(List.class);
+        then(vectorStoreService).should().upsertVectors(captor.capture(), anyList());
+        return captor.getValue();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Candidate> captureWrittenBack() {
+        ArgumentCaptor<List<Candidate>> captor = ArgumentCaptor.forClass(List.class);
+        then(candidateMapper).should().batchUpdateVectorInfo(captor.capture());
+        return captor.getValue();
+    }
+
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+    // 合并与顺序
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+
+    @Nested
+    @DisplayName("合并与顺序")
+    class CoalesceTests {
+
+        @Test
+        @DisplayName("多个候选人合并为一次批量 Upsert，成功后回写 MySQL")
+        void shouldBatchUpsertsAndWriteBack() {
+            buffer.enqueueUpsert(candidate(1), List.of(0.1f), "张三", "h1");
+            buffer.enqueueUpsert(candidate(2), List.of(0.2f), "李四", "h2");
+
+            int written = buffer.flush();
+
+            assertThat(written).isEqualTo(2);
+            assertThat(captureUpsertedCandidates()).extracting(Candidate::getId).containsExactly(1L, 2L);
+
+            List<Candidate> writtenBack = captureWrittenBack();
+            assertThat(writtenBack).hasSize(2);
+            assertThat(writtenBack.get(0).getVectorId()).isEqualTo("1");
+            assertThat(writtenBack.get(0).getEmbeddingHash()).isEqualTo("h1");
+            assertThat(writtenBack.get(1).getAiSummary()).isEqualTo("李四");
+            assertThat(writtenBack).extracting(Candidate::getUpdatedAt).containsOnlyNulls();
+            then(candidateMapper).should(never()).updateById(any(Candidate.class));
+            assertThat(buffer.pendingCount()).isZero();
+            then(searchSessionStore).should().bumpGeneration();
+        }
+
+        @Test
+        @DisplayName("同一候选人多次 Upsert 只写入最后一次")
+        void shouldKeepLatestUpsert() {
+            buffer.enqueueUpsert(candidate(1), List.of(0.1f), "旧", "old");
+            buffer.enqueueUpsert(candidate(1), List.of(0.9f), "新", "new");
+
+            buffer.flush();
+
+            then(vectorStoreService).should().upsertVectors(anyList(), eq(List.of(List.of(0.9f))));
+            assertThat(captureWrittenBack()).singleElement()
+                    .extracting(Candidate::getEmbeddingHash).isEqualTo("new");
+        }
+
+        @Test
+        @DisplayName("Upsert 后删除 - 只执行删除，不回写 MySQL")
+        void shouldApplyDeleteAfterUpsert() {
+            buffer.enqueueUpsert(candidate(1), List.of(0.1f), "张三", "h1");
+            buffer.enqueueDelete(1L);
+
+            buffer.flush();
+
+            then(vectorStoreService).should().deleteVectors(List.of(1L));
+            then(vectorStoreService).should(never()).upsertVectors(anyList(), anyList());
+            then(candidateMapper).shouldHaveNoInteractions();
+        }
+
+        @Test
+        @DisplayName("同一批次内先删除后写入")
+        void shouldDeleteBeforeUpsert() {
+            buffer.enqueueDelete(2L);
+            buffer.enqueueUpsert(candidate(1), List.of(0.1f), "张三", "h1");
+
+            buffer.flush();
+
+            InOrder inOrder = inOrder(vectorStoreService);
+            inOrder.verify(vectorStoreService).deleteVectors(List.of(2L));
+            inOrder.verify(vectorStoreService).upsertVectors(anyList(), anyList());
+        }
+
+        @Test
+        @DisplayName("hasPendingUpsert 按指纹判断")
+        void shouldReportPendingUpsert() {
+            buffer.enqueueUpsert(candidate(1), List.of(0.1f), "张三", "h1");
+
+            assertThat(buffer.hasPendingUpsert(1L, "h1")).isTrue();
+            assertThat(buffer.hasPendingUpsert(1L, "h2")).isFalse();
+            assertThat(buffer.hasPendingUpsert(2L, "h1")).isFalse();
+        }
+    }
+
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+    // 失败重试
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+
+    @Nested
+    @DisplayName("失败重试")
+    class RetryTests {
+
+        @Test
+        @DisplayName("Upsert 失败 - 不回写 MySQL，重新入队")
+        void shouldRequeueOnFailure() {
+            given(vectorStoreService.upsertVectors(anyList(), anyList())).willThrow(new RuntimeException("Milvus 不可用"));
+            buffer.enqueueUpsert(candidate(1), List.of(0.1f), "张三", "h1");
+
+            int written = buffer.flush();
+
+            assertThat(written).isZero();
+            then(candidateMapper).shouldHaveNoInteractions();
+            then(searchSessionStore).shouldHaveNoInteractions();
+            assertThat(buffer.pendingCount()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("重新入队不覆盖期间到达的新操作")
+        void shouldNotOverrideNewerWrite() {
+            given(vectorStoreService.upsertVectors(anyList(), anyList())).willAnswer(inv -> {
+                // 刷盘过程中到达同一候选人的删除操作
+                buffer.enqueueDelete(1L);
+                throw new RuntimeException("Milvus 不可用");
+            });
+            buffer.enqueueUpsert(candidate(1), List.of(0.1f), "张三", "h1");
+
+            buffer.flush();
+
+            assertThat(buffer.pendingCount()).isEqualTo(1);
+            assertThat(buffer.hasPendingUpsert(1L, "h1")).isFalse();
+        }
+
+        @Test
+        @DisplayName("超过最大尝试次数后丢弃")
+        void shouldDropAfterMaxAttempts() {
+            given(vectorStoreService.upsertVectors(anyList(), anyList())).willThrow(new RuntimeException("Milvus 不可用"));
+            buffer.enqueueUpsert(candidate(1), List.of(0.1f), "张三", "h1");
+
+            buffer.flush();
+            buffer.flush();
+
+            assertThat(buffer.pendingCount()).isZero();
+            then(vectorStoreService).should(times(2)).upsertVectors(anyList(), anyList());
+        }
+    }
+
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+    // 刷盘触发
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+
+    @Nested
+    @DisplayName("刷盘触发")
+    class TriggerTests {
+
+        @Test
+        @DisplayName("达到 flush-size 时后台刷盘")
+        void shouldFlushWhenSizeReached() {
+            for (long id = 1; id <= 10; id++) {
+                buffer.enqueueUpsert(candidate(id), List.of(0.1f), "c" + id, "h" + id);
+            }
+
+            then(vectorStoreService).should(timeout(2000)).upsertVectors(anyList(), anyList());
+        }
+
+        @Test
+        @DisplayName("未达到 flush-size 时不刷盘，单批不超过 flush-size")
+        void shouldSplitIntoBatches() {
+            for (long id = 1; id <= 9; id++) {
+                buffer.enqueueUpsert(candidate(id), List.of(0.1f), "c" + id, "h" + id);
+            }
+            then(vectorStoreService).shouldHaveNoInteractions();
+
+            buffer.scheduledFlush();
+
+            assertThat(captureUpsertedCandidates()).hasSize(9);
+        }
+
+        @Test
+        @DisplayName("关闭时排空缓冲")
+        void shouldDrainOnShutdown() {
+            buffer.enqueueUpsert(candidate(1), List.of(0.1f), "张三", "h1");
+            buffer.enqueueDelete(2L);
+
+            buffer.shutdown();
+
+            then(vectorStoreService).should().upsertVectors(anyList(), anyList());
+            then(vectorStoreService).should().deleteVectors(List.of(2L));
+            assertThat(buffer.pendingCount()).isZero();
+        }
+    }
+}
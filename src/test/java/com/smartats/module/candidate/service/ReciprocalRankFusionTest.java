@@ -0,0 +1,52 @@
+package com.smartats.module.candidate.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * ReciprocalRankFusion 单元测试
+ */
+@DisplayName("ReciprocalRankFusion 单元测试")
+class ReciprocalRankFusionTest {
+
+    @Test
+    @DisplayName("两路都命中的文档排在前面")
+    void shouldRankOverlapFirst() {
+        LinkedHashMap<Long, Double> fused = ReciprocalRankFusion.fuse(
+                List.of(List.of(1L, 2L, 3L), List.of(3L, 4L)), new double[]{1.0, 1.0}, 60);
+
+        assertThat(fused.keySet()).containsExactly(3L, 1L, 2L, 4L);
+        assertThat(fused.get(3L)).isEqualTo(1.0 / 63 + 1.0 / 61, within(1e-12));
+    }
+
+    @Test
+    @DisplayName("权重改变各路影响")
+    void shouldApplyWeights() {
+        LinkedHashMap<Long, Double> fused = ReciprocalRankFusion.fuse(
+                List.of(List.of(1L), List.of(2L)), new double[]{1.0, 2.0}, 60);
+
+        assertThat(fused.keySet()).containsExactly(2L, 1L);
+    }
+
+    @Test
+    @DisplayName("同分时保持首次出现顺序")
+    void shouldBeStableOnTies() {
+        LinkedHashMap<Long, Double> fused = ReciprocalRankFusion.fuse(
+                List.of(List.of(1L), List.of(2L)), new double[]{1.0, 1.0}, 60);
+
+        assertThat(fused.keySet()).containsExactly(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("最高分用于归一化")
+    void shouldComputeMaxScore() {
+        assertThat(ReciprocalRankFusion.maxScore(new double[]{1.0, 1.0}, 60)).isEqualTo(2.0 / 61);
+        assertThatThrownBy(() -> ReciprocalRankFusion.fuse(List.of(List.of(1L)), new double[]{1.0, 1.0}, 60))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
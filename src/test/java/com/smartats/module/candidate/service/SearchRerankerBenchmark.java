@@ -0,0 +1,94 @@
+package com.smartats.module.candidate.service;
+
+import com.smartats.module.application.service.SkillNormalizer;
+import com.smartats.module.candidate.dto.SmartSearchRequest.RerankCriteria;
+import com.smartats.module.candidate.dto.SmartSearchResponse.MatchedCandidate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SearchReranker 重排耗时微基准
+ * <p>
+ * 运行方式（不参与 mvn test）：
+ * <pre>
+ *   mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *        com.smartats.module.candidate.service.SearchRerankerBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SearchRerankerBenchmark {
+
+    private static final String[] SKILLS = {"Java", "Spring Boot", "MySQL", "Redis", "Kafka", "Docker",
+            "Kubernetes", "Go", "Python", "React", "Vue", "TypeScript", "Elasticsearch", "Flink", "Spark"};
+    private static final String[] EDUCATIONS = {"大专", "本科", "硕士", "博士", null};
+
+    @Param({"100", "500"})
+    private int hits;
+
+    private final SearchReranker reranker = new SearchReranker(
+            new SkillNormalizer(new DefaultResourceLoader(), "classpath:skill-aliases.txt"),
+            0.5, 0.25, 0.15, 0.10, 5, 500);
+    private List<MatchedCandidate> candidates;
+    private RerankCriteria criteria;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        candidates = new ArrayList<>(hits);
+        for (int i = 0; i < hits; i++) {
+            MatchedCandidate mc = new MatchedCandidate();
+            mc.setCandidateId((long) i);
+            mc.setRetrievalScore(1.0 - i / (double) hits);
+            mc.setMatchScore(mc.getRetrievalScore());
+            mc.setWorkYears(random.nextInt(15));
+            mc.setEducation(EDUCATIONS[random.nextInt(EDUCATIONS.length)]);
+            List<String> skills = new ArrayList<>();
+            for (int s = 0; s < 8; s++) {
+                skills.add(SKILLS[random.nextInt(SKILLS.length)]);
+            }
+            mc.setSkills(skills);
+            candidates.add(mc);
+        }
+
+        criteria = new RerankCriteria();
+        criteria.setSkills(List.of("java", "Kafka", "redis", "Kubernetes"));
+        criteria.setEducation("本科");
+        criteria.setMinWorkYears(3);
+        criteria.setMaxWorkYears(8);
+    }
+
+    @Benchmark
+    public List<MatchedCandidate> rerank() {
+        return reranker.rerank(candidates, criteria);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SearchRerankerBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
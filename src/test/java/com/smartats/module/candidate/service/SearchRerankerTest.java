@@ -0,0 +1,116 @@
+package com.smartats.module.candidate.service;
+
+import com.smartats.module.application.service.SkillNormalizer;
+import com.smartats.module.candidate.dto.SmartSearchRequest.RerankCriteria;
+import com.smartats.module.candidate.dto.SmartSearchResponse.MatchedCandidate;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * SearchReranker 单元测试
+ */
+@DisplayName("SearchReranker 单元测试")
+class SearchRerankerTest {
+
+    private final SkillNormalizer skillNormalizer =
+            new SkillNormalizer(new DefaultResourceLoader(), "classpath:skill-aliases.txt");
+    private final SearchReranker reranker = new SearchReranker(skillNormalizer, 0.5, 0.25, 0.15, 0.10, 5, 500);
+
+    private static MatchedCandidate hit(long id, double score, List<String> skills, Integer workYears, String education) {
+        MatchedCandidate mc = new MatchedCandidate();
+        mc.setCandidateId(id);
+        mc.setMatchScore(score);
+        mc.setSkills(skills);
+        mc.setWorkYears(workYears);
+        mc.setEducation(education);
+        return mc;
+    }
+
+    private static RerankCriteria criteria() {
+        RerankCriteria criteria = new RerankCriteria();
+        criteria.setSkills(List.of("Java", "kafka"));
+        criteria.setEducation("本科");
+        criteria.setMinWorkYears(3);
+        criteria.setMaxWorkYears(5);
+        return criteria;
+    }
+
+    @Test
+    @DisplayName("结构化匹配度高的候选人排到相似度略高者之前")
+    void shouldPromoteStructuredMatch() {
+        MatchedCandidate closeButWeak = hit(1, 0.82, List.of("Python"), 1, "大专");
+        MatchedCandidate strongMatch = hit(2, 0.78, List.of("java", "Kafka", "Redis"), 4, "硕士");
+
+        List<MatchedCandidate> result = reranker.rerank(List.of(closeButWeak, strongMatch), criteria());
+
+        assertThat(result).extracting(MatchedCandidate::getCandidateId).containsExactly(2L, 1L);
+        assertThat(strongMatch.getRetrievalScore()).isEqualTo(0.78);
+        assertThat(strongMatch.getSkillScore()).isEqualTo(1.0);
+        assertThat(strongMatch.getExperienceScore()).isEqualTo(1.0);
+        assertThat(strongMatch.getEducationScore()).isEqualTo(1.0);
+        // 0.5 × 0.78 + 0.25 + 0.15 + 0.10
+        assertThat(strongMatch.getMatchScore()).isEqualTo(0.89);
+        assertThat(closeButWeak.getSkillScore()).isZero();
+        assertThat(closeButWeak.getExperienceScore()).isEqualTo(0.7);
+        assertThat(closeButWeak.getEducationScore()).isEqualTo(0.75);
+    }
+
+    @Test
+    @DisplayName("技能按别名词典规范化后匹配")
+    void shouldMatchSkillAliases() {
+        RerankCriteria criteria = criteria();
+        criteria.setSkills(List.of("Spring Boot", "Kubernetes"));
+        MatchedCandidate aliased = hit(1, 0.8, List.of("springboot", "K8s"), 4, "本科");
+
+        reranker.rerank(List.of(aliased), criteria);
+
+        assertThat(aliased.getSkillScore()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("重复重排结果一致（以 retrievalScore 为检索分数）")
+    void shouldBeIdempotent() {
+        List<MatchedCandidate> hits = List.of(hit(1, 0.9, List.of("Java"), 4, "本科"),
+                hit(2, 0.7, List.of("Kafka"), 10, null));
+
+        List<MatchedCandidate> first = reranker.rerank(hits, criteria());
+        double firstScore = first.get(0).getMatchScore();
+        List<MatchedCandidate> second = reranker.rerank(hits, criteria());
+
+        assertThat(second).isEqualTo(first);
+        assertThat(second.get(0).getMatchScore()).isEqualTo(firstScore);
+    }
+
+    @Test
+    @DisplayName("空条件时各维度满分，保持检索顺序")
+    void shouldKeepOrderWithoutPreferences() {
+        List<MatchedCandidate> hits = List.of(hit(1, 0.9, null, null, null), hit(2, 0.8, null, null, null),
+                hit(3, 0.8, null, null, null));
+
+        List<MatchedCandidate> result = reranker.rerank(hits, new RerankCriteria());
+
+        assertThat(result).extracting(MatchedCandidate::getCandidateId).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    @DisplayName("召回数：topK × 倍数，不超过上限且不小于 topK")
+    void shouldComputePoolSize() {
+        assertThat(reranker.candidatePoolSize(10)).isEqualTo(50);
+        assertThat(reranker.candidatePoolSize(200)).isEqualTo(500);
+        assertThat(new SearchReranker(skillNormalizer, 1, 0, 0, 0, 5, 20).candidatePoolSize(50)).isEqualTo(50);
+    }
+
+    @Test
+    @DisplayName("权重非法 - 拒绝创建")
+    void shouldRejectInvalidWeights() {
+        assertThatThrownBy(() -> new SearchReranker(skillNormalizer, -1, 0.5, 0.5, 0.5, 5, 500))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new SearchReranker(skillNormalizer, 0, 0, 0, 0, 5, 500))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,100 @@
+package com.smartats.module.candidate.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartats.common.constants.RedisKeyConstants;
+import com.smartats.module.candidate.dto.SmartSearchResponse.MatchedCandidate;
+import com.smartats.module.candidate.service.SearchSessionStore.SearchSession;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.*;
+
+/**
+ * SearchSessionStore 单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SearchSessionStore 单元测试")
+class SearchSessionStoreTest {
+
+    private static final String GENERATION_KEY = RedisKeyConstants.COUNTER_VECTOR_GENERATION_KEY;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private SearchSessionStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new SearchSessionStore(redisTemplate, new ObjectMapper(), 10);
+        given(redisTemplate.opsForValue()).willReturn(valueOperations);
+    }
+
+    private static SearchSession session(long generation) {
+        MatchedCandidate mc = new MatchedCandidate();
+        mc.setCandidateId(1L);
+        mc.setMatchScore(0.9);
+        return new SearchSession("Java", "VECTOR", generation, 10, List.of(mc), false);
+    }
+
+    @Test
+    @DisplayName("保存后按 searchId 读回，代数一致时有效")
+    void shouldRoundTripSession() {
+        ArgumentCaptor<String> json = ArgumentCaptor.forClass(String.class);
+        String searchId = store.save(session(3L));
+        then(valueOperations).should().set(eq(RedisKeyConstants.CACHE_SEARCH_SESSION_KEY_PREFIX + searchId),
+                json.capture(), eq(10L), eq(TimeUnit.MINUTES));
+
+        given(valueOperations.get(RedisKeyConstants.CACHE_SEARCH_SESSION_KEY_PREFIX + searchId))
+                .willReturn(json.getValue());
+        given(valueOperations.get(GENERATION_KEY)).willReturn("3");
+
+        SearchSession loaded = store.get(searchId);
+
+        assertThat(loaded).isNotNull();
+        assertThat(loaded.hits()).singleElement().satisfies(mc -> {
+            assertThat(mc.getCandidateId()).isEqualTo(1L);
+            assertThat(mc.getMatchScore()).isEqualTo(0.9);
+        });
+    }
+
+    @Test
+    @DisplayName("向量代数变化后会话失效并被删除")
+    void shouldInvalidateOnGenerationChange() throws Exception {
+        String key = RedisKeyConstants.CACHE_SEARCH_SESSION_KEY_PREFIX + "sid";
+        given(valueOperations.get(key)).willReturn(new ObjectMapper().writeValueAsString(session(3L)));
+        given(valueOperations.get(GENERATION_KEY)).willReturn("4");
+
+        assertThat(store.get("sid")).isNull();
+        then(redisTemplate).should().delete(key);
+    }
+
+    @Test
+    @DisplayName("递增代数失败不抛出异常")
+    void shouldSwallowBumpFailure() {
+        given(valueOperations.increment(GENERATION_KEY)).willThrow(new RuntimeException("Redis 不可用"));
+
+        assertThatCode(() -> store.bumpGeneration()).doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("计数器不存在时代数为 0")
+    void shouldDefaultGenerationToZero() {
+        given(valueOperations.get(GENERATION_KEY)).willReturn(null);
+
+        assertThat(store.currentGeneration()).isZero();
+    }
+}
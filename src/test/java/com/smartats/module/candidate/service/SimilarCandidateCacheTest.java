@@ -0,0 +1,96 @@
+package com.smartats.module.candidate.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartats.common.constants.RedisKeyConstants;
+import com.smartats.module.candidate.dto.SmartSearchResponse.MatchedCandidate;
+import com.smartats.module.candidate.service.SimilarCandidateCache.SimilarEntry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.*;
+
+/**
+ * SimilarCandidateCache 单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SimilarCandidateCache 单元测试")
+class SimilarCandidateCacheTest {
+
+    private static final String KEY = RedisKeyConstants.CACHE_SIMILAR_CANDIDATES_KEY_PREFIX + "1";
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private SimilarCandidateCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new SimilarCandidateCache(redisTemplate, new ObjectMapper(), 30);
+    }
+
+    private static List<MatchedCandidate> hits() {
+        MatchedCandidate mc = new MatchedCandidate();
+        mc.setCandidateId(2L);
+        mc.setMatchScore(0.8);
+        return List.of(mc);
+    }
+
+    @Test
+    @DisplayName("写入后按相同指纹读回")
+    void shouldRoundTripWithSameHash() {
+        given(redisTemplate.opsForValue()).willReturn(valueOperations);
+        ArgumentCaptor<String> json = ArgumentCaptor.forClass(String.class);
+        cache.put(1L, "hash-1", hits());
+        then(valueOperations).should().set(eq(KEY), json.capture(), eq(30L), eq(TimeUnit.MINUTES));
+
+        given(valueOperations.get(KEY)).willReturn(json.getValue());
+
+        assertThat(cache.get(1L, "hash-1")).singleElement().satisfies(mc -> {
+            assertThat(mc.getCandidateId()).isEqualTo(2L);
+            assertThat(mc.getMatchScore()).isEqualTo(0.8);
+        });
+    }
+
+    @Test
+    @DisplayName("种子指纹变化后缓存失效并被删除")
+    void shouldInvalidateOnHashChange() throws Exception {
+        given(redisTemplate.opsForValue()).willReturn(valueOperations);
+        given(valueOperations.get(KEY))
+                .willReturn(new ObjectMapper().writeValueAsString(new SimilarEntry("hash-1", hits())));
+
+        assertThat(cache.get(1L, "hash-2")).isNull();
+        then(redisTemplate).should().delete(KEY);
+    }
+
+    @Test
+    @DisplayName("种子没有指纹时不读写缓存")
+    void shouldSkipWithoutHash() {
+        cache.put(1L, null, hits());
+
+        assertThat(cache.get(1L, null)).isNull();
+        then(redisTemplate).shouldHaveNoInteractions();
+    }
+
+    @Test
+    @DisplayName("Redis 不可用时视为未命中")
+    void shouldTreatRedisFailureAsMiss() {
+        given(redisTemplate.opsForValue()).willThrow(new RuntimeException("Redis 不可用"));
+
+        assertThat(cache.get(1L, "hash-1")).isNull();
+        assertThatCode(() -> cache.put(1L, "hash-1", hits())).doesNotThrowAnyException();
+    }
+}
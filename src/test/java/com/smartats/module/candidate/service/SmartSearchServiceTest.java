@@ -1,25 +1,36 @@
 package com.smartats.module.candidate.service;
 
 import com.smartats.common.exception.BusinessException;
-import com.smartats.infrastructure.vector.EmbeddingService;
+import com.smartats.common.result.ResultCode;
+import com.smartats.infrastructure.vector.CandidateVectorFilter;
+import com.smartats.infrastructure.vector.CircuitBreaker;
+import com.smartats.infrastructure.vector.QueryEmbeddingCache;
 import com.smartats.infrastructure.vector.VectorStoreService;
 import com.smartats.infrastructure.vector.VectorStoreService.SearchResult;
+import com.smartats.module.application.service.SkillNormalizer;
+import com.smartats.module.candidate.dto.BatchSmartSearchRequest;
+import com.smartats.module.candidate.dto.BatchSmartSearchResponse;
 import com.smartats.module.candidate.dto.SmartSearchRequest;
 import com.smartats.module.candidate.dto.SmartSearchResponse;
 import com.smartats.module.candidate.entity.Candidate;
 import com.smartats.module.candidate.mapper.CandidateMapper;
+import com.smartats.module.candidate.service.CandidateLexicalSearchService.LexicalHit;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.DefaultResourceLoader;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -32,21 +43,38 @@ import static org.mockito.BDDMockito.*;
 @DisplayName("SmartSearchService 单元测试")
 class SmartSearchServiceTest {
 
-    @InjectMocks
     private SmartSearchService smartSearchService;
+    private SearchReranker searchReranker;
 
     @Mock
-    private EmbeddingService embeddingService;
+    private QueryEmbeddingCache queryEmbeddingCache;
     @Mock
     private VectorStoreService vectorStoreService;
     @Mock
     private CandidateMapper candidateMapper;
+    @Mock
+    private CandidateLexicalSearchService lexicalSearchService;
+    @Mock
+    private SearchSessionStore searchSessionStore;
+    @Mock
+    private SimilarCandidateCache similarCandidateCache;
 
+    private CircuitBreaker vectorSearchCircuitBreaker;
+    private SkillNormalizer skillNormalizer;
     private SmartSearchRequest request;
     private List<Float> mockEmbedding;
 
     @BeforeEach
     void setUp() {
+        // 同步执行器：关键词检索在当前线程执行，便于断言
+        vectorSearchCircuitBreaker = new CircuitBreaker("vector-search", true, 2, 30_000);
+        skillNormalizer = new SkillNormalizer(new DefaultResourceLoader(), "classpath:skill-aliases.txt");
+        searchReranker = new SearchReranker(skillNormalizer, 0.5, 0.25, 0.15, 0.10, 5, 500);
+        smartSearchService = new SmartSearchService(queryEmbeddingCache, vectorStoreService, candidateMapper,
+                lexicalSearchService, searchReranker, skillNormalizer,
+                searchSessionStore, similarCandidateCache, vectorSearchCircuitBreaker, Runnable::run,
+                60, 1.0, 1.0, 3, 1000, 20, true);
+
         request = new SmartSearchRequest();
         request.setQuery("3年以上Java后端开发");
         request.setTopK(10);
@@ -67,7 +95,7 @@ class SmartSearchServiceTest {
         @DisplayName("成功返回匹配候选人")
         void shouldReturnMatchedCandidates() {
             // Given
-            given(embeddingService.generateQueryEmbedding(anyString())).willReturn(mockEmbedding);
+            given(queryEmbeddingCache.getQueryEmbedding(anyString())).willReturn(mockEmbedding);
 
             SearchResult sr1 = new SearchResult();
             sr1.setCandidateId(1L);
@@ -79,7 +107,7 @@ class SmartSearchServiceTest {
             sr2.setCandidateName("李四");
             sr2.setScore(0.72f);
 
-            given(vectorStoreService.search(anyList(), eq(10))).willReturn(List.of(sr1, sr2));
+            given(vectorStoreService.search(anyList(), eq(10), isNull())).willReturn(List.of(sr1, sr2));
 
             Candidate c1 = buildCandidate(1L, "张三", "高级后端工程师", "腾讯", 5);
             Candidate c2 = buildCandidate(2L, "李四", "后端工程师", "阿里巴巴", 3);
@@ -101,7 +129,7 @@ class SmartSearchServiceTest {
         @DisplayName("按相似度阈值过滤低分结果")
         void shouldFilterByMinScore() {
             // Given
-            given(embeddingService.generateQueryEmbedding(anyString())).willReturn(mockEmbedding);
+            given(queryEmbeddingCache.getQueryEmbedding(anyString())).willReturn(mockEmbedding);
 
             SearchResult sr1 = new SearchResult();
             sr1.setCandidateId(1L);
@@ -113,7 +141,7 @@ class SmartSearchServiceTest {
             sr2.setCandidateName("李四");
             sr2.setScore(0.15f);  // 低于阈值
 
-            given(vectorStoreService.search(anyList(), eq(10))).willReturn(List.of(sr1, sr2));
+            given(vectorStoreService.search(anyList(), eq(10), isNull())).willReturn(List.of(sr1, sr2));
 
             Candidate c1 = buildCandidate(1L, "张三", "后端", "腾讯", 5);
             given(candidateMapper.selectBatchIds(anyList())).willReturn(List.of(c1));
@@ -131,7 +159,7 @@ class SmartSearchServiceTest {
         @DisplayName("候选人不在MySQL中时跳过")
         void shouldSkipMissingCandidates() {
             // Given
-            given(embeddingService.generateQueryEmbedding(anyString())).willReturn(mockEmbedding);
+            given(queryEmbeddingCache.getQueryEmbedding(anyString())).willReturn(mockEmbedding);
 
             SearchResult sr1 = new SearchResult();
             sr1.setCandidateId(1L);
@@ -143,7 +171,7 @@ class SmartSearchServiceTest {
             sr2.setCandidateName("已删除");
             sr2.setScore(0.75f);
 
-            given(vectorStoreService.search(anyList(), eq(10))).willReturn(List.of(sr1, sr2));
+            given(vectorStoreService.search(anyList(), eq(10), isNull())).willReturn(List.of(sr1, sr2));
 
             // 只返回 candidateId=1，不包含 999
             Candidate c1 = buildCandidate(1L, "张三", "后端", "腾讯", 5);
@@ -168,8 +196,8 @@ class SmartSearchServiceTest {
         @Test
         @DisplayName("Milvus 无匹配结果")
         void shouldReturnEmptyWhenNoMilvusResults() {
-            given(embeddingService.generateQueryEmbedding(anyString())).willReturn(mockEmbedding);
-            given(vectorStoreService.search(anyList(), eq(10))).willReturn(List.of());
+            given(queryEmbeddingCache.getQueryEmbedding(anyString())).willReturn(mockEmbedding);
+            given(vectorStoreService.search(anyList(), eq(10), isNull())).willReturn(List.of());
 
             SmartSearchResponse response = smartSearchService.search(request);
 
@@ -180,14 +208,14 @@ class SmartSearchServiceTest {
         @Test
         @DisplayName("所有结果低于阈值")
         void shouldReturnEmptyWhenAllBelowThreshold() {
-            given(embeddingService.generateQueryEmbedding(anyString())).willReturn(mockEmbedding);
+            given(queryEmbeddingCache.getQueryEmbedding(anyString())).willReturn(mockEmbedding);
 
             SearchResult sr = new SearchResult();
             sr.setCandidateId(1L);
             sr.setCandidateName("张三");
             sr.setScore(0.1f);  // 低于默认 0.3
 
-            given(vectorStoreService.search(anyList(), eq(10))).willReturn(List.of(sr));
+            given(vectorStoreService.search(anyList(), eq(10), isNull())).willReturn(List.of(sr));
 
             SmartSearchResponse response = smartSearchService.search(request);
 
@@ -196,6 +224,65 @@ class SmartSearchServiceTest {
         }
     }
 
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+    // 结构化过滤
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+
+    @Nested
+    @DisplayName("结构化过滤")
+    class FilterTests {
+
+        @Test
+        @DisplayName("过滤条件下推到向量搜索")
+        void shouldPushFilterIntoVectorSearch() {
+            request.setEducations(List.of("硕士"));
+            request.setMinWorkYears(3);
+            request.setSkills(List.of("Java"));
+            given(queryEmbeddingCache.getQueryEmbedding(anyString())).willReturn(mockEmbedding);
+            given(vectorStoreService.search(anyList(), eq(10), any(CandidateVectorFilter.class)))
+                    .willReturn(List.of());
+
+            smartSearchService.search(request);
+
+            ArgumentCaptor<CandidateVectorFilter> captor = ArgumentCaptor.forClass(CandidateVectorFilter.class);
+            then(vectorStoreService).should().search(anyList(), eq(10), captor.capture());
+            assertThat(captor.getValue().getEducations()).containsExactly("硕士");
+            assertThat(captor.getValue().getMinWorkYears()).isEqualTo(3);
+            assertThat(captor.getValue().getSkills()).containsExactly("Java");
+        }
+
+        @Test
+        @DisplayName("技能别名按词典展开：K8s 可命中存储为 Kubernetes 的候选人")
+        void shouldExpandSkillAliases() {
+            request.setSkills(List.of("K8s"));
+            given(queryEmbeddingCache.getQueryEmbedding(anyString())).willReturn(mockEmbedding);
+            given(vectorStoreService.search(anyList(), eq(10), any(CandidateVectorFilter.class)))
+                    .willReturn(List.of());
+
+            smartSearchService.search(request);
+
+            ArgumentCaptor<CandidateVectorFilter> captor = ArgumentCaptor.forClass(CandidateVectorFilter.class);
+            then(vectorStoreService).should().search(anyList(), eq(10), captor.capture());
+            CandidateVectorFilter filter = captor.getValue();
+            assertThat(filter.skillGroups()).singleElement()
+                    .satisfies(group -> assertThat(group).contains("k8s", "kubernetes"));
+            assertThat(filter.toExpression()).contains("array_contains_any(skills, [").contains("\"kubernetes\"");
+            assertThat(filter.matches(null, -1, null, List.of("kubernetes"))).isTrue();
+        }
+
+        @Test
+        @DisplayName("最低年限大于最高年限时拒绝请求")
+        void shouldRejectInvalidWorkYearsRange() {
+            request.setMinWorkYears(5);
+            request.setMaxWorkYears(3);
+
+            assertThatThrownBy(() -> smartSearchService.search(request))
+                    .isInstanceOf(BusinessException.class)
+                    .hasMessageContaining("最低工作年限不能大于最高工作年限");
+            then(queryEmbeddingCache).shouldHaveNoInteractions();
+        }
+    }
+
     // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
     // 异常场景
     // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
@@ -205,10 +292,12 @@ class SmartSearchServiceTest {
     class ExceptionTests {
 
         @Test
-        @DisplayName("嵌入服务异常抛出 BusinessException")
+        @DisplayName("嵌入服务异常且关键词降级也失败时抛出 BusinessException")
         void shouldThrowWhenEmbeddingFails() {
-            given(embeddingService.generateQueryEmbedding(anyString()))
+            given(queryEmbeddingCache.getQueryEmbedding(anyString()))
                     .willThrow(new RuntimeException("API 超时"));
+            given(lexicalSearchService.search(anyString(), anyInt(), isNull()))
+                    .willThrow(new RuntimeException("MySQL 不可用"));
 
             assertThatThrownBy(() -> smartSearchService.search(request))
                     .isInstanceOf(BusinessException.class)
@@ -216,11 +305,13 @@ class SmartSearchServiceTest {
         }
 
         @Test
-        @DisplayName("Milvus 搜索异常抛出 BusinessException")
+        @DisplayName("Milvus 搜索异常且关键词降级也失败时抛出 BusinessException")
         void shouldThrowWhenMilvusSearchFails() {
-            given(embeddingService.generateQueryEmbedding(anyString())).willReturn(mockEmbedding);
-            given(vectorStoreService.search(anyList(), eq(10)))
+            given(queryEmbeddingCache.getQueryEmbedding(anyString())).willReturn(mockEmbedding);
+            given(vectorStoreService.search(anyList(), eq(10), isNull()))
                     .willThrow(new RuntimeException("Connection refused"));
+            given(lexicalSearchService.search(anyString(), anyInt(), isNull()))
+                    .willThrow(new RuntimeException("MySQL 不可用"));
 
             assertThatThrownBy(() -> smartSearchService.search(request))
                     .isInstanceOf(BusinessException.class)
@@ -228,6 +319,514 @@ class SmartSearchServiceTest {
         }
     }
 
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+    // 降级与熔断
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+
+    @Nested
+    @DisplayName("降级与熔断")
+    class FallbackTests {
+
+        @Test
+        @DisplayName("embedding 不可用时降级为关键词检索并标记 degraded")
+        void shouldFallbackToLexicalWhenEmbeddingFails() {
+            given(queryEmbeddingCache.getQueryEmbedding(anyString()))
+                    .willThrow(new CircuitBreaker.OpenException("embedding"));
+            given(lexicalSearchService.search("3年以上Java后端开发", 10, null))
+                    .willReturn(List.of(new LexicalHit(2L, 8.0), new LexicalHit(1L, 3.0)));
+            given(candidateMapper.selectBatchIds(List.of(2L, 1L))).willReturn(List.of(
+                    buildCandidate(1L, "张三", "后端", "腾讯", 5),
+                    buildCandidate(2L, "李四", "后端", "阿里", 3)));
+
+            SmartSearchResponse response = smartSearchService.search(request);
+
+            assertThat(response.isDegraded()).isTrue();
+            assertThat(response.getMode()).isEqualTo("LEXICAL");
+            assertThat(response.getCandidates()).extracting(SmartSearchResponse.MatchedCandidate::getCandidateId)
+                    .containsExactly(2L, 1L);
+            assertThat(response.getCandidates().get(0).getLexicalScore()).isEqualTo(8.0);
+            then(vectorStoreService).shouldHaveNoInteractions();
+        }
+
+        @Test
+        @DisplayName("向量存储连续失败后熔断，后续请求不再调用向量存储")
+        void shouldStopCallingVectorStoreWhileOpen() {
+            given(queryEmbeddingCache.getQueryEmbedding(anyString())).willReturn(mockEmbedding);
+            given(vectorStoreService.search(anyList(), eq(10), isNull()))
+                    .willThrow(new RuntimeException("deadline exceeded"));
+            given(lexicalSearchService.search(anyString(), anyInt(), isNull())).willReturn(List.of());
+
+            for (int i = 0; i < 3; i++) {
+                assertThat(smartSearchService.search(request).isDegraded()).isTrue();
+            }
+
+            then(vectorStoreService).should(times(2)).search(anyList(), eq(10), isNull());
+            assertThat(vectorSearchCircuitBreaker.getStats().state()).isEqualTo("OPEN");
+            assertThat(vectorSearchCircuitBreaker.getStats().rejected()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("混合检索向量一路失败时标记 degraded")
+        void shouldMarkHybridDegradedWhenVectorLegFails() {
+            request.setMode("HYBRID");
+            given(queryEmbeddingCache.getQueryEmbedding(anyString())).willThrow(new RuntimeException("429"));
+            given(lexicalSearchService.search(anyString(), anyInt(), isNull()))
+                    .willReturn(List.of(new LexicalHit(1L, 3.0)));
+            given(candidateMapper.selectBatchIds(anyList()))
+                    .willReturn(List.of(buildCandidate(1L, "张三", "后端", "腾讯", 5)));
+
+            SmartSearchResponse response = smartSearchService.search(request);
+
+            assertThat(response.getMode()).isEqualTo("LEXICAL");
+            assertThat(response.isDegraded()).isTrue();
+        }
+
+        @Test
+        @DisplayName("正常向量检索不标记 degraded")
+        void shouldNotMarkNormalSearchDegraded() {
+            given(queryEmbeddingCache.getQueryEmbedding(anyString())).willReturn(mockEmbedding);
+            given(vectorStoreService.search(anyList(), eq(10), isNull())).willReturn(List.of());
+
+            assertThat(smartSearchService.search(request).isDegraded()).isFalse();
+            then(lexicalSearchService).shouldHaveNoInteractions();
+        }
+    }
+
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+    // 混合检索
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+
+    @Nested
+    @DisplayName("混合检索")
+    class HybridSearchTests {
+
+        @BeforeEach
+        void setUp() {
+            request.setMode("HYBRID");
+            request.setQuery("Kafka");
+        }
+
+        private SearchResult vectorHit(long id, float score) {
+            SearchResult sr = new SearchResult();
+            sr.setCandidateId(id);
+            sr.setScore(score);
+            return sr;
+        }
+
+        @Test
+        @DisplayName("两路结果按 RRF 融合，暴露各路分数")
+        void shouldFuseBothLegs() {
+            given(queryEmbeddingCache.getQueryEmbedding("Kafka")).willReturn(mockEmbedding);
+            given(vectorStoreService.search(anyList(), eq(30), isNull()))
+                    .willReturn(List.of(vectorHit(1L, 0.9f), vectorHit(2L, 0.8f)));
+            given(lexicalSearchService.search("Kafka", 30, null))
+                    .willReturn(List.of(new LexicalHit(3L, 12.5), new LexicalHit(1L, 3.0)));
+            given(candidateMapper.selectBatchIds(anyList())).willReturn(List.of(
+                    buildCandidate(1L, "张三", "后端", "腾讯", 5),
+                    buildCandidate(2L, "李四", "后端", "阿里", 3),
+                    buildCandidate(3L, "王五", "后端", "字节", 4)));
+
+            SmartSearchResponse response = smartSearchService.search(request);
+
+            assertThat(response.getMode()).isEqualTo("HYBRID");
+            // 1 两路都命中排第一；3 关键词第 1 名（1/61）高于 2 向量第 2 名（1/62）
+            assertThat(response.getCandidates()).extracting(SmartSearchResponse.MatchedCandidate::getCandidateId)
+                    .containsExactly(1L, 3L, 2L);
+
+            SmartSearchResponse.MatchedCandidate top = response.getCandidates().get(0);
+            assertThat(top.getVectorScore()).isEqualTo(0.9, within(1e-4));
+            assertThat(top.getLexicalScore()).isEqualTo(3.0);
+            assertThat(top.getFusionScore()).isEqualTo(1.0 / 61 + 1.0 / 62, within(1e-9));
+            assertThat(top.getMatchScore()).isBetween(0.0, 1.0);
+            assertThat(response.getCandidates().get(1).getVectorScore()).isNull();
+            assertThat(response.getCandidates().get(2).getLexicalScore()).isNull();
+        }
+
+        @Test
+        @DisplayName("向量结果低于阈值时不参与融合")
+        void shouldApplyMinScoreToVectorLeg() {
+            given(queryEmbeddingCache.getQueryEmbedding("Kafka")).willReturn(mockEmbedding);
+            given(vectorStoreService.search(anyList(), eq(30), isNull()))
+                    .willReturn(List.of(vectorHit(1L, 0.1f)));
+            given(lexicalSearchService.search("Kafka", 30, null)).willReturn(List.of());
+
+            SmartSearchResponse response = smartSearchService.search(request);
+
+            assertThat(response.getTotalMatches()).isZero();
+            then(candidateMapper).should(never()).selectBatchIds(anyList());
+        }
+
+        @Test
+        @DisplayName("关键词检索失败 - 降级为纯向量结果")
+        void shouldDegradeToVectorWhenLexicalFails() {
+            given(queryEmbeddingCache.getQueryEmbedding("Kafka")).willReturn(mockEmbedding);
+            given(vectorStoreService.search(anyList(), eq(30), isNull())).willReturn(List.of(vectorHit(1L, 0.9f)));
+            given(lexicalSearchService.search(anyString(), anyInt(), any()))
+                    .willThrow(new RuntimeException("MySQL 超时"));
+            given(candidateMapper.selectBatchIds(anyList()))
+                    .willReturn(List.of(buildCandidate(1L, "张三", "后端", "腾讯", 5)));
+
+            SmartSearchResponse response = smartSearchService.search(request);
+
+            assertThat(response.getMode()).isEqualTo("VECTOR");
+            assertThat(response.getTotalMatches()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("关键词检索超时或检索线程池已满 - 不等待，降级为纯向量结果")
+        void shouldDegradeToVectorWhenLexicalTimesOutOrRejected() {
+            given(queryEmbeddingCache.getQueryEmbedding("Kafka")).willReturn(mockEmbedding);
+            given(vectorStoreService.search(anyList(), eq(30), isNull())).willReturn(List.of(vectorHit(1L, 0.9f)));
+            given(candidateMapper.selectBatchIds(anyList()))
+                    .willReturn(List.of(buildCandidate(1L, "张三", "后端", "腾讯", 5)));
+            Executor neverRuns = task -> { };
+            Executor rejecting = task -> {
+                throw new RejectedExecutionException("search executor saturated");
+            };
+
+            for (Executor executor : List.of(neverRuns, rejecting)) {
+                SmartSearchService service = new SmartSearchService(queryEmbeddingCache, vectorStoreService,
+                        candidateMapper, lexicalSearchService, searchReranker, skillNormalizer, searchSessionStore,
+                        similarCandidateCache, vectorSearchCircuitBreaker, executor,
+                        60, 1.0, 1.0, 3, 50, 20, true);
+
+                SmartSearchResponse response = service.search(request);
+
+                assertThat(response.getMode()).isEqualTo("VECTOR");
+                assertThat(response.getTotalMatches()).isEqualTo(1);
+            }
+            then(lexicalSearchService).shouldHaveNoInteractions();
+        }
+
+        @Test
+        @DisplayName("向量检索失败 - 降级为纯关键词结果")
+        void shouldDegradeToLexicalWhenVectorFails() {
+            given(queryEmbeddingCache.getQueryEmbedding("Kafka")).willThrow(new RuntimeException("API 超时"));
+            given(lexicalSearchService.search("Kafka", 30, null)).willReturn(List.of(new LexicalHit(3L, 8.0)));
+            given(candidateMapper.selectBatchIds(anyList()))
+                    .willReturn(List.of(buildCandidate(3L, "王五", "后端", "字节", 4)));
+
+            SmartSearchResponse response = smartSearchService.search(request);
+
+            assertThat(response.getMode()).isEqualTo("LEXICAL");
+            assertThat(response.getCandidates().get(0).getLexicalScore()).isEqualTo(8.0);
+        }
+
+        @Test
+        @DisplayName("两路都失败 - 抛出向量检索的异常")
+        void shouldThrowWhenBothLegsFail() {
+            given(queryEmbeddingCache.getQueryEmbedding("Kafka")).willThrow(new RuntimeException("API 超时"));
+            given(lexicalSearchService.search(anyString(), anyInt(), any()))
+                    .willThrow(new RuntimeException("MySQL 超时"));
+
+            assertThatThrownBy(() -> smartSearchService.search(request))
+                    .isInstanceOf(BusinessException.class)
+                    .hasMessageContaining("AI 向量化服务不可用");
+        }
+    }
+
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+    // 结构化重排
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+
+    @Nested
+    @DisplayName("结构化重排")
+    class RerankTests {
+
+        @Test
+        @DisplayName("多召回后按结构化匹配度重排，截取 topK")
+        void shouldOverFetchAndRerank() {
+            request.setTopK(1);
+            SmartSearchRequest.RerankCriteria criteria = new SmartSearchRequest.RerankCriteria();
+            criteria.setSkills(List.of("Kafka"));
+            request.setRerank(criteria);
+
+            given(queryEmbeddingCache.getQueryEmbedding(anyString())).willReturn(mockEmbedding);
+            SearchResult sr1 = new SearchResult();
+            sr1.setCandidateId(1L);
+            sr1.setScore(0.85f);
+            SearchResult sr2 = new SearchResult();
+            sr2.setCandidateId(2L);
+            sr2.setScore(0.80f);
+            // topK=1 × over-fetch-multiplier=5
+            given(vectorStoreService.search(anyList(), eq(5), isNull())).willReturn(List.of(sr1, sr2));
+            Candidate kafka = buildCandidate(2L, "李四", "后端", "阿里", 3);
+            kafka.setSkills(List.of("Java", "kafka"));
+            given(candidateMapper.selectBatchIds(anyList()))
+                    .willReturn(List.of(buildCandidate(1L, "张三", "后端", "腾讯", 5), kafka));
+
+            SmartSearchResponse response = smartSearchService.search(request);
+
+            assertThat(response.getTotalMatches()).isEqualTo(1);
+            SmartSearchResponse.MatchedCandidate top = response.getCandidates().get(0);
+            assertThat(top.getCandidateId()).isEqualTo(2L);
+            assertThat(top.getRetrievalScore()).isEqualTo(0.8, within(1e-4));
+            assertThat(top.getSkillScore()).isEqualTo(1.0);
+            assertThat(top.getMatchScore()).isGreaterThan(top.getRetrievalScore());
+        }
+
+        @Test
+        @DisplayName("重排工作年限区间非法 - 抛出异常")
+        void shouldRejectInvalidRerankRange() {
+            SmartSearchRequest.RerankCriteria criteria = new SmartSearchRequest.RerankCriteria();
+            criteria.setMinWorkYears(5);
+            criteria.setMaxWorkYears(3);
+            request.setRerank(criteria);
+
+            assertThatThrownBy(() -> smartSearchService.search(request))
+                    .isInstanceOf(BusinessException.class)
+                    .hasMessageContaining("重排最低工作年限");
+        }
+    }
+
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+    // 分页搜索会话
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+
+    @Nested
+    @DisplayName("分页搜索会话")
+    class SessionTests {
+
+        private SearchResult hit(long id, float score) {
+            SearchResult sr = new SearchResult();
+            sr.setCandidateId(id);
+            sr.setScore(score);
+            return sr;
+        }
+
+        private SmartSearchResponse.MatchedCandidate cached(long id, double score) {
+            SmartSearchResponse.MatchedCandidate mc = new SmartSearchResponse.MatchedCandidate();
+            mc.setCandidateId(id);
+            mc.setMatchScore(score);
+            return mc;
+        }
+
+        @Test
+        @DisplayName("首次搜索缓存完整排序，只回表第一页")
+        void shouldCacheRankingAndHydrateFirstPage() {
+            request.setPageSize(2);
+            given(searchSessionStore.currentGeneration()).willReturn(7L);
+            given(queryEmbeddingCache.getQueryEmbedding(anyString())).willReturn(mockEmbedding);
+            // session.max-results=20，忽略 topK
+            given(vectorStoreService.search(anyList(), eq(20), isNull()))
+                    .willReturn(List.of(hit(1L, 0.9f), hit(2L, 0.8f), hit(3L, 0.7f)));
+            given(candidateMapper.selectBatchIds(List.of(1L, 2L))).willReturn(List.of(
+                    buildCandidate(1L, "张三", "后端", "腾讯", 5),
+                    buildCandidate(2L, "李四", "后端", "阿里", 3)));
+            given(searchSessionStore.save(any())).willReturn("sid");
+
+            SmartSearchResponse response = smartSearchService.search(request);
+
+            assertThat(response.getSearchId()).isEqualTo("sid");
+            assertThat(response.getTotalResults()).isEqualTo(3);
+            assertThat(response.getNextCursor()).isEqualTo("2");
+            assertThat(response.getCandidates()).extracting(SmartSearchResponse.MatchedCandidate::getName)
+                    .containsExactly("张三", "李四");
+
+            ArgumentCaptor<SearchSessionStore.SearchSession> captor =
+                    ArgumentCaptor.forClass(SearchSessionStore.SearchSession.class);
+            then(searchSessionStore).should().save(captor.capture());
+            SearchSessionStore.SearchSession session = captor.getValue();
+            assertThat(session.generation()).isEqualTo(7L);
+            assertThat(session.pageSize()).isEqualTo(2);
+            assertThat(session.hits()).extracting(SmartSearchResponse.MatchedCandidate::getCandidateId)
+                    .containsExactly(1L, 2L, 3L);
+            // 会话只缓存 ID 与分数
+            assertThat(session.hits()).extracting(SmartSearchResponse.MatchedCandidate::getName).containsOnlyNulls();
+        }
+
+        @Test
+        @DisplayName("翻页只回表当页候选人，不重复检索")
+        void shouldServeNextPageFromSession() {
+            given(searchSessionStore.get("sid")).willReturn(new SearchSessionStore.SearchSession(
+                    "Java", "VECTOR", 7L, 2, List.of(cached(1L, 0.9), cached(2L, 0.8), cached(3L, 0.7)), false));
+            given(candidateMapper.selectBatchIds(List.of(3L)))
+                    .willReturn(List.of(buildCandidate(3L, "王五", "后端", "字节", 4)));
+
+            SmartSearchResponse response = smartSearchService.nextPage("sid", "2", null);
+
+            assertThat(response.getCandidates()).singleElement().satisfies(mc -> {
+                assertThat(mc.getName()).isEqualTo("王五");
+                assertThat(mc.getMatchScore()).isEqualTo(0.7);
+            });
+            assertThat(response.getNextCursor()).isNull();
+            assertThat(response.getTotalResults()).isEqualTo(3);
+            then(queryEmbeddingCache).shouldHaveNoInteractions();
+            then(vectorStoreService).shouldHaveNoInteractions();
+        }
+
+        @Test
+        @DisplayName("会话不存在或已失效 - 提示重新搜索")
+        void shouldRejectExpiredSession() {
+            given(searchSessionStore.get("sid")).willReturn(null);
+
+            assertThatThrownBy(() -> smartSearchService.nextPage("sid", "2", null))
+                    .isInstanceOf(BusinessException.class)
+                    .extracting(e -> ((BusinessException) e).getCode())
+                    .isEqualTo(ResultCode.SEARCH_SESSION_EXPIRED.getCode());
+        }
+
+        @Test
+        @DisplayName("游标非法 - 抛出异常")
+        void shouldRejectInvalidCursor() {
+            given(searchSessionStore.get("sid")).willReturn(new SearchSessionStore.SearchSession(
+                    "Java", "VECTOR", 7L, 2, List.of(cached(1L, 0.9)), false));
+
+            assertThatThrownBy(() -> smartSearchService.nextPage("sid", "abc", null))
+                    .isInstanceOf(BusinessException.class)
+                    .hasMessageContaining("无效的分页游标");
+            assertThatThrownBy(() -> smartSearchService.nextPage("sid", "5", null))
+                    .isInstanceOf(BusinessException.class);
+        }
+    }
+
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+    // 批量搜索
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+
+    @Nested
+    @DisplayName("批量搜索")
+    class BatchSearchTests {
+
+        private SearchResult hit(long id, float score) {
+            SearchResult sr = new SearchResult();
+            sr.setCandidateId(id);
+            sr.setScore(score);
+            return sr;
+        }
+
+        @Test
+        @DisplayName("一次批量嵌入、一次多向量检索、候选人去重后一次回表")
+        void shouldBatchAllRoundTrips() {
+            BatchSmartSearchRequest batch = new BatchSmartSearchRequest();
+            batch.setQueries(List.of("Java 后端", "前端 React"));
+            batch.setTopK(5);
+
+            given(queryEmbeddingCache.getQueryEmbeddings(batch.getQueries()))
+                    .willReturn(List.of(mockEmbedding, mockEmbedding));
+            given(vectorStoreService.searchBatch(anyList(), eq(5), isNull())).willReturn(List.of(
+                    List.of(hit(1L, 0.9f), hit(2L, 0.2f)),
+                    List.of(hit(3L, 0.8f), hit(1L, 0.6f))));
+            given(candidateMapper.selectBatchIds(List.of(1L, 3L))).willReturn(List.of(
+                    buildCandidate(1L, "张三", "全栈", "腾讯", 5),
+                    buildCandidate(3L, "王五", "前端", "字节", 4)));
+
+            BatchSmartSearchResponse response = smartSearchService.batchSearch(batch);
+
+            assertThat(response.getTotalQueries()).isEqualTo(2);
+            assertThat(response.getUniqueCandidates()).isEqualTo(2);
+            assertThat(response.getResults().get(0).getQuery()).isEqualTo("Java 后端");
+            assertThat(response.getResults().get(0).getCandidates())
+                    .extracting(SmartSearchResponse.MatchedCandidate::getName).containsExactly("张三");
+            assertThat(response.getResults().get(1).getCandidates())
+                    .extracting(SmartSearchResponse.MatchedCandidate::getCandidateId).containsExactly(3L, 1L);
+            then(candidateMapper).should(times(1)).selectBatchIds(anyList());
+            then(queryEmbeddingCache).should(never()).getQueryEmbedding(anyString());
+        }
+
+        @Test
+        @DisplayName("批量向量化失败 - 抛出 AI 服务异常")
+        void shouldThrowWhenEmbeddingFails() {
+            BatchSmartSearchRequest batch = new BatchSmartSearchRequest();
+            batch.setQueries(List.of("Java"));
+            given(queryEmbeddingCache.getQueryEmbeddings(anyList())).willThrow(new RuntimeException("API 超时"));
+
+            assertThatThrownBy(() -> smartSearchService.batchSearch(batch))
+                    .isInstanceOf(BusinessException.class)
+                    .hasMessageContaining("AI 向量化服务不可用");
+            then(vectorStoreService).shouldHaveNoInteractions();
+        }
+    }
+
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+    // 相似候选人
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+
+    @Nested
+    @DisplayName("相似候选人")
+    class SimilarTests {
+
+        private Candidate seed() {
+            Candidate seed = buildCandidate(1L, "张三", "高级后端工程师", "腾讯", 5);
+            seed.setEmbeddingHash("hash-1");
+            return seed;
+        }
+
+        private SearchResult result(long candidateId, float score) {
+            SearchResult sr = new SearchResult();
+            sr.setCandidateId(candidateId);
+            sr.setScore(score);
+            return sr;
+        }
+
+        @Test
+        @DisplayName("以已存储的种子向量检索，排除种子本身且不调用 embedding")
+        void shouldSearchWithStoredVectorExcludingSeed() {
+            given(candidateMapper.selectById(1L)).willReturn(seed());
+            given(similarCandidateCache.get(1L, "hash-1")).willReturn(null);
+            given(vectorStoreService.getVectors(List.of(1L))).willReturn(Map.of(1L, mockEmbedding));
+            given(vectorStoreService.search(mockEmbedding, SmartSearchService.SIMILAR_FETCH_SIZE + 1, null))
+                    .willReturn(List.of(result(1L, 1.0f), result(2L, 0.8f), result(3L, 0.2f)));
+            given(candidateMapper.selectBatchIds(List.of(2L)))
+                    .willReturn(List.of(buildCandidate(2L, "李四", "后端工程师", "阿里巴巴", 3)));
+
+            SmartSearchResponse response = smartSearchService.similar(1L, null, null);
+
+            assertThat(response.getMode()).isEqualTo("SIMILAR");
+            assertThat(response.getCandidates()).extracting(SmartSearchResponse.MatchedCandidate::getCandidateId)
+                    .containsExactly(2L);
+            then(queryEmbeddingCache).shouldHaveNoInteractions();
+
+            @SuppressWarnings("unchecked")
+            ArgumentCaptor<List<SmartSearchResponse.MatchedCandidate>> cached = ArgumentCaptor.forClass(List.class);
+            then(similarCandidateCache).should().put(eq(1L), eq("hash-1"), cached.capture());
+            assertThat(cached.getValue()).extracting(SmartSearchResponse.MatchedCandidate::getCandidateId)
+                    .containsExactly(2L, 3L);
+        }
+
+        @Test
+        @DisplayName("缓存命中时不访问向量存储")
+        void shouldUseCachedRanking() {
+            SmartSearchResponse.MatchedCandidate hit = new SmartSearchResponse.MatchedCandidate();
+            hit.setCandidateId(2L);
+            hit.setMatchScore(0.8);
+            given(candidateMapper.selectById(1L)).willReturn(seed());
+            given(similarCandidateCache.get(1L, "hash-1")).willReturn(List.of(hit));
+            given(candidateMapper.selectBatchIds(List.of(2L)))
+                    .willReturn(List.of(buildCandidate(2L, "李四", "后端工程师", "阿里巴巴", 3)));
+
+            SmartSearchResponse response = smartSearchService.similar(1L, 5, 0.5);
+
+            assertThat(response.getTotalMatches()).isEqualTo(1);
+            assertThat(response.getCandidates().get(0).getName()).isEqualTo("李四");
+            then(vectorStoreService).shouldHaveNoInteractions();
+        }
+
+        @Test
+        @DisplayName("候选人不存在或尚未向量化")
+        void shouldRejectMissingSeedOrVector() {
+            assertThatThrownBy(() -> smartSearchService.similar(9L, null, null))
+                    .isInstanceOf(BusinessException.class)
+                    .hasMessageContaining("候选人不存在");
+
+            given(candidateMapper.selectById(1L)).willReturn(seed());
+            given(similarCandidateCache.get(1L, "hash-1")).willReturn(null);
+            given(vectorStoreService.getVectors(List.of(1L))).willReturn(Map.of());
+            assertThatThrownBy(() -> smartSearchService.similar(1L, null, null))
+                    .isInstanceOf(BusinessException.class)
+                    .hasMessageContaining(ResultCode.VECTOR_NOT_READY.getMessage());
+        }
+
+        @Test
+        @DisplayName("topK 超出范围")
+        void shouldRejectInvalidTopK() {
+            assertThatThrownBy(() -> smartSearchService.similar(1L, 51, null))
+                    .isInstanceOf(BusinessException.class)
+                    .hasMessageContaining("topK");
+            then(candidateMapper).shouldHaveNoInteractions();
+        }
+    }
+
     // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
     // Helper
     // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
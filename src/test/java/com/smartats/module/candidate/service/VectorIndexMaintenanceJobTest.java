@@ -0,0 +1,149 @@
+package com.smartats.module.candidate.service;
+
+import com.smartats.common.constants.RedisKeyConstants;
+import com.smartats.infrastructure.vector.MilvusVectorStoreService;
+import com.smartats.infrastructure.vector.MilvusVectorStoreService.CollectionStats;
+import com.smartats.infrastructure.vector.VectorIndexSettings;
+import com.smartats.module.candidate.service.VectorIndexMaintenanceJob.MaintenanceReport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.*;
+
+/**
+ * VectorIndexMaintenanceJob 单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("VectorIndexMaintenanceJob 单元测试")
+class VectorIndexMaintenanceJobTest {
+
+    @Mock
+    private MilvusVectorStoreService vectorStoreService;
+    @Mock
+    private RedissonClient redissonClient;
+    @Mock
+    private RLock lock;
+
+    private VectorIndexMaintenanceJob job;
+
+    @BeforeEach
+    void setUp() {
+        job = new VectorIndexMaintenanceJob(vectorStoreService, redissonClient, 0.2, 10_000, 2.0);
+    }
+
+    private void givenLock(boolean acquired) {
+        given(redissonClient.getLock(RedisKeyConstants.LOCK_VECTOR_INDEX_MAINTENANCE_KEY)).willReturn(lock);
+        given(lock.tryLock()).willReturn(acquired);
+    }
+
+    private static VectorIndexSettings ivf(int nlist, int nprobe) {
+        return VectorIndexSettings.builder().indexType("IVF_SQ8").nlist(nlist).nprobe(nprobe).build();
+    }
+
+    private void givenIndex(VectorIndexSettings settings, long totalRows, long liveRows) {
+        givenLock(true);
+        given(vectorStoreService.getActiveSettings()).willReturn(settings);
+        given(vectorStoreService.getCollectionStats()).willReturn(new CollectionStats(totalRows, liveRows));
+    }
+
+    @Test
+    @DisplayName("数据量增长使推荐 nlist 偏离超过阈值 - 保持 nprobe 重建")
+    void shouldRebuildWhenNlistDrifts() {
+        givenIndex(ivf(128, 16), 1_000_000, 1_000_000);
+
+        MaintenanceReport report = job.run();
+
+        ArgumentCaptor<VectorIndexSettings> captor = ArgumentCaptor.forClass(VectorIndexSettings.class);
+        then(vectorStoreService).should().rebuildIndex(captor.capture());
+        assertThat(captor.getValue().getNlist()).isEqualTo(4000);
+        assertThat(captor.getValue().getNprobe()).isEqualTo(16);
+        then(vectorStoreService).should(never()).compact();
+        assertThat(report.getAction()).isEqualTo(VectorIndexMaintenanceJob.ACTION_REBUILD);
+        assertThat(report.getRecommendedNlist()).isEqualTo(4000);
+        assertThat(job.getLastReport()).isSameAs(report);
+        then(lock).should().unlock();
+    }
+
+    @Test
+    @DisplayName("nlist 合适但已删除行占比超过阈值 - 触发 compaction")
+    void shouldCompactWhenDeletedRatioHigh() {
+        givenIndex(ivf(400, 16), 12_500, 10_000);
+
+        MaintenanceReport report = job.run();
+
+        then(vectorStoreService).should().compact();
+        then(vectorStoreService).should(never()).rebuildIndex(any());
+        assertThat(report.getAction()).isEqualTo(VectorIndexMaintenanceJob.ACTION_COMPACT);
+        assertThat(report.getDeletedRatio()).isEqualTo(0.2);
+    }
+
+    @Test
+    @DisplayName("索引状态正常 - 不做任何操作")
+    void shouldDoNothingWhenHealthy() {
+        givenIndex(ivf(400, 16), 10_100, 10_000);
+
+        MaintenanceReport report = job.run();
+
+        then(vectorStoreService).should(never()).compact();
+        then(vectorStoreService).should(never()).rebuildIndex(any());
+        assertThat(report.getAction()).isEqualTo(VectorIndexMaintenanceJob.ACTION_NONE);
+    }
+
+    @Test
+    @DisplayName("其他实例持有锁 - 跳过且不读取统计")
+    void shouldSkipWhenLocked() {
+        givenLock(false);
+
+        assertThat(job.run()).isNull();
+
+        then(vectorStoreService).should().refreshIndexSettings();
+        then(vectorStoreService).should(never()).getCollectionStats();
+        then(lock).should(never()).unlock();
+    }
+
+    @Test
+    @DisplayName("索引重建执行中 - 跳过")
+    void shouldSkipWhileRebuilding() {
+        givenLock(true);
+        given(vectorStoreService.isRebuilding()).willReturn(true);
+
+        MaintenanceReport report = job.run();
+
+        assertThat(report.getAction()).isEqualTo(VectorIndexMaintenanceJob.ACTION_SKIPPED);
+        then(vectorStoreService).should(never()).getCollectionStats();
+        then(lock).should().unlock();
+    }
+
+    @Test
+    @DisplayName("统计失败 - 记录失败报告并释放锁")
+    void shouldReportFailure() {
+        givenLock(true);
+        given(vectorStoreService.getCollectionStats()).willThrow(new IllegalStateException("Milvus 不可用"));
+
+        MaintenanceReport report = job.run();
+
+        assertThat(report.getAction()).isEqualTo(VectorIndexMaintenanceJob.ACTION_FAILED);
+        assertThat(report.getMessage()).isEqualTo("Milvus 不可用");
+        then(lock).should().unlock();
+    }
+
+    @Test
+    @DisplayName("HNSW 或数据量不足时不调整 nlist")
+    void shouldNotRetuneGraphIndexOrSmallCollection() {
+        VectorIndexSettings hnsw = VectorIndexSettings.builder().indexType("HNSW").m(16).efConstruction(200).ef(64)
+                .build();
+
+        assertThat(job.retune(hnsw, 1_000_000)).isNull();
+        assertThat(job.retune(ivf(16, 4), 9_999)).isNull();
+        assertThat(job.retune(ivf(16, 4), 10_000)).isNotNull();
+    }
+}
@@ -0,0 +1,137 @@
+package com.smartats.module.candidate.service;
+
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
+import com.smartats.infrastructure.storage.FileStorageService;
+import com.smartats.infrastructure.vector.EmbeddingService;
+import com.smartats.infrastructure.vector.VectorSnapshotCodec.Encoding;
+import com.smartats.infrastructure.vector.VectorStoreService;
+import com.smartats.module.candidate.entity.Candidate;
+import com.smartats.module.candidate.mapper.CandidateMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.*;
+
+/**
+ * VectorSnapshotJob 单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("VectorSnapshotJob 单元测试")
+class VectorSnapshotJobTest {
+
+    @Mock
+    private CandidateMapper candidateMapper;
+    @Mock
+    private VectorStoreService vectorStoreService;
+    @Mock
+    private CandidateVectorService candidateVectorService;
+    @Mock
+    private FileStorageService fileStorageService;
+
+    @TempDir
+    Path tempDir;
+
+    private VectorSnapshotJob job;
+
+    @BeforeEach
+    void setUp() {
+        job = new VectorSnapshotJob(candidateMapper, vectorStoreService, candidateVectorService, fileStorageService,
+                tempDir.toString(), "vector-snapshots/", 2);
+    }
+
+    private static Candidate candidate(long id) {
+        Candidate candidate = new Candidate();
+        candidate.setId(id);
+        candidate.setName("候选人" + id);
+        return candidate;
+    }
+
+    private static List<Float> vector(float seed) {
+        List<Float> vector = new ArrayList<>(Collections.nCopies(EmbeddingService.EMBEDDING_DIMENSION, 0f));
+        vector.set(0, seed);
+        vector.set(1, 1f);
+        return vector;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenCandidatesWithVectors() {
+        given(candidateMapper.selectList(any(Wrapper.class)))
+                .willReturn(List.of(candidate(1L), candidate(2L)))
+                .willReturn(List.of(candidate(3L)))
+                .willReturn(List.of());
+        given(vectorStoreService.getVectors(anyCollection()))
+                .willReturn(Map.of(1L, vector(1f), 2L, vector(2f)))
+                .willReturn(Map.of());
+    }
+
+    @Test
+    @DisplayName("导出后导入：向量按块批量写回，跳过未向量化与已删除的候选人")
+    @SuppressWarnings("unchecked")
+    void shouldExportAndImportLocally() {
+        givenCandidatesWithVectors();
+
+        job.export("LOCAL", "snap.vsnap", Encoding.FLOAT32);
+
+        assertThat(job.getStatus().getState()).isEqualTo("SUCCEEDED");
+        assertThat(job.getStatus().getRows()).isEqualTo(2);
+        assertThat(job.getStatus().getSkipped()).isEqualTo(1);
+        assertThat(Files.exists(tempDir.resolve("snap.vsnap"))).isTrue();
+        assertThat(job.isRunning()).isFalse();
+
+        // 导入时候选人 2 已被删除
+        given(candidateMapper.selectBatchIds(anyCollection())).willReturn(List.of(candidate(1L)));
+        job.importSnapshot("LOCAL", "snap.vsnap");
+
+        ArgumentCaptor<List<Candidate>> candidates = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<List<List<Float>>> embeddings = ArgumentCaptor.forClass(List.class);
+        then(vectorStoreService).should().upsertVectors(candidates.capture(), embeddings.capture());
+        assertThat(candidates.getValue()).extracting(Candidate::getId).containsExactly(1L);
+        assertThat(embeddings.getValue().get(0)).isEqualTo(vector(1f));
+        assertThat(job.getStatus().getRows()).isEqualTo(1);
+        assertThat(job.getStatus().getSkipped()).isEqualTo(1);
+        then(candidateVectorService).should().markVectorsChanged();
+    }
+
+    @Test
+    @DisplayName("导出到 MinIO：上传后删除本地文件")
+    void shouldUploadToMinio() {
+        givenCandidatesWithVectors();
+
+        job.export("MINIO", "snap.vsnap", Encoding.INT8);
+
+        then(fileStorageService).should().uploadFile(any(InputStream.class), eq("vector-snapshots/snap.vsnap"),
+                anyLong(), eq("application/octet-stream"));
+        assertThat(Files.exists(tempDir.resolve("snap.vsnap"))).isFalse();
+        assertThat(job.getStatus().getBytes()).isPositive();
+    }
+
+    @Test
+    @DisplayName("快照损坏时导入失败并记录原因，不写入向量")
+    void shouldFailOnCorruptSnapshot() throws Exception {
+        Files.write(tempDir.resolve("bad.vsnap"), new byte[64]);
+
+        assertThatThrownBy(() -> job.importSnapshot("LOCAL", "bad.vsnap"))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(job.getStatus().getState()).isEqualTo("FAILED");
+        assertThat(job.getStatus().getErrorMessage()).contains("不是向量快照文件");
+        then(vectorStoreService).shouldHaveNoInteractions();
+        assertThat(job.isRunning()).isFalse();
+    }
+}
@@ -0,0 +1,125 @@
+package com.smartats.module.job.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartats.infrastructure.vector.EmbeddingService;
+import com.smartats.infrastructure.vector.VectorCodec;
+import com.smartats.module.application.service.SkillNormalizer;
+import com.smartats.module.job.entity.Job;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.*;
+
+/**
+ * JobEmbeddingService 单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("JobEmbeddingService 单元测试")
+class JobEmbeddingServiceTest {
+
+    @Mock
+    private EmbeddingService embeddingService;
+    @Mock
+    private StringRedisTemplate redisTemplate;
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private JobEmbeddingService jobEmbeddingService;
+    private List<Float> mockEmbedding;
+    private Job job;
+
+    @BeforeEach
+    void setUp() {
+        SkillNormalizer skillNormalizer =
+                new SkillNormalizer(new DefaultResourceLoader(), "classpath:skill-aliases.txt");
+        jobEmbeddingService = new JobEmbeddingService(embeddingService, redisTemplate,
+                new JobProfileCache(new ObjectMapper(), skillNormalizer, 100), "embedding-3", 7);
+        mockEmbedding = new ArrayList<>(Collections.nCopies(EmbeddingService.EMBEDDING_DIMENSION, 0.1f));
+
+        job = new Job();
+        job.setId(100L);
+        job.setTitle("Java 后端工程师");
+        job.setRequiredSkills("[\"Java\",\"Redis\"]");
+        job.setExperienceMin(3);
+    }
+
+    private String fingerprintOf(Job job) {
+        return jobEmbeddingService.fingerprint(DigestUtils.sha256Hex(jobEmbeddingService.buildJobText(job)));
+    }
+
+    @Test
+    @DisplayName("职位文本包含标题、技能与经验要求")
+    void shouldBuildJobText() {
+        String text = jobEmbeddingService.buildJobText(job);
+
+        assertThat(text).contains("职位: Java 后端工程师", "技能: Java, Redis", "经验: 3+年");
+    }
+
+    @Test
+    @DisplayName("未缓存时调用 embedding API 并带指纹写入 Redis")
+    void shouldEmbedAndCacheOnMiss() {
+        given(redisTemplate.opsForValue()).willReturn(valueOperations);
+        given(embeddingService.generateQueryEmbedding(anyString())).willReturn(mockEmbedding);
+        String fingerprint = fingerprintOf(job);
+
+        List<Float> result = jobEmbeddingService.getJobEmbedding(job);
+
+        assertThat(result).isEqualTo(mockEmbedding);
+        then(valueOperations).should().set(eq("cache:embedding:job:100"),
+                eq(fingerprint + ":" + VectorCodec.encode(mockEmbedding)), eq(7L), eq(TimeUnit.DAYS));
+    }
+
+    @Test
+    @DisplayName("指纹一致时复用缓存，不调用 embedding API")
+    void shouldReuseCachedEmbedding() {
+        given(redisTemplate.opsForValue()).willReturn(valueOperations);
+        String fingerprint = fingerprintOf(job);
+        given(valueOperations.get("cache:embedding:job:100"))
+                .willReturn(fingerprint + ":" + VectorCodec.encode(mockEmbedding));
+
+        List<Float> result = jobEmbeddingService.getJobEmbedding(job);
+
+        assertThat(result).isEqualTo(mockEmbedding);
+        then(embeddingService).shouldHaveNoInteractions();
+    }
+
+    @Test
+    @DisplayName("职位内容变更后指纹不一致，重新生成向量")
+    void shouldReEmbedWhenJobChanged() {
+        given(redisTemplate.opsForValue()).willReturn(valueOperations);
+        String oldFingerprint = fingerprintOf(job);
+        given(valueOperations.get("cache:embedding:job:100"))
+                .willReturn(oldFingerprint + ":" + VectorCodec.encode(mockEmbedding));
+        given(embeddingService.generateQueryEmbedding(anyString())).willReturn(mockEmbedding);
+        job.setTitle("Go 后端工程师");
+
+        jobEmbeddingService.getJobEmbedding(job);
+
+        then(embeddingService).should().generateQueryEmbedding(contains("Go 后端工程师"));
+    }
+
+    @Test
+    @DisplayName("Redis 不可用时降级为直接调用 embedding API")
+    void shouldFallbackWhenRedisDown() {
+        given(redisTemplate.opsForValue()).willThrow(new RedisConnectionFailureException("down"));
+        given(embeddingService.generateQueryEmbedding(anyString())).willReturn(mockEmbedding);
+
+        assertThat(jobEmbeddingService.getJobEmbedding(job)).isEqualTo(mockEmbedding);
+    }
+}
@@ -0,0 +1,88 @@
+package com.smartats.module.job.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartats.module.application.service.SkillNormalizer;
+import com.smartats.module.job.entity.Job;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * JobProfileCache 单元测试
+ */
+@DisplayName("JobProfileCache 单元测试")
+class JobProfileCacheTest {
+
+    private SkillNormalizer skillNormalizer;
+    private JobProfileCache cache;
+    private Job job;
+
+    @BeforeEach
+    void setUp() {
+        skillNormalizer = new SkillNormalizer(new DefaultResourceLoader(), "classpath:skill-aliases.txt");
+        cache = new JobProfileCache(new ObjectMapper(), skillNormalizer, 2);
+
+        job = new Job();
+        job.setId(100L);
+        job.setTitle("Java 后端工程师");
+        job.setRequiredSkills("[\" Java \",\"Redis\",\"java\"]");
+        job.setEducation("硕士");
+        job.setExperienceMin(3);
+        job.setExperienceMax(5);
+    }
+
+    @Test
+    @DisplayName("编译画像：技能解析并归一化，学历等级、经验区间与文本哈希预先算好")
+    void shouldCompileProfile() {
+        JobProfile profile = cache.get(job);
+
+        assertThat(profile.requiredSkills()).containsExactly(" Java ", "Redis", "java");
+        assertThat(profile.normalizedSkills()).containsExactlyInAnyOrder("java", "redis");
+        assertThat(profile.educationRequired()).isTrue();
+        assertThat(profile.educationRank()).isEqualTo(3);
+        assertThat(profile.experienceMin()).isEqualTo(3);
+        assertThat(profile.experienceMax()).isEqualTo(5);
+        assertThat(profile.text()).contains("职位: Java 后端工程师", "学历: 硕士", "经验: 3-5年");
+        assertThat(profile.textHash()).isEqualTo(DigestUtils.sha256Hex(profile.text()));
+    }
+
+    @Test
+    @DisplayName("职位内容未变时复用同一画像，变化后重新编译")
+    void shouldReuseUntilContentChanges() {
+        JobProfile first = cache.get(job);
+
+        Job reloaded = new Job();
+        reloaded.setId(100L);
+        reloaded.setTitle("Java 后端工程师");
+        reloaded.setRequiredSkills("[\" Java \",\"Redis\",\"java\"]");
+        reloaded.setEducation("硕士");
+        reloaded.setExperienceMin(3);
+        reloaded.setExperienceMax(5);
+        reloaded.setSalaryMax(50);
+        assertThat(cache.get(reloaded)).isSameAs(first);
+
+        reloaded.setRequiredSkills("[\"Go\"]");
+        JobProfile changed = cache.get(reloaded);
+        assertThat(changed).isNotSameAs(first);
+        assertThat(changed.normalizedSkills()).containsExactly("go");
+    }
+
+    @Test
+    @DisplayName("失效后重新编译；无技能要求与学历不限时画像为空要求")
+    void shouldRecompileAfterEvict() {
+        JobProfile first = cache.get(job);
+        cache.evict(100L);
+        assertThat(cache.get(job)).isNotSameAs(first).isEqualTo(first);
+
+        job.setRequiredSkills(null);
+        job.setEducation("不限");
+        JobProfile open = cache.get(job);
+        assertThat(open.requiredSkills()).isEmpty();
+        assertThat(open.normalizedSkills()).isEmpty();
+        assertThat(open.educationRequired()).isFalse();
+    }
+}
@@ -4,12 +4,14 @@ import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.smartats.common.enums.JobStatus;
 import com.smartats.common.exception.BusinessException;
+import com.smartats.module.application.service.MatchScoreService;
 import com.smartats.module.job.dto.request.CreateJobRequest;
 import com.smartats.module.job.dto.request.JobQueryRequest;
 import com.smartats.module.job.dto.request.UpdateJobRequest;
 import com.smartats.module.job.dto.response.JobResponse;
 import com.smartats.module.job.entity.Job;
 import com.smartats.module.job.mapper.JobMapper;
+import com.smartats.module.recommendation.service.JobTopCandidateService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -21,6 +23,8 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -49,6 +53,14 @@ class JobServiceTest {
     private ObjectMapper objectMapper;
     @Mock
     private CacheEvictionService cacheEvictionService;
+    @Mock
+    private JobVectorService jobVectorService;
+    @Mock
+    private MatchScoreService matchScoreService;
+    @Mock
+    private JobTopCandidateService jobTopCandidateService;
+    @Mock
+    private JobProfileCache jobProfileCache;
 
     @BeforeEach
     void setUp() {
@@ -147,6 +159,26 @@ class JobServiceTest {
             // 验证延迟双删
             then(redisTemplate).should().delete(anyString()); // 第一次删除
             then(cacheEvictionService).should().asyncDeleteCache(anyString()); // 延迟双删
+            // 职位文本变化影响语义分，触发批量重算
+            then(matchScoreService).should().rescoreJobAsync(existingJob);
+            then(jobTopCandidateService).should().rebuildAsync(existingJob);
+            then(jobProfileCache).should().evict(1L);
+        }
+
+        @Test
+        @DisplayName("只修改薪资 - 不触发匹配分数重算")
+        void updateJob_salaryOnly_noRescore() {
+            UpdateJobRequest request = new UpdateJobRequest();
+            request.setId(1L);
+            request.setSalaryMin(20);
+
+            given(jobMapper.selectById(1L)).willReturn(existingJob);
+            given(jobMapper.updateById(any(Job.class))).willReturn(1);
+
+            jobService.updateJob(request, 100L);
+
+            then(matchScoreService).shouldHaveNoInteractions();
+            then(jobTopCandidateService).shouldHaveNoInteractions();
         }
 
         @Test
@@ -207,6 +239,31 @@ class JobServiceTest {
             ArgumentCaptor<Job> captor = ArgumentCaptor.forClass(Job.class);
             then(jobMapper).should().updateById(captor.capture());
             assertThat(captor.getValue().getStatus()).isEqualTo(JobStatus.PUBLISHED.getCode());
+            then(jobVectorService).should().syncJobAsync(draftJob);
+            then(jobTopCandidateService).should().rebuildAsync(draftJob);
+        }
+
+        @Test
+        @DisplayName("事务中发布职位 - 向量同步与推荐重建在提交后才发出")
+        void publishJob_dispatchesAfterCommit() {
+            given(jobMapper.selectById(1L)).willReturn(draftJob);
+            given(jobMapper.updateById(any(Job.class))).willReturn(1);
+
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                jobService.publishJob(1L, 100L);
+
+                then(jobVectorService).should(never()).syncJobAsync(any());
+                then(jobTopCandidateService).should(never()).rebuildAsync(any());
+
+                TransactionSynchronizationManager.getSynchronizations()
+                        .forEach(TransactionSynchronization::afterCommit);
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+
+            then(jobVectorService).should().syncJobAsync(draftJob);
+            then(jobTopCandidateService).should().rebuildAsync(draftJob);
         }
 
         @Test
@@ -232,6 +289,7 @@ class JobServiceTest {
             ArgumentCaptor<Job> captor = ArgumentCaptor.forClass(Job.class);
             then(jobMapper).should().updateById(captor.capture());
             assertThat(captor.getValue().getStatus()).isEqualTo(JobStatus.CLOSED.getCode());
+            then(jobTopCandidateService).should().evict(1L);
         }
 
         @Test
@@ -347,6 +405,7 @@ class JobServiceTest {
 
             then(jobMapper).should().deleteById(1L);
             then(redisTemplate).should().delete(anyString());
+            then(jobVectorService).should().deleteJobAsync(1L);
         }
 
         @Test
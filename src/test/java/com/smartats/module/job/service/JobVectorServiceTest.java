@@ -0,0 +1,77 @@
+package com.smartats.module.job.service;
+
+import com.smartats.infrastructure.vector.JobVectorStoreService;
+import com.smartats.module.job.entity.Job;
+import com.smartats.module.job.mapper.JobMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.*;
+
+/**
+ * JobVectorService 单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("JobVectorService 单元测试")
+class JobVectorServiceTest {
+
+    @Mock
+    private JobEmbeddingService jobEmbeddingService;
+    @Mock
+    private JobVectorStoreService jobVectorStoreService;
+    @Mock
+    private JobMapper jobMapper;
+
+    private JobVectorService jobVectorService;
+
+    @BeforeEach
+    void setUp() {
+        jobVectorService = new JobVectorService(jobEmbeddingService, jobVectorStoreService, jobMapper, true);
+    }
+
+    private static Job job(long id) {
+        Job job = new Job();
+        job.setId(id);
+        job.setTitle("职位" + id);
+        return job;
+    }
+
+    @Test
+    @DisplayName("同步职位时写入向量与最新状态")
+    void shouldUpsertJobVector() {
+        Job job = job(1L);
+        List<Float> embedding = List.of(0.1f, 0.2f);
+        given(jobEmbeddingService.getJobEmbedding(job)).willReturn(embedding);
+
+        jobVectorService.syncJob(job);
+
+        then(jobVectorStoreService).should().upsertVector(job, embedding);
+    }
+
+    @Test
+    @DisplayName("回填只处理尚未向量化的职位，单个失败不影响其他职位")
+    void shouldBackfillMissingJobs() {
+        Job existing = job(1L);
+        Job missing = job(2L);
+        Job broken = job(3L);
+        given(jobMapper.selectList(isNull())).willReturn(List.of(existing, missing, broken));
+        given(jobVectorStoreService.getVectors(List.of(1L, 2L, 3L))).willReturn(Map.of(1L, List.of(0.1f)));
+        given(jobEmbeddingService.getJobEmbedding(missing)).willReturn(List.of(0.2f));
+        given(jobEmbeddingService.getJobEmbedding(broken)).willThrow(new RuntimeException("AI 服务不可用"));
+
+        int filled = jobVectorService.backfillMissing();
+
+        assertThat(filled).isEqualTo(1);
+        then(jobVectorStoreService).should().upsertVector(missing, List.of(0.2f));
+        then(jobEmbeddingService).should(never()).getJobEmbedding(existing);
+    }
+}
@@ -0,0 +1,138 @@
+package com.smartats.module.recommendation.controller;
+
+import com.smartats.common.exception.BusinessException;
+import com.smartats.common.result.ResultCode;
+import com.smartats.config.SecurityConfig;
+import com.smartats.module.auth.filter.JwtAuthenticationFilter;
+import com.smartats.module.recommendation.dto.RecommendedCandidate;
+import com.smartats.module.recommendation.dto.RecommendedJob;
+import com.smartats.module.recommendation.service.JobTopCandidateService;
+import com.smartats.module.recommendation.service.RecommendationService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * RecommendationController 集成测试
+ */
+@WebMvcTest(RecommendationController.class)
+@Import(SecurityConfig.class)
+@DisplayName("RecommendationController 集成测试")
+class RecommendationControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private RecommendationService recommendationService;
+
+    @MockBean
+    private JobTopCandidateService jobTopCandidateService;
+
+    @MockBean
+    private JwtAuthenticationFilter jwtAuthenticationFilter;
+
+    @BeforeEach
+    void configureMockFilter() throws Exception {
+        lenient().doAnswer(invocation -> {
+            HttpServletRequest req = invocation.getArgument(0);
+            HttpServletResponse res = invocation.getArgument(1);
+            FilterChain chain = invocation.getArgument(2);
+            chain.doFilter(req, res);
+            return null;
+        }).when(jwtAuthenticationFilter)
+                .doFilter(any(HttpServletRequest.class), any(HttpServletResponse.class), any(FilterChain.class));
+    }
+
+    private UsernamePasswordAuthenticationToken hrAuth() {
+        return new UsernamePasswordAuthenticationToken(
+                1L, null, List.of(new SimpleGrantedAuthority("ROLE_HR"))
+        );
+    }
+
+    @Test
+    @DisplayName("为职位推荐候选人")
+    void shouldRecommendCandidates() throws Exception {
+        RecommendedCandidate candidate = new RecommendedCandidate();
+        candidate.setCandidateId(7L);
+        candidate.setName("张三");
+        candidate.setMatchScore(0.91);
+        given(recommendationService.recommendCandidates(100L, 5)).willReturn(List.of(candidate));
+
+        mockMvc.perform(get("/recommendations/jobs/100/candidates")
+                        .param("topN", "5")
+                        .with(authentication(hrAuth())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value(200))
+                .andExpect(jsonPath("$.data[0].candidateId").value(7))
+                .andExpect(jsonPath("$.data[0].matchScore").value(0.91));
+    }
+
+    @Test
+    @DisplayName("读取职位物化推荐候选人")
+    void shouldReturnTopCandidates() throws Exception {
+        RecommendedCandidate candidate = new RecommendedCandidate();
+        candidate.setCandidateId(7L);
+        candidate.setMatchScore(86.5);
+        given(jobTopCandidateService.getTopCandidates(100L, 20)).willReturn(List.of(candidate));
+
+        mockMvc.perform(get("/recommendations/jobs/100/top-candidates")
+                        .param("topN", "20")
+                        .with(authentication(hrAuth())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].candidateId").value(7))
+                .andExpect(jsonPath("$.data[0].matchScore").value(86.5));
+    }
+
+    @Test
+    @DisplayName("为候选人推荐职位（默认 topN=10）")
+    void shouldRecommendJobs() throws Exception {
+        RecommendedJob job = new RecommendedJob();
+        job.setJobId(100L);
+        job.setTitle("Java 后端工程师");
+        given(recommendationService.recommendJobs(7L, 10)).willReturn(List.of(job));
+
+        mockMvc.perform(get("/recommendations/candidates/7/jobs")
+                        .with(authentication(hrAuth())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].jobId").value(100))
+                .andExpect(jsonPath("$.data[0].title").value("Java 后端工程师"));
+    }
+
+    @Test
+    @DisplayName("向量未生成时返回业务错误码")
+    void shouldReturnErrorWhenVectorNotReady() throws Exception {
+        given(recommendationService.recommendJobs(7L, 10))
+                .willThrow(new BusinessException(ResultCode.VECTOR_NOT_READY));
+
+        mockMvc.perform(get("/recommendations/candidates/7/jobs")
+                        .with(authentication(hrAuth())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value(ResultCode.VECTOR_NOT_READY.getCode()));
+    }
+
+    @Test
+    @DisplayName("未认证返回403")
+    void shouldReturn403WhenNotAuthenticated() throws Exception {
+        mockMvc.perform(get("/recommendations/jobs/100/candidates"))
+                .andExpect(status().isForbidden());
+    }
+}
@@ -0,0 +1,240 @@
+package com.smartats.module.recommendation.service;
+
+import com.smartats.common.constants.RedisKeyConstants;
+import com.smartats.common.enums.JobStatus;
+import com.smartats.common.exception.BusinessException;
+import com.smartats.common.result.ResultCode;
+import com.smartats.infrastructure.vector.JobVectorStoreService;
+import com.smartats.infrastructure.vector.VectorStoreService;
+import com.smartats.infrastructure.vector.VectorStoreService.SearchResult;
+import com.smartats.module.application.service.MatchScoreService;
+import com.smartats.module.candidate.entity.Candidate;
+import com.smartats.module.candidate.mapper.CandidateMapper;
+import com.smartats.module.job.entity.Job;
+import com.smartats.module.job.mapper.JobMapper;
+import com.smartats.module.job.service.JobEmbeddingService;
+import com.smartats.module.recommendation.dto.RecommendedCandidate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.*;
+
+/**
+ * JobTopCandidateService 单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("JobTopCandidateService 单元测试")
+class JobTopCandidateServiceTest {
+
+    private static final String KEY = RedisKeyConstants.RECOMMEND_JOB_TOP_CANDIDATES_KEY_PREFIX + "100";
+
+    @Mock
+    private VectorStoreService vectorStoreService;
+    @Mock
+    private JobVectorStoreService jobVectorStoreService;
+    @Mock
+    private JobEmbeddingService jobEmbeddingService;
+    @Mock
+    private MatchScoreService matchScoreService;
+    @Mock
+    private JobMapper jobMapper;
+    @Mock
+    private CandidateMapper candidateMapper;
+    @Mock
+    private StringRedisTemplate redisTemplate;
+    @Mock
+    private ZSetOperations<String, String> zSetOperations;
+
+    private JobTopCandidateService service;
+
+    private final List<Float> vector = List.of(0.1f, 0.2f);
+
+    @BeforeEach
+    void setUp() {
+        service = new JobTopCandidateService(vectorStoreService, jobVectorStoreService, jobEmbeddingService,
+                matchScoreService, jobMapper, candidateMapper, redisTemplate, 2, 4, 24);
+    }
+
+    private static Job job(long id, String status) {
+        Job job = new Job();
+        job.setId(id);
+        job.setStatus(status);
+        return job;
+    }
+
+    private static Candidate candidate(long id) {
+        Candidate candidate = new Candidate();
+        candidate.setId(id);
+        candidate.setName("候选人" + id);
+        return candidate;
+    }
+
+    private static SearchResult hit(long candidateId) {
+        SearchResult hit = new SearchResult();
+        hit.setCandidateId(candidateId);
+        return hit;
+    }
+
+    private static Set<TypedTuple<String>> tuples(Object... memberAndScore) {
+        Set<TypedTuple<String>> set = new LinkedHashSet<>();
+        for (int i = 0; i < memberAndScore.length; i += 2) {
+            set.add(TypedTuple.of((String) memberAndScore[i], (Double) memberAndScore[i + 1]));
+        }
+        return set;
+    }
+
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+    // 全量重建
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+
+    @Nested
+    @DisplayName("全量重建")
+    class RebuildTests {
+
+        @Test
+        @DisplayName("召回 K × 倍数后按综合分取前 K，写临时 Key 后 RENAME 替换")
+        @SuppressWarnings("unchecked")
+        void shouldKeepTopKByCompositeScore() {
+            Job job = job(100L, JobStatus.PUBLISHED.getCode());
+            List<Candidate> pool = List.of(candidate(1L), candidate(2L), candidate(3L));
+            given(jobEmbeddingService.getJobEmbedding(job)).willReturn(vector);
+            given(vectorStoreService.search(vector, 8)).willReturn(List.of(hit(1L), hit(2L), hit(3L)));
+            given(candidateMapper.selectBatchIds(List.of(1L, 2L, 3L))).willReturn(pool);
+            given(vectorStoreService.getVectors(List.of(1L, 2L, 3L))).willReturn(Map.of());
+            given(matchScoreService.scoreCandidates(job, vector, pool, Map.of())).willReturn(Map.of(
+                    1L, new BigDecimal("60.00"), 2L, new BigDecimal("90.00"), 3L, new BigDecimal("75.00")));
+            given(redisTemplate.opsForZSet()).willReturn(zSetOperations);
+
+            assertThat(service.rebuild(job)).isEqualTo(2);
+
+            ArgumentCaptor<String> tempKey = ArgumentCaptor.forClass(String.class);
+            ArgumentCaptor<Set<TypedTuple<String>>> top = ArgumentCaptor.forClass(Set.class);
+            then(zSetOperations).should().add(tempKey.capture(), top.capture());
+            assertThat(tempKey.getValue()).startsWith(KEY + ":");
+            assertThat(top.getValue().stream().collect(Collectors.toMap(TypedTuple::getValue, TypedTuple::getScore)))
+                    .containsOnly(entry("2", 90.0), entry("3", 75.0));
+            then(redisTemplate).should().expire(tempKey.getValue(), 24, TimeUnit.HOURS);
+            then(redisTemplate).should().rename(tempKey.getValue(), KEY);
+        }
+
+        @Test
+        @DisplayName("职位未发布 - 清除列表且不生成职位向量")
+        void shouldEvictUnpublishedJob() {
+            assertThat(service.rebuild(job(100L, JobStatus.CLOSED.getCode()))).isZero();
+
+            then(redisTemplate).should().delete(KEY);
+            then(jobEmbeddingService).shouldHaveNoInteractions();
+        }
+    }
+
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+    // 读取
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+
+    @Nested
+    @DisplayName("读取")
+    class ReadTests {
+
+        @Test
+        @DisplayName("按分数倒序读取前 N 个，已删除的候选人从列表移除")
+        void shouldReadFromSortedSet() {
+            given(jobMapper.selectById(100L)).willReturn(job(100L, JobStatus.PUBLISHED.getCode()));
+            given(redisTemplate.opsForZSet()).willReturn(zSetOperations);
+            given(zSetOperations.reverseRangeWithScores(KEY, 0, 1)).willReturn(tuples("2", 90.0, "3", 75.0));
+            given(candidateMapper.selectBatchIds(List.of(2L, 3L))).willReturn(List.of(candidate(2L)));
+
+            List<RecommendedCandidate> result = service.getTopCandidates(100L, 5);
+
+            assertThat(result).singleElement().satisfies(item -> {
+                assertThat(item.getCandidateId()).isEqualTo(2L);
+                assertThat(item.getMatchScore()).isEqualTo(90.0);
+            });
+            then(zSetOperations).should().remove(KEY, "3");
+            then(jobEmbeddingService).shouldHaveNoInteractions();
+        }
+
+        @Test
+        @DisplayName("职位未发布 - 业务异常")
+        void shouldRejectUnpublishedJob() {
+            given(jobMapper.selectById(100L)).willReturn(job(100L, JobStatus.DRAFT.getCode()));
+
+            assertThatThrownBy(() -> service.getTopCandidates(100L, 5))
+                    .isInstanceOf(BusinessException.class)
+                    .extracting(e -> ((BusinessException) e).getCode())
+                    .isEqualTo(ResultCode.BAD_REQUEST.getCode());
+        }
+    }
+
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+    // 增量写入
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+
+    @Nested
+    @DisplayName("增量写入")
+    class OfferTests {
+
+        @Test
+        @DisplayName("只写入已物化的列表：列表已满且不高于最低分时跳过，否则写入并裁剪到 K")
+        void shouldAdmitIntoQualifyingLists() {
+            Candidate newcomer = candidate(9L);
+            Job full = job(10L, JobStatus.PUBLISHED.getCode());
+            Job notMaterialized = job(20L, JobStatus.PUBLISHED.getCode());
+            Job open = job(30L, JobStatus.PUBLISHED.getCode());
+            String fullKey = RedisKeyConstants.RECOMMEND_JOB_TOP_CANDIDATES_KEY_PREFIX + "10";
+            String openKey = RedisKeyConstants.RECOMMEND_JOB_TOP_CANDIDATES_KEY_PREFIX + "30";
+
+            given(jobMapper.selectList(any())).willReturn(List.of(full, notMaterialized, open));
+            given(jobVectorStoreService.getVectors(List.of(10L, 20L, 30L)))
+                    .willReturn(Map.of(10L, vector, 20L, vector, 30L, vector));
+            given(redisTemplate.hasKey(fullKey)).willReturn(true);
+            given(redisTemplate.hasKey(RedisKeyConstants.RECOMMEND_JOB_TOP_CANDIDATES_KEY_PREFIX + "20"))
+                    .willReturn(false);
+            given(redisTemplate.hasKey(openKey)).willReturn(true);
+            given(matchScoreService.scoreCandidates(eq(full), eq(vector), eq(List.of(newcomer)), anyMap()))
+                    .willReturn(Map.of(9L, new BigDecimal("85.00")));
+            given(matchScoreService.scoreCandidates(eq(open), eq(vector), eq(List.of(newcomer)), anyMap()))
+                    .willReturn(Map.of(9L, new BigDecimal("50.00")));
+            given(redisTemplate.opsForZSet()).willReturn(zSetOperations);
+            given(zSetOperations.zCard(fullKey)).willReturn(2L);
+            given(zSetOperations.rangeWithScores(fullKey, 0, 0)).willReturn(tuples("1", 90.0));
+            given(zSetOperations.zCard(openKey)).willReturn(1L);
+
+            assertThat(service.offerCandidate(newcomer, vector)).isEqualTo(1);
+
+            then(zSetOperations).should(never()).add(eq(fullKey), anyString(), anyDouble());
+            then(zSetOperations).should().add(openKey, "9", 50.0);
+            then(zSetOperations).should().removeRange(openKey, 0, -3L);
+            then(matchScoreService).should(never())
+                    .scoreCandidates(eq(notMaterialized), any(), anyList(), anyMap());
+        }
+
+        @Test
+        @DisplayName("候选人未向量化 - 跳过")
+        void shouldSkipWithoutVector() {
+            given(vectorStoreService.getVectors(List.of(9L))).willReturn(Map.of());
+
+            assertThat(service.offerCandidate(candidate(9L), null)).isZero();
+
+            then(jobMapper).shouldHaveNoInteractions();
+        }
+    }
+}
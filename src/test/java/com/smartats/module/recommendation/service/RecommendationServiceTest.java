@@ -0,0 +1,158 @@
+package com.smartats.module.recommendation.service;
+
+import com.smartats.common.enums.JobStatus;
+import com.smartats.common.exception.BusinessException;
+import com.smartats.common.result.ResultCode;
+import com.smartats.infrastructure.vector.JobVectorStoreService;
+import com.smartats.infrastructure.vector.JobVectorStoreService.JobSearchResult;
+import com.smartats.infrastructure.vector.VectorStoreService;
+import com.smartats.infrastructure.vector.VectorStoreService.SearchResult;
+import com.smartats.module.candidate.entity.Candidate;
+import com.smartats.module.candidate.mapper.CandidateMapper;
+import com.smartats.module.job.entity.Job;
+import com.smartats.module.job.mapper.JobMapper;
+import com.smartats.module.recommendation.dto.RecommendedCandidate;
+import com.smartats.module.recommendation.dto.RecommendedJob;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.*;
+
+/**
+ * RecommendationService 单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RecommendationService 单元测试")
+class RecommendationServiceTest {
+
+    @InjectMocks
+    private RecommendationService recommendationService;
+
+    @Mock
+    private VectorStoreService vectorStoreService;
+    @Mock
+    private JobVectorStoreService jobVectorStoreService;
+    @Mock
+    private JobMapper jobMapper;
+    @Mock
+    private CandidateMapper candidateMapper;
+
+    private final List<Float> vector = List.of(0.1f, 0.2f);
+
+    private static Job job(long id, String status) {
+        Job job = new Job();
+        job.setId(id);
+        job.setTitle("职位" + id);
+        job.setStatus(status);
+        return job;
+    }
+
+    private static Candidate candidate(long id) {
+        Candidate candidate = new Candidate();
+        candidate.setId(id);
+        candidate.setName("候选人" + id);
+        return candidate;
+    }
+
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+    // 为职位推荐候选人
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+
+    @Nested
+    @DisplayName("为职位推荐候选人")
+    class CandidatesForJobTests {
+
+        @Test
+        @DisplayName("用已存储的职位向量检索候选人，跳过已删除的候选人")
+        void shouldSearchWithStoredJobVector() {
+            given(jobMapper.selectById(100L)).willReturn(job(100L, JobStatus.DRAFT.getCode()));
+            given(jobVectorStoreService.getVectors(List.of(100L))).willReturn(Map.of(100L, vector));
+            SearchResult hit1 = new SearchResult();
+            hit1.setCandidateId(1L);
+            hit1.setScore(0.9f);
+            SearchResult hit2 = new SearchResult();
+            hit2.setCandidateId(2L);
+            hit2.setScore(0.8f);
+            given(vectorStoreService.search(vector, 20)).willReturn(List.of(hit1, hit2));
+            given(candidateMapper.selectBatchIds(List.of(1L, 2L))).willReturn(List.of(candidate(1L)));
+
+            List<RecommendedCandidate> result = recommendationService.recommendCandidates(100L, 20);
+
+            assertThat(result).extracting(RecommendedCandidate::getCandidateId).containsExactly(1L);
+            assertThat(result.get(0).getMatchScore()).isCloseTo(0.9, within(1e-6));
+        }
+
+        @Test
+        @DisplayName("职位向量未生成时抛出 VECTOR_NOT_READY")
+        void shouldFailWhenJobVectorMissing() {
+            given(jobMapper.selectById(100L)).willReturn(job(100L, JobStatus.PUBLISHED.getCode()));
+            given(jobVectorStoreService.getVectors(List.of(100L))).willReturn(Map.of());
+
+            assertThatThrownBy(() -> recommendationService.recommendCandidates(100L, 10))
+                    .isInstanceOf(BusinessException.class)
+                    .extracting("code").isEqualTo(ResultCode.VECTOR_NOT_READY.getCode());
+            then(vectorStoreService).shouldHaveNoInteractions();
+        }
+
+        @Test
+        @DisplayName("非法 topN 按默认 10 处理")
+        void shouldClampTopN() {
+            given(jobMapper.selectById(100L)).willReturn(job(100L, JobStatus.PUBLISHED.getCode()));
+            given(jobVectorStoreService.getVectors(List.of(100L))).willReturn(Map.of(100L, vector));
+            given(vectorStoreService.search(vector, 10)).willReturn(List.of());
+
+            assertThat(recommendationService.recommendCandidates(100L, 1000)).isEmpty();
+        }
+    }
+
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+    // 为候选人推荐职位
+    // ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+
+    @Nested
+    @DisplayName("为候选人推荐职位")
+    class JobsForCandidateTests {
+
+        @Test
+        @DisplayName("只在已发布职位中检索，并以数据库状态为准过滤")
+        void shouldOnlyReturnPublishedJobs() {
+            given(candidateMapper.selectById(1L)).willReturn(candidate(1L));
+            given(vectorStoreService.getVectors(List.of(1L))).willReturn(Map.of(1L, vector));
+            JobSearchResult hit1 = new JobSearchResult();
+            hit1.setJobId(100L);
+            hit1.setScore(0.9f);
+            JobSearchResult hit2 = new JobSearchResult();
+            hit2.setJobId(101L);
+            hit2.setScore(0.7f);
+            given(jobVectorStoreService.search(vector, 10, JobStatus.PUBLISHED.getCode()))
+                    .willReturn(List.of(hit1, hit2));
+            given(jobMapper.selectBatchIds(List.of(100L, 101L)))
+                    .willReturn(List.of(job(100L, JobStatus.PUBLISHED.getCode()), job(101L, JobStatus.CLOSED.getCode())));
+
+            List<RecommendedJob> result = recommendationService.recommendJobs(1L, 10);
+
+            assertThat(result).extracting(RecommendedJob::getJobId).containsExactly(100L);
+        }
+
+        @Test
+        @DisplayName("候选人不存在时抛出 NOT_FOUND")
+        void shouldFailWhenCandidateMissing() {
+            given(candidateMapper.selectById(1L)).willReturn(null);
+
+            assertThatThrownBy(() -> recommendationService.recommendJobs(1L, 10))
+                    .isInstanceOf(BusinessException.class)
+                    .extracting("code").isEqualTo(ResultCode.NOT_FOUND.getCode());
+            then(jobVectorStoreService).should(never()).search(anyList(), anyInt(), anyString());
+        }
+    }
+}